@@ -0,0 +1,99 @@
+package com.taxi.common.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps a client on the primary for a short window after it writes,
+ * so it never reads an older copy of its own change from a lagging replica.
+ * A request can also ask for the primary explicitly with "X-Read-Consistency: primary".
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String CONSISTENCY_HEADER = "X-Read-Consistency";
+
+    private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    private final long windowMillis;
+    private final Map<String, Long> lastWriteByClient = new ConcurrentHashMap<>();
+
+    public ReadYourWritesFilter(int windowSeconds) {
+        this.windowMillis = windowSeconds * 1000L;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        String client = clientKey(request);
+        boolean primaryOnly = "primary".equalsIgnoreCase(request.getHeader(CONSISTENCY_HEADER))
+                || wroteRecently(client);
+
+        ReplicaRoutingDataSource.setPrimaryOnly(primaryOnly);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.setPrimaryOnly(false);
+            if (windowMillis > 0 && WRITE_METHODS.contains(request.getMethod())
+                    && response.getStatus() < 400) {
+                lastWriteByClient.put(client, System.currentTimeMillis());
+            }
+        }
+    }
+
+    /**
+     * Drop clients whose window has passed
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void evictExpired() {
+        long cutoff = System.currentTimeMillis() - windowMillis;
+        lastWriteByClient.values().removeIf(lastWrite -> lastWrite < cutoff);
+    }
+
+    private boolean wroteRecently(String client) {
+        Long lastWrite = lastWriteByClient.get(client);
+        return lastWrite != null && System.currentTimeMillis() - lastWrite < windowMillis;
+    }
+
+    /**
+     * The authenticated user, else a hash of the bearer token (so no live token sits
+     * in the map), else the caller's address
+     */
+    static String clientKey(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null && principal.getName() != null) {
+            return "user:" + principal.getName();
+        }
+        String authorization = request.getHeader("Authorization");
+        if (authorization != null && !authorization.isBlank()) {
+            return "token:" + sha256(authorization);
+        }
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (forwardedFor != null && !forwardedFor.isBlank()) {
+            return "addr:" + forwardedFor.split(",")[0].trim();
+        }
+        return "addr:" + request.getRemoteAddr();
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
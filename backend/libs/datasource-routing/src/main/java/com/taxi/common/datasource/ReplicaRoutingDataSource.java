@@ -0,0 +1,132 @@
+package com.taxi.common.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataSource that sends read-only transactions to a healthy replica
+ * and everything else (writes, non-transactional work) to the primary.
+ * Must be wrapped in a LazyConnectionDataSourceProxy so the connection is
+ * only fetched once the transaction's read-only flag is known.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final Map<String, DataSource> replicas;
+    private final List<String> replicaNames;
+    private final Set<String> unhealthy = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger next = new AtomicInteger();
+    private final int validationTimeoutSeconds;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+            int validationTimeoutSeconds) {
+        this.primary = primary;
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.replicaNames = List.copyOf(this.replicas.keySet());
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+    }
+
+    /**
+     * Pin the current thread to the primary (read-your-writes, explicit consistency requests)
+     */
+    public static void setPrimaryOnly(boolean primaryOnly) {
+        if (primaryOnly) {
+            PRIMARY_ONLY.set(Boolean.TRUE);
+        } else {
+            PRIMARY_ONLY.remove();
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        String replica = selectReplica();
+        if (replica == null) {
+            return primary.getConnection();
+        }
+        log.debug("Routing read-only connection to {}", replica);
+        try {
+            return replicas.get(replica).getConnection();
+        } catch (SQLException e) {
+            markUnhealthy(replica, e.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * Validate every replica, taking failed ones out of rotation and restoring recovered ones
+     */
+    @Scheduled(fixedDelayString = "${taxi.datasource.routing.health-check-interval-ms:10000}")
+    public void checkReplicas() {
+        replicas.forEach((name, dataSource) -> {
+            try (Connection connection = dataSource.getConnection()) {
+                if (connection.isValid(validationTimeoutSeconds)) {
+                    if (unhealthy.remove(name)) {
+                        log.info("Replica {} is healthy again, resuming reads", name);
+                    }
+                } else {
+                    markUnhealthy(name, "validation failed");
+                }
+            } catch (SQLException e) {
+                markUnhealthy(name, e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource dataSource : replicas.values()) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+        if (primary instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    /**
+     * Round-robin over healthy replicas; null means use the primary
+     */
+    private String selectReplica() {
+        if (replicaNames.isEmpty()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || Boolean.TRUE.equals(PRIMARY_ONLY.get())) {
+            return null;
+        }
+        int size = replicaNames.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            String name = replicaNames.get((start + i) % size);
+            if (!unhealthy.contains(name)) {
+                return name;
+            }
+        }
+        return null;
+    }
+
+    private void markUnhealthy(String name, String reason) {
+        if (unhealthy.add(name)) {
+            log.warn("Replica {} is unavailable, reading from primary: {}", name, reason);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.taxi.common.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-replica routing settings (taxi.datasource.routing.*)
+ * The primary is still configured through spring.datasource
+ */
+@Data
+@ConfigurationProperties(prefix = "taxi.datasource.routing")
+public class ReplicaRoutingProperties {
+
+    private boolean enabled = false;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    // Seconds a client keeps reading from the primary after its own write; 0 disables
+    private int readYourWritesSeconds = 5;
+
+    private long healthCheckIntervalMs = 10000;
+
+    private int healthCheckTimeoutSeconds = 2;
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
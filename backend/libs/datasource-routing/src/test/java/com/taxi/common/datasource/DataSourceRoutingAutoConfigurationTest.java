@@ -0,0 +1,56 @@
+package com.taxi.common.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DataSourceRoutingAutoConfigurationTest {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(
+                    DataSourceRoutingAutoConfiguration.class, DataSourceAutoConfiguration.class))
+            .withPropertyValues("spring.datasource.url=jdbc:h2:mem:routing;DB_CLOSE_DELAY=-1");
+
+    @Test
+    void leavesBootsDataSourceAloneUnlessEnabled() {
+        runner.run(context -> {
+            assertThat(context).doesNotHaveBean(ReplicaRoutingDataSource.class);
+            assertThat(context.getBean(DataSource.class)).isInstanceOf(HikariDataSource.class);
+        });
+    }
+
+    @Test
+    void routesThroughALazyProxyWithHikariSettingsOnThePrimary() {
+        runner.withPropertyValues(
+                        "taxi.datasource.routing.enabled=true",
+                        "taxi.datasource.routing.replicas[0].url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+                        "taxi.datasource.routing.replicas[0].maximum-pool-size=3",
+                        "spring.datasource.hikari.maximum-pool-size=7",
+                        "spring.datasource.hikari.connection-timeout=4000")
+                .run(context -> {
+                    assertThat(context.getBean(DataSource.class)).isInstanceOf(LazyConnectionDataSourceProxy.class);
+
+                    ReplicaRoutingDataSource routing = context.getBean(ReplicaRoutingDataSource.class);
+                    HikariDataSource primary = (HikariDataSource) ReflectionTestUtils.getField(routing, "primary");
+                    assertThat(primary.getPoolName()).isEqualTo("primary");
+                    assertThat(primary.getMaximumPoolSize()).isEqualTo(7);
+                    assertThat(primary.getConnectionTimeout()).isEqualTo(4000);
+
+                    @SuppressWarnings("unchecked")
+                    Map<String, DataSource> replicas =
+                            (Map<String, DataSource>) ReflectionTestUtils.getField(routing, "replicas");
+                    HikariDataSource replica = (HikariDataSource) replicas.get("replica-1");
+                    assertThat(replica.getMaximumPoolSize()).isEqualTo(3);
+                    assertThat(replica.isReadOnly()).isTrue();
+                });
+    }
+}
@@ -0,0 +1,145 @@
+package com.taxi.common.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.security.Principal;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class ReadYourWritesFilterTest {
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private ReplicaRoutingDataSource routing;
+    private ReadYourWritesFilter filter;
+    private final List<Connection> reads = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        routing = new ReplicaRoutingDataSource(primary, Map.of("replica-1", replica), 1);
+        filter = new ReadYourWritesFilter(5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void clientReadsItsOwnWritesFromThePrimary() throws Exception {
+        read("Bearer alice");
+        write("Bearer alice", 201);
+        read("Bearer alice");
+        read("Bearer bob");
+
+        assertThat(reads).containsExactly(replicaConnection, primaryConnection, replicaConnection);
+    }
+
+    @Test
+    void failedWriteDoesNotPinTheClient() throws Exception {
+        write("Bearer alice", 400);
+        read("Bearer alice");
+
+        assertThat(reads).containsExactly(replicaConnection);
+    }
+
+    @Test
+    void clientCanAskForThePrimary() throws Exception {
+        MockHttpServletRequest request = request("GET", "Bearer alice");
+        request.addHeader(ReadYourWritesFilter.CONSISTENCY_HEADER, "primary");
+        filter.doFilter(request, new MockHttpServletResponse(), readChain());
+        read("Bearer alice");
+
+        assertThat(reads).containsExactly(primaryConnection, replicaConnection);
+    }
+
+    @Test
+    void zeroWindowNeverPins() throws Exception {
+        filter = new ReadYourWritesFilter(0);
+        write("Bearer alice", 200);
+        read("Bearer alice");
+
+        assertThat(reads).containsExactly(replicaConnection);
+    }
+
+    @Test
+    void keysClientsByPrincipalThenTokenHashThenAddress() {
+        MockHttpServletRequest authenticated = request("GET", "Bearer secret-token");
+        Principal alice = () -> "alice";
+        authenticated.setUserPrincipal(alice);
+        assertThat(ReadYourWritesFilter.clientKey(authenticated)).isEqualTo("user:alice");
+
+        String tokenKey = ReadYourWritesFilter.clientKey(request("GET", "Bearer secret-token"));
+        assertThat(tokenKey).startsWith("token:").doesNotContain("secret-token");
+        assertThat(ReadYourWritesFilter.clientKey(request("GET", "Bearer secret-token"))).isEqualTo(tokenKey);
+        assertThat(ReadYourWritesFilter.clientKey(request("GET", "Bearer other-token"))).isNotEqualTo(tokenKey);
+
+        MockHttpServletRequest forwarded = request("GET", null);
+        forwarded.addHeader("X-Forwarded-For", "203.0.113.7, 10.0.0.1");
+        assertThat(ReadYourWritesFilter.clientKey(forwarded)).isEqualTo("addr:203.0.113.7");
+    }
+
+    @Test
+    void forgetsClientsOnceTheirWindowPasses() throws Exception {
+        filter = new ReadYourWritesFilter(-1);
+        write("Bearer alice", 200);
+        filter.evictExpired();
+
+        filter = new ReadYourWritesFilter(5);
+        read("Bearer alice");
+        assertThat(reads).containsExactly(replicaConnection);
+    }
+
+    // ==================== PRIVATE HELPER METHODS ====================
+
+    private void read(String authorization) throws Exception {
+        filter.doFilter(request("GET", authorization), new MockHttpServletResponse(), readChain());
+    }
+
+    private void write(String authorization, int status) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("POST", authorization), response,
+                (req, res) -> ((HttpServletResponse) res).setStatus(status));
+    }
+
+    /**
+     * A request that runs one read-only transaction
+     */
+    private FilterChain readChain() {
+        return (req, res) -> {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            try {
+                reads.add(routing.getConnection());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            } finally {
+                TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+            }
+        };
+    }
+
+    private static MockHttpServletRequest request(String method, String authorization) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/bookings");
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,40 @@
+package com.taxi.common.web;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * CBOR for other services that ask for it with Accept: application/cbor.
+ * The mapper comes from Boot's Jackson2ObjectMapperBuilder, so spring.jackson.*
+ * applies to CBOR as it does to JSON.
+ */
+@AutoConfiguration(after = JacksonAutoConfiguration.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnClass({CBORFactory.class, WebMvcConfigurer.class})
+public class CborConverterAutoConfiguration {
+
+    @Bean
+    public WebMvcConfigurer cborMessageConverterConfigurer(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        return new WebMvcConfigurer() {
+
+            /**
+             * Added last so browsers and wildcard Accept headers keep getting JSON.
+             */
+            @Override
+            public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+                converters.add(new MappingJackson2CborHttpMessageConverter(
+                        objectMapperBuilder.factory(new CBORFactory()).build()));
+            }
+        };
+    }
+}
@@ -0,0 +1,58 @@
+package com.taxi.common.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CborConverterAutoConfigurationTest {
+
+    private static final AutoConfigurations CONFIGURATIONS = AutoConfigurations.of(
+            CborConverterAutoConfiguration.class, JacksonAutoConfiguration.class,
+            HttpMessageConvertersAutoConfiguration.class, WebMvcAutoConfiguration.class);
+
+    @Test
+    void addsCborAfterJson() {
+        new WebApplicationContextRunner()
+                .withConfiguration(CONFIGURATIONS)
+                .run(context -> {
+                    List<HttpMessageConverter<?>> converters =
+                            context.getBean(RequestMappingHandlerAdapter.class).getMessageConverters();
+
+                    int json = indexOf(converters, MappingJackson2HttpMessageConverter.class);
+                    int cbor = indexOf(converters, MappingJackson2CborHttpMessageConverter.class);
+                    assertThat(json).isNotNegative();
+                    assertThat(cbor).isGreaterThan(json);
+                });
+    }
+
+    @Test
+    void staysOutOfNonWebApplications() {
+        new ApplicationContextRunner()
+                .withConfiguration(CONFIGURATIONS)
+                .run(context -> assertThat(context).doesNotHaveBean(WebMvcConfigurer.class));
+    }
+
+    // ==================== PRIVATE HELPER METHODS ====================
+
+    private static int indexOf(List<HttpMessageConverter<?>> converters, Class<?> type) {
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i).getClass() == type) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
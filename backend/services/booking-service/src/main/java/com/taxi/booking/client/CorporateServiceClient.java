@@ -11,7 +11,7 @@ import java.util.List;
 /**
  * Feign client for communicating with Corporate Service
  */
-@FeignClient(name = "corporate-service")
+@FeignClient(name = "corporate-service", fallbackFactory = CorporateServiceClientFallback.class)
 public interface CorporateServiceClient {
     @GetMapping("/api/corporates/{id}")
     CorporateResponse getCorporateById(@PathVariable("id") Integer id);
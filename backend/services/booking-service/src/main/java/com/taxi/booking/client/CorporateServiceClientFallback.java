@@ -0,0 +1,34 @@
+package com.taxi.booking.client;
+
+import com.taxi.booking.dto.response.CorporateResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.openfeign.FallbackFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Fallback for Corporate Service Client
+ * Serves the last known value while Corporate Service is failing or its circuit is open
+ */
+@Component
+@RequiredArgsConstructor
+public class CorporateServiceClientFallback implements FallbackFactory<CorporateServiceClient> {
+
+    private final LastKnownValueCache cache;
+
+    @Override
+    public CorporateServiceClient create(Throwable cause) {
+        return new CorporateServiceClient() {
+            @Override
+            public CorporateResponse getCorporateById(Integer id) {
+                return cache.lastKnown(CorporateServiceClient.class, "getCorporateById", cause, id);
+            }
+
+            @Override
+            public List<CorporateResponse> getAllCorporates() {
+                return cache.lastKnown(CorporateServiceClient.class, "getAllCorporates", cause);
+            }
+        };
+    }
+}
@@ -2,6 +2,7 @@ package com.taxi.booking.client;
 
 import com.taxi.booking.dto.response.ApiResponse;
 import com.taxi.booking.dto.response.DriverResponse;
+import com.taxi.booking.dto.response.PagedResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -11,13 +12,36 @@ import java.util.List;
 
 /**
  * Feign client for communicating with Driver Service
+ * Calls that decide whether a driver may be dispatched are never answered from the
+ * last-known cache; a stale record would still show a since blocked driver as active.
  */
-@FeignClient(name = "driver-service")
+@FeignClient(name = "driver-service", fallbackFactory = DriverServiceClientFallback.class)
 public interface DriverServiceClient {
     @GetMapping("/api/drivers/{id}")
     DriverResponse getDriverById(@PathVariable("id") Integer id);
 
+    // Same as getDriverById but never answered from the last-known cache,
+    // for checking the driver may be dispatched
+    @GetMapping("/api/drivers/{id}")
+    DriverResponse getCurrentDriver(@PathVariable("id") Integer id);
+
     @GetMapping("/api/drivers")
     List<DriverResponse> getAllDrivers(
             @RequestParam(name = "activeOnly", required = false, defaultValue = "true") Boolean activeOnly);
+
+    @GetMapping("/api/drivers/batch")
+    List<DriverResponse> getDriversByIds(@RequestParam("ids") List<Integer> ids);
+
+    // Same as getDriversByIds but never answered from the last-known cache,
+    // for picking dispatch candidates
+    @GetMapping("/api/drivers/batch")
+    List<DriverResponse> getCurrentDriversByIds(@RequestParam("ids") List<Integer> ids);
+
+    /**
+     * Active, unblocked drivers open to automatic dispatch, best rated first
+     * Never answered from the last-known cache.
+     */
+    @GetMapping("/api/drivers/available")
+    PagedResponse<DriverResponse> getAvailableDrivers(
+            @RequestParam("page") int page, @RequestParam("size") int size);
 }
\ No newline at end of file
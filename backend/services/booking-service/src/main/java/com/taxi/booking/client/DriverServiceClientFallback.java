@@ -0,0 +1,56 @@
+package com.taxi.booking.client;
+
+import com.taxi.booking.dto.response.DriverResponse;
+import com.taxi.booking.dto.response.PagedResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.openfeign.FallbackFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Fallback for Driver Service Client
+ * Serves the last known value while Driver Service is failing or its circuit is open,
+ * except for the calls dispatch eligibility is decided on, which fail
+ */
+@Component
+@RequiredArgsConstructor
+public class DriverServiceClientFallback implements FallbackFactory<DriverServiceClient> {
+
+    private final LastKnownValueCache cache;
+
+    @Override
+    public DriverServiceClient create(Throwable cause) {
+        return new DriverServiceClient() {
+            @Override
+            public DriverResponse getDriverById(Integer id) {
+                return cache.lastKnown(DriverServiceClient.class, "getDriverById", cause, id);
+            }
+
+            @Override
+            public DriverResponse getCurrentDriver(Integer id) {
+                throw cache.failure(DriverServiceClient.class, cause);
+            }
+
+            @Override
+            public List<DriverResponse> getAllDrivers(Boolean activeOnly) {
+                return cache.lastKnown(DriverServiceClient.class, "getAllDrivers", cause, activeOnly);
+            }
+
+            @Override
+            public List<DriverResponse> getDriversByIds(List<Integer> ids) {
+                return cache.lastKnown(DriverServiceClient.class, "getDriversByIds", cause, ids);
+            }
+
+            @Override
+            public List<DriverResponse> getCurrentDriversByIds(List<Integer> ids) {
+                throw cache.failure(DriverServiceClient.class, cause);
+            }
+
+            @Override
+            public PagedResponse<DriverResponse> getAvailableDrivers(int page, int size) {
+                throw cache.failure(DriverServiceClient.class, cause);
+            }
+        };
+    }
+}
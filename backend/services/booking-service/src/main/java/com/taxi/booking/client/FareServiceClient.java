@@ -1,21 +1,42 @@
 package com.taxi.booking.client;
 
+import com.taxi.booking.dto.request.FareQuoteRequest;
 import com.taxi.booking.dto.response.ApiResponse;
+import com.taxi.booking.dto.response.FareQuoteResponse;
 import com.taxi.booking.dto.response.FareSchemeResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
 import java.util.List;
 
 /**
  * Feign client for communicating with Fare Service
  */
-@FeignClient(name = "fare-promo-service", contextId = "fareServiceClient")
+@FeignClient(name = "fare-promo-service", contextId = "fareServiceClient",
+        fallbackFactory = FareServiceClientFallback.class)
 public interface FareServiceClient {
     @GetMapping("/api/fare-schemes/{id}")
     FareSchemeResponse getFareSchemeById(@PathVariable("id") Integer id);
 
+    // Same as getFareSchemeById but never answered from the last-known cache,
+    // for the version a booking is priced with
+    @GetMapping("/api/fare-schemes/{id}")
+    FareSchemeResponse getCurrentFareScheme(@PathVariable("id") Integer id);
+
+    @GetMapping("/api/fare-schemes/{id}/versions/{version}")
+    FareSchemeResponse getFareSchemeVersion(@PathVariable("id") Integer id,
+            @PathVariable("version") Integer version);
+
     @GetMapping("/api/fare-schemes")
     List<FareSchemeResponse> getAllFareSchemes();
+
+    @PostMapping("/api/fare-schemes/{id}/quote")
+    FareQuoteResponse quote(@PathVariable("id") Integer id, @RequestBody FareQuoteRequest request);
+
+    @PostMapping("/api/fare-schemes/{id}/versions/{version}/quote")
+    FareQuoteResponse quoteVersion(@PathVariable("id") Integer id,
+            @PathVariable("version") Integer version, @RequestBody FareQuoteRequest request);
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+package com.taxi.booking.client;
+
+import com.taxi.booking.dto.request.FareQuoteRequest;
+import com.taxi.booking.dto.response.FareQuoteResponse;
+import com.taxi.booking.dto.response.FareSchemeResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.openfeign.FallbackFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Fallback for Fare Service Client
+ * Serves the last known value while Fare Service is failing or its circuit is open;
+ * quotes have none and come back empty, and the current scheme is never served stale
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FareServiceClientFallback implements FallbackFactory<FareServiceClient> {
+
+    private final LastKnownValueCache cache;
+
+    @Override
+    public FareServiceClient create(Throwable cause) {
+        return new FareServiceClient() {
+            @Override
+            public FareSchemeResponse getFareSchemeById(Integer id) {
+                return cache.lastKnown(FareServiceClient.class, "getFareSchemeById", cause, id);
+            }
+
+            @Override
+            public FareSchemeResponse getCurrentFareScheme(Integer id) {
+                throw cache.failure(FareServiceClient.class, cause);
+            }
+
+            @Override
+            public FareSchemeResponse getFareSchemeVersion(Integer id, Integer version) {
+                return cache.lastKnown(FareServiceClient.class, "getFareSchemeVersion", cause, id, version);
+            }
+
+            @Override
+            public List<FareSchemeResponse> getAllFareSchemes() {
+                return cache.lastKnown(FareServiceClient.class, "getAllFareSchemes", cause);
+            }
+
+            @Override
+            public FareQuoteResponse quote(Integer id, FareQuoteRequest request) {
+                log.warn("Fare Service unavailable, fare scheme {} not quoted: {}", id, cause.getMessage());
+                return null;
+            }
+
+            @Override
+            public FareQuoteResponse quoteVersion(Integer id, Integer version, FareQuoteRequest request) {
+                log.warn("Fare Service unavailable, fare scheme {} v{} not quoted: {}",
+                        id, version, cause.getMessage());
+                return null;
+            }
+        };
+    }
+}
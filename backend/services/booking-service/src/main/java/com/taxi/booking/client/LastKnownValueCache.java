@@ -0,0 +1,100 @@
+package com.taxi.booking.client;
+
+import feign.FeignException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Last successful result of each Feign client call, keyed by client, method and arguments
+ * Used by the client fallbacks to serve stale values while a downstream service is failing.
+ *
+ * Bounded: once full, existing keys keep being refreshed but new keys are not added.
+ * Callers that must not treat a stale answer as current can tell them apart with {@link #track}.
+ */
+@Component
+@Slf4j
+public class LastKnownValueCache {
+
+    private static final int MAX_ENTRIES = 20_000;
+
+    private final ConcurrentMap<Key, Object> values = new ConcurrentHashMap<>();
+
+    // Fallbacks run on the calling thread (no TimeLimiter), so the flag follows the call
+    private final ThreadLocal<Boolean> servedStale = ThreadLocal.withInitial(() -> false);
+
+    public void put(Class<?> client, String method, Object[] args, Object value) {
+        if (value == null) {
+            return;
+        }
+        Key key = new Key(client.getSimpleName(), method, argsOf(args));
+        if (values.size() >= MAX_ENTRIES) {
+            values.computeIfPresent(key, (k, old) -> value);
+            return;
+        }
+        values.put(key, value);
+    }
+
+    /**
+     * Returns the last known value for a failed call.
+     * Client errors (4xx) are rethrown unchanged so "not found" keeps its meaning;
+     * if nothing is cached the original failure is rethrown.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T lastKnown(Class<?> client, String method, Throwable cause, Object... args) {
+        if (cause instanceof FeignException feignException
+                && feignException.status() >= 400 && feignException.status() < 500) {
+            throw feignException;
+        }
+
+        Object value = values.get(new Key(client.getSimpleName(), method, argsOf(args)));
+        if (value != null) {
+            log.warn("{}.{} failed ({}), serving last known value",
+                    client.getSimpleName(), method, cause.getMessage());
+            servedStale.set(true);
+            return (T) value;
+        }
+
+        throw failure(client, cause);
+    }
+
+    /**
+     * The failure to raise for a call that must not be answered from the cache
+     */
+    public RuntimeException failure(Class<?> client, Throwable cause) {
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new RuntimeException(client.getSimpleName() + " unavailable: " + cause.getMessage(), cause);
+    }
+
+    /**
+     * Run a client call, noting whether its answer was a last known value
+     */
+    public <T> Served<T> track(Supplier<T> call) {
+        boolean outer = servedStale.get();
+        servedStale.set(false);
+        try {
+            T value = call.get();
+            return new Served<>(value, servedStale.get());
+        } finally {
+            // An enclosing track() also counts a stale answer given inside it
+            servedStale.set(outer || servedStale.get());
+        }
+    }
+
+    private static List<Object> argsOf(Object[] args) {
+        return args == null ? List.of() : Arrays.asList(args.clone());
+    }
+
+    public record Served<T>(T value, boolean stale) {
+    }
+
+    private record Key(String client, String method, List<Object> args) {
+    }
+}
@@ -9,7 +9,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 /**
  * Feign client for Mail Service
  */
-@FeignClient(name = "mail-service")
+@FeignClient(name = "mail-service", fallbackFactory = MailServiceClientFallback.class)
 public interface MailServiceClient {
     @PostMapping("/api/emails/send")
     EmailResponse sendEmail(@RequestBody SendEmailRequest request);
@@ -0,0 +1,25 @@
+package com.taxi.booking.client;
+
+import com.taxi.booking.dto.request.SendEmailRequest;
+import com.taxi.booking.dto.response.EmailResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.openfeign.FallbackFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fallback for Mail Service Client
+ * Notifications are best effort, so a failed send is logged and reported as unsuccessful
+ */
+@Component
+@Slf4j
+public class MailServiceClientFallback implements FallbackFactory<MailServiceClient> {
+
+    @Override
+    public MailServiceClient create(Throwable cause) {
+        return request -> {
+            log.warn("Mail Service unavailable, email for booking {} not sent: {}",
+                    request.getBookingId(), cause.getMessage());
+            return new EmailResponse(false, "Mail service unavailable", null);
+        };
+    }
+}
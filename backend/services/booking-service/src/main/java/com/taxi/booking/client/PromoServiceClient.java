@@ -9,7 +9,8 @@ import org.springframework.web.bind.annotation.PathVariable;
 /**
  * Feign client for communicating with Fare-Promo Service
  */
-@FeignClient(name = "fare-promo-service", contextId = "promoServiceClient")
+@FeignClient(name = "fare-promo-service", contextId = "promoServiceClient",
+        fallbackFactory = PromoServiceClientFallback.class)
 public interface PromoServiceClient {
     @GetMapping("/api/promo-codes/{id}")
     PromoCodeResponse getPromoCodeById(@PathVariable("id") Integer id);
@@ -0,0 +1,32 @@
+package com.taxi.booking.client;
+
+import com.taxi.booking.dto.response.PromoCodeResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.openfeign.FallbackFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fallback for Promo Service Client
+ * Serves the last known value while Promo Service is failing or its circuit is open
+ */
+@Component
+@RequiredArgsConstructor
+public class PromoServiceClientFallback implements FallbackFactory<PromoServiceClient> {
+
+    private final LastKnownValueCache cache;
+
+    @Override
+    public PromoServiceClient create(Throwable cause) {
+        return new PromoServiceClient() {
+            @Override
+            public PromoCodeResponse getPromoCodeById(Integer id) {
+                return cache.lastKnown(PromoServiceClient.class, "getPromoCodeById", cause, id);
+            }
+
+            @Override
+            public PromoCodeResponse getPromoCodeByCode(String code) {
+                return cache.lastKnown(PromoServiceClient.class, "getPromoCodeByCode", cause, code);
+            }
+        };
+    }
+}
@@ -5,12 +5,21 @@ import com.taxi.booking.dto.response.UserResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
 
 /**
  * Feign client for communicating with User Service
  */
-@FeignClient(name = "user-service")
+@FeignClient(name = "user-service", fallbackFactory = UserServiceClientFallback.class)
 public interface UserServiceClient {
     @GetMapping("/api/users/{id}")
     UserResponse getUserById(@PathVariable("id") Integer id);
+
+    @GetMapping("/api/users")
+    List<UserResponse> getAllUsers();
+
+    @GetMapping("/api/users/batch")
+    List<UserResponse> getUsersByIds(@RequestParam("ids") List<Integer> ids);
 }
\ No newline at end of file
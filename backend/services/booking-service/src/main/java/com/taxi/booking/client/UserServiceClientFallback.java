@@ -0,0 +1,39 @@
+package com.taxi.booking.client;
+
+import com.taxi.booking.dto.response.UserResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.openfeign.FallbackFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Fallback for User Service Client
+ * Serves the last known value while User Service is failing or its circuit is open
+ */
+@Component
+@RequiredArgsConstructor
+public class UserServiceClientFallback implements FallbackFactory<UserServiceClient> {
+
+    private final LastKnownValueCache cache;
+
+    @Override
+    public UserServiceClient create(Throwable cause) {
+        return new UserServiceClient() {
+            @Override
+            public UserResponse getUserById(Integer id) {
+                return cache.lastKnown(UserServiceClient.class, "getUserById", cause, id);
+            }
+
+            @Override
+            public List<UserResponse> getAllUsers() {
+                return cache.lastKnown(UserServiceClient.class, "getAllUsers", cause);
+            }
+
+            @Override
+            public List<UserResponse> getUsersByIds(List<Integer> ids) {
+                return cache.lastKnown(UserServiceClient.class, "getUsersByIds", cause, ids);
+            }
+        };
+    }
+}
@@ -12,7 +12,7 @@ import java.util.List;
 /**
  * Feign client for communicating with Vehicle Service
  */
-@FeignClient(name = "vehicle-service")
+@FeignClient(name = "vehicle-service", fallbackFactory = VehicleServiceClientFallback.class)
 public interface VehicleServiceClient {
     @GetMapping("/api/vehicle-classes/{id}")
     VehicleClassResponse getVehicleClassById(@PathVariable("id") Integer id);
@@ -0,0 +1,45 @@
+package com.taxi.booking.client;
+
+import com.taxi.booking.dto.response.VehicleClassResponse;
+import com.taxi.booking.dto.response.VehicleResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.openfeign.FallbackFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Fallback for Vehicle Service Client
+ * Serves the last known value while Vehicle Service is failing or its circuit is open
+ */
+@Component
+@RequiredArgsConstructor
+public class VehicleServiceClientFallback implements FallbackFactory<VehicleServiceClient> {
+
+    private final LastKnownValueCache cache;
+
+    @Override
+    public VehicleServiceClient create(Throwable cause) {
+        return new VehicleServiceClient() {
+            @Override
+            public VehicleClassResponse getVehicleClassById(Integer id) {
+                return cache.lastKnown(VehicleServiceClient.class, "getVehicleClassById", cause, id);
+            }
+
+            @Override
+            public List<VehicleClassResponse> getAllVehicleClasses() {
+                return cache.lastKnown(VehicleServiceClient.class, "getAllVehicleClasses", cause);
+            }
+
+            @Override
+            public VehicleResponse getVehicleById(Integer id) {
+                return cache.lastKnown(VehicleServiceClient.class, "getVehicleById", cause, id);
+            }
+
+            @Override
+            public List<VehicleResponse> getAllVehicles() {
+                return cache.lastKnown(VehicleServiceClient.class, "getAllVehicles", cause);
+            }
+        };
+    }
+}
@@ -0,0 +1,18 @@
+package com.taxi.booking.config;
+
+import com.taxi.booking.enums.BookingStatus;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks a GET endpoint whose response only changes when bookings in the given
+ * statuses change (all bookings when empty). Such endpoints get a weak ETag and
+ * answer a matching If-None-Match with 304 before the handler runs.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface BookingEtag {
+
+    BookingStatus[] value() default {};
+}
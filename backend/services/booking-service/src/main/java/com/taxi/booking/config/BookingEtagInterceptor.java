@@ -0,0 +1,47 @@
+package com.taxi.booking.config;
+
+import com.taxi.booking.service.BookingChangeTracker;
+import com.taxi.booking.service.ZoneService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.Arrays;
+
+/**
+ * Conditional GET for @BookingEtag endpoints.
+ * The ETag is taken before the handler reads any data, so a change racing with
+ * the read only makes the next poll download again; it never hides a change.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingEtagInterceptor implements HandlerInterceptor {
+
+    private final BookingChangeTracker changeTracker;
+    private final ZoneService zoneService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)
+                || !HttpMethod.GET.matches(request.getMethod())) {
+            return true;
+        }
+        BookingEtag bookingEtag = handlerMethod.getMethodAnnotation(BookingEtag.class);
+        if (bookingEtag == null) {
+            return true;
+        }
+
+        String etag = changeTracker.etag(Arrays.asList(bookingEtag.value()),
+                zoneService.getLoadedVersion());
+        // Allow caching but always revalidate (Spring Security defaults to no-store)
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        return !new ServletWebRequest(request, response).checkNotModified(etag);
+    }
+}
@@ -3,16 +3,24 @@ package com.taxi.booking.config;
 import com.fasterxml.jackson.databind.DeserializationFeature; // Import this
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.taxi.booking.client.LastKnownValueCache;
+import feign.Capability;
 import feign.Logger;
+import feign.RequestInterceptor;
 import feign.Response;
 import feign.Util;
 import feign.codec.Decoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.openfeign.CircuitBreakerNameResolver;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 
 @Configuration
 public class FeignConfig {
@@ -22,6 +30,26 @@ public class FeignConfig {
         return Logger.Level.FULL;
     }
 
+    @Bean
+    public Capability feignMetricsCapability(MeterRegistry meterRegistry) {
+        return new FeignMetricsCapability(meterRegistry);
+    }
+
+    @Bean
+    public Capability lastKnownValueCapability(LastKnownValueCache lastKnownValueCache) {
+        return new LastKnownValueCapability(lastKnownValueCache);
+    }
+
+    /**
+     * One circuit breaker (and bulkhead) per downstream service rather than per method,
+     * so a slow driver-service trips once for all of its endpoints.
+     * Instances are configured under resilience4j.* using the Feign client name.
+     */
+    @Bean
+    public CircuitBreakerNameResolver circuitBreakerNameResolver() {
+        return (feignClientName, target, method) -> feignClientName;
+    }
+
     @Bean
     public Decoder feignDecoder() {
         // 1. Create a Mapper that ignores fields not present in your DTOs
@@ -29,14 +57,33 @@ public class FeignConfig {
                 .findAndRegisterModules()
                 .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false); // <--- CRITICAL FIX
 
-        return new UnwrappingDecoder(mapper);
+        ObjectMapper cborMapper = new ObjectMapper(new CBORFactory())
+                .findAndRegisterModules()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+        return new UnwrappingDecoder(mapper, cborMapper);
+    }
+
+    /**
+     * Ask our own services for CBOR, falling back to JSON where a service
+     * has no CBOR converter. Request bodies stay JSON.
+     */
+    @Bean
+    public RequestInterceptor binaryAcceptInterceptor() {
+        return template -> {
+            if (!template.headers().containsKey(HttpHeaders.ACCEPT)) {
+                template.header(HttpHeaders.ACCEPT, "application/cbor", "application/json;q=0.9");
+            }
+        };
     }
 
     public static class UnwrappingDecoder implements Decoder {
         private final ObjectMapper mapper;
+        private final ObjectMapper cborMapper;
 
-        public UnwrappingDecoder(ObjectMapper mapper) {
+        public UnwrappingDecoder(ObjectMapper mapper, ObjectMapper cborMapper) {
             this.mapper = mapper;
+            this.cborMapper = cborMapper;
         }
 
         @Override
@@ -44,8 +91,13 @@ public class FeignConfig {
             if (response.body() == null)
                 return null;
 
-            String bodyStr = Util.toString(response.body().asReader(StandardCharsets.UTF_8));
-            JsonNode root = mapper.readTree(bodyStr);
+            JsonNode root;
+            if (isCbor(response)) {
+                root = cborMapper.readTree(Util.toByteArray(response.body().asInputStream()));
+            } else {
+                String bodyStr = Util.toString(response.body().asReader(StandardCharsets.UTF_8));
+                root = mapper.readTree(bodyStr);
+            }
 
             // 2. Unwrap if it is { success: true, data: ... }
             if (root.has("success") && root.has("data")) {
@@ -58,5 +110,11 @@ public class FeignConfig {
             // 3. Standard decode
             return mapper.readValue(root.traverse(), mapper.constructType(type));
         }
+
+        private boolean isCbor(Response response) {
+            Collection<String> contentType = response.headers().get(HttpHeaders.CONTENT_TYPE);
+            return contentType != null
+                    && contentType.stream().anyMatch(value -> value.startsWith("application/cbor"));
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.taxi.booking.config;
+
+import feign.Capability;
+import feign.FeignException;
+import feign.InvocationHandlerFactory;
+import feign.InvocationHandlerFactory.MethodHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Feign capability that times every Feign client method call
+ * Metric: booking.feign.client{client, method, outcome}
+ *
+ * The timer wraps the per-method handler (encode, HTTP round trip, decode), which
+ * sits inside any circuit breaker, so fallbacks never hide a failed outcome.
+ */
+public class FeignMetricsCapability implements Capability {
+
+    public static final String METRIC_NAME = "booking.feign.client";
+
+    private final MeterRegistry meterRegistry;
+
+    public FeignMetricsCapability(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public InvocationHandlerFactory enrich(InvocationHandlerFactory delegate) {
+        return (target, dispatch) -> {
+            String client = target.type().getSimpleName();
+            Map<Method, MethodHandler> timed = new LinkedHashMap<>();
+            dispatch.forEach((method, handler) -> timed.put(method, argv -> {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                String outcome = "SUCCESS";
+                try {
+                    return handler.invoke(argv);
+                } catch (Throwable e) {
+                    outcome = outcomeOf(e);
+                    throw e;
+                } finally {
+                    sample.stop(Timer.builder(METRIC_NAME)
+                            .description("Latency of Feign client calls to downstream services")
+                            .tag("client", client)
+                            .tag("method", method.getName())
+                            .tag("outcome", outcome)
+                            .register(meterRegistry));
+                }
+            }));
+            return delegate.create(target, timed);
+        };
+    }
+
+    private static String outcomeOf(Throwable e) {
+        if (e instanceof FeignException feignException) {
+            int status = feignException.status();
+            if (status == 404) {
+                return "NOT_FOUND";
+            }
+            if (status >= 400 && status < 500) {
+                return "CLIENT_ERROR";
+            }
+            if (status >= 500) {
+                return "SERVER_ERROR";
+            }
+        }
+        return "UNAVAILABLE";
+    }
+}
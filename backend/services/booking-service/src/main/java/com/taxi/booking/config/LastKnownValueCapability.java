@@ -0,0 +1,48 @@
+package com.taxi.booking.config;
+
+import com.taxi.booking.client.LastKnownValueCache;
+import feign.Capability;
+import feign.InvocationHandlerFactory;
+import feign.InvocationHandlerFactory.MethodHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Feign capability that remembers the last successful result of every GET client method
+ * The client fallbacks serve these values while a downstream service is failing.
+ * Results of POSTs (quotes, sends) are computed from the request body and never reused.
+ *
+ * Like {@link FeignMetricsCapability} it wraps the per-method handler, so values
+ * returned by a fallback are never written back into the cache.
+ */
+public class LastKnownValueCapability implements Capability {
+
+    private final LastKnownValueCache cache;
+
+    public LastKnownValueCapability(LastKnownValueCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public InvocationHandlerFactory enrich(InvocationHandlerFactory delegate) {
+        return (target, dispatch) -> {
+            Class<?> client = target.type();
+            Map<Method, MethodHandler> caching = new LinkedHashMap<>();
+            dispatch.forEach((method, handler) -> {
+                if (!method.isAnnotationPresent(GetMapping.class)) {
+                    caching.put(method, handler);
+                    return;
+                }
+                caching.put(method, argv -> {
+                    Object result = handler.invoke(argv);
+                    cache.put(client, method.getName(), argv, result);
+                    return result;
+                });
+            });
+            return delegate.create(target, caching);
+        };
+    }
+}
@@ -1,5 +1,6 @@
 package com.taxi.booking.controller;
 
+import com.taxi.booking.config.BookingEtag;
 import com.taxi.booking.dto.response.BookingResponse;
 import com.taxi.booking.enums.BookingStatus;
 import com.taxi.booking.service.BookingService;
@@ -26,6 +27,7 @@ public class AppPendingBookingController {
      * GET /api/bookings/app-pending
      * Get all app pending bookings (Android/iOS only)
      */
+    @BookingEtag(BookingStatus.PENDING)
     @GetMapping
     public ResponseEntity<List<BookingResponse>> getAppPendingBookings(
             @RequestParam(required = false) String platform,
@@ -1,5 +1,6 @@
 package com.taxi.booking.controller;
 
+import com.taxi.booking.config.BookingEtag;
 import com.taxi.booking.dto.request.*;
 import com.taxi.booking.dto.response.BookingResponse;
 import com.taxi.booking.enums.BookingStatus;
@@ -49,6 +50,7 @@ public class BookingController {
      * - startDate: filter from date (yyyy-MM-dd)
      * - endDate: filter to date (yyyy-MM-dd)
      */
+    @BookingEtag
     @GetMapping
     public ResponseEntity<List<BookingResponse>> getBookings(
             @RequestParam(required = false) String searchTerm,
@@ -119,6 +121,7 @@ public class BookingController {
 
     // ... rest of your endpoints remain unchanged ...
 
+    @BookingEtag
     @GetMapping("/{id}")
     public ResponseEntity<BookingResponse> getBookingById(
             @PathVariable Integer id) {
@@ -127,6 +130,7 @@ public class BookingController {
         return ResponseEntity.ok(booking);
     }
 
+    @BookingEtag
     @GetMapping("/booking-id/{bookingId}")
     public ResponseEntity<BookingResponse> getBookingByBookingId(
             @PathVariable String bookingId) {
@@ -200,6 +204,7 @@ public class BookingController {
         return ResponseEntity.noContent().build();
     }
 
+    @BookingEtag
     @GetMapping("/export/csv")
     public ResponseEntity<byte[]> exportBookingsToCsv(
             @RequestParam(required = false) BookingStatus status)
@@ -0,0 +1,34 @@
+package com.taxi.booking.controller;
+
+import com.taxi.booking.dto.response.CallerLookupResponse;
+import com.taxi.booking.service.CallerLookupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST Controller for the caller-ID screen pop
+ * The telephony integration (or an agent) calls this when a call comes in.
+ */
+@RestController
+@RequestMapping("/api/bookings")
+@RequiredArgsConstructor
+@Slf4j
+public class CallerLookupController {
+
+    private final CallerLookupService callerLookupService;
+
+    /**
+     * GET /api/bookings/caller-lookup?phone=&limit=5
+     * The caller's latest bookings, any active booking, and whether the number
+     * belongs to a driver or staff user. phone may be a full number in any
+     * common format, or its trailing digits.
+     */
+    @GetMapping("/caller-lookup")
+    public ResponseEntity<CallerLookupResponse> lookup(
+            @RequestParam String phone,
+            @RequestParam(defaultValue = "5") int limit) {
+        return ResponseEntity.ok(callerLookupService.lookup(phone, Math.max(1, Math.min(limit, 20))));
+    }
+}
@@ -1,5 +1,7 @@
 package com.taxi.booking.controller;
 
+import com.taxi.booking.config.BookingEtag;
+import com.taxi.booking.dto.request.BookingSearchRequest;
 import com.taxi.booking.dto.response.BookingCancellationResponse;
 import com.taxi.booking.dto.response.BookingResponse;
 import com.taxi.booking.enums.BookingStatus;
@@ -7,6 +9,9 @@ import com.taxi.booking.service.BookingService;
 import com.taxi.booking.service.CsvExportService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -16,6 +21,9 @@ import org.springframework.web.bind.annotation.*;
 import java.io.IOException;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * REST Controller for Cancelled Hires
@@ -30,10 +38,14 @@ public class CancelledHireController {
     private final BookingService bookingService;
     private final CsvExportService csvExportService;
 
+    private static final int MAX_PAGE_SIZE = 2000;
+
     /**
      * GET /api/bookings/cancelled-hires
      * Get all cancelled hires with filters
+     * Optional page/size enable paging; totals are returned in X-Total-Count / X-Total-Pages
      */
+    @BookingEtag(BookingStatus.CANCELLED)
     @GetMapping
     public ResponseEntity<List<BookingCancellationResponse>> getCancelledHires(
             @RequestParam(required = false) String filterBy,
@@ -44,48 +56,62 @@ public class CancelledHireController {
             @RequestParam(required = false) String cancelledType,
             @RequestParam(required = false) Integer corporateId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
 
         log.info("GET /api/bookings/cancelled-hires - Fetching cancelled hires");
 
-        List<BookingCancellationResponse> cancellations = bookingService.getCancelledBookings(startDate, endDate);
-
-        // Apply additional filters
-        if (cancelledType != null) {
-            cancellations = cancellations.stream()
-                    .filter(c -> cancelledType.equals(c.getCancelledType()))
-                    .toList();
-        }
-
-        if (searchTerm != null && !searchTerm.trim().isEmpty() && filterBy != null) {
-            String lowerSearchTerm = searchTerm.toLowerCase();
-            cancellations = cancellations.stream()
-                    .filter(c -> {
-                        return switch (filterBy.toLowerCase()) {
-                            case "phone" -> c.getBookingNumber().contains(searchTerm);
-                            default -> true;
-                        };
-                    })
-                    .toList();
-        }
-
-        return ResponseEntity.ok(cancellations);
+        BookingSearchRequest searchRequest = searchRequest(filterBy, searchTerm, bookedBy, hireType,
+                paymentType, cancelledType, corporateId, startDate, endDate);
+
+        Pageable pageable = page == null && size == null
+                ? Pageable.unpaged()
+                : PageRequest.of(
+                        Math.max(page != null ? page : 0, 0),
+                        Math.min(Math.max(size != null ? size : 50, 1), MAX_PAGE_SIZE));
+
+        Page<BookingCancellationResponse> cancellations =
+                bookingService.getCancelledBookings(searchRequest, pageable);
+
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(cancellations.getTotalElements()))
+                .header("X-Total-Pages", String.valueOf(cancellations.getTotalPages()))
+                .body(cancellations.getContent());
     }
 
     /**
      * GET /api/bookings/cancelled-hires/export/csv
-     * Export cancelled hires to CSV
+     * Export the cancelled hires the listing shows for the same filters to CSV
      */
+    @BookingEtag(BookingStatus.CANCELLED)
     @GetMapping("/export/csv")
     public ResponseEntity<byte[]> exportCancelledHiresToCsv(
+            @RequestParam(required = false) String filterBy,
+            @RequestParam(required = false) String searchTerm,
+            @RequestParam(required = false) Integer bookedBy,
+            @RequestParam(required = false) String hireType,
+            @RequestParam(required = false) String paymentType,
+            @RequestParam(required = false) String cancelledType,
+            @RequestParam(required = false) Integer corporateId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate)
             throws IOException {
 
         log.info("GET /api/bookings/cancelled-hires/export/csv - Exporting cancelled hires");
 
-        List<BookingResponse> bookings = bookingService.getBookingsByStatus(BookingStatus.CANCELLED, true);
-        byte[] csvData = csvExportService.exportCancelledHiresToCsv(bookings);
+        BookingSearchRequest searchRequest = searchRequest(filterBy, searchTerm, bookedBy, hireType,
+                paymentType, cancelledType, corporateId, startDate, endDate);
+
+        List<BookingCancellationResponse> cancellations =
+                bookingService.getCancelledBookings(searchRequest, Pageable.unpaged()).getContent();
+        Map<Integer, BookingResponse> bookings = bookingService.getBookingsByIds(cancellations.stream()
+                        .map(BookingCancellationResponse::getBookingId)
+                        .distinct()
+                        .toList())
+                .stream()
+                .collect(Collectors.toMap(BookingResponse::getId, Function.identity()));
+        byte[] csvData = csvExportService.exportCancelledHiresToCsv(cancellations, bookings);
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.parseMediaType("text/csv"));
@@ -95,4 +121,22 @@ public class CancelledHireController {
                 .headers(headers)
                 .body(csvData);
     }
-}
\ No newline at end of file
+
+    // ==================== PRIVATE HELPER METHODS ====================
+
+    private static BookingSearchRequest searchRequest(String filterBy, String searchTerm, Integer bookedBy,
+            String hireType, String paymentType, String cancelledType, Integer corporateId,
+            LocalDate startDate, LocalDate endDate) {
+        BookingSearchRequest searchRequest = new BookingSearchRequest();
+        searchRequest.setFilterBy(filterBy);
+        searchRequest.setSearchTerm(searchTerm);
+        searchRequest.setBookedBy(bookedBy);
+        searchRequest.setHireType(hireType);
+        searchRequest.setPaymentType(paymentType);
+        searchRequest.setCancelledType(cancelledType);
+        searchRequest.setCorporateId(corporateId);
+        searchRequest.setStartDate(startDate);
+        searchRequest.setEndDate(endDate);
+        return searchRequest;
+    }
+}
@@ -1,11 +1,14 @@
 package com.taxi.booking.controller;
 
+import com.taxi.booking.config.BookingEtag;
 import com.taxi.booking.dto.request.BookingSearchRequest;
 import com.taxi.booking.dto.response.BookingResponse;
 import com.taxi.booking.dto.response.BookingSummaryResponse;
+import com.taxi.booking.dto.response.CompletedTripBatchResponse;
 import com.taxi.booking.enums.BookingStatus;
 import com.taxi.booking.service.BookingService;
 import com.taxi.booking.service.CsvExportService;
+import com.taxi.booking.service.TripFiguresService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -30,11 +33,13 @@ public class CompletedHireController {
 
     private final BookingService bookingService;
     private final CsvExportService csvExportService;
+    private final TripFiguresService tripFiguresService;
 
     /**
      * GET /api/bookings/completed-hires
      * Get all completed hires with advanced filtering
      */
+    @BookingEtag(BookingStatus.COMPLETED)
     @GetMapping
     public ResponseEntity<List<BookingResponse>> getCompletedHires(
             @RequestParam(required = false) String filterBy,
@@ -79,6 +84,7 @@ public class CompletedHireController {
      * GET /api/bookings/completed-hires/summary
      * Get financial summary for completed hires
      */
+    @BookingEtag
     @GetMapping("/summary")
     public ResponseEntity<BookingSummaryResponse> getCompletedHiresSummary(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
@@ -94,6 +100,7 @@ public class CompletedHireController {
      * GET /api/bookings/completed-hires/export/csv
      * Export completed hires to CSV
      */
+    @BookingEtag(BookingStatus.COMPLETED)
     @GetMapping("/export/csv")
     public ResponseEntity<byte[]> exportCompletedHiresToCsv(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
@@ -119,4 +126,20 @@ public class CompletedHireController {
                 .headers(headers)
                 .body(csvData);
     }
-}
\ No newline at end of file
+
+    /**
+     * GET /api/bookings/completed-hires/trip-figures
+     * Pricing inputs of trips completed in [startDate, endDate], a page at a
+     * time: pass the previous page's nextAfterId as afterId. Used by Fare
+     * Service re-pricing runs.
+     */
+    @GetMapping("/trip-figures")
+    public ResponseEntity<CompletedTripBatchResponse> getTripFigures(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "0") int afterId,
+            @RequestParam(defaultValue = "5000") int limit) {
+        return ResponseEntity.ok(tripFiguresService.getCompletedTrips(
+                startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay(), afterId, limit));
+    }
+}
@@ -0,0 +1,37 @@
+package com.taxi.booking.controller;
+
+import com.taxi.booking.dto.response.CustomerStatsResponse;
+import com.taxi.booking.service.CustomerStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST Controller for per-customer booking totals
+ * Used for promo eligibility (first-time, minimum/maximum hire count) and
+ * customer segmentation.
+ */
+@RestController
+@RequestMapping("/api/bookings/customers")
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerStatsController {
+
+    private final CustomerStatsService customerStatsService;
+
+    /**
+     * POST /api/bookings/customers/stats
+     * Totals for a batch of contact numbers (any common format); numbers without
+     * bookings come back with zero totals
+     */
+    @PostMapping("/stats")
+    public ResponseEntity<List<CustomerStatsResponse>> getStats(@RequestBody List<String> phones) {
+        if (phones.size() > 1000) {
+            throw new RuntimeException("At most 1000 numbers per request");
+        }
+        return ResponseEntity.ok(customerStatsService.getStats(phones));
+    }
+}
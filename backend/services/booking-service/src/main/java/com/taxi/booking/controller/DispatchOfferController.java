@@ -0,0 +1,95 @@
+package com.taxi.booking.controller;
+
+import com.taxi.booking.dto.request.DispatchOfferRequest;
+import com.taxi.booking.dto.response.BookingResponse;
+import com.taxi.booking.dto.response.DispatchOfferResponse;
+import com.taxi.booking.service.DispatchOfferService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST Controller for Dispatch Offers
+ * Dispatchers start an offer cascade on a pending booking; driver apps poll for
+ * their open offer and accept or reject it.
+ */
+@RestController
+@RequestMapping("/api/bookings")
+@RequiredArgsConstructor
+@Slf4j
+public class DispatchOfferController {
+
+    private final DispatchOfferService dispatchOfferService;
+
+    /**
+     * POST /api/bookings/{id}/offers
+     * Start offering a pending booking to drivers
+     */
+    @PostMapping("/{id}/offers")
+    public ResponseEntity<DispatchOfferResponse> startOffers(
+            @PathVariable Integer id,
+            @RequestBody(required = false) DispatchOfferRequest request) {
+        log.info("POST /api/bookings/{}/offers - Starting dispatch offers", id);
+        DispatchOfferResponse response = dispatchOfferService.startOffers(
+                id, request != null ? request : new DispatchOfferRequest());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * GET /api/bookings/{id}/offers
+     * Current open offer of a booking
+     */
+    @GetMapping("/{id}/offers")
+    public ResponseEntity<DispatchOfferResponse> getCurrentOffer(@PathVariable Integer id) {
+        return dispatchOfferService.getCurrentOffer(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    /**
+     * DELETE /api/bookings/{id}/offers
+     * Stop offering a booking
+     */
+    @DeleteMapping("/{id}/offers")
+    public ResponseEntity<Void> cancelOffers(@PathVariable Integer id) {
+        log.info("DELETE /api/bookings/{}/offers - Cancelling dispatch offers", id);
+        dispatchOfferService.cancelOffers(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * GET /api/bookings/offers/driver/{driverId}
+     * Open offer waiting for a driver (polled by the driver app)
+     */
+    @GetMapping("/offers/driver/{driverId}")
+    public ResponseEntity<DispatchOfferResponse> getPendingOffer(@PathVariable Integer driverId) {
+        return dispatchOfferService.getPendingOffer(driverId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    /**
+     * POST /api/bookings/offers/{offerId}/accept?driverId=
+     */
+    @PostMapping("/offers/{offerId}/accept")
+    public ResponseEntity<BookingResponse> acceptOffer(
+            @PathVariable Long offerId,
+            @RequestParam Integer driverId) {
+        log.info("POST /api/bookings/offers/{}/accept - Driver {} accepting", offerId, driverId);
+        BookingResponse response = dispatchOfferService.acceptOffer(offerId, driverId);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * POST /api/bookings/offers/{offerId}/reject?driverId=
+     */
+    @PostMapping("/offers/{offerId}/reject")
+    public ResponseEntity<Void> rejectOffer(
+            @PathVariable Long offerId,
+            @RequestParam Integer driverId) {
+        log.info("POST /api/bookings/offers/{}/reject - Driver {} rejecting", offerId, driverId);
+        dispatchOfferService.rejectOffer(offerId, driverId);
+        return ResponseEntity.noContent().build();
+    }
+}
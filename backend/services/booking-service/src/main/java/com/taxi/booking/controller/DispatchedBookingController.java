@@ -1,5 +1,6 @@
 package com.taxi.booking.controller;
 
+import com.taxi.booking.config.BookingEtag;
 import com.taxi.booking.dto.response.BookingResponse;
 import com.taxi.booking.enums.BookingStatus;
 import com.taxi.booking.service.BookingService;
@@ -26,6 +27,7 @@ public class DispatchedBookingController {
      * GET /api/bookings/dispatched
      * Get all dispatched bookings
      */
+    @BookingEtag(BookingStatus.DISPATCHED)
     @GetMapping
     public ResponseEntity<List<BookingResponse>> getDispatchedBookings(
             @RequestParam(required = false) String searchTerm,
@@ -1,5 +1,6 @@
 package com.taxi.booking.controller;
 
+import com.taxi.booking.config.BookingEtag;
 import com.taxi.booking.dto.response.BookingResponse;
 import com.taxi.booking.enums.BookingStatus;
 import com.taxi.booking.service.BookingService;
@@ -26,6 +27,7 @@ public class EnrouteBookingController {
      * GET /api/bookings/enroute
      * Get all enroute bookings (driver heading to pickup)
      */
+    @BookingEtag(BookingStatus.ENROUTE)
     @GetMapping
     public ResponseEntity<List<BookingResponse>> getEnrouteBookings(
             @RequestParam(required = false) String searchTerm) {
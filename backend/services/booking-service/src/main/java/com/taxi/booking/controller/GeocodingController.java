@@ -0,0 +1,43 @@
+package com.taxi.booking.controller;
+
+import com.taxi.booking.dto.response.GeocodeResponse;
+import com.taxi.booking.service.ZoneService;
+import com.taxi.booking.service.geocoding.GeocodingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST Controller for address geocoding
+ * Lets the booking form show where a typed address resolves before saving.
+ */
+@RestController
+@RequestMapping("/api/bookings")
+@RequiredArgsConstructor
+@Slf4j
+public class GeocodingController {
+
+    private final GeocodingService geocodingService;
+    private final ZoneService zoneService;
+
+    /**
+     * GET /api/bookings/geocode?address=
+     * Coordinates and zone of an address; 204 when it cannot be resolved
+     */
+    @GetMapping("/geocode")
+    public ResponseEntity<GeocodeResponse> geocode(@RequestParam String address) {
+        return geocodingService.geocode(address)
+                .map(location -> {
+                    Integer zoneId = zoneService.classify(location.latitude(), location.longitude());
+                    return ResponseEntity.ok(GeocodeResponse.builder()
+                            .address(address)
+                            .latitude(location.latitude())
+                            .longitude(location.longitude())
+                            .zoneId(zoneId)
+                            .zoneName(zoneService.getZoneName(zoneId))
+                            .build());
+                })
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+}
@@ -1,5 +1,6 @@
 package com.taxi.booking.controller;
 
+import com.taxi.booking.config.BookingEtag;
 import com.taxi.booking.dto.request.BookingSearchRequest;
 import com.taxi.booking.dto.response.BookingResponse;
 import com.taxi.booking.service.BookingService;
@@ -27,6 +28,7 @@ public class InquiryController {
      * Get all inquiry bookings
      * Query params: filterBy, searchTerm, startDate, endDate
      */
+    @BookingEtag
     @GetMapping
     public ResponseEntity<List<BookingResponse>> getInquiries(
             @RequestParam(required = false) String filterBy,
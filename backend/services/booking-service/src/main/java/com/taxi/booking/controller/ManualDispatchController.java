@@ -1,5 +1,6 @@
 package com.taxi.booking.controller;
 
+import com.taxi.booking.config.BookingEtag;
 import com.taxi.booking.dto.response.BookingResponse;
 import com.taxi.booking.enums.BookingStatus;
 import com.taxi.booking.service.BookingService;
@@ -27,6 +28,7 @@ public class ManualDispatchController {
      * Get all manually dispatched bookings
      * (Bookings with manualDispatchOnly flag or manually assigned)
      */
+    @BookingEtag(BookingStatus.DISPATCHED)
     @GetMapping
     public ResponseEntity<List<BookingResponse>> getManualDispatchBookings() {
         log.info("GET /api/bookings/manual-dispatch - Fetching manual dispatch bookings");
@@ -1,5 +1,6 @@
 package com.taxi.booking.controller;
 
+import com.taxi.booking.config.BookingEtag;
 import com.taxi.booking.dto.response.BookingResponse;
 import com.taxi.booking.enums.BookingStatus;
 import com.taxi.booking.service.BookingService;
@@ -26,6 +27,7 @@ public class PassengerOnboardController {
      * GET /api/bookings/passenger-onboard
      * Get all bookings with passenger onboard (trip in progress)
      */
+    @BookingEtag(BookingStatus.PASSENGER_ONBOARD)
     @GetMapping
     public ResponseEntity<List<BookingResponse>> getPassengerOnboardBookings() {
         log.info("GET /api/bookings/passenger-onboard - Fetching passenger onboard bookings");
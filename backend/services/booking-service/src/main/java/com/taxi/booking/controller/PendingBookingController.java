@@ -1,5 +1,6 @@
 package com.taxi.booking.controller;
 
+import com.taxi.booking.config.BookingEtag;
 import com.taxi.booking.dto.response.BookingResponse;
 import com.taxi.booking.enums.BookingStatus;
 import com.taxi.booking.service.BookingService;
@@ -26,6 +27,7 @@ public class PendingBookingController {
      * GET /api/bookings/pending
      * Get all pending bookings (excluding app bookings)
      */
+    @BookingEtag(BookingStatus.PENDING)
     @GetMapping
     public ResponseEntity<List<BookingResponse>> getPendingBookings(
             @RequestParam(required = false) String searchTerm,
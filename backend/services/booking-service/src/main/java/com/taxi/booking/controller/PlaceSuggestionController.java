@@ -0,0 +1,36 @@
+package com.taxi.booking.controller;
+
+import com.taxi.booking.dto.response.PlaceSuggestionResponse;
+import com.taxi.booking.service.PlaceSuggestionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST Controller for pickup/drop address autocomplete
+ * Suggestions come from booking history, the caller's own places first.
+ */
+@RestController
+@RequestMapping("/api/bookings")
+@RequiredArgsConstructor
+@Slf4j
+public class PlaceSuggestionController {
+
+    private final PlaceSuggestionService placeSuggestionService;
+
+    /**
+     * GET /api/bookings/places/autocomplete?prefix=&phone=&limit=8
+     * Addresses matching what has been typed so far; with only a phone, the
+     * caller's most used places
+     */
+    @GetMapping("/places/autocomplete")
+    public ResponseEntity<List<PlaceSuggestionResponse>> autocomplete(
+            @RequestParam(required = false) String prefix,
+            @RequestParam(required = false) String phone,
+            @RequestParam(defaultValue = "8") int limit) {
+        return ResponseEntity.ok(placeSuggestionService.suggest(prefix, phone, Math.max(1, Math.min(limit, 20))));
+    }
+}
@@ -0,0 +1,99 @@
+package com.taxi.booking.controller;
+
+import com.taxi.booking.dto.request.RankCheckInRequest;
+import com.taxi.booking.dto.request.RankDispatchRequest;
+import com.taxi.booking.dto.request.RankPingRequest;
+import com.taxi.booking.dto.response.BookingResponse;
+import com.taxi.booking.dto.response.RankQueueResponse;
+import com.taxi.booking.service.RankDispatchService;
+import com.taxi.booking.service.RankQueueService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST Controller for Taxi Rank Queues
+ * Driver apps check in or ping at ranks; dispatchers give pending bookings to
+ * the driver first in line.
+ */
+@RestController
+@RequestMapping("/api/bookings")
+@RequiredArgsConstructor
+@Slf4j
+public class RankQueueController {
+
+    private final RankQueueService rankQueueService;
+    private final RankDispatchService rankDispatchService;
+
+    /**
+     * GET /api/bookings/ranks
+     * All rank queues with drivers waiting
+     */
+    @GetMapping("/ranks")
+    public ResponseEntity<List<RankQueueResponse>> getAllQueues() {
+        return ResponseEntity.ok(rankQueueService.getAllQueues());
+    }
+
+    /**
+     * GET /api/bookings/ranks/{zoneId}
+     * Driver queue of one rank, head first
+     */
+    @GetMapping("/ranks/{zoneId}")
+    public ResponseEntity<RankQueueResponse> getQueue(@PathVariable Integer zoneId) {
+        return ResponseEntity.ok(rankQueueService.getQueue(zoneId));
+    }
+
+    /**
+     * POST /api/bookings/ranks/{zoneId}/check-in
+     * Join the back of a rank queue
+     */
+    @PostMapping("/ranks/{zoneId}/check-in")
+    public ResponseEntity<RankQueueResponse> checkIn(
+            @PathVariable Integer zoneId,
+            @Valid @RequestBody RankCheckInRequest request) {
+        log.info("POST /api/bookings/ranks/{}/check-in - Driver {}", zoneId, request.getDriverId());
+        RankQueueResponse response = rankQueueService.checkIn(
+                zoneId, request.getDriverId(), request.getVehicleId());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * POST /api/bookings/ranks/check-out?driverId=
+     * Leave whichever rank queue the driver is in
+     */
+    @PostMapping("/ranks/check-out")
+    public ResponseEntity<Void> checkOut(@RequestParam Integer driverId) {
+        log.info("POST /api/bookings/ranks/check-out - Driver {}", driverId);
+        rankQueueService.leave(driverId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * POST /api/bookings/ranks/ping
+     * Location of an available driver; joins or leaves rank queues as it moves
+     */
+    @PostMapping("/ranks/ping")
+    public ResponseEntity<Void> ping(@Valid @RequestBody RankPingRequest request) {
+        rankQueueService.ping(request.getDriverId(), request.getVehicleId(),
+                request.getLatitude(), request.getLongitude());
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * POST /api/bookings/{id}/dispatch-from-rank
+     * Dispatch a pending booking to the driver first in line at its pickup rank
+     */
+    @PostMapping("/{id}/dispatch-from-rank")
+    public ResponseEntity<BookingResponse> dispatchFromRank(
+            @PathVariable Integer id,
+            @RequestBody(required = false) RankDispatchRequest request) {
+        log.info("POST /api/bookings/{}/dispatch-from-rank", id);
+        BookingResponse response = rankDispatchService.dispatchFromRank(
+                id, request != null ? request : new RankDispatchRequest());
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,48 @@
+package com.taxi.booking.controller;
+
+import com.taxi.booking.dto.request.LocationPingRequest;
+import com.taxi.booking.dto.response.TripMeterResponse;
+import com.taxi.booking.service.TripMeterService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST Controller for the server-side trip meter
+ * Driver apps post location pings while the passenger is on board.
+ */
+@RestController
+@RequestMapping("/api/bookings")
+@RequiredArgsConstructor
+@Slf4j
+public class TripMeterController {
+
+    private final TripMeterService tripMeterService;
+
+    /**
+     * POST /api/bookings/{id}/pings
+     * Record one or more location pings (oldest first) for a trip in progress
+     */
+    @PostMapping("/{id}/pings")
+    public ResponseEntity<TripMeterResponse> recordPings(
+            @PathVariable Integer id,
+            @Valid @RequestBody List<@Valid LocationPingRequest> pings) {
+        TripMeterResponse response = tripMeterService.recordPings(id, pings);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * GET /api/bookings/{id}/meter
+     * Current meter reading of a trip in progress
+     */
+    @GetMapping("/{id}/meter")
+    public ResponseEntity<TripMeterResponse> getMeter(@PathVariable Integer id) {
+        return tripMeterService.getReading(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+}
@@ -1,5 +1,6 @@
 package com.taxi.booking.controller;
 
+import com.taxi.booking.config.BookingEtag;
 import com.taxi.booking.dto.request.CreateBookingRequest;
 import com.taxi.booking.dto.request.DispatchBookingRequest;
 import com.taxi.booking.dto.response.BookingResponse;
@@ -49,6 +50,7 @@ public class TukBookingController {
      * GET /api/tuk-bookings/pending
      * Get pending TUK bookings
      */
+    @BookingEtag(BookingStatus.PENDING)
     @GetMapping("/pending")
     public ResponseEntity<List<BookingResponse>> getPendingTukBookings() {
         log.info("GET /api/tuk-bookings/pending - Fetching pending TUK bookings");
@@ -67,6 +69,7 @@ public class TukBookingController {
      * GET /api/tuk-bookings/completed
      * Get completed TUK hires
      */
+    @BookingEtag(BookingStatus.COMPLETED)
     @GetMapping("/completed")
     public ResponseEntity<List<BookingResponse>> getCompletedTukHires() {
         log.info("GET /api/tuk-bookings/completed - Fetching completed TUK hires");
@@ -85,6 +88,7 @@ public class TukBookingController {
      * GET /api/tuk-bookings/dispatched
      * Get dispatched TUK bookings
      */
+    @BookingEtag(BookingStatus.DISPATCHED)
     @GetMapping("/dispatched")
     public ResponseEntity<List<BookingResponse>> getDispatchedTukBookings() {
         log.info("GET /api/tuk-bookings/dispatched - Fetching dispatched TUK bookings");
@@ -103,6 +107,7 @@ public class TukBookingController {
      * GET /api/tuk-bookings/enroute
      * Get enroute TUK bookings
      */
+    @BookingEtag(BookingStatus.ENROUTE)
     @GetMapping("/enroute")
     public ResponseEntity<List<BookingResponse>> getEnrouteTukBookings() {
         log.info("GET /api/tuk-bookings/enroute - Fetching enroute TUK bookings");
@@ -121,6 +126,7 @@ public class TukBookingController {
      * GET /api/tuk-bookings/waiting
      * Get waiting for customer TUK bookings
      */
+    @BookingEtag(BookingStatus.WAITING_FOR_CUSTOMER)
     @GetMapping("/waiting")
     public ResponseEntity<List<BookingResponse>> getWaitingTukBookings() {
         log.info("GET /api/tuk-bookings/waiting - Fetching waiting TUK bookings");
@@ -139,6 +145,7 @@ public class TukBookingController {
      * GET /api/tuk-bookings/onboard
      * Get passenger onboard TUK bookings
      */
+    @BookingEtag(BookingStatus.PASSENGER_ONBOARD)
     @GetMapping("/onboard")
     public ResponseEntity<List<BookingResponse>> getOnboardTukBookings() {
         log.info("GET /api/tuk-bookings/onboard - Fetching onboard TUK bookings");
@@ -157,6 +164,7 @@ public class TukBookingController {
      * GET /api/tuk-bookings/cancelled
      * Get cancelled TUK hires
      */
+    @BookingEtag(BookingStatus.CANCELLED)
     @GetMapping("/cancelled")
     public ResponseEntity<List<BookingResponse>> getCancelledTukHires() {
         log.info("GET /api/tuk-bookings/cancelled - Fetching cancelled TUK hires");
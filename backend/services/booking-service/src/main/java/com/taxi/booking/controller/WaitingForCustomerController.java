@@ -1,5 +1,6 @@
 package com.taxi.booking.controller;
 
+import com.taxi.booking.config.BookingEtag;
 import com.taxi.booking.dto.response.BookingResponse;
 import com.taxi.booking.enums.BookingStatus;
 import com.taxi.booking.service.BookingService;
@@ -26,6 +27,7 @@ public class WaitingForCustomerController {
      * GET /api/bookings/waiting-for-customer
      * Get all bookings where driver is waiting for customer
      */
+    @BookingEtag(BookingStatus.WAITING_FOR_CUSTOMER)
     @GetMapping
     public ResponseEntity<List<BookingResponse>> getWaitingForCustomerBookings() {
         log.info("GET /api/bookings/waiting-for-customer - Fetching waiting bookings");
@@ -0,0 +1,81 @@
+package com.taxi.booking.controller;
+
+import com.taxi.booking.dto.request.ZoneRequest;
+import com.taxi.booking.dto.response.ZoneResponse;
+import com.taxi.booking.service.ZoneService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST Controller for Zones
+ * UI Endpoint: /admin/zones
+ */
+@RestController
+@RequestMapping("/api/zones")
+@RequiredArgsConstructor
+@Slf4j
+public class ZoneController {
+
+    private final ZoneService zoneService;
+
+    @GetMapping
+    public ResponseEntity<List<ZoneResponse>> getAllZones() {
+        return ResponseEntity.ok(zoneService.getAllZones());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ZoneResponse> getZoneById(@PathVariable Integer id) {
+        return ResponseEntity.ok(zoneService.getZoneById(id));
+    }
+
+    /**
+     * GET /api/zones/classify?latitude=&longitude=
+     * Zone containing a point, 204 when it is in none
+     */
+    @GetMapping("/classify")
+    public ResponseEntity<ZoneResponse> classify(
+            @RequestParam double latitude,
+            @RequestParam double longitude) {
+        return zoneService.locate(latitude, longitude)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    @PostMapping
+    public ResponseEntity<ZoneResponse> createZone(@Valid @RequestBody ZoneRequest request) {
+        log.info("POST /api/zones - Creating zone {}", request.getCode());
+        return ResponseEntity.status(HttpStatus.CREATED).body(zoneService.createZone(request));
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<ZoneResponse> updateZone(
+            @PathVariable Integer id,
+            @Valid @RequestBody ZoneRequest request) {
+        log.info("PUT /api/zones/{} - Updating zone", id);
+        return ResponseEntity.ok(zoneService.updateZone(id, request));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteZone(@PathVariable Integer id) {
+        log.info("DELETE /api/zones/{} - Deleting zone", id);
+        zoneService.deleteZone(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * POST /api/zones/backfill
+     * Classify existing bookings that have pickup coordinates but no zone
+     */
+    @PostMapping("/backfill")
+    public ResponseEntity<Map<String, Integer>> backfillPickupZones() {
+        log.info("POST /api/zones/backfill - Classifying bookings without a pickup zone");
+        return ResponseEntity.ok(Map.of("classified", zoneService.backfillPickupZones()));
+    }
+}
@@ -26,6 +26,7 @@ public class BookingSearchRequest {
     private String hireType;
     private String paymentType;
     private String bookingSource;
+    private Integer pickupZoneId;
     private String cancelledType;
 
     private LocalDate startDate;
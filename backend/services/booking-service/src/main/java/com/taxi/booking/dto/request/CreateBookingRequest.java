@@ -50,6 +50,9 @@ public class CreateBookingRequest {
 
     private Integer fareSchemeId;
 
+    // Fare scheme version the customer was quoted; defaults to the current one
+    private Integer fareSchemeVersion;
+
     private PaymentType paymentType;
 
     // Location Information
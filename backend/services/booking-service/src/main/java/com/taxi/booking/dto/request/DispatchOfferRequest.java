@@ -0,0 +1,21 @@
+package com.taxi.booking.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for starting a dispatch offer cascade on a booking
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DispatchOfferRequest {
+
+    private Integer dispatchedBy;
+
+    // Drivers to offer to, in order; when empty the best available drivers are used
+    private List<Integer> candidateDriverIds;
+}
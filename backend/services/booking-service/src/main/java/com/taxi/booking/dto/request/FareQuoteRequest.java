@@ -0,0 +1,24 @@
+package com.taxi.booking.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for a trip to be priced by Fare Service
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FareQuoteRequest {
+
+    private BigDecimal distanceKm;
+    private Integer durationMinutes;
+    private Integer waitMinutes;
+    private LocalDateTime startTime;
+}
@@ -0,0 +1,27 @@
+package com.taxi.booking.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a location ping sent by the driver app during a trip
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationPingRequest {
+
+    @NotNull(message = "Latitude is required")
+    private Double latitude;
+
+    @NotNull(message = "Longitude is required")
+    private Double longitude;
+
+    // Device time of the fix, epoch milliseconds; server receive time when absent
+    private Long timestamp;
+
+    // Reported horizontal accuracy in meters, if the device provides it
+    private Double accuracy;
+}
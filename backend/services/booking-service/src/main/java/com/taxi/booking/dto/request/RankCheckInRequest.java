@@ -0,0 +1,21 @@
+package com.taxi.booking.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a driver checking in at a taxi rank
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankCheckInRequest {
+
+    @NotNull(message = "Driver is required")
+    private Integer driverId;
+
+    @NotNull(message = "Vehicle is required")
+    private Integer vehicleId;
+}
@@ -0,0 +1,19 @@
+package com.taxi.booking.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for dispatching a booking to the driver at the head of a rank queue
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankDispatchRequest {
+
+    // Rank to take the driver from; the booking's pickup zone when absent
+    private Integer zoneId;
+
+    private Integer dispatchedBy;
+}
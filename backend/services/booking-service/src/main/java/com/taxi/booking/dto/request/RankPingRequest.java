@@ -0,0 +1,27 @@
+package com.taxi.booking.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a location ping from an available driver, used for rank queues
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankPingRequest {
+
+    @NotNull(message = "Driver is required")
+    private Integer driverId;
+
+    @NotNull(message = "Vehicle is required")
+    private Integer vehicleId;
+
+    @NotNull(message = "Latitude is required")
+    private Double latitude;
+
+    @NotNull(message = "Longitude is required")
+    private Double longitude;
+}
@@ -42,6 +42,7 @@ public class UpdateBookingRequest {
     private Integer vehicleClassId;
 
     private Integer fareSchemeId;
+    private Integer fareSchemeVersion;
     private PaymentType paymentType;
 
     @NotBlank(message = "Pickup address is required")
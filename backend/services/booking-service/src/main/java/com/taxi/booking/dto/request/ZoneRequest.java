@@ -0,0 +1,40 @@
+package com.taxi.booking.dto.request;
+
+import com.taxi.booking.enums.ZoneType;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for creating or updating a zone
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ZoneRequest {
+
+    @NotBlank(message = "Zone code is required")
+    private String code;
+
+    @NotBlank(message = "Zone name is required")
+    private String name;
+
+    @NotNull(message = "Zone type is required")
+    private ZoneType zoneType;
+
+    private Integer priority;
+
+    // Polygon vertices as [latitude, longitude] pairs, not closed
+    @NotNull(message = "Boundary is required")
+    @Size(min = 3, message = "Boundary needs at least 3 points")
+    private List<List<Double>> boundary;
+
+    private Boolean isRank;
+
+    private Boolean isActive;
+}
@@ -46,6 +46,7 @@ public class BookingResponse {
 
     // Fare Scheme Information (from Fare Service)
     private Integer fareSchemeId;
+    private Integer fareSchemeVersion;
     private String fareSchemeName;
     private String fareSchemeCode;
 
@@ -55,6 +56,8 @@ public class BookingResponse {
     private String pickupAddress;
     private BigDecimal pickupLatitude;
     private BigDecimal pickupLongitude;
+    private Integer pickupZoneId;
+    private String pickupZoneName;
     private String dropAddress;
     private BigDecimal dropLatitude;
     private BigDecimal dropLongitude;
@@ -0,0 +1,42 @@
+package com.taxi.booking.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for the caller-ID screen pop: who is calling and their recent bookings
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CallerLookupResponse {
+
+    private String query;
+
+    // E.164 numbers matched; several when searching on trailing digits
+    private List<String> matchedNumbers;
+
+    private BookingResponse activeBooking;
+    private List<BookingResponse> recentBookings;
+
+    private Boolean isDriver;
+    private Boolean isStaff;
+    private List<Party> drivers;
+    private List<Party> staffUsers;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Party {
+        private Integer id;
+        private String code;
+        private String name;
+        private String phone;
+    }
+}
@@ -0,0 +1,30 @@
+package com.taxi.booking.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One page of completed trip figures, column by column so a caller can price
+ * them straight from arrays. Missing ids and versions are 0; distance is in
+ * hundredths of a km and fare in cents. nextAfterId is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CompletedTripBatchResponse {
+
+    private int[] bookingIds;
+    private int[] vehicleClassIds;
+    private int[] corporateIds;
+    private int[] fareSchemeIds;
+    private int[] fareSchemeVersions;
+    private long[] distanceCentiKm;
+    private int[] durationMinutes;
+    private int[] waitMinutes;
+    private int[] startSecondOfDay;
+    private long[] fareCents;
+    private Integer nextAfterId;
+}
@@ -0,0 +1,26 @@
+package com.taxi.booking.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for a customer's booking totals, keyed by E.164 contact number
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerStatsResponse {
+
+    private String contactNumber;
+    private Integer completedCount;
+    private Integer cancelledCount;
+    private LocalDateTime firstBookingTime;
+    private LocalDateTime lastBookingTime;
+    private BigDecimal lifetimeFare;
+}
@@ -0,0 +1,31 @@
+package com.taxi.booking.dto.response;
+
+import com.taxi.booking.enums.OfferStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for a dispatch offer made to a driver
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DispatchOfferResponse {
+
+    private Long offerId;
+    private Integer bookingId;
+    private String bookingNumber;
+    private Integer driverId;
+    private Integer vehicleId;
+    private OfferStatus status;
+    private Integer attempt;
+    private String pickupAddress;
+    private String dropAddress;
+    private LocalDateTime offeredAt;
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,29 @@
+package com.taxi.booking.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for a trip priced by Fare Service with one fare scheme version
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FareQuoteResponse {
+
+    private Integer fareSchemeId;
+    private Integer fareSchemeVersion;
+    private BigDecimal baseFare;
+    private BigDecimal distanceFare;
+    private BigDecimal timeFare;
+    private Integer billedWaitMinutes;
+    private BigDecimal waitingFee;
+    private String surge;
+    private BigDecimal surgeFee;
+    private BigDecimal totalFare;
+}
@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalTime;
 
 /**
  * DTO for Fare Scheme response from Fare Service
@@ -17,9 +18,23 @@ import java.math.BigDecimal;
 public class FareSchemeResponse {
 
     private Integer id;
+    private Integer version;
     private String fareCode;
     private String fareName;
+    private Boolean isMetered;
+    private Boolean isPackage;
+    private BigDecimal minimumDistance;
     private BigDecimal minimumRate;
     private BigDecimal ratePerKm;
+    private Integer freeWaitTime;
     private BigDecimal waitingChargePerMin;
+    private LocalTime peakHourStartTime;
+    private LocalTime peakHourEndTime;
+    private BigDecimal peakHourRateHike;
+    private Integer minimumTime;
+    private Integer additionalTimeSlot;
+    private BigDecimal ratePerAdditionalTimeSlot;
+    private LocalTime nightStartTime;
+    private LocalTime nightEndTime;
+    private BigDecimal nightRateHike;
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.taxi.booking.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for the coordinates an address geocodes to
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GeocodeResponse {
+
+    private String address;
+    private BigDecimal latitude;
+    private BigDecimal longitude;
+    private Integer zoneId;
+    private String zoneName;
+}
@@ -0,0 +1,26 @@
+package com.taxi.booking.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for an address autocomplete suggestion
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlaceSuggestionResponse {
+
+    private String address;
+    private BigDecimal latitude;
+    private BigDecimal longitude;
+    private Long uses;
+
+    // CUSTOMER: one of the caller's own places; POPULAR: used often by everyone
+    private String source;
+}
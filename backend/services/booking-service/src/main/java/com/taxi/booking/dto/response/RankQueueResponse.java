@@ -0,0 +1,37 @@
+package com.taxi.booking.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO for the driver queue of a taxi rank, head first
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RankQueueResponse {
+
+    private Integer zoneId;
+    private String zoneName;
+    private Integer size;
+    private List<QueuedDriver> drivers;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class QueuedDriver {
+        private Integer position;
+        private Integer driverId;
+        private Integer vehicleId;
+        private LocalDateTime joinedAt;
+        private LocalDateTime lastSeenAt;
+        private Boolean claimed;
+    }
+}
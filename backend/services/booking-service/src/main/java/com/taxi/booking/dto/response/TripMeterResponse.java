@@ -0,0 +1,26 @@
+package com.taxi.booking.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for the live server-side meter of a trip
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TripMeterResponse {
+
+    private Integer bookingId;
+    private BigDecimal distanceKm;
+    private Long durationSeconds;
+    private Long waitSeconds;
+    private Integer acceptedPings;
+    private Integer rejectedPings;
+    private Boolean partial;
+}
@@ -19,4 +19,5 @@ public class UserResponse {
     private String firstName;
     private String lastName;
     private String email;
+    private String phoneNumber;
 }
\ No newline at end of file
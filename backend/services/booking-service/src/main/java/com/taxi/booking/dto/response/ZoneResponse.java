@@ -0,0 +1,31 @@
+package com.taxi.booking.dto.response;
+
+import com.taxi.booking.enums.ZoneType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO for Zone response
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ZoneResponse {
+
+    private Integer id;
+    private String code;
+    private String name;
+    private ZoneType zoneType;
+    private Integer priority;
+    private List<List<Double>> boundary;
+    private Boolean isRank;
+    private Boolean isActive;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -19,7 +19,9 @@ import java.time.LocalDateTime;
  * Maps to 'bookings' table in database
  */
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_bookings_pickup_zone", columnList = "pickup_zone_id, booking_time")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -71,6 +73,10 @@ public class Booking {
     @Column(name = "fare_scheme_id")
     private Integer fareSchemeId;
 
+    // Version of the fare scheme the booking is priced with; versions never change
+    @Column(name = "fare_scheme_version")
+    private Integer fareSchemeVersion;
+
     @Column(name = "payment_type", length = 20)
     @Enumerated(EnumType.STRING)
     private PaymentType paymentType;
@@ -85,6 +91,10 @@ public class Booking {
     @Column(name = "pickup_longitude", precision = 11, scale = 8)
     private BigDecimal pickupLongitude;
 
+    // Zone the pickup point fell in when the booking was made (see ZoneService)
+    @Column(name = "pickup_zone_id")
+    private Integer pickupZoneId;
+
     @Column(name = "drop_address", columnDefinition = "TEXT")
     private String dropAddress;
 
@@ -0,0 +1,28 @@
+package com.taxi.booking.entity;
+
+import com.taxi.booking.enums.BookingStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entity representing the change sequence of one booking status.
+ * Maps to 'booking_change_sequences' table; rows are only ever changed through
+ * BookingChangeSequenceRepository.increment.
+ */
+@Entity
+@Table(name = "booking_change_sequences")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingChangeSequence {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 30)
+    private BookingStatus status;
+
+    @Column(name = "seq", nullable = false)
+    private Long sequence = 0L;
+}
@@ -0,0 +1,111 @@
+package com.taxi.booking.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model holding the display fields of a booking that live in other services.
+ * Maps to 'booking_view' table; one row per booking, resolved when the booking is
+ * written and refreshed by the reconciler, so reads never call other services.
+ * The *Id columns record which source record each name was resolved from.
+ */
+@Entity
+@Table(name = "booking_view")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingView {
+
+    @Id
+    @Column(name = "booking_id")
+    private Integer bookingId;
+
+    // Vehicle class
+    @Column(name = "vehicle_class_id")
+    private Integer vehicleClassId;
+
+    @Column(name = "vehicle_class_name", length = 100)
+    private String vehicleClassName;
+
+    @Column(name = "vehicle_class_code", length = 50)
+    private String vehicleClassCode;
+
+    // Driver
+    @Column(name = "driver_id")
+    private Integer driverId;
+
+    @Column(name = "driver_code", length = 50)
+    private String driverCode;
+
+    @Column(name = "driver_name", length = 200)
+    private String driverName;
+
+    @Column(name = "driver_phone", length = 20)
+    private String driverPhone;
+
+    // Vehicle
+    @Column(name = "vehicle_id")
+    private Integer vehicleId;
+
+    @Column(name = "vehicle_code", length = 50)
+    private String vehicleCode;
+
+    @Column(name = "vehicle_registration_number", length = 50)
+    private String vehicleRegistrationNumber;
+
+    // Fare scheme
+    @Column(name = "fare_scheme_id")
+    private Integer fareSchemeId;
+
+    @Column(name = "fare_scheme_name", length = 100)
+    private String fareSchemeName;
+
+    @Column(name = "fare_scheme_code", length = 50)
+    private String fareSchemeCode;
+
+    // Corporate
+    @Column(name = "corporate_id")
+    private Integer corporateId;
+
+    @Column(name = "corporate_name", length = 200)
+    private String corporateName;
+
+    @Column(name = "corporate_code", length = 50)
+    private String corporateCode;
+
+    // Promo code
+    @Column(name = "promo_code_id")
+    private Integer promoCodeId;
+
+    @Column(name = "promo_code", length = 50)
+    private String promoCode;
+
+    // Users
+    @Column(name = "booked_by")
+    private Integer bookedBy;
+
+    @Column(name = "booked_by_name", length = 200)
+    private String bookedByName;
+
+    @Column(name = "dispatched_by")
+    private Integer dispatchedBy;
+
+    @Column(name = "dispatched_by_name", length = 200)
+    private String dispatchedByName;
+
+    // Null until every field resolved from a live answer; the reconciler retries such rows
+    @Column(name = "refreshed_at")
+    private LocalDateTime refreshedAt;
+
+    // Reconciler retries of an unresolved row back off, so rows that keep failing
+    // do not hold back the rest of the batch
+    @Column(name = "failed_attempts")
+    private Integer failedAttempts;
+
+    @Column(name = "retry_after")
+    private LocalDateTime retryAfter;
+}
@@ -0,0 +1,45 @@
+package com.taxi.booking.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing running booking totals of one customer.
+ * Maps to 'customer_stats' table, keyed by the E.164 contact number; rows are
+ * only ever changed through CustomerStatsRepository.upsert.
+ */
+@Entity
+@Table(name = "customer_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerStats {
+
+    @Id
+    @Column(name = "contact_number", length = 20)
+    private String contactNumber;
+
+    @Column(name = "completed_count", nullable = false)
+    private Integer completedCount = 0;
+
+    @Column(name = "cancelled_count", nullable = false)
+    private Integer cancelledCount = 0;
+
+    @Column(name = "first_booking_time")
+    private LocalDateTime firstBookingTime;
+
+    @Column(name = "last_booking_time")
+    private LocalDateTime lastBookingTime;
+
+    // Sum of totalFare over completed hires
+    @Column(name = "lifetime_fare", nullable = false, precision = 14, scale = 2)
+    private BigDecimal lifetimeFare = BigDecimal.ZERO;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
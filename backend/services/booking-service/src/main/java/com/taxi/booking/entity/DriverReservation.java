@@ -0,0 +1,31 @@
+package com.taxi.booking.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing the booking a driver is currently dispatched to.
+ * Maps to 'driver_reservations' table; driver_id is the primary key, so two
+ * booking-service instances can never both commit a dispatch of the same driver.
+ */
+@Entity
+@Table(name = "driver_reservations")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DriverReservation {
+
+    @Id
+    @Column(name = "driver_id")
+    private Integer driverId;
+
+    @Column(name = "booking_id", nullable = false)
+    private Integer bookingId;
+
+    @Column(name = "reserved_at", nullable = false)
+    private LocalDateTime reservedAt;
+}
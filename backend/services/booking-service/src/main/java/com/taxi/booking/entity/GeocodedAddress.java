@@ -0,0 +1,44 @@
+package com.taxi.booking.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing a successful geocoding lookup.
+ * Maps to 'geocoded_addresses' table; keyed by the SHA-256 of the normalised
+ * address so long addresses still get a compact primary key.
+ */
+@Entity
+@Table(name = "geocoded_addresses")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeocodedAddress {
+
+    @Id
+    @Column(name = "address_hash", length = 64)
+    private String addressHash;
+
+    @Column(name = "normalized_address", columnDefinition = "TEXT", nullable = false)
+    private String normalizedAddress;
+
+    @Column(name = "latitude", precision = 10, scale = 8, nullable = false)
+    private BigDecimal latitude;
+
+    @Column(name = "longitude", precision = 11, scale = 8, nullable = false)
+    private BigDecimal longitude;
+
+    // Provider that resolved the address
+    @Column(name = "provider", nullable = false, length = 30)
+    private String provider;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
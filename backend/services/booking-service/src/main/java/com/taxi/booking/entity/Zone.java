@@ -0,0 +1,60 @@
+package com.taxi.booking.entity;
+
+import com.taxi.booking.enums.ZoneType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing a geographic Zone (airport, city core, suburb ...)
+ * Maps to 'zones' table in database.
+ * The boundary is a JSON array of [latitude, longitude] vertices of a simple polygon.
+ */
+@Entity
+@Table(name = "zones")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Zone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "code", nullable = false, unique = true, length = 20)
+    private String code;
+
+    @Column(name = "name", nullable = false, length = 100)
+    private String name;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "zone_type", nullable = false, length = 20)
+    private ZoneType zoneType;
+
+    // Where zones overlap the highest priority wins, then the smallest zone
+    @Column(name = "priority", nullable = false)
+    private Integer priority = 0;
+
+    @Column(name = "boundary", columnDefinition = "TEXT", nullable = false)
+    private String boundary;
+
+    // Taxi rank: drivers queue here and jobs go to the longest-waiting driver
+    @Column(name = "is_rank", nullable = false)
+    private Boolean isRank = false;
+
+    @Column(name = "is_active", nullable = false)
+    private Boolean isActive = true;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
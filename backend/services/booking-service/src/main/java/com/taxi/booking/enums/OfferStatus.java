@@ -0,0 +1,12 @@
+package com.taxi.booking.enums;
+
+/**
+ * Enum for Dispatch Offer Status
+ */
+public enum OfferStatus {
+    PENDING,
+    ACCEPTED,
+    REJECTED,
+    EXPIRED,
+    CANCELLED
+}
@@ -0,0 +1,11 @@
+package com.taxi.booking.enums;
+
+/**
+ * Enum for Zone Type
+ */
+public enum ZoneType {
+    AIRPORT,
+    CITY_CORE,
+    SUBURB,
+    OTHER
+}
@@ -1,6 +1,9 @@
 package com.taxi.booking.repository;
 
 import com.taxi.booking.entity.BookingCancellation;
+import com.taxi.booking.enums.PaymentType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -36,6 +39,46 @@ public interface BookingCancellationRepository extends JpaRepository<BookingCanc
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
 
+    /**
+     * Search cancellations with the booking fetch-joined in the same query.
+     * Null parameters are ignored; search terms are matched as substrings.
+     */
+    @Query(value = "SELECT bc FROM BookingCancellation bc JOIN FETCH bc.booking b WHERE " +
+            "bc.cancelledTime BETWEEN :startDate AND :endDate " +
+            "AND (:cancelledType IS NULL OR bc.cancelledType = :cancelledType) " +
+            "AND (:bookedBy IS NULL OR b.bookedBy = :bookedBy) " +
+            "AND (:hireType IS NULL OR b.hireType = :hireType) " +
+            "AND (:paymentType IS NULL OR b.paymentType = :paymentType) " +
+            "AND (:corporateId IS NULL OR b.corporateId = :corporateId) " +
+            "AND (:phone IS NULL OR b.contactNumber LIKE CONCAT('%', :phone, '%') " +
+            "     OR b.bookingId LIKE CONCAT('%', :phone, '%')) " +
+            "AND (:customerName IS NULL OR LOWER(b.customerName) LIKE LOWER(CONCAT('%', :customerName, '%'))) " +
+            "AND (:bookingNumber IS NULL OR b.bookingId LIKE CONCAT('%', :bookingNumber, '%')) " +
+            "ORDER BY bc.cancelledTime DESC",
+            countQuery = "SELECT COUNT(bc) FROM BookingCancellation bc JOIN bc.booking b WHERE " +
+            "bc.cancelledTime BETWEEN :startDate AND :endDate " +
+            "AND (:cancelledType IS NULL OR bc.cancelledType = :cancelledType) " +
+            "AND (:bookedBy IS NULL OR b.bookedBy = :bookedBy) " +
+            "AND (:hireType IS NULL OR b.hireType = :hireType) " +
+            "AND (:paymentType IS NULL OR b.paymentType = :paymentType) " +
+            "AND (:corporateId IS NULL OR b.corporateId = :corporateId) " +
+            "AND (:phone IS NULL OR b.contactNumber LIKE CONCAT('%', :phone, '%') " +
+            "     OR b.bookingId LIKE CONCAT('%', :phone, '%')) " +
+            "AND (:customerName IS NULL OR LOWER(b.customerName) LIKE LOWER(CONCAT('%', :customerName, '%'))) " +
+            "AND (:bookingNumber IS NULL OR b.bookingId LIKE CONCAT('%', :bookingNumber, '%'))")
+    Page<BookingCancellation> searchCancellations(
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("cancelledType") String cancelledType,
+            @Param("bookedBy") Integer bookedBy,
+            @Param("hireType") String hireType,
+            @Param("paymentType") PaymentType paymentType,
+            @Param("corporateId") Integer corporateId,
+            @Param("phone") String phone,
+            @Param("customerName") String customerName,
+            @Param("bookingNumber") String bookingNumber,
+            Pageable pageable);
+
     /**
      * Find cancellations by user
      */
@@ -0,0 +1,37 @@
+package com.taxi.booking.repository;
+
+import com.taxi.booking.entity.BookingChangeSequence;
+import com.taxi.booking.enums.BookingStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for BookingChangeSequence
+ */
+@Repository
+public interface BookingChangeSequenceRepository extends JpaRepository<BookingChangeSequence, BookingStatus> {
+
+    /**
+     * Bump a status's sequence in one statement, creating the row if needed.
+     * The row stays locked until the transaction ends, so bumps of one status
+     * commit in sequence order.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO booking_change_sequences (status, seq) VALUES (:status, 1) " +
+            "ON DUPLICATE KEY UPDATE seq = seq + 1", nativeQuery = true)
+    int increment(@Param("status") String status);
+
+    /**
+     * [status, sequence] of the given statuses; a status without a row has never changed
+     */
+    @Query("SELECT s.status, s.sequence FROM BookingChangeSequence s WHERE s.status IN :statuses")
+    List<Object[]> findSequences(@Param("statuses") Collection<BookingStatus> statuses);
+}
@@ -3,13 +3,17 @@ package com.taxi.booking.repository;
 import java.math.BigDecimal;
 import com.taxi.booking.entity.Booking;
 import com.taxi.booking.enums.BookingStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -35,6 +39,11 @@ public interface BookingRepository extends JpaRepository<Booking, Integer> {
          */
         List<Booking> findByStatusAndIsTestBookingFalse(BookingStatus status);
 
+        /**
+         * Find bookings in any of the given statuses
+         */
+        List<Booking> findByStatusIn(Collection<BookingStatus> statuses);
+
         /**
          * Find inquiry bookings
          */
@@ -125,6 +134,7 @@ public interface BookingRepository extends JpaRepository<Booking, Integer> {
                         "(:hireType IS NULL OR b.hireType = :hireType) AND " +
                         "(:paymentType IS NULL OR b.paymentType = :paymentType) AND " +
                         "(:bookingSource IS NULL OR b.bookingSource = :bookingSource) AND " +
+                        "(:pickupZoneId IS NULL OR b.pickupZoneId = :pickupZoneId) AND " +
                         "b.bookingTime BETWEEN :startDate AND :endDate " +
                         "ORDER BY b.bookingTime DESC")
         List<Booking> advancedSearch(
@@ -136,9 +146,79 @@ public interface BookingRepository extends JpaRepository<Booking, Integer> {
                         @Param("hireType") String hireType,
                         @Param("paymentType") String paymentType,
                         @Param("bookingSource") String bookingSource,
+                        @Param("pickupZoneId") Integer pickupZoneId,
                         @Param("startDate") LocalDateTime startDate,
                         @Param("endDate") LocalDateTime endDate);
 
+        /**
+         * Bookings with pickup coordinates but no zone, in id order after the given id
+         */
+        @Query("SELECT b FROM Booking b WHERE b.pickupZoneId IS NULL " +
+                        "AND b.pickupLatitude IS NOT NULL AND b.pickupLongitude IS NOT NULL " +
+                        "AND b.id > :afterId ORDER BY b.id")
+        List<Booking> findWithoutPickupZone(@Param("afterId") Integer afterId, Pageable pageable);
+
+        /**
+         * [id, contactNumber] of bookings made since the given time, in id order
+         * after the given id; loads the phone index
+         */
+        @Query("SELECT b.id, b.contactNumber FROM Booking b WHERE b.contactNumber IS NOT NULL " +
+                        "AND b.bookingTime >= :since AND b.id > :afterId ORDER BY b.id")
+        List<Object[]> findContactNumbers(@Param("afterId") Integer afterId,
+                        @Param("since") LocalDateTime since,
+                        Pageable pageable);
+
+        /**
+         * [id, contactNumber, bookingTime, pickupAddress, pickupLatitude, pickupLongitude,
+         * dropAddress, dropLatitude, dropLongitude] of bookings made since the given
+         * time, in id order after afterId up to upToId; loads the frequent-places index
+         */
+        @Query("SELECT b.id, b.contactNumber, b.bookingTime, b.pickupAddress, b.pickupLatitude, " +
+                        "b.pickupLongitude, b.dropAddress, b.dropLatitude, b.dropLongitude " +
+                        "FROM Booking b WHERE b.bookingTime >= :since AND b.id > :afterId " +
+                        "AND b.id <= :upToId ORDER BY b.id")
+        List<Object[]> findPlaces(@Param("afterId") Integer afterId,
+                        @Param("upToId") Integer upToId,
+                        @Param("since") LocalDateTime since,
+                        Pageable pageable);
+
+        /**
+         * Highest booking id so far, 0 when there are none
+         */
+        @Query("SELECT COALESCE(MAX(b.id), 0) FROM Booking b")
+        Integer findMaxId();
+
+        /**
+         * [contactNumber, completed, cancelled, first bookingTime, last bookingTime,
+         * completed fare] per contact number as typed; seeds customer_stats
+         */
+        @Query("SELECT b.contactNumber, " +
+                        "SUM(CASE WHEN b.status = 'COMPLETED' THEN 1 ELSE 0 END), " +
+                        "SUM(CASE WHEN b.status = 'CANCELLED' THEN 1 ELSE 0 END), " +
+                        "MIN(b.bookingTime), MAX(b.bookingTime), " +
+                        "SUM(CASE WHEN b.status = 'COMPLETED' THEN b.totalFare ELSE 0 END) " +
+                        "FROM Booking b WHERE b.contactNumber IS NOT NULL GROUP BY b.contactNumber")
+        List<Object[]> aggregateByContactNumber();
+
+        /**
+         * [id, vehicleClassId, corporateId, fareSchemeId, fareSchemeVersion,
+         * totalDistance, totalWaitTime, startTime, completedTime, totalFare] of
+         * completed non-test bookings in [from, to), in id order after the given id
+         */
+        @Query("SELECT b.id, b.vehicleClassId, b.corporateId, b.fareSchemeId, b.fareSchemeVersion, " +
+                        "b.totalDistance, b.totalWaitTime, b.startTime, b.completedTime, b.totalFare " +
+                        "FROM Booking b WHERE b.status = 'COMPLETED' AND b.isTestBooking = false " +
+                        "AND b.completedTime >= :from AND b.completedTime < :to AND b.id > :afterId ORDER BY b.id")
+        List<Object[]> findCompletedTripFigures(@Param("afterId") Integer afterId,
+                        @Param("from") LocalDateTime from,
+                        @Param("to") LocalDateTime to,
+                        Pageable pageable);
+
+        @Modifying
+        @Transactional
+        @Query("UPDATE Booking b SET b.pickupZoneId = :zoneId WHERE b.id IN :ids")
+        int setPickupZone(@Param("zoneId") Integer zoneId, @Param("ids") Collection<Integer> ids);
+
         /**
          * Calculate total fare for completed bookings (excluding test bookings)
          */
@@ -172,4 +252,12 @@ public interface BookingRepository extends JpaRepository<Booking, Integer> {
          */
         @Query("SELECT b FROM Booking b WHERE b.vehicleClassId = :vehicleClassId")
         List<Booking> findByVehicleClassId(@Param("vehicleClassId") Integer vehicleClassId);
-}
\ No newline at end of file
+
+        /**
+         * Bookings that have no booking_view row yet (created before the read model existed)
+         */
+        @Query("SELECT b FROM Booking b WHERE NOT EXISTS " +
+                        "(SELECT 1 FROM BookingView v WHERE v.bookingId = b.id) " +
+                        "ORDER BY b.id DESC")
+        List<Booking> findWithoutView(Pageable pageable);
+}
@@ -0,0 +1,37 @@
+package com.taxi.booking.repository;
+
+import com.taxi.booking.entity.BookingView;
+import com.taxi.booking.enums.BookingStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for BookingView read model
+ */
+@Repository
+public interface BookingViewRepository extends JpaRepository<BookingView, Integer> {
+
+    /**
+     * Views never fully resolved, and views last refreshed before the cutoff
+     * of bookings still in progress or booked since recentSince; oldest first.
+     * Settled history keeps the names it was resolved with. Views backing off
+     * after failed attempts are skipped until their retryAfter.
+     */
+    @Query("SELECT v FROM BookingView v, Booking b WHERE b.id = v.bookingId AND (" +
+            "v.refreshedAt IS NULL OR (v.refreshedAt < :cutoff " +
+            "AND (b.status NOT IN :settled OR b.bookingTime >= :recentSince))) " +
+            "AND (v.retryAfter IS NULL OR v.retryAfter <= :now) " +
+            "ORDER BY v.refreshedAt ASC")
+    List<BookingView> findStale(@Param("cutoff") LocalDateTime cutoff,
+            @Param("recentSince") LocalDateTime recentSince,
+            @Param("settled") Collection<BookingStatus> settled,
+            @Param("now") LocalDateTime now,
+            Pageable pageable);
+}
@@ -0,0 +1,65 @@
+package com.taxi.booking.repository;
+
+import com.taxi.booking.entity.CustomerStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Repository interface for CustomerStats
+ */
+@Repository
+public interface CustomerStatsRepository extends JpaRepository<CustomerStats, String> {
+
+    /**
+     * Add to a customer's totals in one statement, creating the row if needed;
+     * concurrent bookings of the same customer never lose an update
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO customer_stats (contact_number, completed_count, cancelled_count, " +
+            "first_booking_time, last_booking_time, lifetime_fare, updated_at) " +
+            "VALUES (:number, :completed, :cancelled, :firstTime, :lastTime, :fare, CURRENT_TIMESTAMP) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "completed_count = completed_count + VALUES(completed_count), " +
+            "cancelled_count = cancelled_count + VALUES(cancelled_count), " +
+            "first_booking_time = LEAST(first_booking_time, VALUES(first_booking_time)), " +
+            "last_booking_time = GREATEST(last_booking_time, VALUES(last_booking_time)), " +
+            "lifetime_fare = lifetime_fare + VALUES(lifetime_fare), " +
+            "updated_at = CURRENT_TIMESTAMP", nativeQuery = true)
+    int upsert(@Param("number") String contactNumber,
+            @Param("completed") int completed,
+            @Param("cancelled") int cancelled,
+            @Param("firstTime") LocalDateTime firstBookingTime,
+            @Param("lastTime") LocalDateTime lastBookingTime,
+            @Param("fare") BigDecimal fare);
+
+    /**
+     * Set a customer's totals outright, creating the row if needed; running it
+     * twice with the same figures leaves the same row
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO customer_stats (contact_number, completed_count, cancelled_count, " +
+            "first_booking_time, last_booking_time, lifetime_fare, updated_at) " +
+            "VALUES (:number, :completed, :cancelled, :firstTime, :lastTime, :fare, CURRENT_TIMESTAMP) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "completed_count = VALUES(completed_count), " +
+            "cancelled_count = VALUES(cancelled_count), " +
+            "first_booking_time = VALUES(first_booking_time), " +
+            "last_booking_time = VALUES(last_booking_time), " +
+            "lifetime_fare = VALUES(lifetime_fare), " +
+            "updated_at = CURRENT_TIMESTAMP", nativeQuery = true)
+    int assign(@Param("number") String contactNumber,
+            @Param("completed") int completed,
+            @Param("cancelled") int cancelled,
+            @Param("firstTime") LocalDateTime firstBookingTime,
+            @Param("lastTime") LocalDateTime lastBookingTime,
+            @Param("fare") BigDecimal fare);
+}
@@ -0,0 +1,69 @@
+package com.taxi.booking.repository;
+
+import com.taxi.booking.entity.DriverReservation;
+import com.taxi.booking.enums.BookingStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Repository interface for DriverReservation
+ */
+@Repository
+public interface DriverReservationRepository extends JpaRepository<DriverReservation, Integer> {
+
+    /**
+     * Plain INSERT (save() would merge onto an existing row); fails with a
+     * primary key violation when the driver is already reserved
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO driver_reservations (driver_id, booking_id, reserved_at) " +
+            "VALUES (:driverId, :bookingId, :reservedAt)", nativeQuery = true)
+    int insert(@Param("driverId") Integer driverId,
+            @Param("bookingId") Integer bookingId,
+            @Param("reservedAt") LocalDateTime reservedAt);
+
+    /**
+     * INSERT that leaves an existing row for the driver untouched instead of
+     * failing, so the dispatch transaction stays usable; read the holder with
+     * lockBookingId afterwards
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO driver_reservations (driver_id, booking_id, reserved_at) " +
+            "VALUES (:driverId, :bookingId, :reservedAt) " +
+            "ON DUPLICATE KEY UPDATE driver_id = driver_id", nativeQuery = true)
+    int insertIfAbsent(@Param("driverId") Integer driverId,
+            @Param("bookingId") Integer bookingId,
+            @Param("reservedAt") LocalDateTime reservedAt);
+
+    /**
+     * Booking the driver is reserved for, as committed (locking read), and
+     * locked until the current transaction ends
+     */
+    @Query(value = "SELECT booking_id FROM driver_reservations WHERE driver_id = :driverId FOR UPDATE",
+            nativeQuery = true)
+    Optional<Integer> lockBookingId(@Param("driverId") Integer driverId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM DriverReservation r WHERE r.driverId = :driverId AND r.bookingId = :bookingId")
+    int release(@Param("driverId") Integer driverId, @Param("bookingId") Integer bookingId);
+
+    /**
+     * Remove reservations whose booking is no longer dispatched or on a trip
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM DriverReservation r WHERE r.bookingId NOT IN " +
+            "(SELECT b.id FROM Booking b WHERE b.status IN :statuses AND b.driverId = r.driverId)")
+    int releaseInactive(@Param("statuses") Collection<BookingStatus> statuses);
+}
@@ -0,0 +1,34 @@
+package com.taxi.booking.repository;
+
+import com.taxi.booking.entity.GeocodedAddress;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+/**
+ * Repository interface for GeocodedAddress
+ */
+@Repository
+public interface GeocodedAddressRepository extends JpaRepository<GeocodedAddress, String> {
+
+    /**
+     * INSERT IGNORE, so a lookup stored concurrently elsewhere never fails the
+     * booking write that geocoded it; runs in a transaction of its own, before
+     * the booking's
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT IGNORE INTO geocoded_addresses " +
+            "(address_hash, normalized_address, latitude, longitude, provider, created_at) " +
+            "VALUES (:hash, :address, :latitude, :longitude, :provider, CURRENT_TIMESTAMP)", nativeQuery = true)
+    int insertIgnore(@Param("hash") String hash,
+            @Param("address") String address,
+            @Param("latitude") BigDecimal latitude,
+            @Param("longitude") BigDecimal longitude,
+            @Param("provider") String provider);
+}
@@ -0,0 +1,23 @@
+package com.taxi.booking.repository;
+
+import com.taxi.booking.entity.Zone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository interface for Zone entity
+ */
+@Repository
+public interface ZoneRepository extends JpaRepository<Zone, Integer> {
+
+    boolean existsByCode(String code);
+
+    /**
+     * Latest change to any zone; with count() tells whether the zone set changed
+     */
+    @Query("SELECT MAX(z.updatedAt) FROM Zone z")
+    LocalDateTime findLastUpdatedAt();
+}
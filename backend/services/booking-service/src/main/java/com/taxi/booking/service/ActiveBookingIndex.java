@@ -0,0 +1,166 @@
+package com.taxi.booking.service;
+
+import com.taxi.booking.dto.response.BookingResponse;
+import com.taxi.booking.enums.BookingStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory index of all non-terminal bookings (INQUIRY..PASSENGER_ONBOARD),
+ * partitioned by status, vehicle class and driver, for the live status boards.
+ *
+ * Readers get an immutable snapshot, so one board request always sees a single
+ * consistent state. Writers rebuild the snapshot under a lock after the booking
+ * transaction commits; with a few hundred active bookings this is cheap.
+ * Returned BookingResponse objects are shared and must be treated as read-only.
+ */
+@Component
+@Slf4j
+public class ActiveBookingIndex {
+
+    public static final Set<BookingStatus> ACTIVE_STATUSES = Collections.unmodifiableSet(
+            EnumSet.range(BookingStatus.INQUIRY, BookingStatus.PASSENGER_ONBOARD));
+
+    private final Object writeLock = new Object();
+
+    private volatile Snapshot snapshot = Snapshot.of(Map.of());
+    private volatile boolean loaded = false;
+
+    // Mutation sequence, used so a reload never overwrites writes that landed while it ran
+    private long sequence = 0;
+    private final Map<Integer, Long> touchedAt = new HashMap<>();
+
+    public static boolean isActive(BookingStatus status) {
+        return status != null && ACTIVE_STATUSES.contains(status);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public int size() {
+        return snapshot.byId().size();
+    }
+
+    public List<BookingResponse> byStatus(BookingStatus status) {
+        return snapshot.byStatus().getOrDefault(status, List.of());
+    }
+
+    public List<BookingResponse> byStatusAndVehicleClass(BookingStatus status, Integer vehicleClassId) {
+        return snapshot.byVehicleClass().getOrDefault(vehicleClassId, List.of()).stream()
+                .filter(b -> b.getStatus() == status)
+                .toList();
+    }
+
+    public List<BookingResponse> byDriver(Integer driverId) {
+        return snapshot.byDriver().getOrDefault(driverId, List.of());
+    }
+
+    /**
+     * Record the new state of a booking once the current transaction commits;
+     * terminal statuses evict it
+     */
+    public void apply(BookingResponse booking) {
+        AfterCommit.run(() -> {
+            synchronized (writeLock) {
+                Map<Integer, BookingResponse> byId = new HashMap<>(snapshot.byId());
+                if (isActive(booking.getStatus())) {
+                    byId.put(booking.getId(), booking);
+                } else {
+                    byId.remove(booking.getId());
+                }
+                touchedAt.put(booking.getId(), ++sequence);
+                snapshot = Snapshot.of(byId);
+            }
+        });
+    }
+
+    /**
+     * Evict a booking once the current transaction commits
+     */
+    public void remove(Integer bookingId) {
+        AfterCommit.run(() -> {
+            synchronized (writeLock) {
+                Map<Integer, BookingResponse> byId = new HashMap<>(snapshot.byId());
+                byId.remove(bookingId);
+                touchedAt.put(bookingId, ++sequence);
+                snapshot = Snapshot.of(byId);
+            }
+        });
+    }
+
+    /**
+     * Start a full reload; pass the returned marker to completeReload
+     */
+    public long beginReload() {
+        synchronized (writeLock) {
+            return sequence;
+        }
+    }
+
+    /**
+     * Replace the index with bookings loaded from the database, keeping the
+     * in-memory state of any booking written after beginReload
+     */
+    public void completeReload(List<BookingResponse> activeBookings, long reloadStartedAt) {
+        synchronized (writeLock) {
+            Map<Integer, BookingResponse> byId = new HashMap<>();
+            for (BookingResponse booking : activeBookings) {
+                if (isActive(booking.getStatus())) {
+                    byId.put(booking.getId(), booking);
+                }
+            }
+            Map<Integer, BookingResponse> current = snapshot.byId();
+            touchedAt.forEach((id, touched) -> {
+                if (touched > reloadStartedAt) {
+                    BookingResponse latest = current.get(id);
+                    if (latest != null) {
+                        byId.put(id, latest);
+                    } else {
+                        byId.remove(id);
+                    }
+                }
+            });
+            touchedAt.values().removeIf(touched -> touched <= reloadStartedAt);
+
+            snapshot = Snapshot.of(byId);
+            if (!loaded) {
+                loaded = true;
+                log.info("Active booking index loaded with {} bookings", byId.size());
+            } else {
+                log.debug("Active booking index resynced with {} bookings", byId.size());
+            }
+        }
+    }
+
+    private record Snapshot(
+            Map<Integer, BookingResponse> byId,
+            Map<BookingStatus, List<BookingResponse>> byStatus,
+            Map<Integer, List<BookingResponse>> byVehicleClass,
+            Map<Integer, List<BookingResponse>> byDriver) {
+
+        static Snapshot of(Map<Integer, BookingResponse> bookings) {
+            List<BookingResponse> ordered = bookings.values().stream()
+                    .sorted(Comparator.comparing(BookingResponse::getId))
+                    .toList();
+            return new Snapshot(
+                    Map.copyOf(bookings),
+                    partition(ordered, BookingResponse::getStatus),
+                    partition(ordered, BookingResponse::getVehicleClassId),
+                    partition(ordered, BookingResponse::getDriverId));
+        }
+
+        private static <K> Map<K, List<BookingResponse>> partition(
+                List<BookingResponse> ordered, Function<BookingResponse, K> key) {
+            return ordered.stream()
+                    .filter(b -> key.apply(b) != null)
+                    .collect(Collectors.collectingAndThen(
+                            Collectors.groupingBy(key, Collectors.toUnmodifiableList()),
+                            Map::copyOf));
+        }
+    }
+}
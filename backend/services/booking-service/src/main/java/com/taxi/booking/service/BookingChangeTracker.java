@@ -0,0 +1,110 @@
+package com.taxi.booking.service;
+
+import com.taxi.booking.enums.BookingStatus;
+import com.taxi.booking.repository.BookingChangeSequenceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Change sequences for bookings, one per status, kept in the database so every
+ * instance sees the same values. Every booking mutation bumps them in its own
+ * transaction; board and list endpoints derive their ETag from the sequences
+ * they depend on.
+ *
+ * The tracker also remembers which sequences this instance's ActiveBookingIndex
+ * reflects, so a board read can tell when another instance, or a bulk update that
+ * bypassed the index, changed a status since.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingChangeTracker {
+
+    private final BookingChangeSequenceRepository sequenceRepository;
+
+    private final Map<BookingStatus, Long> indexed = new ConcurrentHashMap<>();
+
+    /**
+     * Record a change touching the given statuses (e.g. old and new status of a
+     * transition) that the caller also applies to the ActiveBookingIndex
+     */
+    public void recordChange(BookingStatus... statuses) {
+        Set<BookingStatus> touched = bump(statuses);
+        if (touched.isEmpty()) {
+            return;
+        }
+        // Our own row locks make these exactly the values this transaction commits
+        Map<BookingStatus, Long> committed = sequences(touched);
+        AfterCommit.run(() -> committed.forEach((status, sequence) ->
+                // Only when no other instance's change slipped in between
+                indexed.computeIfPresent(status, (s, seen) -> seen == sequence - 1 ? sequence : seen)));
+    }
+
+    /**
+     * Record a change the ActiveBookingIndex does not see, e.g. a bulk update;
+     * every instance resyncs its index on the next board read
+     */
+    public void recordBulkChange(BookingStatus... statuses) {
+        bump(statuses);
+    }
+
+    /**
+     * Current sequence of each given status
+     */
+    public Map<BookingStatus, Long> sequences(Collection<BookingStatus> statuses) {
+        Map<BookingStatus, Long> sequences = new EnumMap<>(BookingStatus.class);
+        statuses.forEach(status -> sequences.put(status, 0L));
+        for (Object[] row : sequenceRepository.findSequences(statuses)) {
+            sequences.put((BookingStatus) row[0], (Long) row[1]);
+        }
+        return sequences;
+    }
+
+    /**
+     * Weak ETag over the given statuses, or over all bookings when none are given.
+     * Sequences only grow, so their sum changes with every change. The zone version
+     * covers pickup zone names, and the date is included because list endpoints
+     * default to date windows ending today.
+     */
+    public String etag(Collection<BookingStatus> statuses, String zoneVersion) {
+        long sequence = sequences(statuses.isEmpty() ? EnumSet.allOf(BookingStatus.class) : statuses)
+                .values().stream()
+                .mapToLong(Long::longValue)
+                .sum();
+        return "W/\"" + sequence + "-" + Integer.toHexString(zoneVersion.hashCode())
+                + "-" + LocalDate.now() + "\"";
+    }
+
+    /**
+     * Whether any of the statuses changed after the state the ActiveBookingIndex reflects
+     */
+    public boolean isIndexBehind(Collection<BookingStatus> statuses) {
+        return sequences(statuses).entrySet().stream()
+                .anyMatch(e -> e.getValue() > indexed.getOrDefault(e.getKey(), -1L));
+    }
+
+    /**
+     * Record that the ActiveBookingIndex was reloaded from data at least as new as
+     * the given sequences, read before the reload
+     */
+    public void indexSynced(Map<BookingStatus, Long> sequences) {
+        sequences.forEach((status, sequence) -> indexed.merge(status, sequence, Math::max));
+    }
+
+    // ==================== PRIVATE HELPER METHODS ====================
+
+    private Set<BookingStatus> bump(BookingStatus... statuses) {
+        // Enum order, so concurrent transactions lock the rows in the same order
+        Set<BookingStatus> touched = EnumSet.noneOf(BookingStatus.class);
+        for (BookingStatus status : statuses) {
+            if (status != null) {
+                touched.add(status);
+            }
+        }
+        touched.forEach(status -> sequenceRepository.increment(status.name()));
+        return touched;
+    }
+}
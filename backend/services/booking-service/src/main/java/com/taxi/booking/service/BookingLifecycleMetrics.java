@@ -0,0 +1,71 @@
+package com.taxi.booking.service;
+
+import com.taxi.booking.entity.Booking;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Records business-latency distributions from booking timestamps
+ * Metric: booking.lifecycle{stage}
+ *
+ * Stages:
+ * - booking_to_dispatch: bookingTime → dispatchedTime (advance bookings excluded)
+ * - dispatch_to_accept:  dispatchedTime → driverAcceptedTime
+ * - accept_to_arrive:    driverAcceptedTime → driverArrivedTime
+ * - start_to_complete:   startTime → completedTime
+ *
+ * Called inside the transaction that makes the change; the sample is only
+ * recorded once it commits, so rolled-back transitions are not counted.
+ */
+@Component
+public class BookingLifecycleMetrics {
+
+    private final Timer bookingToDispatch;
+    private final Timer dispatchToAccept;
+    private final Timer acceptToArrive;
+    private final Timer startToComplete;
+
+    public BookingLifecycleMetrics(MeterRegistry meterRegistry) {
+        this.bookingToDispatch = stageTimer(meterRegistry, "booking_to_dispatch");
+        this.dispatchToAccept = stageTimer(meterRegistry, "dispatch_to_accept");
+        this.acceptToArrive = stageTimer(meterRegistry, "accept_to_arrive");
+        this.startToComplete = stageTimer(meterRegistry, "start_to_complete");
+    }
+
+    public void recordDispatched(Booking booking) {
+        if (!Boolean.TRUE.equals(booking.getIsAdvanceBooking())) {
+            record(bookingToDispatch, booking.getBookingTime(), booking.getDispatchedTime());
+        }
+    }
+
+    public void recordDriverAccepted(Booking booking) {
+        record(dispatchToAccept, booking.getDispatchedTime(), booking.getDriverAcceptedTime());
+    }
+
+    public void recordDriverArrived(Booking booking) {
+        record(acceptToArrive, booking.getDriverAcceptedTime(), booking.getDriverArrivedTime());
+    }
+
+    public void recordCompleted(Booking booking) {
+        record(startToComplete, booking.getStartTime(), booking.getCompletedTime());
+    }
+
+    private void record(Timer timer, LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            return;
+        }
+        Duration elapsed = Duration.between(from, to);
+        AfterCommit.run(() -> timer.record(elapsed));
+    }
+
+    private static Timer stageTimer(MeterRegistry meterRegistry, String stage) {
+        return Timer.builder("booking.lifecycle")
+                .description("Elapsed business time between booking lifecycle events")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+}
@@ -6,27 +6,44 @@ import com.taxi.booking.dto.response.*;
 import com.taxi.booking.entity.Booking;
 import com.taxi.booking.entity.BookingCancellation;
 import com.taxi.booking.entity.BookingStatusHistory;
+import com.taxi.booking.entity.BookingView;
 import com.taxi.booking.enums.BookingStatus;
+import com.taxi.booking.enums.PaymentType;
 import com.taxi.booking.repository.BookingCancellationRepository;
 import com.taxi.booking.repository.BookingRepository;
 import com.taxi.booking.repository.BookingStatusHistoryRepository;
+import com.taxi.booking.service.geocoding.GeocodingService;
 import feign.FeignException;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed(value = "booking.service", description = "Latency of BookingService operations")
 public class BookingService {
 
     private final BookingRepository bookingRepository;
@@ -35,11 +52,28 @@ public class BookingService {
 
     private final VehicleServiceClient vehicleServiceClient;
     private final DriverServiceClient driverServiceClient;
-    private final FareServiceClient fareServiceClient;
     private final CorporateServiceClient corporateServiceClient;
-    private final PromoServiceClient promoServiceClient;
     private final UserServiceClient userServiceClient;
     private final MailServiceClient mailServiceClient;
+    private final FareServiceClient fareServiceClient;
+
+    private final BookingLifecycleMetrics lifecycleMetrics;
+    private final BookingViewService bookingViewService;
+    private final ActiveBookingIndex activeBookingIndex;
+    private final BookingChangeTracker changeTracker;
+    private final DriverReservationService driverReservationService;
+    private final TripMeterService tripMeterService;
+    private final ZoneService zoneService;
+    private final RankQueueService rankQueueService;
+    private final GeocodingService geocodingService;
+    private final PhoneIndex phoneIndex;
+    private final PlaceSuggestionService placeSuggestionService;
+    private final CustomerStatsService customerStatsService;
+    private final TransactionTemplate transactionTemplate;
+
+    // Serialises active index reloads, so an older load never replaces a newer one
+    private final ReentrantLock activeIndexReload = new ReentrantLock();
+    private volatile String indexedZoneVersion = "";
 
     // --- CONSTANTS ---
     // The specific database ID for TUK vehicles
@@ -48,10 +82,28 @@ public class BookingService {
     // Default identifier if no specific class is found
     private static final String DEFAULT_CLASS_IDENTIFIER = "GEN";
 
-    @Transactional
+    /**
+     * Create a booking. The fare scheme version, missing pickup and drop
+     * coordinates and the booking view's display records are fetched first,
+     * so the create transaction makes no call for them.
+     */
     public BookingResponse createBooking(CreateBookingRequest request) {
         log.info("Creating new booking for customer: {}", request.getCustomerName());
 
+        Integer fareSchemeVersion = resolveFareSchemeVersion(
+                request.getFareSchemeId(), request.getFareSchemeVersion());
+        GeocodedStops stops = new GeocodedStops(
+                geocodeIfMissing(request.getPickupAddress(), request.getPickupLatitude(), request.getPickupLongitude()),
+                geocodeIfMissing(request.getDropAddress(), request.getDropLatitude(), request.getDropLongitude()));
+        BookingViewService.Lookups lookups = bookingViewService.fetch(null, new BookingViewService.Sources(
+                request.getVehicleClassId(), null, null, request.getFareSchemeId(), request.getCorporateId(),
+                request.getPromoCodeId(), request.getBookedBy(), null));
+        return transactionTemplate.execute(status -> createBooking(request, fareSchemeVersion, stops, lookups));
+    }
+
+    private BookingResponse createBooking(CreateBookingRequest request, Integer fareSchemeVersion,
+            GeocodedStops stops, BookingViewService.Lookups lookups) {
+
         // 1. Determine the Vehicle Class Identifier
         String classIdentifier = DEFAULT_CLASS_IDENTIFIER;
         VehicleClassResponse vehicleClassDetails = null;
@@ -117,6 +169,7 @@ public class BookingService {
         booking.setHireType(request.getHireType());
         booking.setVehicleClassId(request.getVehicleClassId());
         booking.setFareSchemeId(request.getFareSchemeId());
+        booking.setFareSchemeVersion(fareSchemeVersion);
         booking.setPaymentType(request.getPaymentType());
         booking.setPickupAddress(request.getPickupAddress());
         booking.setPickupLatitude(request.getPickupLatitude());
@@ -124,6 +177,9 @@ public class BookingService {
         booking.setDropAddress(request.getDropAddress());
         booking.setDropLatitude(request.getDropLatitude());
         booking.setDropLongitude(request.getDropLongitude());
+        stops.applyTo(booking);
+        booking.setPickupZoneId(zoneService.classify(
+                booking.getPickupLatitude(), booking.getPickupLongitude()));
         booking.setDestination(request.getDestination());
         booking.setEstimatedDistance(request.getEstimatedDistance());
         booking.setPickupTime(request.getPickupTime());
@@ -159,14 +215,45 @@ public class BookingService {
                 savedBooking.getStatus().name(), "SYSTEM", null);
         sendBookingEmail(savedBooking, "BOOKING_CREATED");
 
-        return convertToResponse(savedBooking);
+        BookingResponse response = convertToResponse(savedBooking, bookingViewService.refresh(savedBooking, lookups));
+        activeBookingIndex.apply(response);
+        changeTracker.recordChange(savedBooking.getStatus());
+        phoneIndex.indexAfterCommit(savedBooking.getId(), null, savedBooking.getContactNumber());
+        placeSuggestionService.recordAfterCommit(savedBooking);
+        customerStatsService.recordCreated(savedBooking);
+        return response;
     }
 
-    @Transactional
+    /**
+     * Update a booking. A new fare scheme, or a newly quoted version, missing
+     * pickup and drop coordinates and the booking view's new display records
+     * are fetched before the update transaction starts.
+     */
     public BookingResponse updateBooking(Integer id, UpdateBookingRequest request) {
         log.info("Updating booking with id: {}", id);
 
+        Booking current = findBookingById(id);
+        Integer previousFareSchemeId = current.getFareSchemeId();
+        boolean repin = request.getFareSchemeVersion() != null
+                || !Objects.equals(previousFareSchemeId, request.getFareSchemeId());
+        Integer fareSchemeVersion = repin
+                ? resolveFareSchemeVersion(request.getFareSchemeId(), request.getFareSchemeVersion())
+                : null;
+        GeocodedStops stops = new GeocodedStops(
+                geocodeIfMissing(request.getPickupAddress(), request.getPickupLatitude(), request.getPickupLongitude()),
+                geocodeIfMissing(request.getDropAddress(), request.getDropLatitude(), request.getDropLongitude()));
+        BookingViewService.Lookups lookups = bookingViewService.fetch(id, new BookingViewService.Sources(
+                request.getVehicleClassId(), current.getDriverId(), current.getVehicleId(),
+                request.getFareSchemeId(), request.getCorporateId(), request.getPromoCodeId(),
+                current.getBookedBy(), current.getDispatchedBy()));
+        return transactionTemplate.execute(status ->
+                updateBooking(id, request, previousFareSchemeId, repin, fareSchemeVersion, stops, lookups));
+    }
+
+    private BookingResponse updateBooking(Integer id, UpdateBookingRequest request, Integer resolvedForSchemeId,
+            boolean repin, Integer fareSchemeVersion, GeocodedStops stops, BookingViewService.Lookups lookups) {
         Booking booking = findBookingById(id);
+        String previousContactNumber = booking.getContactNumber();
 
         if (booking.getStatus() != BookingStatus.INQUIRY
                 && booking.getStatus() != BookingStatus.PENDING
@@ -212,6 +299,12 @@ public class BookingService {
         booking.setCostCenter(request.getCostCenter());
         booking.setHireType(request.getHireType());
         booking.setVehicleClassId(request.getVehicleClassId());
+        if (repin) {
+            booking.setFareSchemeVersion(fareSchemeVersion);
+        } else if (!Objects.equals(booking.getFareSchemeId(), resolvedForSchemeId)) {
+            // The scheme changed since it was read; the meter prices with its current version
+            booking.setFareSchemeVersion(null);
+        }
         booking.setFareSchemeId(request.getFareSchemeId());
         booking.setPaymentType(request.getPaymentType());
         booking.setPickupAddress(request.getPickupAddress());
@@ -220,6 +313,9 @@ public class BookingService {
         booking.setDropAddress(request.getDropAddress());
         booking.setDropLatitude(request.getDropLatitude());
         booking.setDropLongitude(request.getDropLongitude());
+        stops.applyTo(booking);
+        booking.setPickupZoneId(zoneService.classify(
+                booking.getPickupLatitude(), booking.getPickupLongitude()));
         booking.setDestination(request.getDestination());
         booking.setEstimatedDistance(request.getEstimatedDistance());
         booking.setPickupTime(request.getPickupTime());
@@ -238,19 +334,26 @@ public class BookingService {
         Booking updatedBooking = bookingRepository.save(booking);
         log.info("Booking updated successfully with id: {}", id);
 
-        return convertToResponse(updatedBooking);
+        BookingResponse response = convertToResponse(updatedBooking, bookingViewService.refresh(updatedBooking, lookups));
+        activeBookingIndex.apply(response);
+        changeTracker.recordChange(updatedBooking.getStatus());
+        phoneIndex.indexAfterCommit(updatedBooking.getId(), previousContactNumber, updatedBooking.getContactNumber());
+        return response;
     }
 
-    @Transactional
+    /**
+     * Dispatch a booking. The driver and vehicle are validated, and the booking
+     * view's display records fetched, before the dispatch transaction starts.
+     */
     public BookingResponse dispatchBooking(Integer id, DispatchBookingRequest request) {
         log.info("Dispatching booking {} to driver {} and vehicle {}",
                 id, request.getDriverId(), request.getVehicleId());
 
-        Booking booking = findBookingById(id);
+        Booking current = findBookingById(id);
 
         try {
             DriverResponse driver = driverServiceClient
-                    .getDriverById(request.getDriverId());
+                    .getCurrentDriver(request.getDriverId());
             if (driver == null) {
                 throw new RuntimeException(
                         "Driver not found with ID: " + request.getDriverId());
@@ -282,6 +385,27 @@ public class BookingService {
                     "Vehicle validation failed: " + e.getMessage());
         }
 
+        BookingViewService.Lookups lookups = bookingViewService.fetch(id, new BookingViewService.Sources(
+                current.getVehicleClassId(), request.getDriverId(), request.getVehicleId(),
+                current.getFareSchemeId(), current.getCorporateId(), current.getPromoCodeId(),
+                current.getBookedBy(), request.getDispatchedBy()));
+        return transactionTemplate.execute(status -> dispatchBooking(id, request, lookups));
+    }
+
+    private BookingResponse dispatchBooking(Integer id, DispatchBookingRequest request,
+            BookingViewService.Lookups lookups) {
+        Booking booking = findBookingById(id);
+
+        // Reserve the driver before persisting; a rollback releases it again
+        driverReservationService.reserve(request.getDriverId(), booking.getId());
+        if (booking.getDriverId() != null
+                && !booking.getDriverId().equals(request.getDriverId())
+                && DriverReservationService.isReserved(booking.getStatus())) {
+            driverReservationService.release(booking.getDriverId(), booking.getId());
+        }
+        // A dispatched driver gives up its place in any rank queue
+        rankQueueService.leaveAfterCommit(request.getDriverId());
+
         String oldStatus = booking.getStatus().name();
 
         booking.setDriverId(request.getDriverId());
@@ -311,19 +435,34 @@ public class BookingService {
 
         Booking dispatchedBooking = bookingRepository.save(booking);
         log.info("Booking dispatched successfully");
+        lifecycleMetrics.recordDispatched(dispatchedBooking);
 
         createStatusHistory(dispatchedBooking, oldStatus,
                 BookingStatus.DISPATCHED.name(), "USER",
                 request.getDispatchedBy());
         sendBookingEmail(dispatchedBooking, "BOOKING_DISPATCHED");
 
-        return convertToResponse(dispatchedBooking);
+        BookingResponse response = convertToResponse(dispatchedBooking,
+                bookingViewService.refresh(dispatchedBooking, lookups));
+        activeBookingIndex.apply(response);
+        changeTracker.recordChange(BookingStatus.valueOf(oldStatus), BookingStatus.DISPATCHED);
+        return response;
     }
 
-    @Transactional
+    /**
+     * Complete a trip. The server-side meter is priced first, since that is a
+     * remote call, and the booking is then written in a transaction of its own.
+     */
     public BookingResponse completeBooking(Integer id, CompleteBookingRequest request) {
         log.info("Completing booking with id: {}", id);
 
+        Optional<TripMeterService.MeteredTrip> meteredTrip =
+                tripMeterService.complete(findBookingById(id), request.getCompletedTime());
+        return transactionTemplate.execute(status -> completeBooking(id, request, meteredTrip));
+    }
+
+    private BookingResponse completeBooking(Integer id, CompleteBookingRequest request,
+            Optional<TripMeterService.MeteredTrip> meteredTrip) {
         Booking booking = findBookingById(id);
 
         if (booking.getStatus() != BookingStatus.PASSENGER_ONBOARD
@@ -349,14 +488,24 @@ public class BookingService {
         booking.setSendClientSms(request.getSendClientSms());
         booking.setStatus(BookingStatus.COMPLETED);
 
+        // The server-side meter, when it covered the whole trip, overrides the app's figures
+        meteredTrip.ifPresent(trip -> applyMeteredTrip(booking, trip));
+        tripMeterService.discardAfterCommit(booking.getId());
+
         Booking completedBooking = bookingRepository.save(booking);
         log.info("Booking completed successfully");
+        driverReservationService.release(completedBooking.getDriverId(), completedBooking.getId());
+        customerStatsService.recordCompleted(completedBooking);
+        lifecycleMetrics.recordCompleted(completedBooking);
 
         createStatusHistory(completedBooking, oldStatus,
                 BookingStatus.COMPLETED.name(), "SYSTEM", null);
         sendBookingEmail(completedBooking, "TRIP_COMPLETED");
 
-        return convertToResponse(completedBooking);
+        BookingResponse response = convertToResponse(completedBooking, bookingViewService.refresh(completedBooking));
+        activeBookingIndex.apply(response);
+        changeTracker.recordChange(BookingStatus.valueOf(oldStatus), BookingStatus.COMPLETED);
+        return response;
     }
 
     @Transactional
@@ -372,6 +521,9 @@ public class BookingService {
         String oldStatus = booking.getStatus().name();
         booking.setStatus(BookingStatus.CANCELLED);
         bookingRepository.save(booking);
+        driverReservationService.release(booking.getDriverId(), booking.getId());
+        customerStatsService.recordStatusChange(booking, BookingStatus.valueOf(oldStatus), BookingStatus.CANCELLED);
+        tripMeterService.discardAfterCommit(booking.getId());
 
         BookingCancellation cancellation = new BookingCancellation();
         cancellation.setBooking(booking);
@@ -395,6 +547,8 @@ public class BookingService {
                         ? request.getCancelledByUserId()
                         : request.getCancelledByDriverId());
         sendBookingEmail(booking, "BOOKING_CANCELLED");
+        activeBookingIndex.remove(booking.getId());
+        changeTracker.recordChange(BookingStatus.valueOf(oldStatus), BookingStatus.CANCELLED);
     }
 
     @Transactional
@@ -405,17 +559,30 @@ public class BookingService {
         Booking booking = findBookingById(id);
         String oldStatus = booking.getStatus().name();
 
+        // Only a dispatch assigns a driver; other moves onto a driver must hold the reservation too
+        if (DriverReservationService.isReserved(newStatus)
+                && !DriverReservationService.isReserved(booking.getStatus())) {
+            if (booking.getDriverId() == null) {
+                throw new RuntimeException("Booking " + id + " has no driver; dispatch it to move it to "
+                        + newStatus);
+            }
+            driverReservationService.reserve(booking.getDriverId(), booking.getId());
+        }
+
         booking.setStatus(newStatus);
 
+        boolean firstTransition = false;
         switch (newStatus) {
             case ENROUTE:
                 if (booking.getDriverAcceptedTime() == null) {
                     booking.setDriverAcceptedTime(LocalDateTime.now());
+                    firstTransition = true;
                 }
                 break;
             case WAITING_FOR_CUSTOMER:
                 if (booking.getDriverArrivedTime() == null) {
                     booking.setDriverArrivedTime(LocalDateTime.now());
+                    firstTransition = true;
                 }
                 break;
             case PASSENGER_ONBOARD:
@@ -429,6 +596,25 @@ public class BookingService {
 
         Booking updatedBooking = bookingRepository.save(booking);
 
+        customerStatsService.recordStatusChange(updatedBooking, BookingStatus.valueOf(oldStatus), newStatus);
+        if (DriverReservationService.isReserved(BookingStatus.valueOf(oldStatus))
+                && !DriverReservationService.isReserved(newStatus)) {
+            driverReservationService.release(updatedBooking.getDriverId(), updatedBooking.getId());
+        }
+        if (newStatus == BookingStatus.PASSENGER_ONBOARD) {
+            tripMeterService.start(updatedBooking);
+        } else if (BookingStatus.valueOf(oldStatus) == BookingStatus.PASSENGER_ONBOARD) {
+            tripMeterService.discardAfterCommit(updatedBooking.getId());
+        }
+
+        if (firstTransition) {
+            if (newStatus == BookingStatus.ENROUTE) {
+                lifecycleMetrics.recordDriverAccepted(updatedBooking);
+            } else {
+                lifecycleMetrics.recordDriverArrived(updatedBooking);
+            }
+        }
+
         createStatusHistory(updatedBooking, oldStatus, newStatus.name(),
                 changedByType, changedById);
 
@@ -443,14 +629,15 @@ public class BookingService {
                 break;
         }
 
-        return convertToResponse(updatedBooking);
+        BookingResponse response = convertToResponse(updatedBooking, bookingViewService.refresh(updatedBooking));
+        activeBookingIndex.apply(response);
+        changeTracker.recordChange(BookingStatus.valueOf(oldStatus), newStatus);
+        return response;
     }
 
     @Transactional(readOnly = true)
     public List<BookingResponse> getAllBookings() {
-        return bookingRepository.findAll().stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return convertToResponses(bookingRepository.findAll());
     }
 
     @Transactional(readOnly = true)
@@ -458,6 +645,19 @@ public class BookingService {
         return convertToResponse(findBookingById(id));
     }
 
+    /**
+     * Bookings by id in the order given; unknown ids are skipped
+     */
+    @Transactional(readOnly = true)
+    public List<BookingResponse> getBookingsByIds(List<Integer> ids) {
+        Map<Integer, Booking> bookings = bookingRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        return convertToResponses(ids.stream()
+                .map(bookings::get)
+                .filter(Objects::nonNull)
+                .toList());
+    }
+
     @Transactional(readOnly = true)
     public BookingResponse getBookingByBookingId(String bookingId) {
         Booking booking = bookingRepository.findByBookingId(bookingId)
@@ -469,32 +669,40 @@ public class BookingService {
     @Transactional(readOnly = true)
     public List<BookingResponse> getBookingsByStatus(BookingStatus status,
             Boolean excludeTestBookings) {
+        // Board statuses are served from memory
+        if (ActiveBookingIndex.isActive(status) && activeIndexServes(List.of(status))) {
+            return activeBookingIndex.byStatus(status).stream()
+                    .filter(b -> !Boolean.TRUE.equals(excludeTestBookings)
+                            || !Boolean.TRUE.equals(b.getIsTestBooking()))
+                    .collect(Collectors.toList());
+        }
+
         List<Booking> bookings;
         if (Boolean.TRUE.equals(excludeTestBookings)) {
             bookings = bookingRepository.findByStatusAndIsTestBookingFalse(status);
         } else {
             bookings = bookingRepository.findByStatus(status);
         }
-        return bookings.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return convertToResponses(bookings);
     }
 
     @Transactional(readOnly = true)
     public List<BookingResponse> getInquiries() {
-        return bookingRepository.findByIsInquiryOnlyTrue().stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return convertToResponses(bookingRepository.findByIsInquiryOnlyTrue());
     }
 
     @Transactional(readOnly = true)
     public List<BookingResponse> getAdvanceBookings() {
         List<BookingStatus> statuses = List.of(
                 BookingStatus.PENDING, BookingStatus.DISPATCHED);
-        return bookingRepository
-                .findByIsAdvanceBookingTrueAndStatusIn(statuses).stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        if (activeIndexServes(statuses)) {
+            return statuses.stream()
+                    .flatMap(status -> activeBookingIndex.byStatus(status).stream())
+                    .filter(b -> Boolean.TRUE.equals(b.getIsAdvanceBooking()))
+                    .collect(Collectors.toList());
+        }
+        return convertToResponses(bookingRepository
+                .findByIsAdvanceBookingTrueAndStatusIn(statuses));
     }
 
     @Transactional(readOnly = true)
@@ -516,9 +724,7 @@ public class BookingService {
             default:
                 bookings = bookingRepository.searchByCustomerName(searchTerm);
         }
-        return bookings.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return convertToResponses(bookings);
     }
 
     @Transactional(readOnly = true)
@@ -540,14 +746,40 @@ public class BookingService {
                 request.getHireType(),
                 request.getPaymentType(),
                 request.getBookingSource(),
+                request.getPickupZoneId(),
                 startDate,
                 endDate);
 
-        return bookings.stream()
+        return convertToResponses(bookings.stream()
                 .filter(b -> !Boolean.TRUE.equals(request.getExcludeTestBookings())
                         || !Boolean.TRUE.equals(b.getIsTestBooking()))
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+                .toList());
+    }
+
+    /**
+     * Load all non-terminal bookings into the active booking index at startup,
+     * then periodically resync it to pick up writes made by other instances.
+     * Board reads also resync it as soon as they see such a write.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${booking.active-index.resync-interval-ms:60000}",
+            initialDelayString = "${booking.active-index.resync-interval-ms:60000}")
+    @Transactional(readOnly = true)
+    public void reloadActiveBookingIndex() {
+        activeIndexReload.lock();
+        try {
+            // Read before the bookings, so the index is at least this new
+            Map<BookingStatus, Long> sequences = changeTracker.sequences(ActiveBookingIndex.ACTIVE_STATUSES);
+            String zoneVersion = zoneService.getLoadedVersion();
+            long reloadStartedAt = activeBookingIndex.beginReload();
+            List<Booking> activeBookings = bookingRepository
+                    .findByStatusIn(ActiveBookingIndex.ACTIVE_STATUSES);
+            activeBookingIndex.completeReload(convertToResponses(activeBookings), reloadStartedAt);
+            changeTracker.indexSynced(sequences);
+            indexedZoneVersion = zoneVersion;
+        } finally {
+            activeIndexReload.unlock();
+        }
     }
 
     @Transactional(readOnly = true)
@@ -615,23 +847,156 @@ public class BookingService {
                 .build();
     }
 
+    /**
+     * Cancelled hires matching the given filters. The booking is fetch-joined
+     * and cancelled-by names are resolved with one batch call per service.
+     */
     @Transactional(readOnly = true)
-    public List<BookingCancellationResponse> getCancelledBookings(
-            LocalDate startDate, LocalDate endDate) {
-        LocalDateTime start = startDate != null
-                ? startDate.atStartOfDay()
+    public Page<BookingCancellationResponse> getCancelledBookings(
+            BookingSearchRequest request, Pageable pageable) {
+        LocalDateTime start = request.getStartDate() != null
+                ? request.getStartDate().atStartOfDay()
                 : LocalDate.now().minusMonths(1).atStartOfDay();
-        LocalDateTime end = endDate != null
-                ? endDate.atTime(LocalTime.MAX)
+        LocalDateTime end = request.getEndDate() != null
+                ? request.getEndDate().atTime(LocalTime.MAX)
                 : LocalDateTime.now();
 
-        return cancellationRepository.findByDateRange(start, end).stream()
-                .map(this::convertToCancellationResponse)
-                .collect(Collectors.toList());
+        String searchTerm = request.getSearchTerm() != null && !request.getSearchTerm().isBlank()
+                ? request.getSearchTerm().trim()
+                : null;
+        String filterBy = searchTerm != null && request.getFilterBy() != null
+                ? request.getFilterBy().toLowerCase()
+                : "";
+
+        Page<BookingCancellation> cancellations = cancellationRepository.searchCancellations(
+                start,
+                end,
+                request.getCancelledType(),
+                request.getBookedBy(),
+                request.getHireType(),
+                parsePaymentType(request.getPaymentType()),
+                request.getCorporateId(),
+                filterBy.equals("phone") ? searchTerm : null,
+                filterBy.equals("customername") ? searchTerm : null,
+                filterBy.equals("bookingid") ? searchTerm : null,
+                pageable);
+
+        Map<Integer, String> userNames = resolveUserNames(cancellations.stream()
+                .map(BookingCancellation::getCancelledByUserId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList());
+        Map<Integer, String> driverNames = resolveDriverNames(cancellations.stream()
+                .map(BookingCancellation::getCancelledByDriverId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList());
+
+        return cancellations.map(cancellation -> {
+            BookingCancellationResponse response = convertToCancellationResponse(cancellation);
+            if (cancellation.getCancelledByUserId() != null) {
+                response.setCancelledByUserName(userNames.get(cancellation.getCancelledByUserId()));
+            }
+            if (cancellation.getCancelledByDriverId() != null) {
+                response.setCancelledByDriverName(driverNames.get(cancellation.getCancelledByDriverId()));
+            }
+            return response;
+        });
     }
 
     // ==================== PRIVATE HELPER METHODS ====================
 
+    /**
+     * Whether board reads of the statuses can be served from the active booking
+     * index, resyncing it first when it misses a change made through another
+     * instance, a bulk update or a zone change. While another request resyncs,
+     * the database is read instead.
+     */
+    private boolean activeIndexServes(Collection<BookingStatus> statuses) {
+        if (!activeBookingIndex.isLoaded()) {
+            return false;
+        }
+        if (isActiveIndexCurrent(statuses)) {
+            return true;
+        }
+        if (!activeIndexReload.tryLock()) {
+            return false;
+        }
+        try {
+            if (!isActiveIndexCurrent(statuses)) {
+                reloadActiveBookingIndex();
+            }
+            return true;
+        } finally {
+            activeIndexReload.unlock();
+        }
+    }
+
+    private boolean isActiveIndexCurrent(Collection<BookingStatus> statuses) {
+        return zoneService.getLoadedVersion().equals(indexedZoneVersion)
+                && !changeTracker.isIndexBehind(statuses);
+    }
+
+    private void applyMeteredTrip(Booking booking, TripMeterService.MeteredTrip trip) {
+        log.info("Booking {} metered at {} km / {} min wait (app reported {} km / {} min)",
+                booking.getId(), trip.distanceKm(), trip.waitMinutes(),
+                booking.getTotalDistance(), booking.getTotalWaitTime());
+        booking.setTotalDistance(trip.distanceKm());
+        booking.setTotalWaitTime(trip.waitMinutes());
+
+        TripMeterService.TripFare fare = trip.fare();
+        booking.setBaseFare(fare.baseFare());
+        booking.setDistanceFare(fare.distanceFare());
+        booking.setTimeFare(fare.timeFare());
+        booking.setBilledWaitTime(fare.billedWaitMinutes());
+        booking.setTotalWaitingFee(fare.waitingFee());
+        booking.setSurgeFee(fare.surgeFee());
+        booking.setTotalFare(fare.totalFare());
+    }
+
+    /**
+     * The fare scheme version a booking is priced with: the one the customer was
+     * quoted, once Fare Service confirms the scheme has it, else the scheme's
+     * current version as Fare Service reports it now. A quoted version that does
+     * not exist is rejected. Null when Fare Service cannot say; the meter then
+     * prices with the current version.
+     */
+    private Integer resolveFareSchemeVersion(Integer fareSchemeId, Integer quotedVersion) {
+        if (fareSchemeId == null) {
+            return null;
+        }
+        try {
+            if (quotedVersion != null) {
+                // Versions never change, so a last-known copy confirms one as well as a live read
+                FareSchemeResponse version = fareServiceClient.getFareSchemeVersion(fareSchemeId, quotedVersion);
+                return version != null ? quotedVersion : null;
+            }
+            FareSchemeResponse scheme = fareServiceClient.getCurrentFareScheme(fareSchemeId);
+            return scheme != null ? scheme.getVersion() : null;
+        } catch (FeignException.NotFound e) {
+            throw new RuntimeException(quotedVersion != null
+                    ? "Fare scheme " + fareSchemeId + " has no version " + quotedVersion
+                    : "Fare scheme not found with ID: " + fareSchemeId);
+        } catch (Exception e) {
+            log.warn("Failed to fetch fare scheme {} version: {}", fareSchemeId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Fill in pickup/drop coordinates the agent left out from the typed addresses
+     */
+    /**
+     * Coordinates of an address given without them; null when they were given
+     * or the address is unknown
+     */
+    private GeocodingService.Location geocodeIfMissing(String address, BigDecimal latitude, BigDecimal longitude) {
+        if (latitude != null && longitude != null) {
+            return null;
+        }
+        return geocodingService.geocode(address).orElse(null);
+    }
+
     private Booking findBookingById(Integer id) {
         return bookingRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException(
@@ -711,6 +1076,22 @@ public class BookingService {
     }
 
     private BookingResponse convertToResponse(Booking booking) {
+        return convertToResponse(booking,
+                bookingViewService.findView(booking.getId()).orElse(null));
+    }
+
+    /**
+     * Display names come from the booking_view read model; no remote calls
+     */
+    private List<BookingResponse> convertToResponses(List<Booking> bookings) {
+        Map<Integer, BookingView> views = bookingViewService.findViews(
+                bookings.stream().map(Booking::getId).toList());
+        return bookings.stream()
+                .map(b -> convertToResponse(b, views.get(b.getId())))
+                .collect(Collectors.toList());
+    }
+
+    private BookingResponse convertToResponse(Booking booking, BookingView view) {
         BookingResponse response = BookingResponse.builder()
                 .id(booking.getId())
                 .bookingId(booking.getBookingId())
@@ -725,10 +1106,13 @@ public class BookingService {
                 .hireType(booking.getHireType())
                 .vehicleClassId(booking.getVehicleClassId())
                 .fareSchemeId(booking.getFareSchemeId())
+                .fareSchemeVersion(booking.getFareSchemeVersion())
                 .paymentType(booking.getPaymentType())
                 .pickupAddress(booking.getPickupAddress())
                 .pickupLatitude(booking.getPickupLatitude())
                 .pickupLongitude(booking.getPickupLongitude())
+                .pickupZoneId(booking.getPickupZoneId())
+                .pickupZoneName(zoneService.getZoneName(booking.getPickupZoneId()))
                 .dropAddress(booking.getDropAddress())
                 .dropLatitude(booking.getDropLatitude())
                 .dropLongitude(booking.getDropLongitude())
@@ -785,121 +1169,73 @@ public class BookingService {
                 .updatedAt(booking.getUpdatedAt())
                 .build();
 
-        enrichBookingResponse(response, booking);
+        if (view != null) {
+            applyView(response, view);
+        }
         return response;
     }
 
-    private void enrichBookingResponse(BookingResponse response, Booking booking) {
-        if (booking.getVehicleClassId() != null) {
-            try {
-                VehicleClassResponse vehicleClass = vehicleServiceClient
-                        .getVehicleClassById(booking.getVehicleClassId());
-                if (vehicleClass != null) {
-                    response.setVehicleClassName(vehicleClass.getClassName());
-                    response.setVehicleClassCode(vehicleClass.getClassCode());
-                }
-            } catch (Exception e) {
-                log.warn("Failed to fetch vehicle class details: {}", e.getMessage());
-            }
-        }
-
-        if (booking.getDriverId() != null) {
-            try {
-                DriverResponse driver = driverServiceClient
-                        .getDriverById(booking.getDriverId());
-                if (driver != null) {
-                    response.setDriverCode(driver.getCode());
-                    response.setDriverName(
-                            driver.getFirstName() + " " + driver.getLastName());
-                    response.setDriverPhone(driver.getContactNumber());
-                }
-            } catch (Exception e) {
-                log.warn("Failed to fetch driver details: {}", e.getMessage());
-            }
-        }
+    private void applyView(BookingResponse response, BookingView view) {
+        response.setVehicleClassName(view.getVehicleClassName());
+        response.setVehicleClassCode(view.getVehicleClassCode());
+        response.setDriverCode(view.getDriverCode());
+        response.setDriverName(view.getDriverName());
+        response.setDriverPhone(view.getDriverPhone());
+        response.setVehicleCode(view.getVehicleCode());
+        response.setVehicleRegistrationNumber(view.getVehicleRegistrationNumber());
+        response.setFareSchemeName(view.getFareSchemeName());
+        response.setFareSchemeCode(view.getFareSchemeCode());
+        response.setCorporateName(view.getCorporateName());
+        response.setCorporateCode(view.getCorporateCode());
+        response.setPromoCode(view.getPromoCode());
+        response.setBookedByName(view.getBookedByName());
+        response.setDispatchedByName(view.getDispatchedByName());
+    }
 
-        if (booking.getVehicleId() != null) {
-            try {
-                VehicleResponse vehicle = vehicleServiceClient
-                        .getVehicleById(booking.getVehicleId());
-                if (vehicle != null) {
-                    response.setVehicleCode(vehicle.getVehicleCode());
-                    response.setVehicleRegistrationNumber(
-                            vehicle.getRegistrationNumber());
-                }
-            } catch (Exception e) {
-                log.warn("Failed to fetch vehicle details: {}", e.getMessage());
-            }
+    private PaymentType parsePaymentType(String paymentType) {
+        if (paymentType == null || paymentType.isBlank()) {
+            return null;
         }
-
-        if (booking.getFareSchemeId() != null) {
-            try {
-                FareSchemeResponse fareScheme = fareServiceClient
-                        .getFareSchemeById(booking.getFareSchemeId());
-                if (fareScheme != null) {
-                    response.setFareSchemeName(fareScheme.getFareName());
-                    response.setFareSchemeCode(fareScheme.getFareCode());
-                }
-            } catch (Exception e) {
-                log.warn("Failed to fetch fare scheme details: {}", e.getMessage());
-            }
+        try {
+            return PaymentType.valueOf(paymentType.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid payment type: " + paymentType);
         }
+    }
 
-        if (booking.getCorporateId() != null) {
-            try {
-                CorporateResponse corporate = corporateServiceClient
-                        .getCorporateById(booking.getCorporateId());
-                if (corporate != null) {
-                    response.setCorporateName(corporate.getName());
-                    response.setCorporateCode(corporate.getCode());
-                }
-            } catch (Exception e) {
-                log.warn("Failed to fetch corporate details: {}", e.getMessage());
-            }
+    private Map<Integer, String> resolveUserNames(List<Integer> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
         }
-
-        if (booking.getPromoCodeId() != null) {
-            try {
-                PromoCodeResponse promoCode = promoServiceClient
-                        .getPromoCodeById(booking.getPromoCodeId());
-                if (promoCode != null) {
-                    response.setPromoCode(promoCode.getCode());
-                }
-            } catch (Exception e) {
-                log.warn("Failed to fetch promo code details: {}", e.getMessage());
-            }
+        try {
+            return userServiceClient.getUsersByIds(userIds).stream()
+                    .collect(Collectors.toMap(UserResponse::getId,
+                            user -> user.getFirstName() + " " + user.getLastName(),
+                            (a, b) -> a));
+        } catch (Exception e) {
+            log.warn("Failed to fetch cancelled by user details: {}", e.getMessage());
+            return Map.of();
         }
+    }
 
-        if (booking.getBookedBy() != null) {
-            try {
-                UserResponse user = userServiceClient
-                        .getUserById(booking.getBookedBy());
-                if (user != null) {
-                    response.setBookedByName(
-                            user.getFirstName() + " " + user.getLastName());
-                }
-            } catch (Exception e) {
-                log.warn("Failed to fetch booked by user details: {}", e.getMessage());
-            }
+    private Map<Integer, String> resolveDriverNames(List<Integer> driverIds) {
+        if (driverIds.isEmpty()) {
+            return Map.of();
         }
-
-        if (booking.getDispatchedBy() != null) {
-            try {
-                UserResponse user = userServiceClient
-                        .getUserById(booking.getDispatchedBy());
-                if (user != null) {
-                    response.setDispatchedByName(
-                            user.getFirstName() + " " + user.getLastName());
-                }
-            } catch (Exception e) {
-                log.warn("Failed to fetch dispatched by user details: {}", e.getMessage());
-            }
+        try {
+            return driverServiceClient.getDriversByIds(driverIds).stream()
+                    .collect(Collectors.toMap(DriverResponse::getId,
+                            driver -> driver.getFirstName() + " " + driver.getLastName(),
+                            (a, b) -> a));
+        } catch (Exception e) {
+            log.warn("Failed to fetch cancelled by driver details: {}", e.getMessage());
+            return Map.of();
         }
     }
 
     private BookingCancellationResponse convertToCancellationResponse(
             BookingCancellation cancellation) {
-        BookingCancellationResponse response = BookingCancellationResponse.builder()
+        return BookingCancellationResponse.builder()
                 .id(cancellation.getId())
                 .bookingId(cancellation.getBooking().getId())
                 .bookingNumber(cancellation.getBooking().getBookingId())
@@ -912,34 +1248,6 @@ public class BookingService {
                 .cancellationFee(cancellation.getCancellationFee())
                 .createdAt(cancellation.getCreatedAt())
                 .build();
-
-        if (cancellation.getCancelledByUserId() != null) {
-            try {
-                UserResponse user = userServiceClient
-                        .getUserById(cancellation.getCancelledByUserId());
-                if (user != null) {
-                    response.setCancelledByUserName(
-                            user.getFirstName() + " " + user.getLastName());
-                }
-            } catch (Exception e) {
-                log.warn("Failed to fetch cancelled by user details: {}", e.getMessage());
-            }
-        }
-
-        if (cancellation.getCancelledByDriverId() != null) {
-            try {
-                DriverResponse driver = driverServiceClient
-                        .getDriverById(cancellation.getCancelledByDriverId());
-                if (driver != null) {
-                    response.setCancelledByDriverName(
-                            driver.getFirstName() + " " + driver.getLastName());
-                }
-            } catch (Exception e) {
-                log.warn("Failed to fetch cancelled by driver details: {}", e.getMessage());
-            }
-        }
-
-        return response;
     }
 
     private void sendBookingEmail(Booking booking, String templateCode) {
@@ -1065,4 +1373,22 @@ public class BookingService {
                     booking.getBookingId(), e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Pickup and drop coordinates geocoded before the write transaction;
+     * null where the request carried coordinates or the address is unknown
+     */
+    private record GeocodedStops(GeocodingService.Location pickup, GeocodingService.Location drop) {
+
+        void applyTo(Booking booking) {
+            if (pickup != null) {
+                booking.setPickupLatitude(pickup.latitude());
+                booking.setPickupLongitude(pickup.longitude());
+            }
+            if (drop != null) {
+                booking.setDropLatitude(drop.latitude());
+                booking.setDropLongitude(drop.longitude());
+            }
+        }
+    }
+}
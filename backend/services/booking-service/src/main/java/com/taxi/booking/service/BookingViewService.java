@@ -0,0 +1,496 @@
+package com.taxi.booking.service;
+
+import com.taxi.booking.client.*;
+import com.taxi.booking.dto.response.*;
+import com.taxi.booking.entity.Booking;
+import com.taxi.booking.entity.BookingView;
+import com.taxi.booking.enums.BookingStatus;
+import com.taxi.booking.repository.BookingRepository;
+import com.taxi.booking.repository.BookingViewRepository;
+import feign.FeignException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Maintains the booking_view read model.
+ * Display names from vehicle, driver, fare, corporate, promo and user services are
+ * resolved when a booking is written, so list/search/export reads are local only.
+ * The source records are fetched before the write transaction ({@link #fetch}) and
+ * the view is written inside it from those only ({@link #refresh}).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookingViewService {
+
+    private static final Set<BookingStatus> SETTLED = EnumSet.of(BookingStatus.COMPLETED, BookingStatus.CANCELLED);
+
+    // Lookup type of each source id, in Sources order
+    private static final List<String> SOURCE_TYPES = List.of("vehicleClass", "driver", "vehicle",
+            "fareScheme", "corporate", "promoCode", "user", "user");
+
+    private final BookingViewRepository viewRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingChangeTracker changeTracker;
+
+    private final VehicleServiceClient vehicleServiceClient;
+    private final DriverServiceClient driverServiceClient;
+    private final FareServiceClient fareServiceClient;
+    private final CorporateServiceClient corporateServiceClient;
+    private final PromoServiceClient promoServiceClient;
+    private final UserServiceClient userServiceClient;
+    private final LastKnownValueCache lastKnownValueCache;
+
+    @Value("${booking.view.stale-after-minutes:60}")
+    private long staleAfterMinutes;
+
+    @Value("${booking.view.reconcile-batch-size:500}")
+    private int reconcileBatchSize;
+
+    @Value("${booking.view.refresh-recent-days:7}")
+    private long refreshRecentDays;
+
+    @Value("${booking.view.retry-backoff-minutes:5}")
+    private long retryBackoffMinutes;
+
+    @Value("${booking.view.retry-backoff-max-minutes:720}")
+    private long retryBackoffMaxMinutes;
+
+    /**
+     * Fetch the source records a booking about to be written will point at.
+     * Call before the write transaction; only records the booking's current
+     * view was not resolved from are fetched.
+     *
+     * @param bookingId the booking, or null for a new one
+     */
+    public Lookups fetch(Integer bookingId, Sources sources) {
+        Lookups lookups = new Lookups();
+        Sources resolved = bookingId == null ? Sources.NONE
+                : viewRepository.findById(bookingId).map(Sources::of).orElse(Sources.NONE);
+        List<Integer> current = resolved.ids();
+        List<Integer> wanted = sources.ids();
+        for (int i = 0; i < SOURCE_TYPES.size(); i++) {
+            if (!Objects.equals(current.get(i), wanted.get(i))) {
+                try {
+                    lookup(lookups, SOURCE_TYPES.get(i), wanted.get(i), true);
+                } catch (Exception e) {
+                    // Left unresolved; the reconciler retries it
+                    log.warn("Failed to fetch {} {} for booking view: {}",
+                            SOURCE_TYPES.get(i), wanted.get(i), e.getMessage());
+                }
+            }
+        }
+        return lookups;
+    }
+
+    /**
+     * Bring the view in line with a booking that was just written, for writes
+     * that do not point the booking at other source records
+     */
+    @Transactional
+    public BookingView refresh(Booking booking) {
+        return refresh(booking, new Lookups());
+    }
+
+    /**
+     * Bring the view in line with a booking that was just written.
+     * Only fields whose source id changed are resolved, and only from the
+     * records fetched beforehand: this makes no remote calls, so it is safe
+     * inside the write transaction. Fields whose record was not fetched are
+     * left for the reconciler.
+     */
+    @Transactional
+    public BookingView refresh(Booking booking, Lookups lookups) {
+        BookingView view = viewRepository.findById(booking.getId())
+                .orElseGet(() -> newView(booking));
+        resolve(view, booking, false, false, lookups);
+        return viewRepository.save(view);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<BookingView> findView(Integer bookingId) {
+        return viewRepository.findById(bookingId);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<Integer, BookingView> findViews(Collection<Integer> bookingIds) {
+        if (bookingIds.isEmpty()) {
+            return Map.of();
+        }
+        return viewRepository.findAllById(bookingIds).stream()
+                .collect(Collectors.toMap(BookingView::getBookingId, Function.identity()));
+    }
+
+    /**
+     * Backfill bookings without a view and re-resolve incomplete views, and
+     * stale views of bookings in progress or made in the last refresh-recent-days,
+     * picking up renamed drivers, vehicles, corporates etc. Each distinct source
+     * record is fetched once per run; drivers and users in one batch call each.
+     *
+     * Not transactional: the remote calls are made on detached views, which are
+     * saved afterwards unless their booking was meanwhile pointed at other records.
+     * A view that still does not resolve is retried after a doubling backoff.
+     */
+    @Scheduled(fixedDelayString = "${booking.view.reconcile-interval-ms:300000}",
+            initialDelayString = "${booking.view.reconcile-initial-delay-ms:60000}")
+    public void reconcile() {
+        PageRequest batch = PageRequest.of(0, reconcileBatchSize);
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> missing = bookingRepository.findWithoutView(batch);
+        List<BookingView> stale = viewRepository.findStale(now.minusMinutes(staleAfterMinutes),
+                now.minusDays(refreshRecentDays), SETTLED, now, batch);
+        if (missing.isEmpty() && stale.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, Booking> bookings = new HashMap<>();
+        missing.forEach(b -> bookings.put(b.getId(), b));
+        bookingRepository.findAllById(stale.stream().map(BookingView::getBookingId).toList())
+                .forEach(b -> bookings.put(b.getId(), b));
+
+        Lookups lookups = prefetch(bookings.values());
+
+        List<BookingView> views = new ArrayList<>();
+        Set<Integer> renamed = new HashSet<>();
+        for (Booking booking : missing) {
+            BookingView view = newView(booking);
+            resolve(view, booking, true, true, lookups);
+            backOffIfUnresolved(view, now);
+            views.add(view);
+            renamed.add(booking.getId());
+        }
+        for (BookingView view : stale) {
+            Booking booking = bookings.get(view.getBookingId());
+            if (booking != null) {
+                List<String> before = displayFields(view);
+                resolve(view, booking, true, true, lookups);
+                backOffIfUnresolved(view, now);
+                views.add(view);
+                if (!before.equals(displayFields(view))) {
+                    renamed.add(booking.getId());
+                }
+            }
+        }
+
+        // Drop views whose booking changed source records while resolving; its
+        // own refresh has written (or will write) the view
+        Map<Integer, Sources> resolvedFrom = new HashMap<>();
+        bookings.values().forEach(b -> resolvedFrom.put(b.getId(), Sources.of(b)));
+        Set<Integer> moved = new HashSet<>();
+        bookingRepository.findAllById(bookings.keySet()).forEach(b -> {
+            if (!Sources.of(b).equals(resolvedFrom.get(b.getId()))) {
+                moved.add(b.getId());
+            }
+        });
+        views.removeIf(v -> moved.contains(v.getBookingId()));
+
+        viewRepository.saveAll(views);
+        // Only boards showing a booking whose names changed are affected
+        BookingStatus[] changed = views.stream()
+                .filter(v -> renamed.contains(v.getBookingId()))
+                .map(v -> bookings.get(v.getBookingId()).getStatus())
+                .distinct()
+                .toArray(BookingStatus[]::new);
+        if (changed.length > 0) {
+            changeTracker.recordBulkChange(changed);
+        }
+
+        log.info("Reconciled {} booking views ({} backfilled)", views.size(), missing.size());
+    }
+
+    // ==================== PRIVATE HELPER METHODS ====================
+
+    private static List<String> displayFields(BookingView view) {
+        return Arrays.asList(view.getVehicleClassName(), view.getVehicleClassCode(), view.getDriverCode(),
+                view.getDriverName(), view.getDriverPhone(), view.getVehicleCode(),
+                view.getVehicleRegistrationNumber(), view.getFareSchemeName(), view.getFareSchemeCode(),
+                view.getCorporateName(), view.getCorporateCode(), view.getPromoCode(), view.getBookedByName(),
+                view.getDispatchedByName());
+    }
+
+    /**
+     * Push the next attempt at an unresolved view out, doubling with each failure
+     */
+    private void backOffIfUnresolved(BookingView view, LocalDateTime now) {
+        if (view.getRefreshedAt() != null) {
+            return;
+        }
+        int attempts = view.getFailedAttempts() == null ? 1 : view.getFailedAttempts() + 1;
+        long minutes = Math.min(retryBackoffMinutes << Math.min(attempts - 1, 20), retryBackoffMaxMinutes);
+        view.setFailedAttempts(attempts);
+        view.setRetryAfter(now.plusMinutes(minutes));
+    }
+
+    private BookingView newView(Booking booking) {
+        BookingView view = new BookingView();
+        view.setBookingId(booking.getId());
+        return view;
+    }
+
+    /**
+     * Copy display fields onto the view. With force=false a field is only
+     * re-resolved when the booking now points at a different source record;
+     * with remote=false only records already in lookups are used.
+     * Fields that fail to resolve keep their previous source id so the next
+     * write or reconcile retries them. Names taken from a last known value are
+     * shown but leave the view incomplete, so the reconciler fetches them again.
+     */
+    private void resolve(BookingView view, Booking booking, boolean force, boolean remote,
+            Lookups lookups) {
+        boolean complete = true;
+
+        if (force || !Objects.equals(view.getVehicleClassId(), booking.getVehicleClassId())) {
+            try {
+                VehicleClassResponse vehicleClass = lookup(lookups, "vehicleClass", booking.getVehicleClassId(), remote);
+                complete &= lookups.isLive("vehicleClass", booking.getVehicleClassId());
+                view.setVehicleClassName(vehicleClass != null ? vehicleClass.getClassName() : null);
+                view.setVehicleClassCode(vehicleClass != null ? vehicleClass.getClassCode() : null);
+                view.setVehicleClassId(booking.getVehicleClassId());
+            } catch (Exception e) {
+                log.warn("Failed to fetch vehicle class details: {}", e.getMessage());
+                complete = false;
+            }
+        }
+
+        if (force || !Objects.equals(view.getDriverId(), booking.getDriverId())) {
+            try {
+                DriverResponse driver = lookup(lookups, "driver", booking.getDriverId(), remote);
+                complete &= lookups.isLive("driver", booking.getDriverId());
+                view.setDriverCode(driver != null ? driver.getCode() : null);
+                view.setDriverName(driver != null
+                        ? driver.getFirstName() + " " + driver.getLastName() : null);
+                view.setDriverPhone(driver != null ? driver.getContactNumber() : null);
+                view.setDriverId(booking.getDriverId());
+            } catch (Exception e) {
+                log.warn("Failed to fetch driver details: {}", e.getMessage());
+                complete = false;
+            }
+        }
+
+        if (force || !Objects.equals(view.getVehicleId(), booking.getVehicleId())) {
+            try {
+                VehicleResponse vehicle = lookup(lookups, "vehicle", booking.getVehicleId(), remote);
+                complete &= lookups.isLive("vehicle", booking.getVehicleId());
+                view.setVehicleCode(vehicle != null ? vehicle.getVehicleCode() : null);
+                view.setVehicleRegistrationNumber(vehicle != null ? vehicle.getRegistrationNumber() : null);
+                view.setVehicleId(booking.getVehicleId());
+            } catch (Exception e) {
+                log.warn("Failed to fetch vehicle details: {}", e.getMessage());
+                complete = false;
+            }
+        }
+
+        if (force || !Objects.equals(view.getFareSchemeId(), booking.getFareSchemeId())) {
+            try {
+                FareSchemeResponse fareScheme = lookup(lookups, "fareScheme", booking.getFareSchemeId(), remote);
+                complete &= lookups.isLive("fareScheme", booking.getFareSchemeId());
+                view.setFareSchemeName(fareScheme != null ? fareScheme.getFareName() : null);
+                view.setFareSchemeCode(fareScheme != null ? fareScheme.getFareCode() : null);
+                view.setFareSchemeId(booking.getFareSchemeId());
+            } catch (Exception e) {
+                log.warn("Failed to fetch fare scheme details: {}", e.getMessage());
+                complete = false;
+            }
+        }
+
+        if (force || !Objects.equals(view.getCorporateId(), booking.getCorporateId())) {
+            try {
+                CorporateResponse corporate = lookup(lookups, "corporate", booking.getCorporateId(), remote);
+                complete &= lookups.isLive("corporate", booking.getCorporateId());
+                view.setCorporateName(corporate != null ? corporate.getName() : null);
+                view.setCorporateCode(corporate != null ? corporate.getCode() : null);
+                view.setCorporateId(booking.getCorporateId());
+            } catch (Exception e) {
+                log.warn("Failed to fetch corporate details: {}", e.getMessage());
+                complete = false;
+            }
+        }
+
+        if (force || !Objects.equals(view.getPromoCodeId(), booking.getPromoCodeId())) {
+            try {
+                PromoCodeResponse promoCode = lookup(lookups, "promoCode", booking.getPromoCodeId(), remote);
+                complete &= lookups.isLive("promoCode", booking.getPromoCodeId());
+                view.setPromoCode(promoCode != null ? promoCode.getCode() : null);
+                view.setPromoCodeId(booking.getPromoCodeId());
+            } catch (Exception e) {
+                log.warn("Failed to fetch promo code details: {}", e.getMessage());
+                complete = false;
+            }
+        }
+
+        if (force || !Objects.equals(view.getBookedBy(), booking.getBookedBy())) {
+            try {
+                UserResponse user = lookup(lookups, "user", booking.getBookedBy(), remote);
+                complete &= lookups.isLive("user", booking.getBookedBy());
+                view.setBookedByName(user != null
+                        ? user.getFirstName() + " " + user.getLastName() : null);
+                view.setBookedBy(booking.getBookedBy());
+            } catch (Exception e) {
+                log.warn("Failed to fetch booked by user details: {}", e.getMessage());
+                complete = false;
+            }
+        }
+
+        if (force || !Objects.equals(view.getDispatchedBy(), booking.getDispatchedBy())) {
+            try {
+                UserResponse user = lookup(lookups, "user", booking.getDispatchedBy(), remote);
+                complete &= lookups.isLive("user", booking.getDispatchedBy());
+                view.setDispatchedByName(user != null
+                        ? user.getFirstName() + " " + user.getLastName() : null);
+                view.setDispatchedBy(booking.getDispatchedBy());
+            } catch (Exception e) {
+                log.warn("Failed to fetch dispatched by user details: {}", e.getMessage());
+                complete = false;
+            }
+        }
+
+        if (complete) {
+            view.setRefreshedAt(LocalDateTime.now());
+            view.setFailedAttempts(null);
+            view.setRetryAfter(null);
+        } else {
+            view.setRefreshedAt(null);
+        }
+    }
+
+    /**
+     * Fetch a source record once per lookup map; a 404 resolves to null.
+     * With remote=false a record that was not fetched beforehand is a failure.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T lookup(Lookups lookups, String type, Integer id, boolean remote) {
+        if (id == null) {
+            return null;
+        }
+        String key = type + ":" + id;
+        Optional<?> cached = lookups.records.get(key);
+        if (cached == null) {
+            if (!remote) {
+                throw new IllegalStateException(key + " was not fetched before the write");
+            }
+            LastKnownValueCache.Served<?> served;
+            try {
+                served = lastKnownValueCache.track(() -> load(type, id));
+            } catch (FeignException.NotFound e) {
+                served = new LastKnownValueCache.Served<>(null, false);
+            }
+            cached = Optional.ofNullable(served.value());
+            lookups.records.put(key, cached);
+            if (served.stale()) {
+                lookups.stale.add(key);
+            }
+        }
+        return (T) cached.orElse(null);
+    }
+
+    private Object load(String type, Integer id) {
+        return switch (type) {
+            case "vehicleClass" -> vehicleServiceClient.getVehicleClassById(id);
+            case "driver" -> driverServiceClient.getDriverById(id);
+            case "vehicle" -> vehicleServiceClient.getVehicleById(id);
+            case "fareScheme" -> fareServiceClient.getFareSchemeById(id);
+            case "corporate" -> corporateServiceClient.getCorporateById(id);
+            case "promoCode" -> promoServiceClient.getPromoCodeById(id);
+            case "user" -> userServiceClient.getUserById(id);
+            default -> throw new IllegalArgumentException("Unknown source type: " + type);
+        };
+    }
+
+    /**
+     * Seed the lookup map with drivers and users using the batch endpoints
+     */
+    private Lookups prefetch(Collection<Booking> bookings) {
+        Lookups lookups = new Lookups();
+
+        List<Integer> driverIds = bookings.stream()
+                .map(Booking::getDriverId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (!driverIds.isEmpty()) {
+            try {
+                LastKnownValueCache.Served<List<DriverResponse>> served =
+                        lastKnownValueCache.track(() -> driverServiceClient.getDriversByIds(driverIds));
+                served.value().forEach(d -> lookups.add("driver", d.getId(), d, served.stale()));
+            } catch (Exception e) {
+                log.warn("Failed to batch fetch drivers for booking views: {}", e.getMessage());
+            }
+        }
+
+        List<Integer> userIds = bookings.stream()
+                .flatMap(b -> Stream.of(b.getBookedBy(), b.getDispatchedBy()))
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (!userIds.isEmpty()) {
+            try {
+                LastKnownValueCache.Served<List<UserResponse>> served =
+                        lastKnownValueCache.track(() -> userServiceClient.getUsersByIds(userIds));
+                served.value().forEach(u -> lookups.add("user", u.getId(), u, served.stale()));
+            } catch (Exception e) {
+                log.warn("Failed to batch fetch users for booking views: {}", e.getMessage());
+            }
+        }
+
+        return lookups;
+    }
+
+    /**
+     * The source records a booking's display fields are resolved from
+     */
+    public record Sources(Integer vehicleClassId, Integer driverId, Integer vehicleId, Integer fareSchemeId,
+            Integer corporateId, Integer promoCodeId, Integer bookedBy, Integer dispatchedBy) {
+
+        static final Sources NONE = new Sources(null, null, null, null, null, null, null, null);
+
+        public static Sources of(Booking booking) {
+            return new Sources(booking.getVehicleClassId(), booking.getDriverId(), booking.getVehicleId(),
+                    booking.getFareSchemeId(), booking.getCorporateId(), booking.getPromoCodeId(),
+                    booking.getBookedBy(), booking.getDispatchedBy());
+        }
+
+        static Sources of(BookingView view) {
+            return new Sources(view.getVehicleClassId(), view.getDriverId(), view.getVehicleId(),
+                    view.getFareSchemeId(), view.getCorporateId(), view.getPromoCodeId(),
+                    view.getBookedBy(), view.getDispatchedBy());
+        }
+
+        List<Integer> ids() {
+            return Arrays.asList(vehicleClassId, driverId, vehicleId, fareSchemeId,
+                    corporateId, promoCodeId, bookedBy, dispatchedBy);
+        }
+    }
+
+    /**
+     * Source records fetched for resolving views, keyed by type and id. An empty
+     * Optional is a record that does not exist; a missing key, one not fetched.
+     */
+    public static final class Lookups {
+
+        private final Map<String, Optional<?>> records = new HashMap<>();
+        private final Set<String> stale = new HashSet<>();
+
+        private void add(String type, Integer id, Object record, boolean fromLastKnown) {
+            String key = type + ":" + id;
+            records.put(key, Optional.of(record));
+            if (fromLastKnown) {
+                stale.add(key);
+            }
+        }
+
+        private boolean isLive(String type, Integer id) {
+            return id == null || !stale.contains(type + ":" + id);
+        }
+    }
+}
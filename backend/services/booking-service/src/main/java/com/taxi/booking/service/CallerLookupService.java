@@ -0,0 +1,92 @@
+package com.taxi.booking.service;
+
+import com.taxi.booking.dto.response.BookingResponse;
+import com.taxi.booking.dto.response.CallerLookupResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Caller-ID screen pop: everything the call center needs about an incoming
+ * number in one call, served from PhoneIndex plus a primary-key fetch of the
+ * caller's latest bookings.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CallerLookupService {
+
+    private final PhoneIndex phoneIndex;
+    private final BookingService bookingService;
+
+    @Value("${booking.phone-index.min-suffix-digits:4}")
+    private int minSuffixDigits;
+
+    @Value("${booking.phone-index.max-suffix-matches:10}")
+    private int maxSuffixMatches;
+
+    /**
+     * Look up a full number, or the trailing digits of one
+     */
+    public CallerLookupResponse lookup(String phone, int limit) {
+        if (!phoneIndex.isLoaded()) {
+            throw new RuntimeException("Phone index is still loading");
+        }
+
+        List<PhoneIndex.Entry> entries = new ArrayList<>();
+        PhoneIndex.Entry exact = phoneIndex.find(phone);
+        if (exact != null) {
+            entries.add(exact);
+        } else {
+            // Partial number: match on trailing digits, ignoring a typed trunk prefix
+            String digits = PhoneNumbers.digitsOf(phone).replaceFirst("^0+", "");
+            if (digits.length() >= minSuffixDigits) {
+                entries.addAll(phoneIndex.findBySuffix(digits, maxSuffixMatches));
+            }
+        }
+
+        List<Integer> bookingIds = entries.stream()
+                .flatMap(e -> e.bookingIds().stream())
+                .sorted(Comparator.reverseOrder())
+                .limit(limit)
+                .toList();
+        List<BookingResponse> recentBookings = bookingIds.isEmpty()
+                ? List.of()
+                : bookingService.getBookingsByIds(bookingIds);
+
+        List<CallerLookupResponse.Party> drivers = new ArrayList<>();
+        List<CallerLookupResponse.Party> staffUsers = new ArrayList<>();
+        for (PhoneIndex.Entry entry : entries) {
+            entry.drivers().forEach(p -> drivers.add(toParty(p, entry.number())));
+            entry.users().forEach(p -> staffUsers.add(toParty(p, entry.number())));
+        }
+
+        return CallerLookupResponse.builder()
+                .query(phone)
+                .matchedNumbers(entries.stream().map(PhoneIndex.Entry::number).toList())
+                .activeBooking(recentBookings.stream()
+                        .filter(b -> ActiveBookingIndex.isActive(b.getStatus()))
+                        .findFirst()
+                        .orElse(null))
+                .recentBookings(recentBookings)
+                .isDriver(!drivers.isEmpty())
+                .isStaff(!staffUsers.isEmpty())
+                .drivers(drivers)
+                .staffUsers(staffUsers)
+                .build();
+    }
+
+    private static CallerLookupResponse.Party toParty(PhoneIndex.Party party, String number) {
+        return CallerLookupResponse.Party.builder()
+                .id(party.id())
+                .code(party.code())
+                .name(party.name())
+                .phone(number)
+                .build();
+    }
+}
@@ -1,5 +1,6 @@
 package com.taxi.booking.service;
 
+import com.taxi.booking.dto.response.BookingCancellationResponse;
 import com.taxi.booking.dto.response.BookingResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.csv.CSVFormat;
@@ -10,6 +11,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service for exporting booking data to CSV format
@@ -105,8 +107,9 @@ public class CsvExportService {
     /**
      * Export cancelled hires to CSV
      */
-    public byte[] exportCancelledHiresToCsv(List<BookingResponse> bookings) throws IOException {
-        log.debug("Exporting {} cancelled hires to CSV", bookings.size());
+    public byte[] exportCancelledHiresToCsv(List<BookingCancellationResponse> cancellations,
+            Map<Integer, BookingResponse> bookings) throws IOException {
+        log.debug("Exporting {} cancelled hires to CSV", cancellations.size());
 
         ByteArrayOutputStream out = new ByteArrayOutputStream();
         OutputStreamWriter writer = new OutputStreamWriter(out);
@@ -119,7 +122,14 @@ public class CsvExportService {
                 .build();
 
         try (CSVPrinter csvPrinter = new CSVPrinter(writer, csvFormat)) {
-            for (BookingResponse booking : bookings) {
+            for (BookingCancellationResponse cancellation : cancellations) {
+                BookingResponse booking = bookings.get(cancellation.getBookingId());
+                if (booking == null) {
+                    continue;
+                }
+                String agent = cancellation.getCancelledByUserName() != null
+                        ? cancellation.getCancelledByUserName()
+                        : cancellation.getCancelledByDriverName();
                 csvPrinter.printRecord(
                         booking.getBookingId(),
                         booking.getCorporateName(),
@@ -127,10 +137,10 @@ public class CsvExportService {
                         booking.getNumberOfPassengers(),
                         booking.getHireType(),
                         booking.getBookingTime(),
-                        booking.getIsTestBooking() ? "Yes" : "No",
-                        booking.getUpdatedAt(),
-                        "N/A", // Cancelled type - would need to join with cancellation
-                        "N/A", // Cancelled agent
+                        Boolean.TRUE.equals(booking.getIsTestBooking()) ? "Yes" : "No",
+                        cancellation.getCancelledTime(),
+                        cancellation.getCancelledType(),
+                        agent != null ? agent : cancellation.getCancelledByType(),
                         booking.getDriverName(),
                         booking.getVehicleRegistrationNumber());
             }
@@ -0,0 +1,209 @@
+package com.taxi.booking.service;
+
+import com.taxi.booking.dto.response.CustomerStatsResponse;
+import com.taxi.booking.entity.Booking;
+import com.taxi.booking.entity.CustomerStats;
+import com.taxi.booking.enums.BookingStatus;
+import com.taxi.booking.repository.BookingRepository;
+import com.taxi.booking.repository.CustomerStatsRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Per-customer booking totals (completed and cancelled hires, first and last
+ * booking, lifetime fare) keyed by E.164 contact number, for promo eligibility
+ * and customer segmentation without COUNT(*) over bookings.
+ *
+ * The customer_stats row is updated in the same transaction as the booking, by
+ * an atomic upsert adding the change's delta; a booking leaving COMPLETED or
+ * CANCELLED takes its count (and fare) back off. The table is seeded from the
+ * bookings table once, marked by a SEED_MARKER row. Reads go through an in-memory LRU whose entries are dropped
+ * after every local change and expire after cache-ttl-seconds, which bounds how
+ * stale a change made through another instance can be.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerStatsService {
+
+    // Not a phone number, so never returned by getStats
+    static final String SEED_MARKER = "#seeded";
+
+    private final CustomerStatsRepository customerStatsRepository;
+    private final BookingRepository bookingRepository;
+    private final PhoneIndex phoneIndex;
+
+    @Value("${booking.customer-stats.cache-size:50000}")
+    private int cacheSize;
+
+    @Value("${booking.customer-stats.cache-ttl-seconds:60}")
+    private long cacheTtlSeconds;
+
+    private Map<String, Cached> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Collections.synchronizedMap(new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Cached> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    public void recordCreated(Booking booking) {
+        upsert(booking, 0, 0, BigDecimal.ZERO);
+    }
+
+    public void recordCompleted(Booking booking) {
+        upsert(booking, 1, 0, booking.getTotalFare() != null ? booking.getTotalFare() : BigDecimal.ZERO);
+    }
+
+    /**
+     * Move a booking's counts from its old status to its new one
+     */
+    public void recordStatusChange(Booking booking, BookingStatus oldStatus, BookingStatus newStatus) {
+        if (oldStatus == newStatus) {
+            return;
+        }
+        int completed = (newStatus == BookingStatus.COMPLETED ? 1 : 0) - (oldStatus == BookingStatus.COMPLETED ? 1 : 0);
+        int cancelled = (newStatus == BookingStatus.CANCELLED ? 1 : 0) - (oldStatus == BookingStatus.CANCELLED ? 1 : 0);
+        if (completed == 0 && cancelled == 0) {
+            return;
+        }
+        BigDecimal fare = booking.getTotalFare() != null ? booking.getTotalFare() : BigDecimal.ZERO;
+        upsert(booking, completed, cancelled, fare.multiply(BigDecimal.valueOf(completed)));
+    }
+
+    /**
+     * Totals of each number, in request order; numbers with no bookings get
+     * zero totals, numbers that are not phone numbers are skipped
+     */
+    @Transactional(readOnly = true)
+    public List<CustomerStatsResponse> getStats(List<String> phones) {
+        long now = System.currentTimeMillis();
+        Map<String, CustomerStatsResponse> found = new HashMap<>();
+        Set<String> missing = new HashSet<>();
+        List<String> numbers = new ArrayList<>();
+        for (String phone : phones) {
+            String number = phoneIndex.normalize(phone);
+            if (number == null) {
+                continue;
+            }
+            numbers.add(number);
+            Cached cached = cache.get(number);
+            if (cached != null && cached.expiresAtMillis() > now) {
+                found.put(number, cached.stats());
+            } else {
+                missing.add(number);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            Map<String, CustomerStats> rows = new HashMap<>();
+            customerStatsRepository.findAllById(missing).forEach(s -> rows.put(s.getContactNumber(), s));
+            long expiresAt = now + cacheTtlSeconds * 1000;
+            for (String number : missing) {
+                CustomerStatsResponse stats = toResponse(number, rows.get(number));
+                cache.put(number, new Cached(stats, expiresAt));
+                found.put(number, stats);
+            }
+        }
+
+        return numbers.stream().distinct().map(found::get).toList();
+    }
+
+    /**
+     * Seed customer_stats from the bookings table unless it has been seeded.
+     * Totals are assigned rather than added, so instances seeding at the same
+     * time write the same figures; a booking changing status while the seed
+     * runs can be overwritten by it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void seedOnce() {
+        if (customerStatsRepository.existsById(SEED_MARKER)) {
+            return;
+        }
+        // Several spellings of one number merge into a single E.164 row
+        Map<String, Totals> merged = new HashMap<>();
+        for (Object[] row : bookingRepository.aggregateByContactNumber()) {
+            String number = phoneIndex.normalize((String) row[0]);
+            if (number == null) {
+                continue;
+            }
+            Totals totals = merged.computeIfAbsent(number, n -> new Totals());
+            totals.completed += ((Number) row[1]).intValue();
+            totals.cancelled += ((Number) row[2]).intValue();
+            totals.first = earliest(totals.first, (LocalDateTime) row[3]);
+            totals.last = latest(totals.last, (LocalDateTime) row[4]);
+            if (row[5] != null) {
+                totals.fare = totals.fare.add((BigDecimal) row[5]);
+            }
+        }
+        merged.forEach((number, t) -> customerStatsRepository.assign(
+                number, t.completed, t.cancelled, t.first, t.last, t.fare));
+        customerStatsRepository.assign(SEED_MARKER, 0, 0, null, null, BigDecimal.ZERO);
+        log.info("Seeded customer_stats for {} customers", merged.size());
+    }
+
+    // ==================== PRIVATE HELPER METHODS ====================
+
+    private void upsert(Booking booking, int completed, int cancelled, BigDecimal fare) {
+        String number = phoneIndex.normalize(booking.getContactNumber());
+        if (number == null) {
+            return;
+        }
+        LocalDateTime bookingTime = booking.getBookingTime() != null ? booking.getBookingTime() : LocalDateTime.now();
+        customerStatsRepository.upsert(number, completed, cancelled, bookingTime, bookingTime, fare);
+        AfterCommit.run(() -> cache.remove(number));
+    }
+
+    private static LocalDateTime earliest(LocalDateTime a, LocalDateTime b) {
+        return a == null || (b != null && b.isBefore(a)) ? b : a;
+    }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        return a == null || (b != null && b.isAfter(a)) ? b : a;
+    }
+
+    private static CustomerStatsResponse toResponse(String number, CustomerStats stats) {
+        if (stats == null) {
+            return CustomerStatsResponse.builder()
+                    .contactNumber(number)
+                    .completedCount(0)
+                    .cancelledCount(0)
+                    .lifetimeFare(BigDecimal.ZERO)
+                    .build();
+        }
+        return CustomerStatsResponse.builder()
+                .contactNumber(number)
+                .completedCount(stats.getCompletedCount())
+                .cancelledCount(stats.getCancelledCount())
+                .firstBookingTime(stats.getFirstBookingTime())
+                .lastBookingTime(stats.getLastBookingTime())
+                .lifetimeFare(stats.getLifetimeFare())
+                .build();
+    }
+
+    private static final class Totals {
+        int completed;
+        int cancelled;
+        LocalDateTime first;
+        LocalDateTime last;
+        BigDecimal fare = BigDecimal.ZERO;
+    }
+
+    private record Cached(CustomerStatsResponse stats, long expiresAtMillis) {
+    }
+}
@@ -0,0 +1,69 @@
+package com.taxi.booking.service;
+
+import com.taxi.booking.enums.OfferStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metrics for the dispatch offer cascade
+ *
+ * - booking.offer.sent:           offers made to drivers
+ * - booking.offer.outcome{status}: ACCEPTED / REJECTED / EXPIRED / CANCELLED;
+ *                                  accept rate = outcome{ACCEPTED} / sent
+ * - booking.offer.time_to_accept:  offer made → driver accepted
+ * - booking.offer.cascade{result}: dispatched / exhausted / cancelled / withdrawn / failed
+ * - booking.offer.active:          offers currently waiting for a driver
+ */
+@Component
+public class DispatchOfferMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Counter sent;
+    private final Map<OfferStatus, Counter> outcomes = new EnumMap<>(OfferStatus.class);
+    private final Timer timeToAccept;
+
+    public DispatchOfferMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.sent = Counter.builder("booking.offer.sent")
+                .description("Dispatch offers made to drivers")
+                .register(meterRegistry);
+        for (OfferStatus status : OfferStatus.values()) {
+            if (status != OfferStatus.PENDING) {
+                outcomes.put(status, Counter.builder("booking.offer.outcome")
+                        .description("Dispatch offers by how they ended")
+                        .tag("status", status.name())
+                        .register(meterRegistry));
+            }
+        }
+        this.timeToAccept = Timer.builder("booking.offer.time_to_accept")
+                .description("Time from offering a booking to the driver accepting it")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public void recordSent() {
+        sent.increment();
+    }
+
+    public void recordOutcome(OfferStatus status, long offeredNanos) {
+        outcomes.get(status).increment();
+        if (status == OfferStatus.ACCEPTED) {
+            timeToAccept.record(System.nanoTime() - offeredNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void recordCascade(String result) {
+        meterRegistry.counter("booking.offer.cascade", "result", result).increment();
+    }
+
+    public void registerActiveGauge(Map<?, ?> offers) {
+        meterRegistry.gaugeMapSize("booking.offer.active", Tags.empty(), offers);
+    }
+}
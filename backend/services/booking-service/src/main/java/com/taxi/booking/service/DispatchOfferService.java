@@ -0,0 +1,460 @@
+package com.taxi.booking.service;
+
+import com.taxi.booking.client.DriverServiceClient;
+import com.taxi.booking.dto.request.DispatchBookingRequest;
+import com.taxi.booking.dto.request.DispatchOfferRequest;
+import com.taxi.booking.dto.response.BookingResponse;
+import com.taxi.booking.dto.response.DriverResponse;
+import com.taxi.booking.dto.response.DispatchOfferResponse;
+import com.taxi.booking.dto.response.PagedResponse;
+import com.taxi.booking.entity.Booking;
+import com.taxi.booking.enums.BookingStatus;
+import com.taxi.booking.enums.OfferStatus;
+import com.taxi.booking.repository.BookingRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Offers pending bookings to drivers one at a time.
+ *
+ * The best candidate gets the offer and has accept-timeout seconds to accept it;
+ * a reject or timeout moves the booking on to the next candidate. A candidate who is
+ * deciding on another booking's offer is asked again once the others were asked,
+ * every busy-retry-ms up to busy-retries times. Offers live only in memory (offer
+ * table + timing wheel) and at most max-active cascades run at once, so memory
+ * stays bounded. An accepted offer is completed through BookingService.dispatchBooking,
+ * which also reserves the driver. When candidates run out, or offering fails, the
+ * booking stays PENDING for manual dispatch.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DispatchOfferService {
+
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final DriverServiceClient driverServiceClient;
+    private final DriverReservationService driverReservationService;
+    private final DispatchOfferMetrics metrics;
+
+    @Value("${booking.offer.accept-timeout-seconds:20}")
+    private long acceptTimeoutSeconds;
+
+    @Value("${booking.offer.max-candidates:10}")
+    private int maxCandidates;
+
+    @Value("${booking.offer.max-active:5000}")
+    private int maxActive;
+
+    @Value("${booking.offer.tick-ms:100}")
+    private long tickMillis;
+
+    @Value("${booking.offer.cascade-threads:4}")
+    private int cascadeThreads;
+
+    @Value("${booking.offer.busy-retry-ms:2000}")
+    private long busyRetryMillis;
+
+    @Value("${booking.offer.busy-retries:10}")
+    private int busyRetries;
+
+    private final AtomicLong offerIds = new AtomicLong();
+    private final Map<Long, Offer> offers = new ConcurrentHashMap<>();
+    private final Map<Integer, Offer> offersByDriver = new ConcurrentHashMap<>();
+    private final Map<Integer, Cascade> cascades = new ConcurrentHashMap<>();
+
+    // One permit per running cascade, released when it finishes
+    private Semaphore activeSlots;
+    private ExecutorService cascadeExecutor;
+    private OfferTimingWheel timingWheel;
+
+    @PostConstruct
+    void start() {
+        activeSlots = new Semaphore(maxActive);
+        cascadeExecutor = Executors.newFixedThreadPool(cascadeThreads, runnable -> {
+            Thread thread = new Thread(runnable, "offer-cascade");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // One revolution covers the accept timeout, so most timeouts fire on their first pass
+        int wheelSize = (int) Math.max(64, acceptTimeoutSeconds * 1000 / tickMillis + 1);
+        timingWheel = new OfferTimingWheel(tickMillis, wheelSize, cascadeExecutor);
+        metrics.registerActiveGauge(offers);
+    }
+
+    @PreDestroy
+    void stop() {
+        timingWheel.close();
+        cascadeExecutor.shutdownNow();
+    }
+
+    /**
+     * Start offering a pending booking to drivers; returns the first offer or, when
+     * every free candidate is deciding on another booking, the booking without one
+     */
+    public DispatchOfferResponse startOffers(Integer bookingId, DispatchOfferRequest request) {
+        Booking booking = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new RuntimeException("Booking not found with id: " + bookingId));
+        if (booking.getStatus() != BookingStatus.PENDING) {
+            throw new RuntimeException(
+                    "Only pending bookings can be offered, current status: " + booking.getStatus());
+        }
+        if (!activeSlots.tryAcquire()) {
+            throw new RuntimeException("Too many dispatch offers in progress, try again shortly");
+        }
+
+        Cascade cascade = new Cascade(booking, request.getDispatchedBy());
+        if (cascades.putIfAbsent(bookingId, cascade) != null) {
+            activeSlots.release();
+            throw new RuntimeException("Booking " + bookingId + " is already being offered to drivers");
+        }
+        try {
+            cascade.candidates.addAll(findCandidates(request.getCandidateDriverIds()));
+        } catch (RuntimeException e) {
+            finish(cascade, "failed");
+            throw e;
+        }
+
+        Offer offer = offerNext(cascade);
+        if (offer != null) {
+            return toResponse(offer);
+        }
+        if (cascade.finished) {
+            throw new RuntimeException("No available driver to offer booking " + bookingId + " to");
+        }
+        return toResponse(cascade);
+    }
+
+    /**
+     * The offer currently waiting for the driver, if any
+     */
+    public Optional<DispatchOfferResponse> getPendingOffer(Integer driverId) {
+        return Optional.ofNullable(offersByDriver.get(driverId)).map(this::toResponse);
+    }
+
+    public Optional<DispatchOfferResponse> getCurrentOffer(Integer bookingId) {
+        return Optional.ofNullable(cascades.get(bookingId))
+                .map(cascade -> cascade.current)
+                .map(this::toResponse);
+    }
+
+    /**
+     * Accept an offer; dispatches the booking to the driver
+     */
+    public BookingResponse acceptOffer(Long offerId, Integer driverId) {
+        Offer offer = findOffer(offerId, driverId);
+        if (!close(offer, OfferStatus.ACCEPTED)) {
+            throw new RuntimeException("Offer " + offerId + " is no longer open: " + offer.status.get());
+        }
+        Cascade cascade = offer.cascade;
+
+        BookingStatus status = bookingRepository.findById(cascade.bookingId)
+                .map(Booking::getStatus)
+                .orElse(null);
+        if (status != BookingStatus.PENDING) {
+            finish(cascade, "withdrawn");
+            throw new RuntimeException("Booking " + cascade.bookingId + " is no longer pending");
+        }
+
+        DispatchBookingRequest dispatch = new DispatchBookingRequest();
+        dispatch.setDriverId(offer.driverId);
+        dispatch.setVehicleId(offer.vehicleId);
+        dispatch.setDispatchedBy(cascade.dispatchedBy);
+        try {
+            BookingResponse response = bookingService.dispatchBooking(cascade.bookingId, dispatch);
+            finish(cascade, "dispatched");
+            log.info("Booking {} accepted by driver {} after {} offer(s)",
+                    cascade.bookingId, offer.driverId, offer.attempt);
+            return response;
+        } catch (RuntimeException e) {
+            log.warn("Dispatch of booking {} to driver {} failed after accept: {}",
+                    cascade.bookingId, offer.driverId, e.getMessage());
+            cascadeExecutor.execute(() -> advance(cascade));
+            throw e;
+        }
+    }
+
+    /**
+     * Reject an offer; the booking moves on to the next candidate
+     */
+    public void rejectOffer(Long offerId, Integer driverId) {
+        Offer offer = findOffer(offerId, driverId);
+        if (!close(offer, OfferStatus.REJECTED)) {
+            throw new RuntimeException("Offer " + offerId + " is no longer open: " + offer.status.get());
+        }
+        log.info("Offer {} of booking {} rejected by driver {}", offerId, offer.cascade.bookingId, driverId);
+        cascadeExecutor.execute(() -> advance(offer.cascade));
+    }
+
+    /**
+     * Stop offering a booking, withdrawing the open offer
+     */
+    public void cancelOffers(Integer bookingId) {
+        Cascade cascade = cascades.get(bookingId);
+        if (cascade == null) {
+            throw new RuntimeException("Booking " + bookingId + " is not being offered to drivers");
+        }
+        Offer offer = cascade.current;
+        if (offer != null) {
+            close(offer, OfferStatus.CANCELLED);
+        }
+        finish(cascade, "cancelled");
+    }
+
+    // ==================== PRIVATE HELPER METHODS ====================
+
+    /**
+     * Offer the booking to the next candidate that is free; null when none is left
+     * or the cascade waits for busy candidates. A failure finishes the cascade.
+     */
+    private Offer offerNext(Cascade cascade) {
+        synchronized (cascade) {
+            if (cascade.finished) {
+                return null;
+            }
+            try {
+                BookingStatus status = bookingRepository.findById(cascade.bookingId)
+                        .map(Booking::getStatus)
+                        .orElse(null);
+                if (status != BookingStatus.PENDING) {
+                    finish(cascade, "withdrawn");
+                    return null;
+                }
+
+                DriverResponse candidate;
+                while ((candidate = cascade.candidates.poll()) != null) {
+                    if (driverReservationService.isDriverReserved(candidate.getId())) {
+                        continue;
+                    }
+                    Offer offer = new Offer(offerIds.incrementAndGet(), cascade, candidate,
+                            cascade.attempt + 1, acceptTimeoutSeconds);
+                    if (offersByDriver.putIfAbsent(candidate.getId(), offer) != null) {
+                        // Deciding on another booking; asked again after the others
+                        cascade.busy.add(candidate);
+                        continue;
+                    }
+                    cascade.current = offer;
+                    cascade.attempt++;
+                    offers.put(offer.id, offer);
+                    offer.timeout = timingWheel.schedule(() -> expire(offer),
+                            acceptTimeoutSeconds * 1000);
+                    metrics.recordSent();
+                    log.debug("Offered booking {} to driver {} (attempt {})",
+                            cascade.bookingId, candidate.getId(), offer.attempt);
+                    return offer;
+                }
+
+                if (!cascade.busy.isEmpty() && cascade.busyRounds < busyRetries) {
+                    cascade.busyRounds++;
+                    cascade.candidates.addAll(cascade.busy);
+                    cascade.busy.clear();
+                    cascade.retry = timingWheel.schedule(() -> advance(cascade), busyRetryMillis);
+                    log.debug("Booking {} waits for {} busy driver(s)", cascade.bookingId,
+                            cascade.candidates.size());
+                    return null;
+                }
+
+                log.warn("No driver accepted booking {} after {} offer(s); left for manual dispatch",
+                        cascade.bookingId, cascade.attempt);
+                finish(cascade, "exhausted");
+                return null;
+            } catch (RuntimeException e) {
+                finish(cascade, "failed");
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * offerNext for the cascade threads, where nobody is waiting for the exception
+     */
+    private void advance(Cascade cascade) {
+        try {
+            offerNext(cascade);
+        } catch (RuntimeException e) {
+            log.error("Offering booking {} failed, left for manual dispatch: {}",
+                    cascade.bookingId, e.getMessage(), e);
+        }
+    }
+
+    private void expire(Offer offer) {
+        if (close(offer, OfferStatus.EXPIRED)) {
+            log.debug("Offer {} of booking {} to driver {} expired",
+                    offer.id, offer.cascade.bookingId, offer.driverId);
+            advance(offer.cascade);
+        }
+    }
+
+    /**
+     * Move an open offer to its final status; only one caller can win
+     */
+    private boolean close(Offer offer, OfferStatus status) {
+        if (!offer.status.compareAndSet(OfferStatus.PENDING, status)) {
+            return false;
+        }
+        if (offer.timeout != null) {
+            offer.timeout.cancel();
+        }
+        offers.remove(offer.id);
+        offersByDriver.remove(offer.driverId, offer);
+        metrics.recordOutcome(status, offer.offeredNanos);
+        return true;
+    }
+
+    /**
+     * End a cascade, withdrawing its open offer if any; only the first call counts
+     */
+    private void finish(Cascade cascade, String result) {
+        synchronized (cascade) {
+            if (cascade.finished) {
+                return;
+            }
+            cascade.finished = true;
+            cascade.candidates.clear();
+            cascade.busy.clear();
+            if (cascade.retry != null) {
+                cascade.retry.cancel();
+            }
+        }
+        Offer offer = cascade.current;
+        if (offer != null) {
+            close(offer, OfferStatus.CANCELLED);
+        }
+        cascades.remove(cascade.bookingId, cascade);
+        activeSlots.release();
+        metrics.recordCascade(result);
+    }
+
+    private Offer findOffer(Long offerId, Integer driverId) {
+        Offer offer = offers.get(offerId);
+        if (offer == null) {
+            throw new RuntimeException("Offer " + offerId + " not found or no longer open");
+        }
+        if (!offer.driverId.equals(driverId)) {
+            throw new RuntimeException("Offer " + offerId + " was not made to driver " + driverId);
+        }
+        return offer;
+    }
+
+    /**
+     * Drivers with a vehicle, in the order given or best rated first,
+     * capped at max-candidates
+     */
+    private List<DriverResponse> findCandidates(List<Integer> driverIds) {
+        List<DriverResponse> drivers;
+        if (driverIds != null && !driverIds.isEmpty()) {
+            Map<Integer, DriverResponse> byId = new HashMap<>();
+            driverServiceClient.getCurrentDriversByIds(driverIds).forEach(d -> byId.put(d.getId(), d));
+            drivers = driverIds.stream()
+                    .distinct()
+                    .map(byId::get)
+                    .filter(Objects::nonNull)
+                    .filter(d -> !Boolean.FALSE.equals(d.getIsActive())
+                            && !Boolean.TRUE.equals(d.getIsBlocked()))
+                    .toList();
+        } else {
+            // Over-fetch since some will be busy with other bookings
+            PagedResponse<DriverResponse> page = driverServiceClient.getAvailableDrivers(0, maxCandidates * 3);
+            drivers = page != null && page.getContent() != null ? page.getContent() : List.of();
+        }
+        return drivers.stream()
+                .filter(d -> d.getVehicleId() != null)
+                .filter(d -> !driverReservationService.isDriverReserved(d.getId()))
+                .limit(maxCandidates)
+                .toList();
+    }
+
+    /**
+     * A cascade waiting for busy candidates, with no open offer
+     */
+    private DispatchOfferResponse toResponse(Cascade cascade) {
+        return DispatchOfferResponse.builder()
+                .bookingId(cascade.bookingId)
+                .bookingNumber(cascade.bookingNumber)
+                .attempt(cascade.attempt)
+                .pickupAddress(cascade.pickupAddress)
+                .dropAddress(cascade.dropAddress)
+                .build();
+    }
+
+    private DispatchOfferResponse toResponse(Offer offer) {
+        return DispatchOfferResponse.builder()
+                .offerId(offer.id)
+                .bookingId(offer.cascade.bookingId)
+                .bookingNumber(offer.cascade.bookingNumber)
+                .driverId(offer.driverId)
+                .vehicleId(offer.vehicleId)
+                .status(offer.status.get())
+                .attempt(offer.attempt)
+                .pickupAddress(offer.cascade.pickupAddress)
+                .dropAddress(offer.cascade.dropAddress)
+                .offeredAt(offer.offeredAt)
+                .expiresAt(offer.expiresAt)
+                .build();
+    }
+
+    /**
+     * One booking working through its candidate drivers
+     */
+    private static final class Cascade {
+
+        final Integer bookingId;
+        final String bookingNumber;
+        final String pickupAddress;
+        final String dropAddress;
+        final Integer dispatchedBy;
+        final Deque<DriverResponse> candidates = new ArrayDeque<>();
+        final List<DriverResponse> busy = new ArrayList<>();
+        int attempt;
+        int busyRounds;
+        OfferTimingWheel.Timeout retry;
+        volatile Offer current;
+        volatile boolean finished;
+
+        Cascade(Booking booking, Integer dispatchedBy) {
+            this.bookingId = booking.getId();
+            this.bookingNumber = booking.getBookingId();
+            this.pickupAddress = booking.getPickupAddress();
+            this.dropAddress = booking.getDropAddress();
+            this.dispatchedBy = dispatchedBy;
+        }
+    }
+
+    private static final class Offer {
+
+        final Long id;
+        final Cascade cascade;
+        final Integer driverId;
+        final Integer vehicleId;
+        final int attempt;
+        final LocalDateTime offeredAt;
+        final LocalDateTime expiresAt;
+        final long offeredNanos;
+        final AtomicReference<OfferStatus> status = new AtomicReference<>(OfferStatus.PENDING);
+        volatile OfferTimingWheel.Timeout timeout;
+
+        Offer(Long id, Cascade cascade, DriverResponse driver, int attempt, long timeoutSeconds) {
+            this.id = id;
+            this.cascade = cascade;
+            this.driverId = driver.getId();
+            this.vehicleId = driver.getVehicleId();
+            this.attempt = attempt;
+            this.offeredAt = LocalDateTime.now();
+            this.expiresAt = offeredAt.plusSeconds(timeoutSeconds);
+            this.offeredNanos = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.taxi.booking.service;
+
+import com.taxi.booking.entity.Booking;
+import com.taxi.booking.entity.DriverReservation;
+import com.taxi.booking.enums.BookingStatus;
+import com.taxi.booking.repository.BookingRepository;
+import com.taxi.booking.repository.DriverReservationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Guards against dispatching one driver to two bookings at once.
+ *
+ * The first line is an in-memory driver -> booking map updated with CAS
+ * (putIfAbsent / replace / remove(key, value)), so concurrent dispatches on this
+ * instance race without locks and exactly one wins. Entries stay pending until the
+ * dispatch commits, and a pending entry is never taken over. The driver_reservations
+ * table, keyed by driver_id, is the backstop for dispatches made through other
+ * instances; a row already held by the same booking counts as reserved, so
+ * re-dispatching through another instance is idempotent. A reservation is taken
+ * before the booking is saved, undone if the transaction rolls back, and released
+ * when the booking is completed or cancelled.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DriverReservationService {
+
+    /**
+     * Statuses in which the assigned driver is busy with the booking
+     */
+    public static final Set<BookingStatus> RESERVED_STATUSES = Collections.unmodifiableSet(
+            EnumSet.range(BookingStatus.DISPATCHED, BookingStatus.PASSENGER_ONBOARD));
+
+    private final BookingRepository bookingRepository;
+    private final DriverReservationRepository reservationRepository;
+
+    private final ConcurrentMap<Integer, Holder> reservations = new ConcurrentHashMap<>();
+
+    public static boolean isReserved(BookingStatus status) {
+        return status != null && RESERVED_STATUSES.contains(status);
+    }
+
+    /**
+     * Whether this instance knows the driver to be dispatched or mid-dispatch
+     */
+    public boolean isDriverReserved(Integer driverId) {
+        return reservations.containsKey(driverId);
+    }
+
+    /**
+     * Reserve the driver for the booking. Must run inside the dispatch transaction;
+     * the reservation is dropped again if that transaction rolls back.
+     *
+     * @throws RuntimeException when the driver is already on another active booking
+     */
+    public void reserve(Integer driverId, Integer bookingId) {
+        Holder pending = new Holder(bookingId, false);
+        boolean acquired = false;
+        while (!acquired) {
+            Holder holder = reservations.putIfAbsent(driverId, pending);
+            if (holder == null) {
+                acquired = true;
+            } else if (holder.bookingId().equals(bookingId)) {
+                // Re-dispatch to the same driver; already held
+                return;
+            } else if (!holder.committed() || isStillHolding(holder.bookingId(), driverId)) {
+                throw alreadyReserved(driverId, holder.bookingId());
+            } else if (reservations.replace(driverId, holder, pending)) {
+                // Holder was finished through another instance
+                log.debug("Replaced stale reservation of driver {} by booking {}",
+                        driverId, holder.bookingId());
+                acquired = true;
+            }
+        }
+
+        // Confirm the reservation when the dispatch commits, undo it otherwise
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    reservations.replace(driverId, pending, new Holder(bookingId, true));
+                } else {
+                    reservations.remove(driverId, pending);
+                }
+            }
+        });
+
+        Optional<DriverReservation> existing = reservationRepository.findById(driverId);
+        if (existing.isPresent()) {
+            Integer heldBy = existing.get().getBookingId();
+            if (heldBy.equals(bookingId)) {
+                // Re-dispatch to the same driver, reserved through another instance
+                return;
+            }
+            if (isStillHolding(heldBy, driverId)) {
+                throw alreadyReserved(driverId, heldBy);
+            }
+            reservationRepository.release(driverId, heldBy);
+        }
+        reservationRepository.insertIfAbsent(driverId, bookingId, LocalDateTime.now());
+        Integer holder = reservationRepository.lockBookingId(driverId).orElse(null);
+        if (!bookingId.equals(holder)) {
+            // Another instance reserved the driver between our check and insert
+            throw new RuntimeException(
+                    "Driver " + driverId + " was dispatched to another booking concurrently");
+        }
+    }
+
+    /**
+     * Release the driver from the booking; the in-memory entry is removed once
+     * the current transaction commits
+     */
+    public void release(Integer driverId, Integer bookingId) {
+        if (driverId == null) {
+            return;
+        }
+        reservationRepository.release(driverId, bookingId);
+        AfterCommit.run(() -> reservations.remove(driverId, new Holder(bookingId, true)));
+    }
+
+    /**
+     * Rebuild the reservation map from dispatched and in-progress bookings at startup,
+     * and bring the driver_reservations table in line with them
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Map<Integer, Integer> active = new HashMap<>();
+        for (Booking booking : bookingRepository.findByStatusIn(RESERVED_STATUSES)) {
+            if (booking.getDriverId() == null) {
+                continue;
+            }
+            Integer previous = active.putIfAbsent(booking.getDriverId(), booking.getId());
+            if (previous != null) {
+                log.warn("Driver {} is on more than one active booking ({} and {})",
+                        booking.getDriverId(), previous, booking.getId());
+            }
+        }
+        active.forEach((driverId, bookingId) -> reservations.put(driverId, new Holder(bookingId, true)));
+
+        int released = reservationRepository.releaseInactive(RESERVED_STATUSES);
+        Set<Integer> persisted = new HashSet<>();
+        reservationRepository.findAll().forEach(r -> persisted.add(r.getDriverId()));
+        int inserted = 0;
+        for (Map.Entry<Integer, Integer> entry : active.entrySet()) {
+            if (persisted.contains(entry.getKey())) {
+                continue;
+            }
+            try {
+                reservationRepository.insert(entry.getKey(), entry.getValue(), LocalDateTime.now());
+                inserted++;
+            } catch (DataIntegrityViolationException e) {
+                // Another instance inserted it while starting up
+            }
+        }
+        log.info("Driver reservations rebuilt: {} active, {} rows backfilled, {} stale rows released",
+                active.size(), inserted, released);
+    }
+
+    // ==================== PRIVATE HELPER METHODS ====================
+
+    /**
+     * Whether the booking still has the driver assigned and is not finished
+     */
+    private boolean isStillHolding(Integer bookingId, Integer driverId) {
+        return bookingRepository.findById(bookingId)
+                .map(b -> isReserved(b.getStatus()) && driverId.equals(b.getDriverId()))
+                .orElse(false);
+    }
+
+    private RuntimeException alreadyReserved(Integer driverId, Integer bookingId) {
+        return new RuntimeException(
+                "Driver " + driverId + " is already dispatched to booking " + bookingId);
+    }
+
+    /**
+     * Map value; committed is false while the reserving dispatch is still in flight
+     */
+    private record Holder(Integer bookingId, boolean committed) {
+    }
+}
@@ -0,0 +1,91 @@
+package com.taxi.booking.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * One customer's most used pickup and drop places, at most capacity of them.
+ *
+ * Each use adds 1 to a place's score and scores halve every halfLife, so a place
+ * used weekly outranks one used often years ago. When full, a new place takes
+ * the slot of the lowest-scoring one: the newest place always gets a chance,
+ * and a real regular quickly outscores whatever it displaced.
+ */
+public final class FrequentPlaces {
+
+    private final List<Place> places = new ArrayList<>(4);
+
+    /**
+     * Record a use at atMillis of a normalised address
+     */
+    public synchronized void record(String key, String address, BigDecimal latitude, BigDecimal longitude,
+            long atMillis, long halfLifeMillis, int capacity) {
+        for (Place place : places) {
+            if (place.key.equals(key)) {
+                place.score = decayed(place, atMillis, halfLifeMillis) + 1;
+                place.lastUsedMillis = Math.max(place.lastUsedMillis, atMillis);
+                place.address = address;
+                if (latitude != null && longitude != null) {
+                    place.latitude = latitude;
+                    place.longitude = longitude;
+                }
+                place.uses++;
+                return;
+            }
+        }
+        Place place = new Place(key, address, latitude, longitude, atMillis);
+        if (places.size() < capacity) {
+            places.add(place);
+            return;
+        }
+        int weakest = 0;
+        for (int i = 1; i < places.size(); i++) {
+            if (decayed(places.get(i), atMillis, halfLifeMillis)
+                    < decayed(places.get(weakest), atMillis, halfLifeMillis)) {
+                weakest = i;
+            }
+        }
+        places.set(weakest, place);
+    }
+
+    /**
+     * Places best first, scored as of nowMillis
+     */
+    public synchronized List<Ranked> ranked(long nowMillis, long halfLifeMillis) {
+        return places.stream()
+                .map(p -> new Ranked(p.key, p.address, p.latitude, p.longitude, p.uses,
+                        decayed(p, nowMillis, halfLifeMillis)))
+                .sorted(Comparator.comparingDouble(Ranked::score).reversed())
+                .toList();
+    }
+
+    private static double decayed(Place place, long atMillis, long halfLifeMillis) {
+        long elapsed = Math.max(0, atMillis - place.lastUsedMillis);
+        return place.score * Math.pow(0.5, (double) elapsed / halfLifeMillis);
+    }
+
+    private static final class Place {
+
+        final String key;
+        String address;
+        BigDecimal latitude;
+        BigDecimal longitude;
+        double score = 1;
+        long lastUsedMillis;
+        int uses = 1;
+
+        Place(String key, String address, BigDecimal latitude, BigDecimal longitude, long usedAtMillis) {
+            this.key = key;
+            this.address = address;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.lastUsedMillis = usedAtMillis;
+        }
+    }
+
+    public record Ranked(String key, String address, BigDecimal latitude, BigDecimal longitude, int uses,
+            double score) {
+    }
+}
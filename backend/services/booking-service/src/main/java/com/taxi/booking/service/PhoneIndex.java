@@ -0,0 +1,240 @@
+package com.taxi.booking.service;
+
+import com.taxi.booking.client.DriverServiceClient;
+import com.taxi.booking.client.UserServiceClient;
+import com.taxi.booking.dto.response.DriverResponse;
+import com.taxi.booking.dto.response.UserResponse;
+import com.taxi.booking.repository.BookingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory caller-ID index: E.164 phone number → the latest bookings made
+ * from it, and the drivers and staff users it belongs to.
+ *
+ * Entries are keyed by the number's digits reversed, in a sorted map, so a
+ * search on the trailing digits an agent types ("4567") is a prefix range scan
+ * of the reversed keys rather than a LIKE '%4567%' table scan. Entries are
+ * immutable and replaced with compute(), so lookups never lock.
+ *
+ * Bookings from the last lookback-days are loaded at startup and kept current
+ * as bookings are created or updated here; drivers and users are re-read from
+ * their services every party-refresh-interval-ms.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PhoneIndex {
+
+    private final BookingRepository bookingRepository;
+    private final DriverServiceClient driverServiceClient;
+    private final UserServiceClient userServiceClient;
+
+    @Value("${booking.phone-index.default-country-code:94}")
+    private String defaultCountryCode;
+
+    @Value("${booking.phone-index.bookings-per-number:20}")
+    private int bookingsPerNumber;
+
+    @Value("${booking.phone-index.lookback-days:365}")
+    private int lookbackDays;
+
+    @Value("${booking.phone-index.load-batch-size:5000}")
+    private int loadBatchSize;
+
+    private final ConcurrentSkipListMap<String, Entry> entries = new ConcurrentSkipListMap<>();
+    private volatile boolean loaded = false;
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public String normalize(String phone) {
+        return PhoneNumbers.toE164(phone, defaultCountryCode);
+    }
+
+    /**
+     * Entry of a full number, null when the number is unknown or not a number
+     */
+    public Entry find(String phone) {
+        String e164 = normalize(phone);
+        return e164 != null ? entries.get(key(e164)) : null;
+    }
+
+    /**
+     * Entries of numbers ending in the given digits, at most limit of them
+     */
+    public List<Entry> findBySuffix(String digits, int limit) {
+        String prefix = new StringBuilder(PhoneNumbers.digitsOf(digits)).reverse().toString();
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+        ConcurrentNavigableMap<String, Entry> range = entries.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        List<Entry> matches = new ArrayList<>();
+        for (Entry entry : range.values()) {
+            if (matches.size() == limit) {
+                break;
+            }
+            matches.add(entry);
+        }
+        return matches;
+    }
+
+    /**
+     * Index a booking's contact number once the current transaction commits,
+     * moving it off its previous number when that changed
+     */
+    public void indexAfterCommit(Integer bookingId, String previousPhone, String phone) {
+        Runnable update = () -> {
+            String previous = normalize(previousPhone);
+            String current = normalize(phone);
+            if (previous != null && !previous.equals(current)) {
+                removeBooking(previous, bookingId);
+            }
+            if (current != null) {
+                addBooking(current, bookingId);
+            }
+        };
+        AfterCommit.run(update);
+    }
+
+    /**
+     * Load contact numbers of recent bookings, in id order so each number keeps its latest ones
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        LocalDateTime since = LocalDateTime.now().minusDays(lookbackDays);
+        int afterId = 0;
+        int indexed = 0;
+        List<Object[]> batch;
+        do {
+            batch = bookingRepository.findContactNumbers(afterId, since, PageRequest.of(0, loadBatchSize));
+            for (Object[] row : batch) {
+                afterId = (Integer) row[0];
+                String e164 = normalize((String) row[1]);
+                if (e164 != null) {
+                    addBooking(e164, afterId);
+                    indexed++;
+                }
+            }
+        } while (batch.size() == loadBatchSize);
+        loaded = true;
+        log.info("Phone index loaded {} bookings over {} numbers", indexed, entries.size());
+        refreshParties();
+    }
+
+    /**
+     * Re-read driver and staff user numbers
+     */
+    @Scheduled(fixedDelayString = "${booking.phone-index.party-refresh-interval-ms:300000}",
+            initialDelayString = "${booking.phone-index.party-refresh-interval-ms:300000}")
+    public void refreshParties() {
+        Map<String, List<Party>> drivers = new HashMap<>();
+        Map<String, List<Party>> users = new HashMap<>();
+        try {
+            for (DriverResponse driver : driverServiceClient.getAllDrivers(false)) {
+                String e164 = normalize(driver.getContactNumber());
+                if (e164 != null) {
+                    drivers.computeIfAbsent(key(e164), k -> new ArrayList<>()).add(new Party(driver.getId(),
+                            driver.getCode(), fullName(driver.getFirstName(), driver.getLastName())));
+                }
+            }
+            for (UserResponse user : userServiceClient.getAllUsers()) {
+                String e164 = normalize(user.getPhoneNumber());
+                if (e164 != null) {
+                    users.computeIfAbsent(key(e164), k -> new ArrayList<>()).add(new Party(user.getId(),
+                            user.getUsername(), fullName(user.getFirstName(), user.getLastName())));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Failed to refresh driver/user phone numbers: {}", e.getMessage());
+            return;
+        }
+
+        Set<String> keys = new HashSet<>(drivers.keySet());
+        keys.addAll(users.keySet());
+        for (Map.Entry<String, Entry> existing : entries.entrySet()) {
+            if (!existing.getValue().drivers().isEmpty() || !existing.getValue().users().isEmpty()) {
+                keys.add(existing.getKey());
+            }
+        }
+        for (String key : keys) {
+            entries.compute(key, (k, entry) -> prune(new Entry(numberOf(k),
+                    entry != null ? entry.bookingIds() : List.of(),
+                    List.copyOf(drivers.getOrDefault(k, List.of())),
+                    List.copyOf(users.getOrDefault(k, List.of())))));
+        }
+    }
+
+    // ==================== PRIVATE HELPER METHODS ====================
+
+    private void addBooking(String e164, int bookingId) {
+        entries.compute(key(e164), (k, entry) -> {
+            List<Integer> ids = new ArrayList<>(entry != null ? entry.bookingIds() : List.of());
+            if (ids.contains(bookingId)) {
+                return entry;
+            }
+            // Newest first; booking ids only grow, so this is usually an insert at the head
+            int at = 0;
+            while (at < ids.size() && ids.get(at) > bookingId) {
+                at++;
+            }
+            ids.add(at, bookingId);
+            if (ids.size() > bookingsPerNumber) {
+                ids = ids.subList(0, bookingsPerNumber);
+            }
+            return new Entry(e164, List.copyOf(ids),
+                    entry != null ? entry.drivers() : List.of(),
+                    entry != null ? entry.users() : List.of());
+        });
+    }
+
+    private void removeBooking(String e164, int bookingId) {
+        entries.computeIfPresent(key(e164), (k, entry) -> {
+            List<Integer> ids = new ArrayList<>(entry.bookingIds());
+            ids.remove(Integer.valueOf(bookingId));
+            return prune(new Entry(e164, List.copyOf(ids), entry.drivers(), entry.users()));
+        });
+    }
+
+    private static Entry prune(Entry entry) {
+        return entry.bookingIds().isEmpty() && entry.drivers().isEmpty() && entry.users().isEmpty()
+                ? null
+                : entry;
+    }
+
+    private static String key(String e164) {
+        return new StringBuilder(e164.substring(1)).reverse().toString();
+    }
+
+    private static String numberOf(String key) {
+        return "+" + new StringBuilder(key).reverse();
+    }
+
+    private static String fullName(String firstName, String lastName) {
+        return ((firstName != null ? firstName : "") + " " + (lastName != null ? lastName : "")).trim();
+    }
+
+    /**
+     * Everything known about one number; bookingIds newest first
+     */
+    public record Entry(String number, List<Integer> bookingIds, List<Party> drivers, List<Party> users) {
+    }
+
+    /**
+     * A driver or staff user a number belongs to
+     */
+    public record Party(Integer id, String code, String name) {
+    }
+}
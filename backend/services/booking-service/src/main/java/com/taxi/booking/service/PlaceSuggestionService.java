@@ -0,0 +1,273 @@
+package com.taxi.booking.service;
+
+import com.taxi.booking.dto.response.PlaceSuggestionResponse;
+import com.taxi.booking.entity.Booking;
+import com.taxi.booking.repository.BookingRepository;
+import com.taxi.booking.service.geocoding.AddressNormalizer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Pickup/drop address autocomplete from booking history.
+ *
+ * Two in-memory structures, built from the last lookback-days of bookings at
+ * startup and updated as bookings are created:
+ * - per customer (E.164 contact number): FrequentPlaces, a decayed top-K; the
+ *   customer map itself is an LRU capped at max-customers
+ * - for everyone: a PlaceTrie of the max-popular most used addresses
+ * A suggestion request lists the caller's own matching places first, then
+ * popular ones, without touching the database.
+ *
+ * A rebuild scans bookings up to the highest id when it starts; bookings
+ * committed while it runs above that id are left to recordAfterCommit and
+ * replayed onto the new trie before it replaces the old one.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PlaceSuggestionService {
+
+    private final BookingRepository bookingRepository;
+    private final PhoneIndex phoneIndex;
+
+    @Value("${booking.places.lookback-days:365}")
+    private int lookbackDays;
+
+    @Value("${booking.places.load-batch-size:5000}")
+    private int loadBatchSize;
+
+    @Value("${booking.places.places-per-customer:10}")
+    private int placesPerCustomer;
+
+    @Value("${booking.places.half-life-days:60}")
+    private int halfLifeDays;
+
+    @Value("${booking.places.max-customers:200000}")
+    private int maxCustomers;
+
+    @Value("${booking.places.max-popular:20000}")
+    private int maxPopular;
+
+    @Value("${booking.places.popular-top-k:10}")
+    private int popularTopK;
+
+    @Value("${booking.places.trie-depth:10}")
+    private int trieDepth;
+
+    @Value("${booking.places.word-starts:3}")
+    private int wordStarts;
+
+    private Map<String, FrequentPlaces> customers;
+    private volatile PlaceTrie popular;
+    private long halfLifeMillis;
+
+    private final Object rebuildLock = new Object();
+    // Bookings recorded while a rebuild runs, null otherwise; guarded by rebuildLock
+    private List<Booking> recordedDuringRebuild;
+    private int rebuildUpToId;
+
+    @PostConstruct
+    void init() {
+        customers = Collections.synchronizedMap(new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, FrequentPlaces> eldest) {
+                return size() > maxCustomers;
+            }
+        });
+        popular = new PlaceTrie(popularTopK, trieDepth, wordStarts, maxPopular);
+        halfLifeMillis = halfLifeDays * 86_400_000L;
+    }
+
+    /**
+     * Suggestions for a partly typed address, the caller's own places first.
+     * With a phone and no prefix, the caller's most used places.
+     */
+    public List<PlaceSuggestionResponse> suggest(String prefix, String phone, int limit) {
+        String normalizedPrefix = AddressNormalizer.normalizePrefix(prefix);
+        List<PlaceSuggestionResponse> suggestions = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+
+        FrequentPlaces own = customerPlaces(phone, false);
+        if (own != null) {
+            for (FrequentPlaces.Ranked place : own.ranked(System.currentTimeMillis(), halfLifeMillis)) {
+                if (suggestions.size() == limit) {
+                    break;
+                }
+                if (normalizedPrefix == null || place.key().startsWith(normalizedPrefix)
+                        || place.key().contains(" " + normalizedPrefix)) {
+                    seen.add(place.key());
+                    suggestions.add(PlaceSuggestionResponse.builder()
+                            .address(place.address())
+                            .latitude(place.latitude())
+                            .longitude(place.longitude())
+                            .uses((long) place.uses())
+                            .source("CUSTOMER")
+                            .build());
+                }
+            }
+        }
+
+        if (normalizedPrefix != null) {
+            for (PlaceTrie.Suggestion place : popular.complete(normalizedPrefix, limit + seen.size())) {
+                if (suggestions.size() == limit) {
+                    break;
+                }
+                if (seen.add(place.key())) {
+                    suggestions.add(PlaceSuggestionResponse.builder()
+                            .address(place.address())
+                            .latitude(place.latitude())
+                            .longitude(place.longitude())
+                            .uses(place.uses())
+                            .source("POPULAR")
+                            .build());
+                }
+            }
+        }
+        return suggestions;
+    }
+
+    /**
+     * Count a new booking's pickup and drop once it commits
+     */
+    public void recordAfterCommit(Booking booking) {
+        AfterCommit.run(() -> record(booking));
+    }
+
+    /**
+     * Rebuild from recent bookings. Popular addresses are counted in full first,
+     * so the trie keeps the most used ones rather than the first seen.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        LocalDateTime since = LocalDateTime.now().minusDays(lookbackDays);
+        int upToId;
+        synchronized (rebuildLock) {
+            upToId = bookingRepository.findMaxId();
+            rebuildUpToId = upToId;
+            recordedDuringRebuild = new ArrayList<>();
+        }
+        Map<String, PlaceCount> counts = new HashMap<>();
+        int afterId = 0;
+        int loaded = 0;
+        List<Object[]> batch;
+        do {
+            batch = bookingRepository.findPlaces(afterId, upToId, since, PageRequest.of(0, loadBatchSize));
+            for (Object[] row : batch) {
+                afterId = (Integer) row[0];
+                String phone = (String) row[1];
+                LocalDateTime bookingTime = (LocalDateTime) row[2];
+                recordCustomer(phone, bookingTime, (String) row[3], (BigDecimal) row[4], (BigDecimal) row[5]);
+                recordCustomer(phone, bookingTime, (String) row[6], (BigDecimal) row[7], (BigDecimal) row[8]);
+                count(counts, (String) row[3], (BigDecimal) row[4], (BigDecimal) row[5]);
+                count(counts, (String) row[6], (BigDecimal) row[7], (BigDecimal) row[8]);
+                loaded++;
+            }
+        } while (batch.size() == loadBatchSize);
+
+        PlaceTrie trie = new PlaceTrie(popularTopK, trieDepth, wordStarts, maxPopular);
+        counts.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, PlaceCount> e) -> e.getValue().uses).reversed())
+                .limit(maxPopular)
+                .forEach(e -> trie.record(e.getKey(), e.getValue().address,
+                        e.getValue().latitude, e.getValue().longitude, e.getValue().uses));
+        int replayed;
+        synchronized (rebuildLock) {
+            replayed = recordedDuringRebuild.size();
+            for (Booking booking : recordedDuringRebuild) {
+                recordPopular(trie, booking.getPickupAddress(), booking.getPickupLatitude(),
+                        booking.getPickupLongitude());
+                recordPopular(trie, booking.getDropAddress(), booking.getDropLatitude(), booking.getDropLongitude());
+            }
+            recordedDuringRebuild = null;
+            popular = trie;
+        }
+        log.info("Place suggestions loaded from {} bookings (+{} during load): {} customers, "
+                + "{} popular of {} addresses", loaded, replayed, customers.size(), trie.size(), counts.size());
+    }
+
+    // ==================== PRIVATE HELPER METHODS ====================
+
+    /**
+     * Count a committed booking. While a rebuild runs, bookings it scans are
+     * skipped and the rest are kept for the new trie; the trie is read under
+     * the lock so a booking lands in the new one exactly once.
+     */
+    private void record(Booking booking) {
+        PlaceTrie trie;
+        synchronized (rebuildLock) {
+            if (recordedDuringRebuild != null) {
+                if (booking.getId() != null && booking.getId() <= rebuildUpToId) {
+                    return;
+                }
+                recordedDuringRebuild.add(booking);
+            }
+            trie = popular;
+        }
+        String phone = booking.getContactNumber();
+        recordCustomer(phone, booking.getBookingTime(), booking.getPickupAddress(),
+                booking.getPickupLatitude(), booking.getPickupLongitude());
+        recordCustomer(phone, booking.getBookingTime(), booking.getDropAddress(),
+                booking.getDropLatitude(), booking.getDropLongitude());
+        recordPopular(trie, booking.getPickupAddress(), booking.getPickupLatitude(), booking.getPickupLongitude());
+        recordPopular(trie, booking.getDropAddress(), booking.getDropLatitude(), booking.getDropLongitude());
+    }
+
+    private void recordCustomer(String phone, LocalDateTime at, String address,
+            BigDecimal latitude, BigDecimal longitude) {
+        String key = AddressNormalizer.normalize(address);
+        FrequentPlaces places = key != null ? customerPlaces(phone, true) : null;
+        if (places != null) {
+            long atMillis = (at != null ? at : LocalDateTime.now()).atZone(ZoneId.systemDefault())
+                    .toInstant().toEpochMilli();
+            places.record(key, address.strip(), latitude, longitude, atMillis, halfLifeMillis, placesPerCustomer);
+        }
+    }
+
+    private static void recordPopular(PlaceTrie trie, String address, BigDecimal latitude, BigDecimal longitude) {
+        String key = AddressNormalizer.normalize(address);
+        if (key != null) {
+            trie.record(key, address.strip(), latitude, longitude, 1);
+        }
+    }
+
+    private FrequentPlaces customerPlaces(String phone, boolean create) {
+        String number = phoneIndex.normalize(phone);
+        if (number == null) {
+            return null;
+        }
+        return create ? customers.computeIfAbsent(number, n -> new FrequentPlaces()) : customers.get(number);
+    }
+
+    private static void count(Map<String, PlaceCount> counts, String address,
+            BigDecimal latitude, BigDecimal longitude) {
+        String key = AddressNormalizer.normalize(address);
+        if (key == null) {
+            return;
+        }
+        PlaceCount count = counts.computeIfAbsent(key, k -> new PlaceCount());
+        count.address = address.strip();
+        if (latitude != null && longitude != null) {
+            count.latitude = latitude;
+            count.longitude = longitude;
+        }
+        count.uses++;
+    }
+
+    private static final class PlaceCount {
+        String address;
+        BigDecimal latitude;
+        BigDecimal longitude;
+        long uses;
+    }
+}
@@ -0,0 +1,214 @@
+package com.taxi.booking.service;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix trie of popular addresses for autocomplete.
+ *
+ * Each address is indexed from the start of each of its first wordStarts
+ * words, so "galle face hotel" is found by "gal", "fac" and "hot". Every node
+ * keeps the topK most used addresses below it, so a completion is a walk down
+ * the prefix plus a copy of that list. The trie stops at maxDepth characters;
+ * nodes there keep all their addresses instead and filter on the full prefix.
+ * At most maxPlaces addresses are held; once full, new addresses are ignored
+ * until the next rebuild.
+ */
+public final class PlaceTrie {
+
+    private final int topK;
+    private final int maxDepth;
+    private final int wordStarts;
+    private final int maxPlaces;
+
+    private final Node root = new Node();
+    private final Map<String, Place> places = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public PlaceTrie(int topK, int maxDepth, int wordStarts, int maxPlaces) {
+        this.topK = topK;
+        this.maxDepth = maxDepth;
+        this.wordStarts = wordStarts;
+        this.maxPlaces = maxPlaces;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return places.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Count uses of a normalised address; address and coordinates are the latest
+     * seen. Returns false when the address is new and the trie is full.
+     */
+    public boolean record(String key, String address, BigDecimal latitude, BigDecimal longitude, long uses) {
+        lock.writeLock().lock();
+        try {
+            Place place = places.get(key);
+            if (place == null) {
+                if (places.size() >= maxPlaces) {
+                    return false;
+                }
+                place = new Place(key);
+                places.put(key, place);
+            }
+            place.address = address;
+            if (latitude != null && longitude != null) {
+                place.latitude = latitude;
+                place.longitude = longitude;
+            }
+            place.uses += uses;
+            index(place);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Most used addresses with a word starting with the normalised prefix
+     */
+    public List<Suggestion> complete(String prefix, int limit) {
+        if (prefix == null || prefix.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int depth = Math.min(prefix.length(), maxDepth);
+            for (int i = 0; i < depth && node != null; i++) {
+                node = node.child(prefix.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+            List<Place> matches;
+            if (node.bucket == null) {
+                matches = Arrays.asList(node.top);
+            } else {
+                matches = new ArrayList<>();
+                for (Place place : node.bucket) {
+                    if (place.key.startsWith(prefix) || place.key.contains(" " + prefix)) {
+                        matches.add(place);
+                    }
+                }
+                matches.sort(BY_USES);
+            }
+            return matches.stream()
+                    .limit(limit)
+                    .map(p -> new Suggestion(p.key, p.address, p.latitude, p.longitude, p.uses))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ==================== PRIVATE HELPER METHODS ====================
+
+    private void index(Place place) {
+        int start = 0;
+        for (int word = 0; word < wordStarts && start < place.key.length(); word++) {
+            Node node = root;
+            int end = Math.min(place.key.length(), start + maxDepth);
+            for (int i = start; i < end; i++) {
+                node = node.childOrCreate(place.key.charAt(i));
+                if (i - start + 1 == maxDepth) {
+                    if (node.bucket == null) {
+                        node.bucket = new ArrayList<>();
+                    }
+                    if (!node.bucket.contains(place)) {
+                        node.bucket.add(place);
+                    }
+                } else {
+                    node.offer(place, topK);
+                }
+            }
+            int space = place.key.indexOf(' ', start);
+            if (space < 0) {
+                break;
+            }
+            start = space + 1;
+        }
+    }
+
+    private static final Comparator<Place> BY_USES = Comparator.comparingLong((Place p) -> p.uses).reversed();
+
+    private static final class Node {
+
+        private static final Place[] NO_PLACES = new Place[0];
+
+        char[] labels = new char[0];
+        Node[] children = new Node[0];
+        Place[] top = NO_PLACES;
+        List<Place> bucket;
+
+        Node child(char c) {
+            for (int i = 0; i < labels.length; i++) {
+                if (labels[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        Node childOrCreate(char c) {
+            Node child = child(c);
+            if (child == null) {
+                child = new Node();
+                labels = Arrays.copyOf(labels, labels.length + 1);
+                children = Arrays.copyOf(children, children.length + 1);
+                labels[labels.length - 1] = c;
+                children[children.length - 1] = child;
+            }
+            return child;
+        }
+
+        /**
+         * Keep place in this node's top list if it is (or now ranks) among the topK;
+         * uses only ever grow, so the list stays exact
+         */
+        void offer(Place place, int topK) {
+            boolean present = false;
+            for (Place p : top) {
+                if (p == place) {
+                    present = true;
+                    break;
+                }
+            }
+            if (!present) {
+                if (top.length < topK) {
+                    top = Arrays.copyOf(top, top.length + 1);
+                } else if (top[top.length - 1].uses >= place.uses) {
+                    return;
+                }
+                top[top.length - 1] = place;
+            }
+            Arrays.sort(top, BY_USES);
+        }
+    }
+
+    private static final class Place {
+
+        final String key;
+        String address;
+        BigDecimal latitude;
+        BigDecimal longitude;
+        long uses;
+
+        Place(String key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * A completion; key is the normalised address
+     */
+    public record Suggestion(String key, String address, BigDecimal latitude, BigDecimal longitude, long uses) {
+    }
+}
@@ -0,0 +1,58 @@
+package com.taxi.booking.service;
+
+import com.taxi.booking.dto.request.DispatchBookingRequest;
+import com.taxi.booking.dto.request.RankDispatchRequest;
+import com.taxi.booking.dto.response.BookingResponse;
+import com.taxi.booking.entity.Booking;
+import com.taxi.booking.enums.BookingStatus;
+import com.taxi.booking.repository.BookingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * Dispatches pending bookings to the driver first in line at a taxi rank.
+ *
+ * The head driver is claimed so concurrent rank dispatches each get a different
+ * driver; the dispatch itself goes through BookingService, whose commit takes the
+ * driver out of the queue. A failed dispatch hands the driver its place back.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RankDispatchService {
+
+    private final BookingRepository bookingRepository;
+    private final BookingService bookingService;
+    private final RankQueueService rankQueueService;
+    private final ZoneService zoneService;
+
+    public BookingResponse dispatchFromRank(Integer bookingId, RankDispatchRequest request) {
+        Booking booking = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new RuntimeException("Booking not found with id: " + bookingId));
+        if (booking.getStatus() != BookingStatus.PENDING) {
+            throw new RuntimeException("Booking " + bookingId + " is not pending");
+        }
+
+        Integer zoneId = request.getZoneId() != null ? request.getZoneId() : booking.getPickupZoneId();
+        if (!zoneService.isRankZone(zoneId)) {
+            throw new RuntimeException("Booking " + bookingId + " has no taxi rank to dispatch from");
+        }
+
+        RankQueueService.Claim claim = rankQueueService.claimHead(zoneId)
+                .orElseThrow(() -> new RuntimeException("No driver waiting at rank " + zoneId));
+
+        DispatchBookingRequest dispatch = new DispatchBookingRequest();
+        dispatch.setDriverId(claim.driverId());
+        dispatch.setVehicleId(claim.vehicleId());
+        dispatch.setDispatchedBy(request.getDispatchedBy());
+        try {
+            BookingResponse response = bookingService.dispatchBooking(bookingId, dispatch);
+            log.info("Booking {} dispatched from rank {} to driver {}", bookingId, zoneId, claim.driverId());
+            return response;
+        } catch (RuntimeException e) {
+            rankQueueService.unclaim(claim);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package com.taxi.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Crash-recovery storage for the rank queues: a periodic snapshot plus an
+ * append-only log of the joins and leaves made since.
+ *
+ * Files in the data directory:
+ * - ranks.snapshot  "seq|S" header, then "zoneId|driverId|vehicleId|joinedAt" in queue order
+ * - ranks.log       "seq|JOIN|zoneId|driverId|vehicleId|joinedAt" / "seq|LEAVE|zoneId|driverId"
+ * - ranks.log.1     log rotated out by a snapshot still being written
+ *
+ * Recovery loads the snapshot and replays log.1 then log, skipping entries at
+ * or below the snapshot's sequence. Replay must be idempotent, since a snapshot
+ * can already contain some operations logged after its sequence.
+ *
+ * Appends only number the entry and queue it; a single writer thread writes
+ * queued entries in batches with one flush each, so queue locks never wait on
+ * disk. Entries still queued when the process dies are lost, as are writes the
+ * OS had not yet persisted before.
+ */
+@Slf4j
+public class RankJournal implements AutoCloseable {
+
+    public enum Op { JOIN, LEAVE }
+
+    public record Entry(long seq, Op op, int zoneId, int driverId, Integer vehicleId, long joinedAtMillis) {
+    }
+
+    public record Recovered(List<Entry> snapshot, List<Entry> log) {
+    }
+
+    private final Path snapshotFile;
+    private final Path logFile;
+    private final Path rotatedLogFile;
+
+    // Guards the log file; taken before the journal monitor when both are needed
+    private final Object ioLock = new Object();
+
+    // Guarded by the journal monitor
+    private final ArrayDeque<String> pending = new ArrayDeque<>();
+    private long sequence;
+    private long latestSnapshotSeq = -1;
+    private boolean open;
+
+    // Guarded by ioLock
+    private BufferedWriter writer;
+    private Thread writerThread;
+
+    public RankJournal(Path directory) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create rank queue data directory " + directory, e);
+        }
+        this.snapshotFile = directory.resolve("ranks.snapshot");
+        this.logFile = directory.resolve("ranks.log");
+        this.rotatedLogFile = directory.resolve("ranks.log.1");
+    }
+
+    /**
+     * Read the snapshot and the log entries after it, then open the log for appending
+     */
+    public Recovered recover() throws IOException {
+        List<Entry> snapshot = new ArrayList<>();
+        long snapshotSeq = 0;
+        if (Files.exists(snapshotFile)) {
+            List<String> lines = Files.readAllLines(snapshotFile, StandardCharsets.UTF_8);
+            if (!lines.isEmpty() && lines.get(0).startsWith("seq|")) {
+                snapshotSeq = Long.parseLong(lines.get(0).substring(4));
+                for (String line : lines.subList(1, lines.size())) {
+                    String[] f = line.split("\\|", -1);
+                    snapshot.add(new Entry(snapshotSeq, Op.JOIN, Integer.parseInt(f[0]),
+                            Integer.parseInt(f[1]), parseInteger(f[2]), Long.parseLong(f[3])));
+                }
+            }
+        }
+
+        List<Entry> replay = new ArrayList<>();
+        long lastSeq = snapshotSeq;
+        for (Path file : List.of(rotatedLogFile, logFile)) {
+            if (!Files.exists(file)) {
+                continue;
+            }
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                Entry entry = parseLogLine(line);
+                if (entry == null) {
+                    // Torn last write before a crash
+                    log.warn("Skipping unreadable rank log line: {}", line);
+                    continue;
+                }
+                if (entry.seq() > snapshotSeq) {
+                    replay.add(entry);
+                }
+                lastSeq = Math.max(lastSeq, entry.seq());
+            }
+        }
+
+        synchronized (ioLock) {
+            openWriter();
+            if (endsTorn(logFile)) {
+                // Start the next entry on a line of its own
+                writer.newLine();
+                writer.flush();
+            }
+            synchronized (this) {
+                sequence = lastSeq;
+                open = true;
+            }
+            writerThread = Thread.ofPlatform().name("rank-journal-writer").daemon().start(this::writeLoop);
+        }
+        return new Recovered(snapshot, replay);
+    }
+
+    /**
+     * Queue one operation for the writer thread; callers hold the lock of the
+     * queue they changed, so operations on one queue get sequence numbers, and
+     * reach the log, in the order they were applied
+     */
+    public synchronized void append(Op op, int zoneId, int driverId, Integer vehicleId, long joinedAtMillis) {
+        if (!open) {
+            return;
+        }
+        long seq = ++sequence;
+        pending.add(op == Op.JOIN
+                ? seq + "|JOIN|" + zoneId + "|" + driverId + "|" + (vehicleId != null ? vehicleId : "")
+                        + "|" + joinedAtMillis
+                : seq + "|LEAVE|" + zoneId + "|" + driverId);
+        if (pending.size() == 1) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Start a snapshot: write out queued entries, rotate the current log aside
+     * and return the sequence the snapshot will cover. Pass it to writeSnapshot
+     * once the queues are copied.
+     */
+    public long beginSnapshot() throws IOException {
+        synchronized (ioLock) {
+            long seq;
+            List<String> batch;
+            synchronized (this) {
+                batch = drain();
+                seq = sequence;
+                latestSnapshotSeq = seq;
+            }
+            // Everything numbered up to seq goes to the log being rotated out
+            write(batch);
+            if (writer != null) {
+                writer.close();
+            }
+            if (Files.exists(logFile)) {
+                if (Files.exists(rotatedLogFile)) {
+                    // A previous snapshot failed; keep both logs until one succeeds
+                    Files.write(rotatedLogFile, Files.readAllBytes(logFile), StandardOpenOption.APPEND);
+                    Files.delete(logFile);
+                } else {
+                    Files.move(logFile, rotatedLogFile, StandardCopyOption.ATOMIC_MOVE);
+                }
+            }
+            openWriter();
+            return seq;
+        }
+    }
+
+    /**
+     * Write the snapshot beside the live one, then swap it in and drop the
+     * rotated log under the lock. A snapshot overtaken by a later beginSnapshot
+     * is discarded, since the rotated log now also holds entries it lacks.
+     */
+    public void writeSnapshot(long seq, List<Entry> entries) throws IOException {
+        Path temp = snapshotFile.resolveSibling("ranks.snapshot." + seq + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            out.write("seq|" + seq);
+            out.newLine();
+            for (Entry entry : entries) {
+                out.write(entry.zoneId() + "|" + entry.driverId() + "|"
+                        + (entry.vehicleId() != null ? entry.vehicleId() : "") + "|" + entry.joinedAtMillis());
+                out.newLine();
+            }
+        }
+        replaceSnapshot(seq, temp);
+    }
+
+    /**
+     * Stop the writer thread once it has written everything queued, then close the log
+     */
+    @Override
+    public void close() throws IOException {
+        Thread thread;
+        synchronized (this) {
+            open = false;
+            notifyAll();
+        }
+        synchronized (ioLock) {
+            thread = writerThread;
+            writerThread = null;
+        }
+        if (thread != null) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (ioLock) {
+            List<String> batch;
+            synchronized (this) {
+                batch = drain();
+            }
+            write(batch);
+            if (writer != null) {
+                writer.close();
+                writer = null;
+            }
+        }
+    }
+
+    private void replaceSnapshot(long seq, Path temp) throws IOException {
+        synchronized (ioLock) {
+            synchronized (this) {
+                if (seq != latestSnapshotSeq) {
+                    Files.deleteIfExists(temp);
+                    return;
+                }
+            }
+            Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.deleteIfExists(rotatedLogFile);
+        }
+    }
+
+    /**
+     * Writer thread: wait for queued entries and write each batch with one flush
+     */
+    private void writeLoop() {
+        while (true) {
+            synchronized (this) {
+                while (open && pending.isEmpty()) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (!open) {
+                    // close() writes whatever is left
+                    return;
+                }
+            }
+            synchronized (ioLock) {
+                List<String> batch;
+                synchronized (this) {
+                    batch = drain();
+                }
+                try {
+                    write(batch);
+                } catch (IOException e) {
+                    log.error("Failed to append {} entries to rank queue log: {}", batch.size(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Callers hold the journal monitor
+    private List<String> drain() {
+        List<String> batch = new ArrayList<>(pending);
+        pending.clear();
+        return batch;
+    }
+
+    // Callers hold ioLock
+    private void write(List<String> batch) throws IOException {
+        if (writer == null || batch.isEmpty()) {
+            return;
+        }
+        for (String line : batch) {
+            writer.write(line);
+            writer.newLine();
+        }
+        writer.flush();
+    }
+
+    private void openWriter() throws IOException {
+        writer = Files.newBufferedWriter(logFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private static boolean endsTorn(Path file) throws IOException {
+        if (Files.size(file) == 0) {
+            return false;
+        }
+        try (SeekableByteChannel channel = Files.newByteChannel(file)) {
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.position(channel.size() - 1).read(last);
+            return last.get(0) != '\n';
+        }
+    }
+
+    private static Entry parseLogLine(String line) {
+        try {
+            String[] f = line.split("\\|", -1);
+            Op op = Op.valueOf(f[1]);
+            if (op == Op.JOIN) {
+                return new Entry(Long.parseLong(f[0]), op, Integer.parseInt(f[2]), Integer.parseInt(f[3]),
+                        parseInteger(f[4]), Long.parseLong(f[5]));
+            }
+            return new Entry(Long.parseLong(f[0]), op, Integer.parseInt(f[2]), Integer.parseInt(f[3]), null, 0);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static Integer parseInteger(String value) {
+        return value.isEmpty() ? null : Integer.valueOf(value);
+    }
+}
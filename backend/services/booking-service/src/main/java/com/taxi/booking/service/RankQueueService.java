@@ -0,0 +1,375 @@
+package com.taxi.booking.service;
+
+import com.taxi.booking.dto.response.RankQueueResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * FIFO driver queues for taxi-rank zones (airports, stations).
+ *
+ * Drivers join the queue of a rank zone by check-in or by a location ping inside
+ * it, and leave when they check out, ping from outside it, go silent for
+ * offline-after-seconds, or are dispatched. Each zone's queue has its own lock,
+ * so activity at one rank never waits on another; taking the head for dispatch
+ * is O(1) apart from skipping drivers already claimed or on a trip.
+ *
+ * A driver's moves between queues are made inside a compute on its driverZones
+ * entry, so concurrent joins and leaves of one driver apply one at a time and a
+ * driver is never in two queues. Lock order is driver entry, then queue: code
+ * holding a queue lock never touches driverZones.
+ *
+ * Queues live in memory and survive restarts through RankJournal (periodic
+ * snapshot plus a log of every join and leave). They are per instance: rank
+ * traffic has to reach a single booking-service instance.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RankQueueService {
+
+    private final ZoneService zoneService;
+    private final DriverReservationService driverReservationService;
+
+    @Value("${booking.ranks.data-dir:./data/rank-queues}")
+    private String dataDir;
+
+    @Value("${booking.ranks.offline-after-seconds:300}")
+    private long offlineAfterSeconds;
+
+    private final Map<Integer, RankQueue> queues = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> driverZones = new ConcurrentHashMap<>();
+    private RankJournal journal;
+
+    /**
+     * Restore the queues from the journal, then snapshot so the replayed log can go
+     */
+    @PostConstruct
+    void recover() {
+        journal = new RankJournal(Path.of(dataDir));
+        try {
+            RankJournal.Recovered recovered = journal.recover();
+            long now = System.currentTimeMillis();
+            for (RankJournal.Entry entry : recovered.snapshot()) {
+                join(entry.zoneId(), entry.driverId(), entry.vehicleId(), entry.joinedAtMillis(), now, false);
+            }
+            for (RankJournal.Entry entry : recovered.log()) {
+                if (entry.op() == RankJournal.Op.JOIN) {
+                    join(entry.zoneId(), entry.driverId(), entry.vehicleId(), entry.joinedAtMillis(), now, false);
+                } else {
+                    remove(entry.zoneId(), entry.driverId(), false);
+                }
+            }
+            log.info("Recovered {} drivers in {} rank queues", driverZones.size(), queues.size());
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to recover rank queues, starting empty: {}", e.getMessage());
+        }
+        snapshot();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        snapshot();
+        try {
+            journal.close();
+        } catch (IOException e) {
+            log.warn("Failed to close rank queue log: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Explicit check-in at a rank; moves the driver from any other rank queue
+     */
+    public RankQueueResponse checkIn(Integer zoneId, Integer driverId, Integer vehicleId) {
+        if (!zoneService.isRankZone(zoneId)) {
+            throw new RuntimeException("Zone " + zoneId + " is not an active taxi rank");
+        }
+        if (driverReservationService.isDriverReserved(driverId)) {
+            throw new RuntimeException("Driver " + driverId + " is on a booking");
+        }
+        long now = System.currentTimeMillis();
+        join(zoneId, driverId, vehicleId, now, now, true);
+        return getQueue(zoneId);
+    }
+
+    /**
+     * Location ping from an available driver: joins the rank the driver is in,
+     * leaves the queue the driver has driven out of
+     */
+    public void ping(Integer driverId, Integer vehicleId, double latitude, double longitude) {
+        Integer zoneId = zoneService.classify(BigDecimal.valueOf(latitude), BigDecimal.valueOf(longitude));
+        long now = System.currentTimeMillis();
+        if (zoneService.isRankZone(zoneId) && !driverReservationService.isDriverReserved(driverId)) {
+            join(zoneId, driverId, vehicleId, now, now, true);
+        } else {
+            leave(driverId);
+        }
+    }
+
+    public void leave(Integer driverId) {
+        driverZones.computeIfPresent(driverId, (id, zoneId) -> {
+            removeFromQueue(zoneId, id, true, entry -> true);
+            return null;
+        });
+    }
+
+    /**
+     * Take the driver out of its queue once the current transaction commits;
+     * called when the driver is dispatched
+     */
+    public void leaveAfterCommit(Integer driverId) {
+        AfterCommit.run(() -> leave(driverId));
+    }
+
+    /**
+     * Claim the first driver in the queue for a dispatch. The driver stays
+     * queued but is skipped by other claims until unclaimed or dispatched.
+     * Drivers found on a trip (dispatched outside the rank) are dropped.
+     */
+    public Optional<Claim> claimHead(Integer zoneId) {
+        RankQueue queue = queues.get(zoneId);
+        if (queue == null) {
+            return Optional.empty();
+        }
+        Optional<Claim> claim = Optional.empty();
+        List<Integer> onTrip = new ArrayList<>();
+        synchronized (queue) {
+            for (RankEntry entry : queue.entries.values()) {
+                if (entry.claimed) {
+                    continue;
+                }
+                if (driverReservationService.isDriverReserved(entry.driverId)) {
+                    onTrip.add(entry.driverId);
+                    continue;
+                }
+                entry.claimed = true;
+                claim = Optional.of(new Claim(zoneId, entry.driverId, entry.vehicleId));
+                break;
+            }
+        }
+        for (Integer driverId : onTrip) {
+            remove(zoneId, driverId, true, entry -> !entry.claimed);
+        }
+        return claim;
+    }
+
+    /**
+     * Give a claimed driver back its place after a failed dispatch
+     */
+    public void unclaim(Claim claim) {
+        RankQueue queue = queues.get(claim.zoneId());
+        if (queue == null) {
+            return;
+        }
+        synchronized (queue) {
+            RankEntry entry = queue.entries.get(claim.driverId());
+            if (entry != null) {
+                entry.claimed = false;
+            }
+        }
+    }
+
+    public RankQueueResponse getQueue(Integer zoneId) {
+        RankQueue queue = queues.get(zoneId);
+        List<RankQueueResponse.QueuedDriver> drivers = new ArrayList<>();
+        if (queue != null) {
+            synchronized (queue) {
+                int position = 1;
+                for (RankEntry entry : queue.entries.values()) {
+                    drivers.add(RankQueueResponse.QueuedDriver.builder()
+                            .position(position++)
+                            .driverId(entry.driverId)
+                            .vehicleId(entry.vehicleId)
+                            .joinedAt(toDateTime(entry.joinedAtMillis))
+                            .lastSeenAt(toDateTime(entry.lastSeenMillis))
+                            .claimed(entry.claimed)
+                            .build());
+                }
+            }
+        }
+        return RankQueueResponse.builder()
+                .zoneId(zoneId)
+                .zoneName(zoneService.getZoneName(zoneId))
+                .size(drivers.size())
+                .drivers(drivers)
+                .build();
+    }
+
+    public List<RankQueueResponse> getAllQueues() {
+        List<RankQueueResponse> responses = new ArrayList<>();
+        for (Integer zoneId : new TreeSet<>(queues.keySet())) {
+            responses.add(getQueue(zoneId));
+        }
+        return responses;
+    }
+
+    /**
+     * Drop drivers that stopped pinging and queues of zones that are no longer ranks
+     */
+    @Scheduled(fixedDelayString = "${booking.ranks.offline-check-interval-ms:30000}")
+    public void evictOffline() {
+        long cutoff = System.currentTimeMillis() - offlineAfterSeconds * 1000;
+        int evicted = 0;
+        for (RankQueue queue : queues.values()) {
+            boolean rank = zoneService.isRankZone(queue.zoneId);
+            Predicate<RankEntry> offline = entry -> !entry.claimed && (!rank || entry.lastSeenMillis < cutoff);
+            List<Integer> candidates = new ArrayList<>();
+            synchronized (queue) {
+                for (RankEntry entry : queue.entries.values()) {
+                    if (offline.test(entry)) {
+                        candidates.add(entry.driverId);
+                    }
+                }
+            }
+            // Checked again on removal, in case the driver pinged meanwhile
+            for (Integer driverId : candidates) {
+                if (remove(queue.zoneId, driverId, true, offline)) {
+                    evicted++;
+                }
+            }
+        }
+        if (evicted > 0) {
+            log.info("Evicted {} offline drivers from rank queues", evicted);
+        }
+    }
+
+    /**
+     * Write a snapshot of all queues; the log written before it is then discarded
+     */
+    @Scheduled(fixedDelayString = "${booking.ranks.snapshot-interval-ms:60000}",
+            initialDelayString = "${booking.ranks.snapshot-interval-ms:60000}")
+    public synchronized void snapshot() {
+        try {
+            long seq = journal.beginSnapshot();
+            List<RankJournal.Entry> entries = new ArrayList<>();
+            for (RankQueue queue : queues.values()) {
+                synchronized (queue) {
+                    for (RankEntry entry : queue.entries.values()) {
+                        entries.add(new RankJournal.Entry(seq, RankJournal.Op.JOIN, queue.zoneId,
+                                entry.driverId, entry.vehicleId, entry.joinedAtMillis));
+                    }
+                }
+            }
+            journal.writeSnapshot(seq, entries);
+        } catch (IOException e) {
+            log.error("Failed to snapshot rank queues: {}", e.getMessage());
+        }
+    }
+
+    // ==================== PRIVATE HELPER METHODS ====================
+
+    /**
+     * Append the driver to a queue, or refresh lastSeen if already in it
+     */
+    private void join(int zoneId, int driverId, Integer vehicleId, long joinedAtMillis, long nowMillis,
+            boolean logged) {
+        RankQueue queue = queues.computeIfAbsent(zoneId, RankQueue::new);
+        driverZones.compute(driverId, (id, previous) -> {
+            if (previous != null && previous != zoneId) {
+                removeFromQueue(previous, driverId, logged, entry -> true);
+            }
+            synchronized (queue) {
+                RankEntry entry = queue.entries.get(driverId);
+                if (entry != null) {
+                    entry.lastSeenMillis = nowMillis;
+                } else {
+                    queue.entries.put(driverId, new RankEntry(driverId, vehicleId, joinedAtMillis, nowMillis));
+                    if (logged) {
+                        journal.append(RankJournal.Op.JOIN, zoneId, driverId, vehicleId, joinedAtMillis);
+                    }
+                }
+            }
+            return zoneId;
+        });
+    }
+
+    private void remove(int zoneId, int driverId, boolean logged) {
+        remove(zoneId, driverId, logged, entry -> true);
+    }
+
+    /**
+     * Take the driver out of a queue if it is still there and matches the condition
+     */
+    private boolean remove(int zoneId, int driverId, boolean logged, Predicate<RankEntry> condition) {
+        boolean[] removed = new boolean[1];
+        driverZones.computeIfPresent(driverId, (id, current) -> {
+            if (current != zoneId) {
+                return current;
+            }
+            removed[0] = removeFromQueue(zoneId, driverId, logged, condition);
+            return removed[0] ? null : current;
+        });
+        return removed[0];
+    }
+
+    private boolean removeFromQueue(int zoneId, int driverId, boolean logged, Predicate<RankEntry> condition) {
+        RankQueue queue = queues.get(zoneId);
+        if (queue == null) {
+            return false;
+        }
+        synchronized (queue) {
+            RankEntry entry = queue.entries.get(driverId);
+            if (entry == null || !condition.test(entry)) {
+                return false;
+            }
+            queue.entries.remove(driverId);
+            if (logged) {
+                journal.append(RankJournal.Op.LEAVE, zoneId, driverId, null, 0);
+            }
+            return true;
+        }
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    /**
+     * One rank's queue in arrival order; guarded by its own monitor
+     */
+    private static final class RankQueue {
+
+        final int zoneId;
+        final LinkedHashMap<Integer, RankEntry> entries = new LinkedHashMap<>();
+
+        RankQueue(int zoneId) {
+            this.zoneId = zoneId;
+        }
+    }
+
+    private static final class RankEntry {
+
+        final int driverId;
+        final Integer vehicleId;
+        final long joinedAtMillis;
+        long lastSeenMillis;
+        boolean claimed;
+
+        RankEntry(int driverId, Integer vehicleId, long joinedAtMillis, long lastSeenMillis) {
+            this.driverId = driverId;
+            this.vehicleId = vehicleId;
+            this.joinedAtMillis = joinedAtMillis;
+            this.lastSeenMillis = lastSeenMillis;
+        }
+    }
+
+    /**
+     * A driver taken from the head of a rank queue for dispatch
+     */
+    public record Claim(int zoneId, int driverId, Integer vehicleId) {
+    }
+}
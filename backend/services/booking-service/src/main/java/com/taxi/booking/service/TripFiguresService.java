@@ -0,0 +1,75 @@
+package com.taxi.booking.service;
+
+import com.taxi.booking.dto.response.CompletedTripBatchResponse;
+import com.taxi.booking.repository.BookingRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Pricing inputs of completed trips, paged by booking id, for fare re-pricing
+ * runs in Fare Service
+ */
+@Service
+@RequiredArgsConstructor
+public class TripFiguresService {
+
+    public static final int MAX_PAGE_SIZE = 10_000;
+
+    private final BookingRepository bookingRepository;
+
+    @Transactional(readOnly = true)
+    public CompletedTripBatchResponse getCompletedTrips(LocalDateTime from, LocalDateTime to,
+            int afterId, int limit) {
+        int size = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        List<Object[]> rows = bookingRepository.findCompletedTripFigures(afterId, from, to, PageRequest.of(0, size));
+
+        int n = rows.size();
+        CompletedTripBatchResponse batch = CompletedTripBatchResponse.builder()
+                .bookingIds(new int[n])
+                .vehicleClassIds(new int[n])
+                .corporateIds(new int[n])
+                .fareSchemeIds(new int[n])
+                .fareSchemeVersions(new int[n])
+                .distanceCentiKm(new long[n])
+                .durationMinutes(new int[n])
+                .waitMinutes(new int[n])
+                .startSecondOfDay(new int[n])
+                .fareCents(new long[n])
+                .build();
+        for (int i = 0; i < n; i++) {
+            Object[] row = rows.get(i);
+            LocalDateTime startTime = (LocalDateTime) row[7];
+            LocalDateTime completedTime = (LocalDateTime) row[8];
+            batch.getBookingIds()[i] = (Integer) row[0];
+            batch.getVehicleClassIds()[i] = orZero((Integer) row[1]);
+            batch.getCorporateIds()[i] = orZero((Integer) row[2]);
+            batch.getFareSchemeIds()[i] = orZero((Integer) row[3]);
+            batch.getFareSchemeVersions()[i] = orZero((Integer) row[4]);
+            batch.getDistanceCentiKm()[i] = hundredths((BigDecimal) row[5]);
+            batch.getWaitMinutes()[i] = orZero((Integer) row[6]);
+            batch.getDurationMinutes()[i] = startTime != null && completedTime != null
+                    ? (int) Math.max(0, Duration.between(startTime, completedTime).toMinutes())
+                    : 0;
+            batch.getStartSecondOfDay()[i] = startTime != null ? startTime.toLocalTime().toSecondOfDay() : -1;
+            batch.getFareCents()[i] = hundredths((BigDecimal) row[9]);
+        }
+        batch.setNextAfterId(n == size ? batch.getBookingIds()[n - 1] : null);
+        return batch;
+    }
+
+    private static int orZero(Integer value) {
+        return value != null ? value : 0;
+    }
+
+    private static long hundredths(BigDecimal value) {
+        return value != null ? value.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue() : 0;
+    }
+}
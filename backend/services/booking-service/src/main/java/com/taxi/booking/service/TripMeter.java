@@ -0,0 +1,127 @@
+package com.taxi.booking.service;
+
+/**
+ * Running meter of one trip, fed from the driver app's location pings.
+ *
+ * Only primitives are kept (about 80 bytes per trip), so thousands of trips fit
+ * in memory. Pings are filtered before they count:
+ * - out-of-order and duplicate pings are dropped
+ * - pings with a reported accuracy worse than maxAccuracyMeters are dropped
+ * - a jump implying more than maxSpeed is a GPS glitch and is dropped
+ * - movement under jitterMeters is treated as standing still; the anchor point
+ *   does not move, so noise around a parked car never adds up to distance
+ * Time spent below waitingSpeed counts as waiting, except across gaps longer
+ * than maxGap (app in background, no signal), which count as neither.
+ */
+public final class TripMeter {
+
+    private static final double EARTH_RADIUS_METERS = 6_371_000d;
+
+    public record Settings(
+            double jitterMeters,
+            double maxSpeedMetersPerSecond,
+            double waitingSpeedMetersPerSecond,
+            long maxGapMillis,
+            double maxAccuracyMeters) {
+    }
+
+    private final long startedAtMillis;
+    private final boolean partial;
+
+    private double anchorLatitude;
+    private double anchorLongitude;
+    private long anchorAtMillis;
+    private long lastPingAtMillis;
+    private double distanceMeters;
+    private long waitingMillis;
+    private int acceptedPings;
+    private int rejectedPings;
+
+    /**
+     * @param partial true when metering started after the trip did (e.g. after a restart),
+     *                so the totals cover only part of it
+     */
+    public TripMeter(long startedAtMillis, boolean partial) {
+        this.startedAtMillis = startedAtMillis;
+        this.partial = partial;
+        this.anchorAtMillis = -1;
+        this.lastPingAtMillis = startedAtMillis;
+    }
+
+    /**
+     * Feed one ping; returns false if it was filtered out
+     */
+    public synchronized boolean record(double latitude, double longitude, long atMillis,
+            double accuracyMeters, Settings settings) {
+        if (atMillis <= lastPingAtMillis && anchorAtMillis >= 0
+                || accuracyMeters > settings.maxAccuracyMeters()
+                || Double.isNaN(latitude) || Double.isNaN(longitude)) {
+            rejectedPings++;
+            return false;
+        }
+
+        if (anchorAtMillis < 0) {
+            anchorLatitude = latitude;
+            anchorLongitude = longitude;
+            anchorAtMillis = atMillis;
+            lastPingAtMillis = atMillis;
+            acceptedPings++;
+            return true;
+        }
+
+        double meters = haversine(anchorLatitude, anchorLongitude, latitude, longitude);
+        long sinceAnchor = atMillis - anchorAtMillis;
+        if (meters / Math.max(sinceAnchor / 1000d, 0.001) > settings.maxSpeedMetersPerSecond()) {
+            rejectedPings++;
+            return false;
+        }
+
+        long sinceLast = atMillis - lastPingAtMillis;
+        if (sinceLast <= settings.maxGapMillis()) {
+            double speed = meters < settings.jitterMeters() ? 0d : meters / (sinceAnchor / 1000d);
+            if (speed < settings.waitingSpeedMetersPerSecond()) {
+                waitingMillis += sinceLast;
+            }
+        }
+
+        if (meters >= settings.jitterMeters()) {
+            distanceMeters += meters;
+            anchorLatitude = latitude;
+            anchorLongitude = longitude;
+            anchorAtMillis = atMillis;
+        }
+        lastPingAtMillis = atMillis;
+        acceptedPings++;
+        return true;
+    }
+
+    public synchronized Reading read(long nowMillis) {
+        return new Reading(distanceMeters, Math.max(0, nowMillis - startedAtMillis),
+                waitingMillis, acceptedPings, rejectedPings, partial);
+    }
+
+    public synchronized long lastPingAtMillis() {
+        return lastPingAtMillis;
+    }
+
+    /**
+     * Snapshot of a meter
+     */
+    public record Reading(
+            double distanceMeters,
+            long durationMillis,
+            long waitingMillis,
+            int acceptedPings,
+            int rejectedPings,
+            boolean partial) {
+    }
+
+    static double haversine(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1d, Math.sqrt(a)));
+    }
+}
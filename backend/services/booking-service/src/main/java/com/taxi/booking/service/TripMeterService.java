@@ -0,0 +1,249 @@
+package com.taxi.booking.service;
+
+import com.taxi.booking.client.FareServiceClient;
+import com.taxi.booking.dto.request.FareQuoteRequest;
+import com.taxi.booking.dto.request.LocationPingRequest;
+import com.taxi.booking.dto.response.FareQuoteResponse;
+import com.taxi.booking.dto.response.TripMeterResponse;
+import com.taxi.booking.entity.Booking;
+import com.taxi.booking.enums.BookingStatus;
+import com.taxi.booking.repository.BookingRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Server-side meter for trips in PASSENGER_ONBOARD.
+ *
+ * Location pings update an in-memory TripMeter per booking; nothing is written to
+ * the database until the trip completes. At completion the meter's distance and
+ * wait time, priced by Fare Service with the booking's fare scheme version,
+ * replace the figures sent by the app. Trips metered only in part (started before
+ * this instance was up), trips without pings and trips Fare Service cannot quote
+ * keep the app's figures. The quote is a remote call, so it is made before the
+ * completion's write transaction.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TripMeterService {
+
+    private final BookingRepository bookingRepository;
+    private final FareServiceClient fareServiceClient;
+
+    @Value("${booking.meter.jitter-meters:15}")
+    private double jitterMeters;
+
+    @Value("${booking.meter.max-speed-kmh:180}")
+    private double maxSpeedKmh;
+
+    @Value("${booking.meter.waiting-speed-kmh:8}")
+    private double waitingSpeedKmh;
+
+    @Value("${booking.meter.max-gap-seconds:120}")
+    private long maxGapSeconds;
+
+    @Value("${booking.meter.max-accuracy-meters:50}")
+    private double maxAccuracyMeters;
+
+    @Value("${booking.meter.idle-evict-minutes:360}")
+    private long idleEvictMinutes;
+
+    private final Map<Integer, TripMeter> meters = new ConcurrentHashMap<>();
+    private TripMeter.Settings settings;
+
+    @PostConstruct
+    void init() {
+        settings = new TripMeter.Settings(jitterMeters, maxSpeedKmh / 3.6, waitingSpeedKmh / 3.6,
+                maxGapSeconds * 1000, maxAccuracyMeters);
+    }
+
+    /**
+     * Start metering a trip once the pickup commits; called when the passenger is picked up
+     */
+    public void start(Booking booking) {
+        Integer bookingId = booking.getId();
+        long startedAtMillis = toMillis(booking.getStartTime());
+        AfterCommit.run(() -> meters.putIfAbsent(bookingId, new TripMeter(startedAtMillis, false)));
+    }
+
+    /**
+     * Feed location pings for a trip in progress
+     */
+    public TripMeterResponse recordPings(Integer bookingId, List<LocationPingRequest> pings) {
+        TripMeter meter = meters.get(bookingId);
+        if (meter == null) {
+            throw new RuntimeException("Booking " + bookingId + " has no trip in progress");
+        }
+        long now = System.currentTimeMillis();
+        for (LocationPingRequest ping : pings) {
+            if (ping.getLatitude() == null || ping.getLongitude() == null) {
+                continue;
+            }
+            meter.record(ping.getLatitude(), ping.getLongitude(),
+                    ping.getTimestamp() != null ? ping.getTimestamp() : now,
+                    ping.getAccuracy() != null ? ping.getAccuracy() : 0d,
+                    settings);
+        }
+        return toResponse(bookingId, meter.read(now));
+    }
+
+    public Optional<TripMeterResponse> getReading(Integer bookingId) {
+        return Optional.ofNullable(meters.get(bookingId))
+                .map(meter -> toResponse(bookingId, meter.read(System.currentTimeMillis())));
+    }
+
+    /**
+     * Final meter figures and fare for a completing booking, empty when the
+     * meter cannot be trusted for the whole trip or the trip cannot be priced.
+     * Call it before the completion's transaction, and drop the meter with
+     * discardAfterCommit inside it.
+     */
+    public Optional<MeteredTrip> complete(Booking booking, LocalDateTime completedTime) {
+        TripMeter meter = meters.get(booking.getId());
+        if (meter == null) {
+            return Optional.empty();
+        }
+
+        TripMeter.Reading reading = meter.read(toMillis(completedTime));
+        if (reading.partial() || reading.acceptedPings() < 2) {
+            log.warn("Booking {} meter incomplete (partial={}, pings={}); using app figures",
+                    booking.getId(), reading.partial(), reading.acceptedPings());
+            return Optional.empty();
+        }
+
+        BigDecimal distanceKm = BigDecimal.valueOf(reading.distanceMeters())
+                .divide(BigDecimal.valueOf(1000), 2, RoundingMode.HALF_UP);
+        int waitMinutes = (int) (reading.waitingMillis() / 60_000);
+        int durationMinutes = (int) (reading.durationMillis() / 60_000);
+
+        // Distance and wait without a matching fare would contradict the app's fare
+        FareQuoteResponse quote = quote(booking, FareQuoteRequest.builder()
+                .distanceKm(distanceKm)
+                .durationMinutes(durationMinutes)
+                .waitMinutes(waitMinutes)
+                .startTime(booking.getStartTime())
+                .build());
+        if (quote == null || quote.getTotalFare() == null) {
+            log.warn("Booking {} could not be priced with fare scheme {}; using app figures",
+                    booking.getId(), booking.getFareSchemeId());
+            return Optional.empty();
+        }
+        BigDecimal total = quote.getTotalFare().subtract(orZero(booking.getDiscountAmount())).max(BigDecimal.ZERO);
+        TripFare fare = new TripFare(scale(quote.getBaseFare()), scale(quote.getDistanceFare()),
+                scale(quote.getTimeFare()),
+                quote.getBilledWaitMinutes() != null ? quote.getBilledWaitMinutes() : 0,
+                scale(quote.getWaitingFee()), scale(quote.getSurgeFee()), scale(total));
+        return Optional.of(new MeteredTrip(distanceKm, waitMinutes, fare));
+    }
+
+    /**
+     * Drop the meter of a booking once the current transaction commits
+     */
+    public void discardAfterCommit(Integer bookingId) {
+        AfterCommit.run(() -> meters.remove(bookingId));
+    }
+
+    /**
+     * Resume metering trips already in progress at startup; those totals only
+     * cover the part of the trip seen from now on
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeTrips() {
+        List<Booking> onboard = bookingRepository.findByStatus(BookingStatus.PASSENGER_ONBOARD);
+        onboard.forEach(b -> meters.putIfAbsent(b.getId(), new TripMeter(
+                toMillis(b.getStartTime() != null ? b.getStartTime() : LocalDateTime.now()), true)));
+        if (!onboard.isEmpty()) {
+            log.info("Resumed partial meters for {} trips in progress", onboard.size());
+        }
+    }
+
+    /**
+     * Drop meters of trips that stopped pinging long ago (completed or cancelled
+     * through another instance, or abandoned)
+     */
+    @Scheduled(fixedDelayString = "${booking.meter.evict-interval-ms:600000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleEvictMinutes * 60_000;
+        meters.entrySet().removeIf(e -> e.getValue().lastPingAtMillis() < cutoff);
+    }
+
+    // ==================== PRIVATE HELPER METHODS ====================
+
+    /**
+     * Price a trip with the fare scheme version the booking was made under, or
+     * the scheme's current version for bookings made before versioning; null
+     * when Fare Service cannot quote it
+     */
+    private FareQuoteResponse quote(Booking booking, FareQuoteRequest request) {
+        Integer fareSchemeId = booking.getFareSchemeId();
+        if (fareSchemeId == null) {
+            return null;
+        }
+        try {
+            Integer version = booking.getFareSchemeVersion();
+            return version != null
+                    ? fareServiceClient.quoteVersion(fareSchemeId, version, request)
+                    : fareServiceClient.quote(fareSchemeId, request);
+        } catch (Exception e) {
+            log.warn("Failed to quote fare scheme {} for booking {}: {}",
+                    fareSchemeId, booking.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private TripMeterResponse toResponse(Integer bookingId, TripMeter.Reading reading) {
+        return TripMeterResponse.builder()
+                .bookingId(bookingId)
+                .distanceKm(BigDecimal.valueOf(reading.distanceMeters())
+                        .divide(BigDecimal.valueOf(1000), 2, RoundingMode.HALF_UP))
+                .durationSeconds(reading.durationMillis() / 1000)
+                .waitSeconds(reading.waitingMillis() / 1000)
+                .acceptedPings(reading.acceptedPings())
+                .rejectedPings(reading.rejectedPings())
+                .partial(reading.partial())
+                .build();
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    private static BigDecimal scale(BigDecimal value) {
+        return orZero(value).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Authoritative figures for a completed trip
+     */
+    public record MeteredTrip(BigDecimal distanceKm, int waitMinutes, TripFare fare) {
+    }
+
+    public record TripFare(
+            BigDecimal baseFare,
+            BigDecimal distanceFare,
+            BigDecimal timeFare,
+            int billedWaitMinutes,
+            BigDecimal waitingFee,
+            BigDecimal surgeFee,
+            BigDecimal totalFare) {
+    }
+}
@@ -0,0 +1,230 @@
+package com.taxi.booking.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable R-tree over zone polygons, bulk-loaded with Sort-Tile-Recursive (STR).
+ *
+ * The tree prunes on bounding boxes; candidate polygons are then tested with a
+ * ray-casting point-in-polygon check over primitive coordinate arrays. A lookup
+ * allocates nothing beyond a small traversal stack. Rebuilt whole on every zone
+ * change and swapped in atomically by ZoneService.
+ */
+public final class ZoneIndex {
+
+    private static final int NODE_CAPACITY = 8;
+
+    public static final ZoneIndex EMPTY = new ZoneIndex(null, 0);
+
+    private final Node root;
+    private final int size;
+
+    private ZoneIndex(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public static ZoneIndex build(List<Polygon> polygons) {
+        if (polygons.isEmpty()) {
+            return EMPTY;
+        }
+        List<Node> level = new ArrayList<>();
+        for (Polygon polygon : polygons) {
+            level.add(new Node(polygon));
+        }
+        while (level.size() > 1) {
+            level = pack(level);
+        }
+        return new ZoneIndex(level.get(0), polygons.size());
+    }
+
+    /**
+     * The zone containing the point; where zones overlap the highest priority
+     * wins, then the smallest. Null when the point is in no zone.
+     */
+    public Polygon locate(double latitude, double longitude) {
+        if (root == null) {
+            return null;
+        }
+        Polygon best = null;
+        Node[] stack = new Node[32];
+        int top = 0;
+        stack[top++] = root;
+        while (top > 0) {
+            Node node = stack[--top];
+            if (!node.contains(latitude, longitude)) {
+                continue;
+            }
+            if (node.polygon != null) {
+                if (node.polygon.contains(latitude, longitude) && node.polygon.beats(best)) {
+                    best = node.polygon;
+                }
+                continue;
+            }
+            for (Node child : node.children) {
+                if (top == stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[top++] = child;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * One STR pass: sort by longitude, cut into vertical slices, sort each slice
+     * by latitude and group runs of NODE_CAPACITY under a parent
+     */
+    private static List<Node> pack(List<Node> nodes) {
+        int parentCount = (nodes.size() + NODE_CAPACITY - 1) / NODE_CAPACITY;
+        int sliceCount = (int) Math.ceil(Math.sqrt(parentCount));
+        int sliceSize = sliceCount * NODE_CAPACITY;
+
+        List<Node> sorted = new ArrayList<>(nodes);
+        sorted.sort(Comparator.comparingDouble(Node::centerLongitude));
+
+        List<Node> parents = new ArrayList<>(parentCount);
+        for (int sliceStart = 0; sliceStart < sorted.size(); sliceStart += sliceSize) {
+            List<Node> slice = new ArrayList<>(
+                    sorted.subList(sliceStart, Math.min(sliceStart + sliceSize, sorted.size())));
+            slice.sort(Comparator.comparingDouble(Node::centerLatitude));
+            for (int i = 0; i < slice.size(); i += NODE_CAPACITY) {
+                parents.add(new Node(slice.subList(i, Math.min(i + NODE_CAPACITY, slice.size()))
+                        .toArray(Node[]::new)));
+            }
+        }
+        return parents;
+    }
+
+    private static final class Node {
+
+        final double minLatitude;
+        final double minLongitude;
+        final double maxLatitude;
+        final double maxLongitude;
+        final Node[] children;
+        final Polygon polygon;
+
+        Node(Polygon polygon) {
+            this.polygon = polygon;
+            this.children = null;
+            this.minLatitude = polygon.minLatitude;
+            this.minLongitude = polygon.minLongitude;
+            this.maxLatitude = polygon.maxLatitude;
+            this.maxLongitude = polygon.maxLongitude;
+        }
+
+        Node(Node[] children) {
+            this.polygon = null;
+            this.children = children;
+            double minLat = Double.POSITIVE_INFINITY;
+            double minLng = Double.POSITIVE_INFINITY;
+            double maxLat = Double.NEGATIVE_INFINITY;
+            double maxLng = Double.NEGATIVE_INFINITY;
+            for (Node child : children) {
+                minLat = Math.min(minLat, child.minLatitude);
+                minLng = Math.min(minLng, child.minLongitude);
+                maxLat = Math.max(maxLat, child.maxLatitude);
+                maxLng = Math.max(maxLng, child.maxLongitude);
+            }
+            this.minLatitude = minLat;
+            this.minLongitude = minLng;
+            this.maxLatitude = maxLat;
+            this.maxLongitude = maxLng;
+        }
+
+        boolean contains(double latitude, double longitude) {
+            return latitude >= minLatitude && latitude <= maxLatitude
+                    && longitude >= minLongitude && longitude <= maxLongitude;
+        }
+
+        double centerLatitude() {
+            return (minLatitude + maxLatitude) / 2;
+        }
+
+        double centerLongitude() {
+            return (minLongitude + maxLongitude) / 2;
+        }
+    }
+
+    /**
+     * A zone boundary as parallel vertex arrays
+     */
+    public static final class Polygon {
+
+        private final int zoneId;
+        private final String name;
+        private final int priority;
+        private final double[] latitudes;
+        private final double[] longitudes;
+        private final double minLatitude;
+        private final double minLongitude;
+        private final double maxLatitude;
+        private final double maxLongitude;
+        private final double area;
+
+        public Polygon(int zoneId, String name, int priority, double[] latitudes, double[] longitudes) {
+            if (latitudes.length != longitudes.length || latitudes.length < 3) {
+                throw new IllegalArgumentException("A polygon needs at least 3 vertices");
+            }
+            this.zoneId = zoneId;
+            this.name = name;
+            this.priority = priority;
+            this.latitudes = latitudes.clone();
+            this.longitudes = longitudes.clone();
+            double minLat = Double.POSITIVE_INFINITY;
+            double minLng = Double.POSITIVE_INFINITY;
+            double maxLat = Double.NEGATIVE_INFINITY;
+            double maxLng = Double.NEGATIVE_INFINITY;
+            double twiceArea = 0;
+            for (int i = 0, j = latitudes.length - 1; i < latitudes.length; j = i++) {
+                minLat = Math.min(minLat, latitudes[i]);
+                minLng = Math.min(minLng, longitudes[i]);
+                maxLat = Math.max(maxLat, latitudes[i]);
+                maxLng = Math.max(maxLng, longitudes[i]);
+                twiceArea += longitudes[j] * latitudes[i] - longitudes[i] * latitudes[j];
+            }
+            this.minLatitude = minLat;
+            this.minLongitude = minLng;
+            this.maxLatitude = maxLat;
+            this.maxLongitude = maxLng;
+            this.area = Math.abs(twiceArea) / 2;
+        }
+
+        public int zoneId() {
+            return zoneId;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        /**
+         * Ray casting (even-odd rule), longitude as x and latitude as y
+         */
+        boolean contains(double latitude, double longitude) {
+            boolean inside = false;
+            for (int i = 0, j = latitudes.length - 1; i < latitudes.length; j = i++) {
+                if ((latitudes[i] > latitude) != (latitudes[j] > latitude)
+                        && longitude < (longitudes[j] - longitudes[i]) * (latitude - latitudes[i])
+                                / (latitudes[j] - latitudes[i]) + longitudes[i]) {
+                    inside = !inside;
+                }
+            }
+            return inside;
+        }
+
+        boolean beats(Polygon other) {
+            return other == null
+                    || priority > other.priority
+                    || priority == other.priority && area < other.area;
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package com.taxi.booking.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taxi.booking.dto.request.ZoneRequest;
+import com.taxi.booking.dto.response.ZoneResponse;
+import com.taxi.booking.entity.Booking;
+import com.taxi.booking.entity.Zone;
+import com.taxi.booking.enums.BookingStatus;
+import com.taxi.booking.repository.BookingRepository;
+import com.taxi.booking.repository.ZoneRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Manages zones and classifies pickup points into them.
+ *
+ * Active zones are held in an in-memory ZoneIndex, rebuilt after every zone
+ * change on this instance and, for changes made through other instances, when
+ * the periodic check sees the zone table change.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ZoneService {
+
+    private static final TypeReference<List<List<Double>>> BOUNDARY_TYPE = new TypeReference<>() {
+    };
+
+    private final ZoneRepository zoneRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingChangeTracker changeTracker;
+    private final ObjectMapper objectMapper;
+
+    @Value("${booking.zones.backfill-batch-size:1000}")
+    private int backfillBatchSize;
+
+    private volatile ZoneIndex index = ZoneIndex.EMPTY;
+    private volatile Map<Integer, String> zoneNames = Map.of();
+    private volatile Set<Integer> rankZoneIds = Set.of();
+    private volatile String loadedVersion = "";
+
+    /**
+     * Zone id containing the point, or null when outside every zone or the
+     * point is missing
+     */
+    public Integer classify(BigDecimal latitude, BigDecimal longitude) {
+        if (latitude == null || longitude == null) {
+            return null;
+        }
+        ZoneIndex.Polygon zone = index.locate(latitude.doubleValue(), longitude.doubleValue());
+        return zone != null ? zone.zoneId() : null;
+    }
+
+    public String getZoneName(Integer zoneId) {
+        return zoneId != null ? zoneNames.get(zoneId) : null;
+    }
+
+    /**
+     * Whether the zone is an active taxi rank with a FIFO driver queue
+     */
+    public boolean isRankZone(Integer zoneId) {
+        return zoneId != null && rankZoneIds.contains(zoneId);
+    }
+
+    /**
+     * Version of the zone set this instance has loaded; changes with every zone
+     * change once this instance reloads, so responses carrying zone names can
+     * be revalidated against it
+     */
+    public String getLoadedVersion() {
+        return loadedVersion;
+    }
+
+    /**
+     * Zone containing the point, for the classify endpoint
+     */
+    @Transactional(readOnly = true)
+    public Optional<ZoneResponse> locate(double latitude, double longitude) {
+        ZoneIndex.Polygon zone = index.locate(latitude, longitude);
+        return zone != null
+                ? zoneRepository.findById(zone.zoneId()).map(this::toResponse)
+                : Optional.empty();
+    }
+
+    @Transactional(readOnly = true)
+    public List<ZoneResponse> getAllZones() {
+        return zoneRepository.findAll().stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public ZoneResponse getZoneById(Integer id) {
+        return toResponse(findZoneById(id));
+    }
+
+    @Transactional
+    public ZoneResponse createZone(ZoneRequest request) {
+        if (zoneRepository.existsByCode(request.getCode())) {
+            throw new RuntimeException("Zone code already exists: " + request.getCode());
+        }
+        Zone zone = new Zone();
+        apply(zone, request);
+        Zone saved = zoneRepository.save(zone);
+        log.info("Created zone {} ({})", saved.getCode(), saved.getId());
+        reloadAfterCommit();
+        return toResponse(saved);
+    }
+
+    @Transactional
+    public ZoneResponse updateZone(Integer id, ZoneRequest request) {
+        Zone zone = findZoneById(id);
+        if (!zone.getCode().equals(request.getCode()) && zoneRepository.existsByCode(request.getCode())) {
+            throw new RuntimeException("Zone code already exists: " + request.getCode());
+        }
+        apply(zone, request);
+        Zone saved = zoneRepository.save(zone);
+        log.info("Updated zone {} ({})", saved.getCode(), saved.getId());
+        reloadAfterCommit();
+        return toResponse(saved);
+    }
+
+    @Transactional
+    public void deleteZone(Integer id) {
+        Zone zone = findZoneById(id);
+        zoneRepository.delete(zone);
+        log.info("Deleted zone {} ({})", zone.getCode(), zone.getId());
+        reloadAfterCommit();
+    }
+
+    /**
+     * Stamp pickup_zone_id on bookings that have pickup coordinates but no zone,
+     * e.g. bookings made before zones existed. Returns the number classified.
+     */
+    public int backfillPickupZones() {
+        int classified = 0;
+        int afterId = 0;
+        List<Booking> batch;
+        do {
+            batch = bookingRepository.findWithoutPickupZone(afterId, PageRequest.of(0, backfillBatchSize));
+            Map<Integer, List<Integer>> byZone = new HashMap<>();
+            for (Booking booking : batch) {
+                Integer zoneId = classify(booking.getPickupLatitude(), booking.getPickupLongitude());
+                if (zoneId != null) {
+                    byZone.computeIfAbsent(zoneId, z -> new ArrayList<>()).add(booking.getId());
+                }
+                afterId = booking.getId();
+            }
+            for (Map.Entry<Integer, List<Integer>> entry : byZone.entrySet()) {
+                classified += bookingRepository.setPickupZone(entry.getKey(), entry.getValue());
+            }
+            if (!byZone.isEmpty()) {
+                // Bulk update behind the active booking index: resyncs it and moves every ETag
+                changeTracker.recordBulkChange(BookingStatus.values());
+            }
+        } while (batch.size() == backfillBatchSize);
+        log.info("Pickup zone backfill classified {} bookings", classified);
+        return classified;
+    }
+
+    /**
+     * Load zones at startup and reload when the zone table changed since the last load
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${booking.zones.reload-check-interval-ms:30000}",
+            initialDelayString = "${booking.zones.reload-check-interval-ms:30000}")
+    public void reloadIfChanged() {
+        if (!currentVersion().equals(loadedVersion)) {
+            reload();
+        }
+    }
+
+    public synchronized void reload() {
+        String version = currentVersion();
+        List<ZoneIndex.Polygon> polygons = new ArrayList<>();
+        Map<Integer, String> names = new HashMap<>();
+        Set<Integer> ranks = new HashSet<>();
+        for (Zone zone : zoneRepository.findAll()) {
+            // Names of inactive zones are kept for bookings stamped with them
+            names.put(zone.getId(), zone.getName());
+            if (!Boolean.TRUE.equals(zone.getIsActive())) {
+                continue;
+            }
+            try {
+                List<List<Double>> boundary = objectMapper.readValue(zone.getBoundary(), BOUNDARY_TYPE);
+                double[] latitudes = new double[boundary.size()];
+                double[] longitudes = new double[boundary.size()];
+                for (int i = 0; i < boundary.size(); i++) {
+                    latitudes[i] = boundary.get(i).get(0);
+                    longitudes[i] = boundary.get(i).get(1);
+                }
+                if (Boolean.TRUE.equals(zone.getIsRank())) {
+                    ranks.add(zone.getId());
+                }
+                polygons.add(new ZoneIndex.Polygon(zone.getId(), zone.getName(),
+                        zone.getPriority() != null ? zone.getPriority() : 0, latitudes, longitudes));
+            } catch (Exception e) {
+                log.error("Skipping zone {} with invalid boundary: {}", zone.getCode(), e.getMessage());
+            }
+        }
+        index = ZoneIndex.build(polygons);
+        zoneNames = Map.copyOf(names);
+        rankZoneIds = Set.copyOf(ranks);
+        loadedVersion = version;
+        log.info("Zone index loaded with {} zones", polygons.size());
+    }
+
+    // ==================== PRIVATE HELPER METHODS ====================
+
+    private String currentVersion() {
+        return zoneRepository.count() + "@" + zoneRepository.findLastUpdatedAt();
+    }
+
+    private void reloadAfterCommit() {
+        AfterCommit.run(this::reload);
+    }
+
+    private void apply(Zone zone, ZoneRequest request) {
+        for (List<Double> point : request.getBoundary()) {
+            if (point == null || point.size() != 2 || point.get(0) == null || point.get(1) == null
+                    || Math.abs(point.get(0)) > 90 || Math.abs(point.get(1)) > 180) {
+                throw new RuntimeException("Boundary points must be [latitude, longitude] pairs");
+            }
+        }
+        zone.setCode(request.getCode());
+        zone.setName(request.getName());
+        zone.setZoneType(request.getZoneType());
+        zone.setPriority(request.getPriority() != null ? request.getPriority() : 0);
+        zone.setIsRank(Boolean.TRUE.equals(request.getIsRank()));
+        zone.setIsActive(request.getIsActive() == null || request.getIsActive());
+        try {
+            zone.setBoundary(objectMapper.writeValueAsString(request.getBoundary()));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Invalid zone boundary: " + e.getMessage());
+        }
+        // Make sure updatedAt moves so other instances notice the change
+        zone.setUpdatedAt(LocalDateTime.now());
+    }
+
+    private Zone findZoneById(Integer id) {
+        return zoneRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Zone not found with id: " + id));
+    }
+
+    private ZoneResponse toResponse(Zone zone) {
+        List<List<Double>> boundary;
+        try {
+            boundary = objectMapper.readValue(zone.getBoundary(), BOUNDARY_TYPE);
+        } catch (JsonProcessingException e) {
+            boundary = List.of();
+        }
+        return ZoneResponse.builder()
+                .id(zone.getId())
+                .code(zone.getCode())
+                .name(zone.getName())
+                .zoneType(zone.getZoneType())
+                .priority(zone.getPriority())
+                .boundary(boundary)
+                .isRank(zone.getIsRank())
+                .isActive(zone.getIsActive())
+                .createdAt(zone.getCreatedAt())
+                .updatedAt(zone.getUpdatedAt())
+                .build();
+    }
+}
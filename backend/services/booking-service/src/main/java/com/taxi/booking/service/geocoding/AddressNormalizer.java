@@ -0,0 +1,98 @@
+package com.taxi.booking.service.geocoding;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Canonical form of a typed address, so "No. 12, Galle Rd." and "no 12 galle road"
+ * share one cache entry: Unicode-normalised, lower case, punctuation dropped,
+ * whitespace collapsed and common abbreviations expanded.
+ *
+ * "st" is only read as "street" when it ends a part of the address ("Main St, Colombo");
+ * elsewhere it is usually "saint" ("St Anthony's Church") and is left as typed.
+ */
+public final class AddressNormalizer {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Separators between the parts of an address: number, street, town
+    private static final Pattern PART_SEPARATOR = Pattern.compile("[,;\\n]");
+
+    private static final Map<String, String> ABBREVIATIONS = Map.ofEntries(
+            Map.entry("rd", "road"),
+            Map.entry("ave", "avenue"),
+            Map.entry("mw", "mawatha"),
+            Map.entry("mawa", "mawatha"),
+            Map.entry("ln", "lane"),
+            Map.entry("pl", "place"),
+            Map.entry("no", "number"),
+            Map.entry("intl", "international"),
+            Map.entry("int", "international"),
+            Map.entry("stn", "station"),
+            Map.entry("hosp", "hospital"));
+
+    // Street types only expanded as the last word of an address part
+    private static final Map<String, String> TRAILING_ABBREVIATIONS = Map.of("st", "street");
+
+    private AddressNormalizer() {
+    }
+
+    /**
+     * Normalised address, or null when nothing is left of it
+     */
+    public static String normalize(String address) {
+        return normalize(address, false);
+    }
+
+    /**
+     * Normalised form of a partly typed address for prefix matching; the last
+     * word may be incomplete, so it is not expanded ("st" could become "station")
+     */
+    public static String normalizePrefix(String prefix) {
+        return normalize(prefix, true);
+    }
+
+    private static String normalize(String address, boolean partialLastWord) {
+        if (address == null) {
+            return null;
+        }
+        String text = Normalizer.normalize(address, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        if (partialLastWord && !address.isEmpty() && !Character.isLetterOrDigit(address.charAt(address.length() - 1))) {
+            // Trailing space or punctuation: the last word is complete
+            partialLastWord = false;
+        }
+        List<String[]> parts = new ArrayList<>();
+        for (String part : PART_SEPARATOR.split(text)) {
+            String[] tokens = Arrays.stream(NON_WORD.split(part))
+                    .filter(token -> !token.isEmpty())
+                    .toArray(String[]::new);
+            if (tokens.length > 0) {
+                parts.add(tokens);
+            }
+        }
+        StringBuilder normalized = new StringBuilder(text.length());
+        for (int p = 0; p < parts.size(); p++) {
+            String[] tokens = parts.get(p);
+            int last = tokens.length - 1;
+            for (int i = 0; i < tokens.length; i++) {
+                String token = tokens[i];
+                if (!normalized.isEmpty()) {
+                    normalized.append(' ');
+                }
+                if (partialLastWord && p == parts.size() - 1 && i == last) {
+                    normalized.append(token);
+                } else if (i == last && i > 0 && TRAILING_ABBREVIATIONS.containsKey(token)) {
+                    normalized.append(TRAILING_ABBREVIATIONS.get(token));
+                } else {
+                    normalized.append(ABBREVIATIONS.getOrDefault(token, token));
+                }
+            }
+        }
+        return normalized.isEmpty() ? null : normalized.toString();
+    }
+}
@@ -0,0 +1,93 @@
+package com.taxi.booking.service.geocoding;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Geocoding from a local gazetteer file of well-known places, for development
+ * and testing without an external provider.
+ *
+ * Each line is "latitude,longitude,place name" ('#' starts a comment). An address
+ * matches a place when it equals the place name or contains it as whole words;
+ * the longest matching name wins.
+ */
+@Component
+@ConditionalOnProperty(name = "booking.geocoding.provider", havingValue = "gazetteer", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class GazetteerGeocodingProvider implements GeocodingProvider {
+
+    private final ResourceLoader resourceLoader;
+
+    @Value("${booking.geocoding.gazetteer-file:classpath:geocoding/gazetteer.csv}")
+    private String gazetteerFile;
+
+    private Map<String, Coordinates> places = Map.of();
+
+    @PostConstruct
+    void load() {
+        Resource resource = resourceLoader.getResource(gazetteerFile);
+        if (!resource.exists()) {
+            log.warn("Gazetteer file {} not found; gazetteer geocoding resolves nothing", gazetteerFile);
+            return;
+        }
+        Map<String, Coordinates> loaded = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split(",", 3);
+                String name = fields.length == 3 ? AddressNormalizer.normalize(fields[2]) : null;
+                if (name == null) {
+                    log.warn("Skipping gazetteer line: {}", line);
+                    continue;
+                }
+                loaded.put(name, new Coordinates(
+                        Double.parseDouble(fields[0].strip()), Double.parseDouble(fields[1].strip())));
+            }
+        } catch (IOException | NumberFormatException e) {
+            throw new IllegalStateException("Cannot read gazetteer file " + gazetteerFile, e);
+        }
+        places = Map.copyOf(loaded);
+        log.info("Loaded {} gazetteer places from {}", places.size(), gazetteerFile);
+    }
+
+    @Override
+    public String name() {
+        return "gazetteer";
+    }
+
+    @Override
+    public Optional<Coordinates> geocode(String normalizedAddress) {
+        Coordinates exact = places.get(normalizedAddress);
+        if (exact != null) {
+            return Optional.of(exact);
+        }
+        String padded = " " + normalizedAddress + " ";
+        String best = null;
+        for (String name : places.keySet()) {
+            if ((best == null || name.length() > best.length()) && padded.contains(" " + name + " ")) {
+                best = name;
+            }
+        }
+        return Optional.ofNullable(best).map(places::get);
+    }
+}
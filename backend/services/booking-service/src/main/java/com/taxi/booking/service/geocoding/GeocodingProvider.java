@@ -0,0 +1,23 @@
+package com.taxi.booking.service.geocoding;
+
+import java.util.Optional;
+
+/**
+ * Resolves an address to coordinates. Implementations are selected with
+ * booking.geocoding.provider; GeocodingService caches whatever they return.
+ */
+public interface GeocodingProvider {
+
+    /**
+     * Short name stored with cached results, e.g. "gazetteer"
+     */
+    String name();
+
+    /**
+     * Coordinates of a normalised address (see AddressNormalizer), empty when unknown
+     */
+    Optional<Coordinates> geocode(String normalizedAddress);
+
+    record Coordinates(double latitude, double longitude) {
+    }
+}
@@ -0,0 +1,158 @@
+package com.taxi.booking.service.geocoding;
+
+import com.taxi.booking.entity.GeocodedAddress;
+import com.taxi.booking.repository.GeocodedAddressRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Geocodes pickup and drop addresses typed by call-center agents.
+ *
+ * Lookups go through three tiers, keyed by the normalised address:
+ * 1. an in-memory LRU of recent results (including recent misses, for
+ *    negative-ttl-seconds, so unknown addresses do not hammer the provider)
+ * 2. the geocoded_addresses table of every successful lookup
+ * 3. the configured GeocodingProvider; successes are written to tiers 1 and 2
+ *
+ * Metrics:
+ * - booking.geocoding.lookups{source}: memory / database / provider / miss;
+ *   hit rate = (memory + database) / total
+ * - booking.geocoding.provider:        provider call latency
+ * - booking.geocoding.cache.size:      entries in the in-memory LRU
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GeocodingService {
+
+    private final GeocodingProvider provider;
+    private final GeocodedAddressRepository geocodedAddressRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${booking.geocoding.cache-size:10000}")
+    private int cacheSize;
+
+    @Value("${booking.geocoding.negative-ttl-seconds:300}")
+    private long negativeTtlSeconds;
+
+    private Map<String, CachedLookup> cache;
+    private Counter memoryHits;
+    private Counter databaseHits;
+    private Counter providerHits;
+    private Counter misses;
+    private Timer providerTimer;
+
+    @PostConstruct
+    void init() {
+        cache = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedLookup> eldest) {
+                return size() > cacheSize;
+            }
+        });
+        memoryHits = lookupCounter("memory");
+        databaseHits = lookupCounter("database");
+        providerHits = lookupCounter("provider");
+        misses = lookupCounter("miss");
+        providerTimer = Timer.builder("booking.geocoding.provider")
+                .description("Latency of geocoding provider calls")
+                .tag("provider", provider.name())
+                .register(meterRegistry);
+        meterRegistry.gaugeMapSize("booking.geocoding.cache.size", Tags.empty(), cache);
+    }
+
+    /**
+     * Coordinates of an address, empty when blank or unknown. Provider failures
+     * are logged and treated as unknown, so a booking is never blocked on them.
+     */
+    public Optional<Location> geocode(String address) {
+        String normalized = AddressNormalizer.normalize(address);
+        if (normalized == null) {
+            return Optional.empty();
+        }
+
+        CachedLookup cached = cache.get(normalized);
+        if (cached != null && cached.expiresAtMillis() > System.currentTimeMillis()) {
+            (cached.location() != null ? memoryHits : misses).increment();
+            return Optional.ofNullable(cached.location());
+        }
+
+        String hash = hash(normalized);
+        Optional<GeocodedAddress> stored = geocodedAddressRepository.findById(hash);
+        if (stored.isPresent()) {
+            Location location = new Location(stored.get().getLatitude(), stored.get().getLongitude());
+            cache.put(normalized, new CachedLookup(location, Long.MAX_VALUE));
+            databaseHits.increment();
+            return Optional.of(location);
+        }
+
+        Optional<GeocodingProvider.Coordinates> resolved;
+        try {
+            resolved = providerTimer.record(() -> provider.geocode(normalized));
+        } catch (RuntimeException e) {
+            log.warn("Geocoding provider {} failed for '{}': {}", provider.name(), normalized, e.getMessage());
+            misses.increment();
+            return Optional.empty();
+        }
+        if (resolved.isEmpty()) {
+            cache.put(normalized, new CachedLookup(null,
+                    System.currentTimeMillis() + negativeTtlSeconds * 1000));
+            misses.increment();
+            return Optional.empty();
+        }
+
+        Location location = new Location(
+                BigDecimal.valueOf(resolved.get().latitude()).setScale(8, RoundingMode.HALF_UP),
+                BigDecimal.valueOf(resolved.get().longitude()).setScale(8, RoundingMode.HALF_UP));
+        geocodedAddressRepository.insertIgnore(hash, normalized,
+                location.latitude(), location.longitude(), provider.name());
+        cache.put(normalized, new CachedLookup(location, Long.MAX_VALUE));
+        providerHits.increment();
+        return Optional.of(location);
+    }
+
+    // ==================== PRIVATE HELPER METHODS ====================
+
+    private Counter lookupCounter(String source) {
+        return Counter.builder("booking.geocoding.lookups")
+                .description("Geocoding lookups by where the answer came from")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+    private static String hash(String normalized) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(normalized.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record Location(BigDecimal latitude, BigDecimal longitude) {
+    }
+
+    /**
+     * LRU entry; location is null for a cached miss
+     */
+    private record CachedLookup(Location location, long expiresAtMillis) {
+    }
+}
@@ -0,0 +1,38 @@
+package com.taxi.booking.client;
+
+import com.taxi.booking.dto.response.DriverResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DriverServiceClientFallbackTest {
+
+    private final LastKnownValueCache cache = new LastKnownValueCache();
+    private final RuntimeException timeout = new RuntimeException("Read timed out");
+    private DriverServiceClient fallback;
+
+    @BeforeEach
+    void setUp() {
+        DriverResponse driver = DriverResponse.builder().id(3).firstName("Kamal").isActive(true).build();
+        cache.put(DriverServiceClient.class, "getDriverById", new Object[]{3}, driver);
+        cache.put(DriverServiceClient.class, "getDriversByIds", new Object[]{List.of(3)}, List.of(driver));
+        fallback = new DriverServiceClientFallback(cache).create(timeout);
+    }
+
+    @Test
+    void displayLookupsServeTheLastKnownDriver() {
+        assertThat(fallback.getDriverById(3).getFirstName()).isEqualTo("Kamal");
+        assertThat(fallback.getDriversByIds(List.of(3))).hasSize(1);
+    }
+
+    @Test
+    void eligibilityLookupsFailClosed() {
+        assertThatThrownBy(() -> fallback.getCurrentDriver(3)).isSameAs(timeout);
+        assertThatThrownBy(() -> fallback.getCurrentDriversByIds(List.of(3))).isSameAs(timeout);
+        assertThatThrownBy(() -> fallback.getAvailableDrivers(0, 30)).isSameAs(timeout);
+    }
+}
@@ -0,0 +1,113 @@
+package com.taxi.booking.service;
+
+import com.taxi.booking.enums.BookingStatus;
+import com.taxi.booking.repository.BookingChangeSequenceRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class BookingChangeTrackerTest {
+
+    private static final List<BookingStatus> PENDING = List.of(BookingStatus.PENDING);
+
+    // Stands in for the booking_change_sequences table shared by all instances
+    private final Map<BookingStatus, Long> table = new EnumMap<>(BookingStatus.class);
+    private final BookingChangeSequenceRepository repository = mock(BookingChangeSequenceRepository.class);
+
+    private BookingChangeTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        when(repository.increment(anyString())).thenAnswer(invocation -> {
+            table.merge(BookingStatus.valueOf(invocation.getArgument(0)), 1L, Long::sum);
+            return 1;
+        });
+        when(repository.findSequences(anyCollection())).thenAnswer(invocation -> {
+            List<Object[]> rows = new ArrayList<>();
+            for (Object status : invocation.<Iterable<?>>getArgument(0)) {
+                if (table.containsKey(status)) {
+                    rows.add(new Object[]{status, table.get(status)});
+                }
+            }
+            return rows;
+        });
+        tracker = new BookingChangeTracker(repository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void everyInstanceDerivesTheSameEtagFromSharedSequences() {
+        BookingChangeTracker other = new BookingChangeTracker(repository);
+        String before = tracker.etag(PENDING, "3@v1");
+        assertThat(other.etag(PENDING, "3@v1")).isEqualTo(before);
+
+        other.recordChange(BookingStatus.PENDING, BookingStatus.DISPATCHED);
+
+        String after = tracker.etag(PENDING, "3@v1");
+        assertThat(after).isNotEqualTo(before).startsWith("W/\"1-");
+        assertThat(tracker.etag(List.of(), "3@v1")).startsWith("W/\"2-");
+        assertThat(tracker.etag(List.of(BookingStatus.COMPLETED), "3@v1")).startsWith("W/\"0-");
+        // A zone rename moves the ETag of every board showing zone names
+        assertThat(tracker.etag(PENDING, "3@v2")).isNotEqualTo(after);
+    }
+
+    @Test
+    void ownChangesKeepTheIndexCurrentOnceCommitted() {
+        tracker.indexSynced(tracker.sequences(PENDING));
+
+        TransactionSynchronizationManager.initSynchronization();
+        tracker.recordChange(BookingStatus.PENDING);
+        assertThat(tracker.isIndexBehind(PENDING)).isTrue();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+        assertThat(tracker.isIndexBehind(PENDING)).isFalse();
+    }
+
+    @Test
+    void changesMadeElsewhereLeaveTheIndexBehindUntilResynced() {
+        tracker.indexSynced(tracker.sequences(PENDING));
+
+        // Another instance commits first, then this one
+        new BookingChangeTracker(repository).recordChange(BookingStatus.PENDING);
+        tracker.recordChange(BookingStatus.PENDING);
+        assertThat(tracker.isIndexBehind(PENDING)).isTrue();
+
+        tracker.indexSynced(tracker.sequences(PENDING));
+        assertThat(tracker.isIndexBehind(PENDING)).isFalse();
+    }
+
+    @Test
+    void bulkChangesLeaveTheIndexBehind() {
+        tracker.indexSynced(tracker.sequences(List.of(BookingStatus.PENDING, BookingStatus.DISPATCHED)));
+
+        tracker.recordBulkChange(BookingStatus.DISPATCHED, null);
+
+        assertThat(tracker.isIndexBehind(PENDING)).isFalse();
+        assertThat(tracker.isIndexBehind(List.of(BookingStatus.DISPATCHED))).isTrue();
+        verify(repository).increment("DISPATCHED");
+    }
+
+    @Test
+    void indexNeverSyncedIsBehind() {
+        assertThat(tracker.isIndexBehind(PENDING)).isTrue();
+    }
+}
@@ -0,0 +1,71 @@
+package com.taxi.booking.service;
+
+import com.taxi.booking.entity.Booking;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookingLifecycleMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final BookingLifecycleMetrics metrics = new BookingLifecycleMetrics(registry);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void recordsOnlyOnceTheTransactionCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        metrics.recordCompleted(completed(25));
+
+        assertThat(timer("start_to_complete").count()).isZero();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(timer("start_to_complete").count()).isEqualTo(1);
+        assertThat(timer("start_to_complete").totalTime(TimeUnit.MINUTES)).isEqualTo(25);
+    }
+
+    @Test
+    void rolledBackTransitionIsNotRecorded() {
+        TransactionSynchronizationManager.initSynchronization();
+        metrics.recordCompleted(completed(25));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThat(timer("start_to_complete").count()).isZero();
+    }
+
+    @Test
+    void recordsImmediatelyOutsideATransaction() {
+        metrics.recordCompleted(completed(10));
+        metrics.recordCompleted(completed(-5));
+
+        assertThat(timer("start_to_complete").count()).isEqualTo(1);
+    }
+
+    private Timer timer(String stage) {
+        return registry.get("booking.lifecycle").tag("stage", stage).timer();
+    }
+
+    private static Booking completed(int minutes) {
+        LocalDateTime start = LocalDateTime.of(2024, 6, 1, 10, 0);
+        Booking booking = new Booking();
+        booking.setStartTime(start);
+        booking.setCompletedTime(start.plusMinutes(minutes));
+        return booking;
+    }
+}
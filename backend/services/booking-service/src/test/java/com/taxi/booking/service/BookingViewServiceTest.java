@@ -0,0 +1,126 @@
+package com.taxi.booking.service;
+
+import com.taxi.booking.client.*;
+import com.taxi.booking.dto.response.DriverResponse;
+import com.taxi.booking.entity.Booking;
+import com.taxi.booking.entity.BookingView;
+import com.taxi.booking.enums.BookingStatus;
+import com.taxi.booking.repository.BookingRepository;
+import com.taxi.booking.repository.BookingViewRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class BookingViewServiceTest {
+
+    private final BookingViewRepository viewRepository = mock(BookingViewRepository.class);
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final DriverServiceClient driverServiceClient = mock(DriverServiceClient.class);
+    private final UserServiceClient userServiceClient = mock(UserServiceClient.class);
+    private final LastKnownValueCache cache = new LastKnownValueCache();
+    private BookingViewService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new BookingViewService(viewRepository, bookingRepository, mock(BookingChangeTracker.class),
+                mock(VehicleServiceClient.class), driverServiceClient, mock(FareServiceClient.class),
+                mock(CorporateServiceClient.class), mock(PromoServiceClient.class), userServiceClient, cache);
+        ReflectionTestUtils.setField(service, "staleAfterMinutes", 60L);
+        ReflectionTestUtils.setField(service, "reconcileBatchSize", 500);
+        ReflectionTestUtils.setField(service, "refreshRecentDays", 7L);
+        ReflectionTestUtils.setField(service, "retryBackoffMinutes", 5L);
+        ReflectionTestUtils.setField(service, "retryBackoffMaxMinutes", 720L);
+        when(viewRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @Test
+    void refreshResolvesFromRecordsFetchedBeforeTheWrite() {
+        when(driverServiceClient.getDriverById(3)).thenReturn(driver());
+
+        BookingViewService.Lookups lookups = service.fetch(1, BookingViewService.Sources.of(booking()));
+        verify(driverServiceClient).getDriverById(3);
+
+        BookingView view = service.refresh(booking(), lookups);
+
+        verifyNoMoreInteractions(driverServiceClient);
+        assertThat(view.getDriverName()).isEqualTo("Kamal Perera");
+        assertThat(view.getDriverId()).isEqualTo(3);
+        assertThat(view.getRefreshedAt()).isNotNull();
+    }
+
+    @Test
+    void refreshLeavesRecordsNotFetchedForTheReconciler() {
+        BookingView view = service.refresh(booking());
+
+        verifyNoInteractions(driverServiceClient);
+        assertThat(view.getDriverId()).isNull();
+        assertThat(view.getRefreshedAt()).isNull();
+    }
+
+    @Test
+    void lastKnownValuesAreShownButLeaveTheViewIncomplete() {
+        cache.put(DriverServiceClient.class, "getDriverById", new Object[]{3}, driver());
+        when(driverServiceClient.getDriverById(3)).thenAnswer(inv -> cache.lastKnown(
+                DriverServiceClient.class, "getDriverById", new RuntimeException("timeout"), 3));
+
+        BookingView view = service.refresh(booking(),
+                service.fetch(1, BookingViewService.Sources.of(booking())));
+
+        assertThat(view.getDriverName()).isEqualTo("Kamal Perera");
+        assertThat(view.getRefreshedAt()).isNull();
+    }
+
+    @Test
+    void reconcileBacksOffViewsThatKeepFailing() {
+        BookingView failing = new BookingView();
+        failing.setBookingId(1);
+        when(bookingRepository.findWithoutView(any())).thenReturn(List.of());
+        when(viewRepository.findStale(any(), any(), any(), any(), any())).thenReturn(List.of(failing));
+        when(bookingRepository.findAllById(any())).thenReturn(List.of(booking()));
+        when(driverServiceClient.getDriverById(3)).thenThrow(new RuntimeException("timeout"));
+
+        service.reconcile();
+        assertThat(failing.getFailedAttempts()).isEqualTo(1);
+        assertThat(failing.getRetryAfter()).isCloseTo(LocalDateTime.now().plusMinutes(5), within(1, ChronoUnit.SECONDS));
+
+        service.reconcile();
+        assertThat(failing.getFailedAttempts()).isEqualTo(2);
+        assertThat(failing.getRetryAfter()).isCloseTo(LocalDateTime.now().plusMinutes(10), within(1, ChronoUnit.SECONDS));
+
+        // Resolving again clears the backoff
+        reset(driverServiceClient);
+        when(driverServiceClient.getDriverById(3)).thenReturn(driver());
+        service.reconcile();
+        assertThat(failing.getRefreshedAt()).isNotNull();
+        assertThat(failing.getFailedAttempts()).isNull();
+        assertThat(failing.getRetryAfter()).isNull();
+
+        ArgumentCaptor<LocalDateTime> now = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(viewRepository, times(3)).findStale(any(), any(), any(), now.capture(), any());
+        assertThat(now.getValue()).isCloseTo(LocalDateTime.now(), within(1, ChronoUnit.SECONDS));
+    }
+
+    // ==================== PRIVATE HELPER METHODS ====================
+
+    private static Booking booking() {
+        Booking booking = new Booking();
+        booking.setId(1);
+        booking.setDriverId(3);
+        booking.setStatus(BookingStatus.DISPATCHED);
+        return booking;
+    }
+
+    private static DriverResponse driver() {
+        return DriverResponse.builder().id(3).firstName("Kamal").lastName("Perera").build();
+    }
+}
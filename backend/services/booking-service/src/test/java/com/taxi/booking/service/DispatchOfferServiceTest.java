@@ -0,0 +1,248 @@
+package com.taxi.booking.service;
+
+import com.taxi.booking.client.DriverServiceClient;
+import com.taxi.booking.dto.request.DispatchBookingRequest;
+import com.taxi.booking.dto.request.DispatchOfferRequest;
+import com.taxi.booking.dto.response.DispatchOfferResponse;
+import com.taxi.booking.dto.response.DriverResponse;
+import com.taxi.booking.entity.Booking;
+import com.taxi.booking.enums.BookingStatus;
+import com.taxi.booking.repository.BookingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class DispatchOfferServiceTest {
+
+    private final BookingService bookingService = mock(BookingService.class);
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final DriverServiceClient driverServiceClient = mock(DriverServiceClient.class);
+    private final DriverReservationService driverReservationService = mock(DriverReservationService.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private DispatchOfferService service;
+
+    @BeforeEach
+    void setUp() {
+        for (int id = 1; id <= 20; id++) {
+            Booking booking = new Booking();
+            booking.setId(id);
+            booking.setBookingId("B" + id);
+            booking.setStatus(BookingStatus.PENDING);
+            when(bookingRepository.findById(id)).thenReturn(Optional.of(booking));
+        }
+        when(driverServiceClient.getCurrentDriversByIds(anyList())).thenAnswer(invocation ->
+                invocation.<List<Integer>>getArgument(0).stream()
+                        .map(id -> DriverResponse.builder().id(id).vehicleId(id + 100).build())
+                        .toList());
+        service = newService(20, 5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.stop();
+    }
+
+    @Test
+    void rejectMovesTheBookingOnAndAcceptDispatchesIt() {
+        DispatchOfferResponse first = service.startOffers(1, request(10, 11));
+        assertThat(first.getDriverId()).isEqualTo(10);
+        assertThat(service.getPendingOffer(10)).isPresent();
+
+        service.rejectOffer(first.getOfferId(), 10);
+        await(() -> service.getPendingOffer(11).isPresent());
+
+        DispatchOfferResponse second = service.getPendingOffer(11).orElseThrow();
+        assertThat(second.getAttempt()).isEqualTo(2);
+        service.acceptOffer(second.getOfferId(), 11);
+
+        ArgumentCaptor<DispatchBookingRequest> dispatch = ArgumentCaptor.forClass(DispatchBookingRequest.class);
+        verify(bookingService).dispatchBooking(eq(1), dispatch.capture());
+        assertThat(dispatch.getValue().getDriverId()).isEqualTo(11);
+        assertThat(dispatch.getValue().getVehicleId()).isEqualTo(111);
+        assertThat(service.getCurrentOffer(1)).isEmpty();
+        assertThat(cascades("dispatched")).isEqualTo(1);
+    }
+
+    @Test
+    void exhaustedCascadeIsLeftForManualDispatch() {
+        DispatchOfferResponse offer = service.startOffers(1, request(10));
+
+        service.rejectOffer(offer.getOfferId(), 10);
+
+        await(() -> service.getCurrentOffer(1).isEmpty());
+        assertThat(cascades("exhausted")).isEqualTo(1);
+        // The booking can be offered again
+        assertThat(service.startOffers(1, request(10)).getDriverId()).isEqualTo(10);
+    }
+
+    @Test
+    void failureWhileMovingOnEndsTheCascade() {
+        service.stop();
+        service = newService(0, 1);
+        Booking booking = bookingRepository.findById(1).orElseThrow();
+        when(bookingRepository.findById(1))
+                .thenReturn(Optional.of(booking), Optional.of(booking))
+                .thenThrow(new RuntimeException("database down"));
+
+        // Expires on the next tick; moving on then fails
+        service.startOffers(1, request(10, 11));
+
+        await(() -> service.getCurrentOffer(1).isEmpty());
+        assertThat(service.getPendingOffer(10)).isEmpty();
+        assertThat(service.getPendingOffer(11)).isEmpty();
+        assertThat(cascades("failed")).isEqualTo(1);
+        // Its slot is free again
+        assertThat(service.startOffers(2, request(12)).getDriverId()).isEqualTo(12);
+    }
+
+    @Test
+    void failedStartFreesItsSlot() {
+        service.stop();
+        service = newService(20, 1);
+        when(driverReservationService.isDriverReserved(anyInt())).thenThrow(new RuntimeException("timeout"));
+
+        assertThatThrownBy(() -> service.startOffers(1, request(10))).hasMessageContaining("timeout");
+
+        reset(driverReservationService);
+        assertThat(service.startOffers(2, request(12)).getDriverId()).isEqualTo(12);
+    }
+
+    @Test
+    void concurrentStartsNeverExceedMaxActive() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> started = new ArrayList<>();
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            for (int id = 1; id <= 20; id++) {
+                int bookingId = id;
+                started.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        service.startOffers(bookingId, request(bookingId + 100));
+                        return true;
+                    } catch (RuntimeException e) {
+                        assertThat(e).hasMessageContaining("Too many");
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            int accepted = 0;
+            for (Future<Boolean> future : started) {
+                accepted += future.get() ? 1 : 0;
+            }
+            assertThat(accepted).isEqualTo(5);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThatThrownBy(() -> service.startOffers(20, request(120))).hasMessageContaining("Too many");
+        for (int id = 1; id <= 20; id++) {
+            if (service.getCurrentOffer(id).isPresent()) {
+                service.cancelOffers(id);
+                break;
+            }
+        }
+        assertThat(service.startOffers(20, request(120)).getDriverId()).isEqualTo(120);
+    }
+
+    @Test
+    void busyDriverIsAskedAgainOnceFree() {
+        DispatchOfferResponse other = service.startOffers(1, request(10));
+
+        // Driver 10 is deciding on booking 1, so booking 2 goes to 11 first
+        DispatchOfferResponse offer = service.startOffers(2, request(10, 11));
+        assertThat(offer.getDriverId()).isEqualTo(11);
+
+        service.rejectOffer(offer.getOfferId(), 11);
+        service.rejectOffer(other.getOfferId(), 10);
+
+        await(() -> service.getCurrentOffer(2)
+                .filter(current -> current.getDriverId().equals(10))
+                .isPresent());
+        assertThat(service.getPendingOffer(10).map(DispatchOfferResponse::getBookingId)).contains(2);
+    }
+
+    @Test
+    void startWaitsWhenEveryCandidateIsBusy() {
+        DispatchOfferResponse other = service.startOffers(1, request(10));
+
+        DispatchOfferResponse waiting = service.startOffers(2, request(10));
+        assertThat(waiting.getOfferId()).isNull();
+        assertThat(waiting.getBookingId()).isEqualTo(2);
+
+        service.rejectOffer(other.getOfferId(), 10);
+        await(() -> service.getCurrentOffer(2).isPresent());
+        assertThat(service.getPendingOffer(10).map(DispatchOfferResponse::getBookingId)).contains(2);
+    }
+
+    @Test
+    void busyDriverIsDroppedAfterTheLastRetry() {
+        service.startOffers(1, request(10));
+
+        service.startOffers(2, request(10));
+
+        await(() -> cascades("exhausted") == 1);
+        assertThat(service.getPendingOffer(10).map(DispatchOfferResponse::getBookingId)).contains(1);
+    }
+
+    // ==================== PRIVATE HELPER METHODS ====================
+
+    private DispatchOfferService newService(long acceptTimeoutSeconds, int maxActive) {
+        DispatchOfferService created = new DispatchOfferService(bookingService, bookingRepository,
+                driverServiceClient, driverReservationService, new DispatchOfferMetrics(registry));
+        ReflectionTestUtils.setField(created, "acceptTimeoutSeconds", acceptTimeoutSeconds);
+        ReflectionTestUtils.setField(created, "maxCandidates", 10);
+        ReflectionTestUtils.setField(created, "maxActive", maxActive);
+        ReflectionTestUtils.setField(created, "tickMillis", 10L);
+        ReflectionTestUtils.setField(created, "cascadeThreads", 2);
+        ReflectionTestUtils.setField(created, "busyRetryMillis", 30L);
+        ReflectionTestUtils.setField(created, "busyRetries", 3);
+        created.start();
+        return created;
+    }
+
+    private static DispatchOfferRequest request(Integer... driverIds) {
+        DispatchOfferRequest request = new DispatchOfferRequest();
+        request.setDispatchedBy(1);
+        request.setCandidateDriverIds(List.of(driverIds));
+        return request;
+    }
+
+    private double cascades(String result) {
+        return registry.counter("booking.offer.cascade", "result", result).count();
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met in time").isLessThan(deadline);
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.taxi.booking.service;
+
+import com.taxi.booking.entity.Booking;
+import com.taxi.booking.entity.DriverReservation;
+import com.taxi.booking.enums.BookingStatus;
+import com.taxi.booking.repository.BookingRepository;
+import com.taxi.booking.repository.DriverReservationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DriverReservationServiceTest {
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final DriverReservationRepository reservationRepository = mock(DriverReservationRepository.class);
+    private final DriverReservationService service =
+            new DriverReservationService(bookingRepository, reservationRepository);
+
+    @BeforeEach
+    void setUp() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void reservesAFreeDriver() {
+        when(reservationRepository.lockBookingId(5)).thenReturn(Optional.of(9));
+
+        service.reserve(5, 9);
+        commit();
+
+        verify(reservationRepository).insertIfAbsent(eq(5), eq(9), any());
+        assertThat(service.isDriverReserved(5)).isTrue();
+    }
+
+    @Test
+    void reDispatchOfTheSameBookingThroughAnotherInstanceIsIdempotent() {
+        when(reservationRepository.findById(5)).thenReturn(Optional.of(reservation(5, 9)));
+
+        service.reserve(5, 9);
+
+        verify(reservationRepository, never()).insertIfAbsent(anyInt(), anyInt(), any());
+        verify(reservationRepository, never()).release(anyInt(), anyInt());
+    }
+
+    @Test
+    void sameBookingInsertedConcurrentlyIsAccepted() {
+        when(reservationRepository.insertIfAbsent(eq(5), eq(9), any())).thenReturn(1);
+        when(reservationRepository.lockBookingId(5)).thenReturn(Optional.of(9));
+
+        service.reserve(5, 9);
+    }
+
+    @Test
+    void otherBookingInsertedConcurrentlyIsRejected() {
+        when(reservationRepository.lockBookingId(5)).thenReturn(Optional.of(8));
+
+        assertThatThrownBy(() -> service.reserve(5, 9))
+                .hasMessageContaining("dispatched to another booking concurrently");
+        rollBack();
+        assertThat(service.isDriverReserved(5)).isFalse();
+    }
+
+    @Test
+    void driverStillOnAnotherBookingIsRejected() {
+        when(reservationRepository.findById(5)).thenReturn(Optional.of(reservation(5, 8)));
+        when(bookingRepository.findById(8)).thenReturn(Optional.of(booking(8, 5, BookingStatus.ENROUTE)));
+
+        assertThatThrownBy(() -> service.reserve(5, 9)).hasMessageContaining("already dispatched to booking 8");
+        verify(reservationRepository, never()).insertIfAbsent(anyInt(), anyInt(), any());
+    }
+
+    @Test
+    void staleRowOfAFinishedBookingIsReplaced() {
+        when(reservationRepository.findById(5)).thenReturn(Optional.of(reservation(5, 8)));
+        when(bookingRepository.findById(8)).thenReturn(Optional.of(booking(8, 5, BookingStatus.COMPLETED)));
+        when(reservationRepository.lockBookingId(5)).thenReturn(Optional.of(9));
+
+        service.reserve(5, 9);
+
+        verify(reservationRepository).release(5, 8);
+        verify(reservationRepository).insertIfAbsent(eq(5), eq(9), any());
+    }
+
+    @Test
+    void pendingReservationOnThisInstanceIsNeverTakenOver() {
+        when(reservationRepository.lockBookingId(5)).thenReturn(Optional.of(9));
+        service.reserve(5, 9);
+
+        assertThatThrownBy(() -> service.reserve(5, 10)).hasMessageContaining("already dispatched to booking 9");
+        service.reserve(5, 9);
+    }
+
+    // ==================== PRIVATE HELPER METHODS ====================
+
+    private static void commit() {
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+
+    private static void rollBack() {
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+    }
+
+    private static DriverReservation reservation(int driverId, int bookingId) {
+        return new DriverReservation(driverId, bookingId, LocalDateTime.now());
+    }
+
+    private static Booking booking(int id, int driverId, BookingStatus status) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setDriverId(driverId);
+        booking.setStatus(status);
+        return booking;
+    }
+}
@@ -0,0 +1,48 @@
+package com.taxi.booking.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FrequentPlacesTest {
+
+    private static final long DAY = 86_400_000L;
+    private static final long HALF_LIFE = 60 * DAY;
+
+    @Test
+    void recentRegularOutranksOldFavourite() {
+        FrequentPlaces places = new FrequentPlaces();
+        for (int i = 0; i < 8; i++) {
+            places.record("old office", "Old Office", null, null, i * DAY, HALF_LIFE, 5);
+        }
+        for (int i = 0; i < 4; i++) {
+            places.record("gym", "Gym", null, null, (300 + i * 7) * DAY, HALF_LIFE, 5);
+        }
+
+        assertThat(places.ranked(330 * DAY, HALF_LIFE)).extracting(FrequentPlaces.Ranked::key)
+                .containsExactly("gym", "old office");
+        assertThat(places.ranked(330 * DAY, HALF_LIFE).get(1).uses()).isEqualTo(8);
+    }
+
+    @Test
+    void newPlaceReplacesTheWeakestWhenFull() {
+        FrequentPlaces places = new FrequentPlaces();
+        places.record("home", "Home", null, null, 10 * DAY, HALF_LIFE, 2);
+        places.record("home", "Home", null, null, 11 * DAY, HALF_LIFE, 2);
+        places.record("airport", "Airport", null, null, 0, HALF_LIFE, 2);
+
+        places.record("station", "Station", null, null, 12 * DAY, HALF_LIFE, 2);
+
+        assertThat(places.ranked(12 * DAY, HALF_LIFE)).extracting(FrequentPlaces.Ranked::key)
+                .containsExactly("home", "station");
+    }
+
+    @Test
+    void scoresHalveEveryHalfLife() {
+        FrequentPlaces places = new FrequentPlaces();
+        places.record("home", "Home", null, null, 0, HALF_LIFE, 5);
+
+        assertThat(places.ranked(HALF_LIFE, HALF_LIFE).get(0).score()).isEqualTo(0.5);
+        assertThat(places.ranked(2 * HALF_LIFE, HALF_LIFE).get(0).score()).isEqualTo(0.25);
+    }
+}
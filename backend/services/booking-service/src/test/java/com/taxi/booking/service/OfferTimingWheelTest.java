@@ -0,0 +1,78 @@
+package com.taxi.booking.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OfferTimingWheelTest {
+
+    @Test
+    void firesNoEarlierThanTheDelay() throws Exception {
+        try (OfferTimingWheel wheel = new OfferTimingWheel(10, 8, Runnable::run)) {
+            CountDownLatch fired = new CountDownLatch(1);
+            long start = System.nanoTime();
+            long[] elapsedMillis = new long[1];
+
+            wheel.schedule(() -> {
+                elapsedMillis[0] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                fired.countDown();
+            }, 100);
+
+            assertThat(fired.await(2, TimeUnit.SECONDS)).isTrue();
+            assertThat(elapsedMillis[0]).isGreaterThanOrEqualTo(100);
+        }
+    }
+
+    @Test
+    void firesInDeadlineOrderAcrossRevolutions() throws Exception {
+        // 8 buckets of 10 ms: 150 ms and 230 ms need more than one revolution
+        try (OfferTimingWheel wheel = new OfferTimingWheel(10, 8, Runnable::run)) {
+            List<Integer> order = new CopyOnWriteArrayList<>();
+            CountDownLatch fired = new CountDownLatch(4);
+            for (int delay : new int[] { 230, 20, 150, 70 }) {
+                wheel.schedule(() -> {
+                    order.add(delay);
+                    fired.countDown();
+                }, delay);
+            }
+
+            assertThat(fired.await(2, TimeUnit.SECONDS)).isTrue();
+            assertThat(order).containsExactly(20, 70, 150, 230);
+        }
+    }
+
+    @Test
+    void cancelledTimeoutNeverFires() throws Exception {
+        try (OfferTimingWheel wheel = new OfferTimingWheel(10, 8, Runnable::run)) {
+            List<String> fired = new CopyOnWriteArrayList<>();
+            CountDownLatch last = new CountDownLatch(1);
+            OfferTimingWheel.Timeout cancelled = wheel.schedule(() -> fired.add("cancelled"), 30);
+            wheel.schedule(() -> fired.add("kept"), 30);
+            wheel.schedule(last::countDown, 80);
+
+            cancelled.cancel();
+
+            assertThat(last.await(2, TimeUnit.SECONDS)).isTrue();
+            assertThat(fired).containsExactly("kept");
+        }
+    }
+
+    @Test
+    void failingExecutorDoesNotStopTheWheel() throws Exception {
+        // Runs tasks on the ticker thread, so a throwing task surfaces from execute()
+        try (OfferTimingWheel wheel = new OfferTimingWheel(10, 8, Runnable::run)) {
+            CountDownLatch fired = new CountDownLatch(1);
+            wheel.schedule(() -> {
+                throw new IllegalStateException("rejected");
+            }, 10);
+            wheel.schedule(fired::countDown, 40);
+
+            assertThat(fired.await(2, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.taxi.booking.service;
+
+import com.taxi.booking.client.DriverServiceClient;
+import com.taxi.booking.client.UserServiceClient;
+import com.taxi.booking.dto.response.DriverResponse;
+import com.taxi.booking.dto.response.UserResponse;
+import com.taxi.booking.repository.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.*;
+
+class PhoneIndexTest {
+
+    private final DriverServiceClient driverServiceClient = mock(DriverServiceClient.class);
+    private final UserServiceClient userServiceClient = mock(UserServiceClient.class);
+    private PhoneIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PhoneIndex(mock(BookingRepository.class), driverServiceClient, userServiceClient);
+        ReflectionTestUtils.setField(index, "defaultCountryCode", "94");
+        ReflectionTestUtils.setField(index, "bookingsPerNumber", 3);
+    }
+
+    @Test
+    void normalisesNumbersToE164() {
+        assertThat(index.normalize("077 123 4567")).isEqualTo("+94771234567");
+        assertThat(index.normalize("0094-77-1234567")).isEqualTo("+94771234567");
+        assertThat(index.normalize("+94 (77) 123 4567")).isEqualTo("+94771234567");
+        assertThat(index.normalize("94771234567")).isEqualTo("+94771234567");
+        assertThat(index.normalize("+44 20 7946 0958")).isEqualTo("+442079460958");
+        assertThat(index.normalize("12345")).isNull();
+        assertThat(index.normalize(null)).isNull();
+    }
+
+    @Test
+    void findsNumbersByTheirTrailingDigits() {
+        index.indexAfterCommit(1, null, "0771234567");
+        index.indexAfterCommit(2, null, "0719994567");
+        index.indexAfterCommit(3, null, "0771230000");
+
+        assertThat(index.findBySuffix("4567", 10)).extracting(PhoneIndex.Entry::number)
+                .containsExactlyInAnyOrder("+94771234567", "+94719994567");
+        assertThat(index.findBySuffix("45-67", 1)).hasSize(1);
+        assertThat(index.findBySuffix("1234567", 10)).extracting(PhoneIndex.Entry::number)
+                .containsExactly("+94771234567");
+        assertThat(index.findBySuffix("", 10)).isEmpty();
+        assertThat(index.find("+94 77 123 0000").bookingIds()).containsExactly(3);
+    }
+
+    @Test
+    void keepsTheLatestBookingsNewestFirst() {
+        for (int id : new int[] { 4, 1, 7, 5, 7 }) {
+            index.indexAfterCommit(id, null, "0771234567");
+        }
+
+        assertThat(index.find("0771234567").bookingIds()).containsExactly(7, 5, 4);
+    }
+
+    @Test
+    void movesABookingWhenItsNumberChanges() {
+        index.indexAfterCommit(1, null, "0771234567");
+        index.indexAfterCommit(1, "0771234567", "0719990000");
+
+        assertThat(index.find("0771234567")).isNull();
+        assertThat(index.find("0719990000").bookingIds()).containsExactly(1);
+    }
+
+    @Test
+    void refreshAddsAndDropsDriversAndUsers() {
+        when(driverServiceClient.getAllDrivers(anyBoolean())).thenReturn(List.of(DriverResponse.builder()
+                .id(10).code("D10").firstName("Nimal").lastName("Perera").contactNumber("0771234567").build()));
+        when(userServiceClient.getAllUsers()).thenReturn(List.of(UserResponse.builder()
+                .id(20).username("agent1").firstName("Kamala").phoneNumber("0719990000").build()));
+        index.indexAfterCommit(1, null, "0771234567");
+
+        index.refreshParties();
+
+        PhoneIndex.Entry driver = index.find("0771234567");
+        assertThat(driver.bookingIds()).containsExactly(1);
+        assertThat(driver.drivers()).containsExactly(new PhoneIndex.Party(10, "D10", "Nimal Perera"));
+        assertThat(index.find("0719990000").users()).containsExactly(new PhoneIndex.Party(20, "agent1", "Kamala"));
+
+        when(driverServiceClient.getAllDrivers(anyBoolean())).thenReturn(List.of());
+        when(userServiceClient.getAllUsers()).thenReturn(List.of());
+        index.refreshParties();
+
+        assertThat(index.find("0771234567").drivers()).isEmpty();
+        assertThat(index.find("0719990000")).isNull();
+    }
+
+    @Test
+    void failedRefreshKeepsTheKnownParties() {
+        when(driverServiceClient.getAllDrivers(anyBoolean())).thenReturn(List.of(DriverResponse.builder()
+                .id(10).code("D10").firstName("Nimal").contactNumber("0771234567").build()));
+        when(userServiceClient.getAllUsers()).thenReturn(List.of());
+        index.refreshParties();
+
+        when(driverServiceClient.getAllDrivers(anyBoolean())).thenThrow(new RuntimeException("down"));
+        index.refreshParties();
+
+        assertThat(index.find("0771234567").drivers()).hasSize(1);
+    }
+}
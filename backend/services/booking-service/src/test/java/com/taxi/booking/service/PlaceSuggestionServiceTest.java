@@ -0,0 +1,106 @@
+package com.taxi.booking.service;
+
+import com.taxi.booking.dto.response.PlaceSuggestionResponse;
+import com.taxi.booking.entity.Booking;
+import com.taxi.booking.repository.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PlaceSuggestionServiceTest {
+
+    private static final String NUMBER = "+94771234567";
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final PhoneIndex phoneIndex = mock(PhoneIndex.class);
+    private PlaceSuggestionService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PlaceSuggestionService(bookingRepository, phoneIndex);
+        ReflectionTestUtils.setField(service, "lookbackDays", 365);
+        ReflectionTestUtils.setField(service, "loadBatchSize", 2);
+        ReflectionTestUtils.setField(service, "placesPerCustomer", 10);
+        ReflectionTestUtils.setField(service, "halfLifeDays", 60);
+        ReflectionTestUtils.setField(service, "maxCustomers", 100);
+        ReflectionTestUtils.setField(service, "maxPopular", 100);
+        ReflectionTestUtils.setField(service, "popularTopK", 10);
+        ReflectionTestUtils.setField(service, "trieDepth", 10);
+        ReflectionTestUtils.setField(service, "wordStarts", 3);
+        service.init();
+        when(phoneIndex.normalize(anyString())).thenReturn(NUMBER);
+    }
+
+    @Test
+    void bookingsCommittedDuringRebuildAreCountedOnce() {
+        when(bookingRepository.findMaxId()).thenReturn(3);
+        List<Object[]> firstBatch = List.of(row(1, "Galle Face Hotel", "Kandy Lake"),
+                row(2, "Galle Face Hotel", "Mount Lavinia"));
+        List<Object[]> secondBatch = new ArrayList<>();
+        secondBatch.add(row(3, "Galle Face Hotel", "Kandy Lake"));
+        when(bookingRepository.findPlaces(eq(0), eq(3), any(), any())).thenAnswer(inv -> {
+            // 3 commits mid-scan and is scanned too; 4 is past the cap
+            service.recordAfterCommit(booking(3, "Galle Face Hotel", "Kandy Lake"));
+            service.recordAfterCommit(booking(4, "Galle Face Hotel", "Negombo Beach"));
+            return firstBatch;
+        });
+        when(bookingRepository.findPlaces(eq(2), eq(3), any(), any())).thenReturn(secondBatch);
+
+        service.rebuild();
+
+        assertThat(uses(service.suggest("gal", null, 5), "Galle Face Hotel")).isEqualTo(4);
+        assertThat(uses(service.suggest("neg", null, 5), "Negombo Beach")).isEqualTo(1);
+        assertThat(uses(service.suggest("kan", null, 5), "Kandy Lake")).isEqualTo(2);
+        List<PlaceSuggestionResponse> own = service.suggest(null, NUMBER, 5);
+        assertThat(uses(own, "Galle Face Hotel")).isEqualTo(4);
+        assertThat(uses(own, "Kandy Lake")).isEqualTo(2);
+    }
+
+    @Test
+    void bookingsAfterRebuildGoToTheNewTrie() {
+        when(bookingRepository.findMaxId()).thenReturn(1);
+        when(bookingRepository.findPlaces(eq(0), eq(1), any(), any()))
+                .thenReturn(List.<Object[]>of(row(1, "Galle Face Hotel", "Kandy Lake")));
+
+        service.rebuild();
+        service.recordAfterCommit(booking(2, "Galle Face Hotel", "Mount Lavinia"));
+
+        assertThat(uses(service.suggest("gal", null, 5), "Galle Face Hotel")).isEqualTo(2);
+        assertThat(service.suggest("mou", "0771234567", 5)).first()
+                .satisfies(s -> assertThat(s.getSource()).isEqualTo("CUSTOMER"));
+    }
+
+    // ==================== PRIVATE HELPER METHODS ====================
+
+    private static long uses(List<PlaceSuggestionResponse> suggestions, String address) {
+        return suggestions.stream()
+                .filter(s -> s.getAddress().equals(address))
+                .mapToLong(PlaceSuggestionResponse::getUses)
+                .findFirst()
+                .orElse(0);
+    }
+
+    private static Object[] row(int id, String pickup, String drop) {
+        return new Object[] { id, NUMBER, LocalDateTime.now(), pickup, BigDecimal.ONE, BigDecimal.ONE,
+                drop, BigDecimal.TEN, BigDecimal.TEN };
+    }
+
+    private static Booking booking(int id, String pickup, String drop) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setContactNumber(NUMBER);
+        booking.setBookingTime(LocalDateTime.now());
+        booking.setPickupAddress(pickup);
+        booking.setDropAddress(drop);
+        return booking;
+    }
+}
@@ -0,0 +1,63 @@
+package com.taxi.booking.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlaceTrieTest {
+
+    @Test
+    void completesFromTheStartOfAnyOfTheFirstWords() {
+        PlaceTrie trie = new PlaceTrie(5, 10, 2, 100);
+        trie.record("galle face hotel", "Galle Face Hotel", null, null, 3);
+
+        assertThat(trie.complete("gal", 5)).extracting(PlaceTrie.Suggestion::address).containsExactly("Galle Face Hotel");
+        assertThat(trie.complete("fac", 5)).hasSize(1);
+        // only the first two words are indexed
+        assertThat(trie.complete("hot", 5)).isEmpty();
+        assertThat(trie.complete("", 5)).isEmpty();
+    }
+
+    @Test
+    void ranksByUsesAndKeepsTheTopKCurrent() {
+        PlaceTrie trie = new PlaceTrie(2, 10, 1, 100);
+        trie.record("kandy lake", "Kandy Lake", null, null, 5);
+        trie.record("kandy city centre", "Kandy City Centre", null, null, 3);
+        trie.record("kandy station", "Kandy Station", null, null, 1);
+
+        assertThat(trie.complete("kan", 5)).extracting(PlaceTrie.Suggestion::key)
+                .containsExactly("kandy lake", "kandy city centre");
+
+        trie.record("kandy station", "Kandy Station", BigDecimal.ONE, BigDecimal.TEN, 6);
+
+        assertThat(trie.complete("kan", 1)).singleElement().satisfies(s -> {
+            assertThat(s.key()).isEqualTo("kandy station");
+            assertThat(s.uses()).isEqualTo(7);
+            assertThat(s.latitude()).isEqualTo(BigDecimal.ONE);
+        });
+    }
+
+    @Test
+    void filtersOnTheFullPrefixBelowMaxDepth() {
+        PlaceTrie trie = new PlaceTrie(5, 3, 1, 100);
+        trie.record("colombo fort", "Colombo Fort", null, null, 1);
+        trie.record("colpetty", "Colpetty", null, null, 2);
+
+        assertThat(trie.complete("col", 5)).extracting(PlaceTrie.Suggestion::key)
+                .containsExactly("colpetty", "colombo fort");
+        assertThat(trie.complete("colo", 5)).extracting(PlaceTrie.Suggestion::key).containsExactly("colombo fort");
+    }
+
+    @Test
+    void ignoresNewAddressesOnceFull() {
+        PlaceTrie trie = new PlaceTrie(5, 10, 1, 1);
+
+        assertThat(trie.record("negombo", "Negombo", null, null, 1)).isTrue();
+        assertThat(trie.record("nuwara eliya", "Nuwara Eliya", null, null, 1)).isFalse();
+        assertThat(trie.record("negombo", "Negombo", null, null, 1)).isTrue();
+        assertThat(trie.size()).isEqualTo(1);
+        assertThat(trie.complete("n", 5)).extracting(PlaceTrie.Suggestion::uses).containsExactly(2L);
+    }
+}
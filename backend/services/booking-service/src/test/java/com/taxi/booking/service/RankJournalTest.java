@@ -0,0 +1,112 @@
+package com.taxi.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RankJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replaysLogWhenThereIsNoSnapshot() throws Exception {
+        try (RankJournal journal = new RankJournal(dir)) {
+            journal.recover();
+            journal.append(RankJournal.Op.JOIN, 1, 10, 100, 1000L);
+            journal.append(RankJournal.Op.JOIN, 1, 11, null, 2000L);
+            journal.append(RankJournal.Op.LEAVE, 1, 10, null, 0);
+        }
+
+        try (RankJournal journal = new RankJournal(dir)) {
+            RankJournal.Recovered recovered = journal.recover();
+            assertThat(recovered.snapshot()).isEmpty();
+            assertThat(recovered.log()).extracting(RankJournal.Entry::seq).containsExactly(1L, 2L, 3L);
+            assertThat(recovered.log().get(1).vehicleId()).isNull();
+            assertThat(recovered.log().get(2).op()).isEqualTo(RankJournal.Op.LEAVE);
+        }
+    }
+
+    @Test
+    void replaysOnlyEntriesAfterTheSnapshot() throws Exception {
+        try (RankJournal journal = new RankJournal(dir)) {
+            journal.recover();
+            journal.append(RankJournal.Op.JOIN, 1, 10, 100, 1000L);
+            journal.append(RankJournal.Op.JOIN, 2, 20, 200, 2000L);
+            long seq = journal.beginSnapshot();
+            journal.append(RankJournal.Op.JOIN, 1, 11, 110, 3000L);
+            journal.writeSnapshot(seq, List.of(
+                    new RankJournal.Entry(seq, RankJournal.Op.JOIN, 1, 10, 100, 1000L),
+                    new RankJournal.Entry(seq, RankJournal.Op.JOIN, 2, 20, 200, 2000L)));
+        }
+        assertThat(dir.resolve("ranks.log.1")).doesNotExist();
+
+        try (RankJournal journal = new RankJournal(dir)) {
+            RankJournal.Recovered recovered = journal.recover();
+            assertThat(recovered.snapshot()).extracting(RankJournal.Entry::driverId).containsExactly(10, 20);
+            assertThat(recovered.log()).extracting(RankJournal.Entry::driverId).containsExactly(11);
+            assertThat(recovered.log().get(0).seq()).isEqualTo(3L);
+        }
+    }
+
+    @Test
+    void skipsTornLastLineAndContinuesTheSequence() throws Exception {
+        try (RankJournal journal = new RankJournal(dir)) {
+            journal.recover();
+            journal.append(RankJournal.Op.JOIN, 1, 10, 100, 1000L);
+        }
+        Files.writeString(dir.resolve("ranks.log"), "2|JOIN|1|1", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        try (RankJournal journal = new RankJournal(dir)) {
+            RankJournal.Recovered recovered = journal.recover();
+            assertThat(recovered.log()).extracting(RankJournal.Entry::driverId).containsExactly(10);
+            journal.append(RankJournal.Op.JOIN, 1, 12, null, 4000L);
+        }
+
+        try (RankJournal journal = new RankJournal(dir)) {
+            assertThat(journal.recover().log()).extracting(RankJournal.Entry::seq).containsExactly(1L, 2L);
+        }
+    }
+
+    @Test
+    void replaysRotatedLogLeftByAnUnfinishedSnapshot() throws Exception {
+        try (RankJournal journal = new RankJournal(dir)) {
+            journal.recover();
+            journal.append(RankJournal.Op.JOIN, 1, 10, 100, 1000L);
+            journal.beginSnapshot();
+            journal.append(RankJournal.Op.JOIN, 1, 11, 110, 2000L);
+            // crash before writeSnapshot
+        }
+        assertThat(dir.resolve("ranks.log.1")).exists();
+
+        try (RankJournal journal = new RankJournal(dir)) {
+            RankJournal.Recovered recovered = journal.recover();
+            assertThat(recovered.snapshot()).isEmpty();
+            assertThat(recovered.log()).extracting(RankJournal.Entry::driverId).containsExactly(10, 11);
+        }
+    }
+
+    @Test
+    void discardsSnapshotOvertakenByALaterOne() throws Exception {
+        try (RankJournal journal = new RankJournal(dir)) {
+            journal.recover();
+            journal.append(RankJournal.Op.JOIN, 1, 10, 100, 1000L);
+            long first = journal.beginSnapshot();
+            journal.append(RankJournal.Op.JOIN, 1, 11, 110, 2000L);
+            journal.beginSnapshot();
+            journal.writeSnapshot(first, List.of(new RankJournal.Entry(first, RankJournal.Op.JOIN, 1, 10, 100, 1000L)));
+        }
+        assertThat(dir.resolve("ranks.snapshot")).doesNotExist();
+
+        try (RankJournal journal = new RankJournal(dir)) {
+            assertThat(journal.recover().log()).extracting(RankJournal.Entry::driverId).containsExactly(10, 11);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.taxi.booking.service;
+
+import com.taxi.booking.dto.response.RankQueueResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class RankQueueServiceTest {
+
+    private static final int AIRPORT = 1;
+    private static final int STATION = 2;
+
+    @TempDir
+    Path dir;
+
+    private final ZoneService zoneService = mock(ZoneService.class);
+    private final DriverReservationService driverReservationService = mock(DriverReservationService.class);
+    private RankQueueService service;
+
+    @BeforeEach
+    void setUp() {
+        when(zoneService.isRankZone(anyInt())).thenReturn(true);
+        service = newService();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void queuesDriversInArrivalOrder() {
+        service.checkIn(AIRPORT, 10, 100);
+        service.checkIn(AIRPORT, 11, 110);
+        service.checkIn(AIRPORT, 10, 100);
+
+        assertThat(drivers(AIRPORT)).containsExactly(10, 11);
+    }
+
+    @Test
+    void movingToAnotherRankLeavesTheFirst() {
+        service.checkIn(AIRPORT, 10, 100);
+        service.checkIn(STATION, 10, 100);
+
+        assertThat(drivers(AIRPORT)).isEmpty();
+        assertThat(drivers(STATION)).containsExactly(10);
+
+        service.leave(10);
+        assertThat(drivers(STATION)).isEmpty();
+    }
+
+    @Test
+    void refusesCheckInOutsideARankOrOnABooking() {
+        when(zoneService.isRankZone(3)).thenReturn(false);
+        when(driverReservationService.isDriverReserved(12)).thenReturn(true);
+
+        assertThatThrownBy(() -> service.checkIn(3, 10, 100)).hasMessageContaining("not an active taxi rank");
+        assertThatThrownBy(() -> service.checkIn(AIRPORT, 12, 120)).hasMessageContaining("on a booking");
+    }
+
+    @Test
+    void pingOutsideTheRankLeavesTheQueue() {
+        when(zoneService.classify(any(), any())).thenReturn(AIRPORT, (Integer) null);
+
+        service.ping(10, 100, 7.18, 79.88);
+        assertThat(drivers(AIRPORT)).containsExactly(10);
+
+        service.ping(10, 100, 6.93, 79.85);
+        assertThat(drivers(AIRPORT)).isEmpty();
+    }
+
+    @Test
+    void claimSkipsClaimedDriversAndDropsThoseOnATrip() {
+        service.checkIn(AIRPORT, 10, 100);
+        service.checkIn(AIRPORT, 11, 110);
+        service.checkIn(AIRPORT, 12, 120);
+
+        RankQueueService.Claim first = service.claimHead(AIRPORT).orElseThrow();
+        assertThat(first.driverId()).isEqualTo(10);
+
+        when(driverReservationService.isDriverReserved(11)).thenReturn(true);
+        assertThat(service.claimHead(AIRPORT)).map(RankQueueService.Claim::driverId).contains(12);
+        assertThat(drivers(AIRPORT)).containsExactly(10, 12);
+
+        service.unclaim(first);
+        assertThat(service.claimHead(AIRPORT)).map(RankQueueService.Claim::driverId).contains(10);
+        assertThat(service.claimHead(AIRPORT)).isEmpty();
+    }
+
+    @Test
+    void evictsSilentDriversButKeepsClaimedOnes() {
+        service.checkIn(AIRPORT, 10, 100);
+        service.checkIn(AIRPORT, 11, 110);
+        service.claimHead(AIRPORT);
+
+        ReflectionTestUtils.setField(service, "offlineAfterSeconds", -60L);
+        service.evictOffline();
+
+        assertThat(drivers(AIRPORT)).containsExactly(10);
+        service.checkIn(STATION, 11, 110);
+        assertThat(drivers(STATION)).containsExactly(11);
+    }
+
+    @Test
+    void queuesSurviveARestart() {
+        service.checkIn(AIRPORT, 10, 100);
+        service.snapshot();
+        service.checkIn(AIRPORT, 11, null);
+        service.checkIn(STATION, 12, 120);
+        service.leave(10);
+        service.shutdown();
+
+        service = newService();
+
+        assertThat(drivers(AIRPORT)).containsExactly(11);
+        assertThat(drivers(STATION)).containsExactly(12);
+        service.checkIn(AIRPORT, 12, 120);
+        assertThat(drivers(STATION)).isEmpty();
+    }
+
+    @Test
+    void concurrentCheckInsLeaveEachDriverInOneQueue() throws Exception {
+        int drivers = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int round = 0; round < 20; round++) {
+                int zoneId = round % 2 == 0 ? AIRPORT : STATION;
+                for (int driverId = 0; driverId < drivers; driverId++) {
+                    int id = driverId;
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        service.checkIn(zoneId, id, null);
+                        if (id % 5 == 0) {
+                            service.leave(id);
+                        }
+                        return null;
+                    }));
+                }
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        List<Integer> queued = new ArrayList<>(drivers(AIRPORT));
+        queued.addAll(drivers(STATION));
+        assertThat(queued).doesNotHaveDuplicates();
+
+        for (int driverId = 0; driverId < drivers; driverId++) {
+            service.leave(driverId);
+        }
+        assertThat(drivers(AIRPORT)).isEmpty();
+        assertThat(drivers(STATION)).isEmpty();
+    }
+
+    // ==================== PRIVATE HELPER METHODS ====================
+
+    private RankQueueService newService() {
+        RankQueueService created = new RankQueueService(zoneService, driverReservationService);
+        ReflectionTestUtils.setField(created, "dataDir", dir.toString());
+        ReflectionTestUtils.setField(created, "offlineAfterSeconds", 300L);
+        created.recover();
+        return created;
+    }
+
+    private List<Integer> drivers(int zoneId) {
+        return service.getQueue(zoneId).getDrivers().stream()
+                .map(RankQueueResponse.QueuedDriver::getDriverId)
+                .toList();
+    }
+}
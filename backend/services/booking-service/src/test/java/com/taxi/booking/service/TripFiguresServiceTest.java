@@ -0,0 +1,94 @@
+package com.taxi.booking.service;
+
+import com.taxi.booking.dto.response.CompletedTripBatchResponse;
+import com.taxi.booking.repository.BookingRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TripFiguresServiceTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2024, 6, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2024, 7, 1, 0, 0);
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final TripFiguresService service = new TripFiguresService(bookingRepository);
+
+    @Test
+    void fullPageCarriesTheLastIdToContinueAfter() {
+        when(bookingRepository.findCompletedTripFigures(eq(0), eq(FROM), eq(TO), any()))
+                .thenReturn(List.<Object[]>of(trip(4), trip(9)));
+        when(bookingRepository.findCompletedTripFigures(eq(9), eq(FROM), eq(TO), any()))
+                .thenReturn(List.<Object[]>of(trip(12)));
+
+        CompletedTripBatchResponse first = service.getCompletedTrips(FROM, TO, 0, 2);
+        assertThat(first.getBookingIds()).containsExactly(4, 9);
+        assertThat(first.getNextAfterId()).isEqualTo(9);
+
+        CompletedTripBatchResponse last = service.getCompletedTrips(FROM, TO, first.getNextAfterId(), 2);
+        assertThat(last.getBookingIds()).containsExactly(12);
+        assertThat(last.getNextAfterId()).isNull();
+    }
+
+    @Test
+    void emptyPageEndsTheRun() {
+        when(bookingRepository.findCompletedTripFigures(anyInt(), any(), any(), any())).thenReturn(List.of());
+
+        CompletedTripBatchResponse batch = service.getCompletedTrips(FROM, TO, 40, 100);
+
+        assertThat(batch.getBookingIds()).isEmpty();
+        assertThat(batch.getNextAfterId()).isNull();
+    }
+
+    @Test
+    void clampsThePageSize() {
+        when(bookingRepository.findCompletedTripFigures(anyInt(), any(), any(), any())).thenReturn(List.of());
+
+        service.getCompletedTrips(FROM, TO, 0, 0);
+        service.getCompletedTrips(FROM, TO, 0, 1_000_000);
+
+        verify(bookingRepository).findCompletedTripFigures(eq(0), eq(FROM), eq(TO), eq(Pageable.ofSize(1)));
+        verify(bookingRepository).findCompletedTripFigures(eq(0), eq(FROM), eq(TO),
+                eq(Pageable.ofSize(TripFiguresService.MAX_PAGE_SIZE)));
+    }
+
+    @Test
+    void convertsRowsToColumns() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] { 7, 5, 3, 2, 4, new BigDecimal("12.345"), 6,
+                LocalDateTime.of(2024, 6, 2, 8, 30), LocalDateTime.of(2024, 6, 2, 9, 15), new BigDecimal("1450.50") });
+        // A booking without class, corporate, scheme, version, distance, wait or times
+        rows.add(new Object[] { 8, null, null, null, null, null, null, null, null, null });
+        when(bookingRepository.findCompletedTripFigures(anyInt(), any(), any(), any())).thenReturn(rows);
+
+        CompletedTripBatchResponse batch = service.getCompletedTrips(FROM, TO, 0, 10);
+
+        assertThat(batch.getVehicleClassIds()).containsExactly(5, 0);
+        assertThat(batch.getCorporateIds()).containsExactly(3, 0);
+        assertThat(batch.getFareSchemeIds()).containsExactly(2, 0);
+        assertThat(batch.getFareSchemeVersions()).containsExactly(4, 0);
+        assertThat(batch.getDistanceCentiKm()).containsExactly(1235, 0);
+        assertThat(batch.getWaitMinutes()).containsExactly(6, 0);
+        assertThat(batch.getDurationMinutes()).containsExactly(45, 0);
+        assertThat(batch.getStartSecondOfDay()).containsExactly(8 * 3600 + 30 * 60, -1);
+        assertThat(batch.getFareCents()).containsExactly(145050, 0);
+        assertThat(batch.getNextAfterId()).isNull();
+    }
+
+    // ==================== PRIVATE HELPER METHODS ====================
+
+    private static Object[] trip(int id) {
+        return new Object[] { id, 5, null, 2, 1, new BigDecimal("3.20"), 0,
+                LocalDateTime.of(2024, 6, 2, 8, 0), LocalDateTime.of(2024, 6, 2, 8, 20), new BigDecimal("640.00") };
+    }
+}
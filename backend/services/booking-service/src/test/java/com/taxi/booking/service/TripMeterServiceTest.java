@@ -0,0 +1,181 @@
+package com.taxi.booking.service;
+
+import com.taxi.booking.client.FareServiceClient;
+import com.taxi.booking.dto.request.FareQuoteRequest;
+import com.taxi.booking.dto.request.LocationPingRequest;
+import com.taxi.booking.dto.response.FareQuoteResponse;
+import com.taxi.booking.entity.Booking;
+import com.taxi.booking.enums.BookingStatus;
+import com.taxi.booking.repository.BookingRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TripMeterServiceTest {
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final FareServiceClient fareServiceClient = mock(FareServiceClient.class);
+    private TripMeterService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TripMeterService(bookingRepository, fareServiceClient);
+        ReflectionTestUtils.setField(service, "jitterMeters", 15d);
+        ReflectionTestUtils.setField(service, "maxSpeedKmh", 180d);
+        ReflectionTestUtils.setField(service, "waitingSpeedKmh", 8d);
+        ReflectionTestUtils.setField(service, "maxGapSeconds", 120L);
+        ReflectionTestUtils.setField(service, "maxAccuracyMeters", 50d);
+        ReflectionTestUtils.setField(service, "idleEvictMinutes", 360L);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void pricesTheMeteredTripWithTheBookingsSchemeVersion() {
+        Booking booking = booking(3);
+        service.start(booking);
+        drive(booking, 10);
+        when(fareServiceClient.quoteVersion(eq(5), eq(3), any())).thenReturn(quote("1250.00"));
+
+        TripMeterService.MeteredTrip trip = service.complete(booking, booking.getStartTime().plusMinutes(10))
+                .orElseThrow();
+
+        ArgumentCaptor<FareQuoteRequest> request = ArgumentCaptor.forClass(FareQuoteRequest.class);
+        verify(fareServiceClient).quoteVersion(eq(5), eq(3), request.capture());
+        assertThat(request.getValue().getDistanceKm()).isEqualByComparingTo("1.11");
+        assertThat(request.getValue().getDurationMinutes()).isEqualTo(10);
+        assertThat(request.getValue().getStartTime()).isEqualTo(booking.getStartTime());
+        assertThat(trip.distanceKm()).isEqualByComparingTo("1.11");
+        assertThat(trip.fare().baseFare()).isEqualByComparingTo("400.00");
+        assertThat(trip.fare().billedWaitMinutes()).isEqualTo(2);
+        assertThat(trip.fare().totalFare()).isEqualByComparingTo("1150.00");
+    }
+
+    @Test
+    void quotesTheCurrentSchemeForUnversionedBookings() {
+        Booking booking = booking(null);
+        service.start(booking);
+        drive(booking, 3);
+        when(fareServiceClient.quote(eq(5), any())).thenReturn(quote("50.00"));
+
+        Optional<TripMeterService.MeteredTrip> trip = service.complete(booking, booking.getStartTime().plusMinutes(5));
+
+        assertThat(trip).isPresent();
+        // Never below zero after the discount
+        assertThat(trip.get().fare().totalFare()).isEqualByComparingTo("0.00");
+    }
+
+    @Test
+    void keepsTheAppFiguresWhenTheTripCannotBePriced() {
+        Booking booking = booking(3);
+        service.start(booking);
+        drive(booking, 3);
+        when(fareServiceClient.quoteVersion(eq(5), eq(3), any()))
+                .thenReturn(null)
+                .thenThrow(new RuntimeException("timeout"));
+
+        assertThat(service.complete(booking, booking.getStartTime().plusMinutes(5))).isEmpty();
+        // Priced again on the next attempt
+        assertThat(service.complete(booking, booking.getStartTime().plusMinutes(5))).isEmpty();
+        verify(fareServiceClient, times(2)).quoteVersion(eq(5), eq(3), any());
+    }
+
+    @Test
+    void keepsTheAppFiguresForPartialOrUnpingedTrips() {
+        Booking resumed = booking(3);
+        when(bookingRepository.findByStatus(BookingStatus.PASSENGER_ONBOARD)).thenReturn(List.of(resumed));
+        service.resumeTrips();
+        drive(resumed, 3);
+
+        Booking unpinged = booking(3);
+        unpinged.setId(2);
+        service.start(unpinged);
+
+        assertThat(service.complete(resumed, resumed.getStartTime().plusMinutes(5))).isEmpty();
+        assertThat(service.complete(unpinged, unpinged.getStartTime().plusMinutes(5))).isEmpty();
+        verifyNoInteractions(fareServiceClient);
+    }
+
+    @Test
+    void startsMeteringOnlyOnceThePickupCommits() {
+        Booking booking = booking(3);
+        TransactionSynchronizationManager.initSynchronization();
+        service.start(booking);
+
+        assertThatThrownBy(() -> service.recordPings(1, List.of())).hasMessageContaining("no trip in progress");
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+        assertThat(service.getReading(1)).isPresent();
+    }
+
+    @Test
+    void discardsTheMeterOnlyOnceTheCompletionCommits() {
+        Booking booking = booking(3);
+        service.start(booking);
+
+        TransactionSynchronizationManager.initSynchronization();
+        service.discardAfterCommit(1);
+        assertThat(service.getReading(1)).isPresent();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+        assertThat(service.getReading(1)).isEmpty();
+    }
+
+    // ==================== PRIVATE HELPER METHODS ====================
+
+    private static Booking booking(Integer fareSchemeVersion) {
+        Booking booking = new Booking();
+        booking.setId(1);
+        booking.setStartTime(LocalDateTime.of(2024, 6, 11, 9, 0));
+        booking.setFareSchemeId(5);
+        booking.setFareSchemeVersion(fareSchemeVersion);
+        booking.setDiscountAmount(BigDecimal.valueOf(100));
+        return booking;
+    }
+
+    /**
+     * One ping a minute along the equator, about 111 m apart
+     */
+    private void drive(Booking booking, int minutes) {
+        long start = booking.getStartTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        List<LocationPingRequest> pings = new ArrayList<>();
+        for (int i = 0; i <= minutes; i++) {
+            pings.add(new LocationPingRequest(0d, i * 0.001, start + i * 60_000L, 5d));
+        }
+        service.recordPings(booking.getId(), pings);
+    }
+
+    private static FareQuoteResponse quote(String total) {
+        return FareQuoteResponse.builder()
+                .baseFare(BigDecimal.valueOf(400))
+                .distanceFare(new BigDecimal("850.00"))
+                .billedWaitMinutes(2)
+                .totalFare(new BigDecimal(total))
+                .build();
+    }
+}
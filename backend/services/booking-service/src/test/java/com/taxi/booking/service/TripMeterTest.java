@@ -0,0 +1,96 @@
+package com.taxi.booking.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TripMeterTest {
+
+    // 15 m jitter, 180 km/h max, 8 km/h waiting, 2 min max gap, 50 m accuracy
+    private static final TripMeter.Settings SETTINGS =
+            new TripMeter.Settings(15, 50, 8 / 3.6, 120_000, 50);
+
+    // Along the equator, 0.001 degrees of longitude is about 111 m
+    private static final double STEP = 0.001;
+    private static final double STEP_METERS = TripMeter.haversine(0, 0, 0, STEP);
+
+    @Test
+    void countsDistanceDrivenBetweenPings() {
+        TripMeter meter = new TripMeter(0, false);
+        for (int i = 0; i <= 10; i++) {
+            assertThat(meter.record(0, i * STEP, i * 10_000L, 5, SETTINGS)).isTrue();
+        }
+
+        TripMeter.Reading reading = meter.read(100_000);
+        assertThat(reading.distanceMeters()).isCloseTo(10 * STEP_METERS, within(0.01));
+        assertThat(reading.waitingMillis()).isZero();
+        assertThat(reading.durationMillis()).isEqualTo(100_000);
+        assertThat(reading.acceptedPings()).isEqualTo(11);
+    }
+
+    @Test
+    void jitterAroundAParkedCarIsWaitingNotDistance() {
+        TripMeter meter = new TripMeter(0, false);
+        meter.record(0, 0, 1_000, 5, SETTINGS);
+        // About 11 m either side of the first fix, under the jitter threshold
+        for (int i = 1; i <= 6; i++) {
+            meter.record(0, (i % 2 == 0 ? 1 : -1) * STEP / 10, 1_000 + i * 10_000L, 5, SETTINGS);
+        }
+
+        TripMeter.Reading reading = meter.read(61_000);
+        assertThat(reading.distanceMeters()).isZero();
+        assertThat(reading.waitingMillis()).isEqualTo(60_000);
+    }
+
+    @Test
+    void slowCrawlCountsAsWaitingAndDistance() {
+        TripMeter meter = new TripMeter(0, false);
+        meter.record(0, 0, 0, 5, SETTINGS);
+        // About 22 m a minute: past the jitter threshold but under walking pace
+        meter.record(0, STEP / 5, 60_000, 5, SETTINGS);
+
+        TripMeter.Reading reading = meter.read(60_000);
+        assertThat(reading.distanceMeters()).isCloseTo(STEP_METERS / 5, within(0.01));
+        assertThat(reading.waitingMillis()).isEqualTo(60_000);
+    }
+
+    @Test
+    void dropsGlitchesInaccurateAndOutOfOrderPings() {
+        TripMeter meter = new TripMeter(0, false);
+        meter.record(0, 0, 10_000, 5, SETTINGS);
+
+        // 11 km in 10 s
+        assertThat(meter.record(0, 100 * STEP, 20_000, 5, SETTINGS)).isFalse();
+        assertThat(meter.record(0, STEP, 20_000, 80, SETTINGS)).isFalse();
+        assertThat(meter.record(0, STEP, 10_000, 5, SETTINGS)).isFalse();
+        assertThat(meter.record(Double.NaN, STEP, 30_000, 5, SETTINGS)).isFalse();
+        assertThat(meter.record(0, STEP, 40_000, 5, SETTINGS)).isTrue();
+
+        TripMeter.Reading reading = meter.read(40_000);
+        assertThat(reading.distanceMeters()).isCloseTo(STEP_METERS, within(0.01));
+        assertThat(reading.acceptedPings()).isEqualTo(2);
+        assertThat(reading.rejectedPings()).isEqualTo(4);
+    }
+
+    @Test
+    void longGapIsNeitherWaitingNorDropped() {
+        TripMeter meter = new TripMeter(0, false);
+        meter.record(0, 0, 0, 5, SETTINGS);
+        meter.record(0, 0, 300_000, 5, SETTINGS);
+        meter.record(0, 0, 310_000, 5, SETTINGS);
+
+        TripMeter.Reading reading = meter.read(310_000);
+        assertThat(reading.waitingMillis()).isEqualTo(10_000);
+        assertThat(reading.acceptedPings()).isEqualTo(3);
+    }
+
+    @Test
+    void partialMeterSaysSo() {
+        TripMeter meter = new TripMeter(5_000, true);
+
+        TripMeter.Reading reading = meter.read(2_000);
+        assertThat(reading.partial()).isTrue();
+        assertThat(reading.durationMillis()).isZero();
+    }
+}
@@ -0,0 +1,94 @@
+package com.taxi.booking.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ZoneIndexTest {
+
+    @Test
+    void emptyIndexLocatesNothing() {
+        assertThat(ZoneIndex.build(List.of())).isSameAs(ZoneIndex.EMPTY);
+        assertThat(ZoneIndex.EMPTY.locate(6.9, 79.8)).isNull();
+    }
+
+    @Test
+    void testsThePolygonNotJustItsBoundingBox() {
+        // Triangle with its right angle at (0, 0)
+        ZoneIndex index = ZoneIndex.build(List.of(new ZoneIndex.Polygon(1, "Triangle", 0,
+                new double[] { 0, 0, 10 }, new double[] { 0, 10, 0 })));
+
+        assertThat(index.locate(2, 2).zoneId()).isEqualTo(1);
+        assertThat(index.locate(8, 8)).isNull();
+        assertThat(index.locate(-1, 2)).isNull();
+    }
+
+    @Test
+    void handlesConcavePolygons() {
+        // U shape: the notch between x 4..6 above y 4 is outside
+        ZoneIndex index = ZoneIndex.build(List.of(new ZoneIndex.Polygon(1, "U", 0,
+                new double[] { 0, 0, 10, 10, 4, 4, 10, 10 },
+                new double[] { 0, 10, 10, 6, 6, 4, 4, 0 })));
+
+        assertThat(index.locate(2, 5)).isNotNull();
+        assertThat(index.locate(8, 2)).isNotNull();
+        assertThat(index.locate(8, 5)).isNull();
+    }
+
+    @Test
+    void overlapsGoToTheHighestPriorityThenTheSmallest() {
+        ZoneIndex.Polygon city = square(1, 0, 0, 0, 10);
+        ZoneIndex.Polygon airport = square(2, 0, 2, 2, 3);
+        ZoneIndex.Polygon station = square(3, 5, 5, 5, 4);
+        ZoneIndex index = ZoneIndex.build(List.of(city, airport, station));
+
+        assertThat(index.locate(3, 3).zoneId()).isEqualTo(2);
+        assertThat(index.locate(6, 6).zoneId()).isEqualTo(3);
+        assertThat(index.locate(1, 1).zoneId()).isEqualTo(1);
+        assertThat(index.locate(11, 11)).isNull();
+    }
+
+    @Test
+    void matchesALinearScanOnAGridOfZones() {
+        List<ZoneIndex.Polygon> zones = new ArrayList<>();
+        int id = 0;
+        for (int row = 0; row < 30; row++) {
+            for (int col = 0; col < 30; col++) {
+                zones.add(square(id++, 0, row, col, 1));
+            }
+        }
+        ZoneIndex index = ZoneIndex.build(zones);
+        assertThat(index.size()).isEqualTo(900);
+
+        Random random = new Random(3);
+        for (int i = 0; i < 10_000; i++) {
+            double latitude = random.nextDouble() * 32 - 1;
+            double longitude = random.nextDouble() * 32 - 1;
+            ZoneIndex.Polygon expected = null;
+            for (ZoneIndex.Polygon zone : zones) {
+                if (zone.contains(latitude, longitude)) {
+                    expected = zone;
+                }
+            }
+            assertThat(index.locate(latitude, longitude)).as("%s, %s", latitude, longitude).isSameAs(expected);
+        }
+    }
+
+    @Test
+    void rejectsDegeneratePolygons() {
+        assertThatThrownBy(() -> new ZoneIndex.Polygon(1, "Line", 0, new double[] { 0, 1 }, new double[] { 0, 1 }))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static ZoneIndex.Polygon square(int zoneId, int priority, double latitude, double longitude,
+            double side) {
+        return new ZoneIndex.Polygon(zoneId, "Zone " + zoneId, priority,
+                new double[] { latitude, latitude, latitude + side, latitude + side },
+                new double[] { longitude, longitude + side, longitude + side, longitude });
+    }
+}
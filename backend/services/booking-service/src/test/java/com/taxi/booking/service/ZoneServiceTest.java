@@ -0,0 +1,89 @@
+package com.taxi.booking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taxi.booking.entity.Booking;
+import com.taxi.booking.entity.Zone;
+import com.taxi.booking.enums.BookingStatus;
+import com.taxi.booking.enums.ZoneType;
+import com.taxi.booking.repository.BookingRepository;
+import com.taxi.booking.repository.ZoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ZoneServiceTest {
+
+    private final ZoneRepository zoneRepository = mock(ZoneRepository.class);
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final BookingChangeTracker changeTracker = mock(BookingChangeTracker.class);
+    private ZoneService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ZoneService(zoneRepository, bookingRepository, changeTracker, new ObjectMapper());
+        ReflectionTestUtils.setField(service, "backfillBatchSize", 2);
+        when(zoneRepository.findAll()).thenReturn(List.of(zone("Airport")));
+        when(zoneRepository.count()).thenReturn(1L);
+        when(zoneRepository.findLastUpdatedAt()).thenReturn(LocalDateTime.of(2024, 6, 11, 9, 0));
+        service.reload();
+    }
+
+    @Test
+    void backfillMovesEveryEtagAndResyncsTheIndex() {
+        when(bookingRepository.findWithoutPickupZone(eq(0), any()))
+                .thenReturn(List.of(booking(1, 0.5), booking(2, 5)));
+        when(bookingRepository.findWithoutPickupZone(eq(2), any())).thenReturn(List.of(booking(3, 5)));
+        when(bookingRepository.setPickupZone(eq(7), any())).thenReturn(1);
+
+        assertThat(service.backfillPickupZones()).isEqualTo(1);
+
+        verify(bookingRepository).setPickupZone(7, List.of(1));
+        // Only the batch that classified something
+        verify(changeTracker, times(1)).recordBulkChange(BookingStatus.values());
+    }
+
+    @Test
+    void renameChangesTheLoadedVersion() {
+        String before = service.getLoadedVersion();
+        assertThat(service.getZoneName(7)).isEqualTo("Airport");
+
+        when(zoneRepository.findAll()).thenReturn(List.of(zone("International Airport")));
+        when(zoneRepository.findLastUpdatedAt()).thenReturn(LocalDateTime.of(2024, 6, 11, 10, 0));
+        service.reloadIfChanged();
+
+        assertThat(service.getZoneName(7)).isEqualTo("International Airport");
+        assertThat(service.getLoadedVersion()).isNotEqualTo(before);
+        verify(bookingRepository, never()).setPickupZone(anyInt(), any());
+    }
+
+    // ==================== PRIVATE HELPER METHODS ====================
+
+    private static Zone zone(String name) {
+        Zone zone = new Zone();
+        zone.setId(7);
+        zone.setCode("CMB");
+        zone.setName(name);
+        zone.setZoneType(ZoneType.values()[0]);
+        zone.setBoundary("[[0,0],[0,1],[1,1],[1,0]]");
+        zone.setIsActive(true);
+        return zone;
+    }
+
+    private static Booking booking(int id, double latitude) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setPickupLatitude(BigDecimal.valueOf(latitude));
+        booking.setPickupLongitude(BigDecimal.valueOf(0.5));
+        return booking;
+    }
+}
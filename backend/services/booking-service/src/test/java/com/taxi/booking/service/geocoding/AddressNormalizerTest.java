@@ -0,0 +1,40 @@
+package com.taxi.booking.service.geocoding;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AddressNormalizerTest {
+
+    @Test
+    void spellingsOfOneAddressShareAKey() {
+        assertThat(AddressNormalizer.normalize("No. 12, Galle Rd."))
+                .isEqualTo(AddressNormalizer.normalize("no 12  galle road"))
+                .isEqualTo("number 12 galle road");
+        assertThat(AddressNormalizer.normalize("ＢＩＡ Intl"))
+                .isEqualTo("bia international");
+    }
+
+    @Test
+    void stIsAStreetOnlyAtTheEndOfAPart() {
+        assertThat(AddressNormalizer.normalize("45 Main St, Colombo 3")).isEqualTo("45 main street colombo 3");
+        assertThat(AddressNormalizer.normalize("Main St.")).isEqualTo("main street");
+        assertThat(AddressNormalizer.normalize("St Anthony's Church, Kochchikade"))
+                .isEqualTo("st anthony s church kochchikade");
+        assertThat(AddressNormalizer.normalize("St")).isEqualTo("st");
+    }
+
+    @Test
+    void blankAddressesNormaliseToNull() {
+        assertThat(AddressNormalizer.normalize(null)).isNull();
+        assertThat(AddressNormalizer.normalize(" ,. ")).isNull();
+    }
+
+    @Test
+    void prefixLeavesAPartlyTypedLastWordAlone() {
+        assertThat(AddressNormalizer.normalizePrefix("galle rd")).isEqualTo("galle rd");
+        assertThat(AddressNormalizer.normalizePrefix("galle rd ")).isEqualTo("galle road");
+        assertThat(AddressNormalizer.normalizePrefix("main st, col")).isEqualTo("main street col");
+        assertThat(AddressNormalizer.normalizePrefix("main st")).isEqualTo("main st");
+    }
+}
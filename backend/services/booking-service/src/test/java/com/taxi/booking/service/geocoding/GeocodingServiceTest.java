@@ -0,0 +1,88 @@
+package com.taxi.booking.service.geocoding;
+
+import com.taxi.booking.entity.GeocodedAddress;
+import com.taxi.booking.repository.GeocodedAddressRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class GeocodingServiceTest {
+
+    private final GeocodingProvider provider = mock(GeocodingProvider.class);
+    private final GeocodedAddressRepository repository = mock(GeocodedAddressRepository.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private GeocodingService service;
+
+    @BeforeEach
+    void setUp() {
+        when(provider.name()).thenReturn("gazetteer");
+        when(repository.findById(anyString())).thenReturn(Optional.empty());
+        service = new GeocodingService(provider, repository, registry);
+        ReflectionTestUtils.setField(service, "cacheSize", 2);
+        ReflectionTestUtils.setField(service, "negativeTtlSeconds", 300L);
+        service.init();
+    }
+
+    @Test
+    void storesProviderResultsWithInsertIgnoreAndServesThemFromMemory() {
+        when(provider.geocode("galle road colombo")).thenReturn(
+                Optional.of(new GeocodingProvider.Coordinates(6.9, 79.85)));
+
+        GeocodingService.Location first = service.geocode("Galle Rd, Colombo").orElseThrow();
+        GeocodingService.Location second = service.geocode("galle road colombo").orElseThrow();
+
+        assertThat(second).isEqualTo(first);
+        assertThat(first.latitude()).isEqualByComparingTo("6.90000000");
+        verify(provider, times(1)).geocode(anyString());
+        verify(repository).insertIgnore(anyString(), eq("galle road colombo"),
+                eq(first.latitude()), eq(first.longitude()), eq("gazetteer"));
+        assertThat(lookups("provider")).isEqualTo(1);
+        assertThat(lookups("memory")).isEqualTo(1);
+    }
+
+    @Test
+    void answersFromTheTableWithoutCallingTheProvider() {
+        GeocodedAddress stored = new GeocodedAddress();
+        stored.setLatitude(new BigDecimal("7.18"));
+        stored.setLongitude(new BigDecimal("79.88"));
+        when(repository.findById(anyString())).thenReturn(Optional.of(stored));
+
+        assertThat(service.geocode("BIA")).map(GeocodingService.Location::latitude).contains(new BigDecimal("7.18"));
+
+        verify(provider, never()).geocode(anyString());
+        verify(repository, never()).insertIgnore(any(), any(), any(), any(), any());
+        assertThat(lookups("database")).isEqualTo(1);
+    }
+
+    @Test
+    void cachesMissesButNotProviderFailures() {
+        when(provider.geocode("nowhere")).thenReturn(Optional.empty());
+        when(provider.geocode("somewhere")).thenThrow(new RuntimeException("timeout"));
+
+        assertThat(service.geocode("Nowhere")).isEmpty();
+        assertThat(service.geocode("Nowhere")).isEmpty();
+        assertThat(service.geocode("Somewhere")).isEmpty();
+        assertThat(service.geocode("Somewhere")).isEmpty();
+
+        verify(provider, times(1)).geocode("nowhere");
+        verify(provider, times(2)).geocode("somewhere");
+        verify(repository, never()).insertIgnore(any(), any(), any(), any(), any());
+        assertThat(service.geocode("  ")).isEmpty();
+    }
+
+    // ==================== PRIVATE HELPER METHODS ====================
+
+    private double lookups(String source) {
+        return registry.get("booking.geocoding.lookups").tag("source", source).counter().count();
+    }
+}
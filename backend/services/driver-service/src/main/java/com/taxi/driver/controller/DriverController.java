@@ -184,6 +184,12 @@ public class DriverController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/batch")
+    public ResponseEntity<List<DriverResponse>> getDriversByIds(@RequestParam List<Integer> ids) {
+        List<DriverResponse> response = driverService.getDriversByIds(ids);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/license/expired")
     public ResponseEntity<List<DriverResponse>> getDriversWithExpiredLicense() {
         List<DriverResponse> response = driverService.getDriversWithExpiredLicense();
@@ -48,6 +48,8 @@ public interface DriverService {
 
     List<DriverResponse> getDriversByVehicleId(Integer vehicleId);
 
+    List<DriverResponse> getDriversByIds(List<Integer> ids);
+
     List<DriverResponse> getDriversWithExpiredLicense();
 
     List<DriverResponse> getDriversWithExpiringLicense(int daysThreshold);
@@ -245,6 +245,16 @@ public class DriverServiceImpl implements DriverService {
         return driverMapper.toResponseList(drivers);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<DriverResponse> getDriversByIds(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Driver> drivers = driverRepository.findAllById(ids);
+        return driverMapper.toResponseList(drivers);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<DriverResponse> getDriversWithExpiredLicense() {
@@ -0,0 +1,76 @@
+package com.taxi.farepromo.service;
+
+import com.taxi.farepromo.entity.FareSchemeVersion;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.time.LocalTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of pricing one trip with a compiled fare, itemised and total only.
+ *
+ * mvn -Pjmh test-compile exec:exec
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompiledFareBenchmark {
+
+    private static final int TRIPS = 1024;
+
+    private CompiledFare fare;
+    private final long[] centiKm = new long[TRIPS];
+    private final int[] durationMinutes = new int[TRIPS];
+    private final int[] waitMinutes = new int[TRIPS];
+    private final int[] startSecondOfDay = new int[TRIPS];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        fare = CompiledFare.compile(FareSchemeVersion.builder()
+                .fareSchemeId(1)
+                .version(1)
+                .fareCode("BENCH")
+                .isPackage(true)
+                .minimumDistance(new BigDecimal("2.00"))
+                .minimumRate(new BigDecimal("150.00"))
+                .ratePerKm(new BigDecimal("72.50"))
+                .freeWaitTime(5)
+                .waitingChargePerMin(new BigDecimal("4.00"))
+                .minimumTime(60)
+                .additionalTimeSlot(15)
+                .ratePerAdditionalTimeSlot(new BigDecimal("120.00"))
+                .nightStartTime(LocalTime.of(22, 0))
+                .nightEndTime(LocalTime.of(5, 0))
+                .nightRateHike(new BigDecimal("25.00"))
+                .peakHourStartTime(LocalTime.of(7, 0))
+                .peakHourEndTime(LocalTime.of(9, 30))
+                .peakHourRateHike(new BigDecimal("12.50"))
+                .build());
+        Random random = new Random(42);
+        for (int i = 0; i < TRIPS; i++) {
+            centiKm[i] = random.nextInt(5_000);
+            durationMinutes[i] = random.nextInt(180);
+            waitMinutes[i] = random.nextInt(30);
+            startSecondOfDay[i] = random.nextInt(86_400);
+        }
+    }
+
+    @Benchmark
+    public long total() {
+        int i = next++ & (TRIPS - 1);
+        return fare.total(centiKm[i], durationMinutes[i], waitMinutes[i], startSecondOfDay[i]);
+    }
+
+    @Benchmark
+    public void quote(Blackhole blackhole) {
+        int i = next++ & (TRIPS - 1);
+        blackhole.consume(fare.quote(centiKm[i], durationMinutes[i], waitMinutes[i], startSecondOfDay[i]));
+    }
+}
@@ -0,0 +1,27 @@
+package com.taxi.farepromo.client;
+
+import com.taxi.farepromo.dto.response.CompletedTripBatchResponse;
+import com.taxi.farepromo.dto.response.CustomerStatsResponse;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@FeignClient(name = "booking-service")
+public interface BookingServiceClient {
+
+    // Matches CustomerStatsController in booking-service
+    @PostMapping("/api/bookings/customers/stats")
+    List<CustomerStatsResponse> getCustomerStats(@RequestBody List<String> contactNumbers);
+
+    // Matches CompletedHireController in booking-service
+    @GetMapping("/api/bookings/completed-hires/trip-figures")
+    CompletedTripBatchResponse getCompletedTripFigures(@RequestParam("startDate") LocalDate startDate,
+            @RequestParam("endDate") LocalDate endDate,
+            @RequestParam("afterId") int afterId,
+            @RequestParam("limit") int limit);
+}
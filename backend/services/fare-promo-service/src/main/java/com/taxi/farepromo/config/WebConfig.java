@@ -0,0 +1,21 @@
+package com.taxi.farepromo.config;
+
+import org.springframework.boot.http.converter.autoconfigure.ServerHttpMessageConvertersCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+@Configuration
+public class WebConfig {
+
+    /**
+     * CBOR for other services that ask for it with Accept: application/cbor.
+     * Uses Boot's CBORMapper so spring.jackson.* applies to CBOR as it does to JSON;
+     * the default converter order keeps JSON ahead of it for browsers and wildcard Accept headers.
+     */
+    @Bean
+    public ServerHttpMessageConvertersCustomizer cborMessageConvertersCustomizer(CBORMapper cborMapper) {
+        return builder -> builder.withCborConverter(new JacksonCborHttpMessageConverter(cborMapper));
+    }
+}
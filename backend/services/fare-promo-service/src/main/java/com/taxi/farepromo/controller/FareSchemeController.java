@@ -1,10 +1,16 @@
 package com.taxi.farepromo.controller;
 
+import com.taxi.farepromo.dto.request.FareQuoteRequest;
 import com.taxi.farepromo.dto.request.FareSchemeCreateRequest;
 import com.taxi.farepromo.dto.request.FareSchemeUpdateRequest;
+import com.taxi.farepromo.dto.request.RepricingRequest;
 import com.taxi.farepromo.dto.response.ApiResponse;
+import com.taxi.farepromo.dto.response.FareQuoteResponse;
 import com.taxi.farepromo.dto.response.FareSchemeResponse;
+import com.taxi.farepromo.dto.response.RepricingResponse;
+import com.taxi.farepromo.service.FareQuoteService;
 import com.taxi.farepromo.service.FareSchemeService;
+import com.taxi.farepromo.service.RepricingService;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -26,6 +32,8 @@ import java.util.List;
 public class FareSchemeController {
 
     private final FareSchemeService fareSchemeService;
+    private final FareQuoteService fareQuoteService;
+    private final RepricingService repricingService;
 
     @PostMapping
     public ResponseEntity<ApiResponse<FareSchemeResponse>> create(
@@ -100,6 +108,83 @@ public class FareSchemeController {
                 "Fare schemes retrieved for vehicle class: " + vehicleClassId));
     }
 
+    @GetMapping("/{id}/versions")
+    public ResponseEntity<ApiResponse<List<FareSchemeResponse>>> getVersions(@PathVariable Integer id) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success(
+                    fareSchemeService.getFareSchemeVersions(id), "Fare scheme versions retrieved"));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage(), 404));
+        }
+    }
+
+    // Called by other services for the rates a booking was made under; versions never change
+    @GetMapping("/{id}/versions/{version}")
+    public ResponseEntity<ApiResponse<FareSchemeResponse>> getVersion(
+            @PathVariable Integer id,
+            @PathVariable Integer version) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success(
+                    fareSchemeService.getFareSchemeVersion(id, version), "Fare scheme version retrieved"));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage(), 404));
+        }
+    }
+
+    @PostMapping("/{id}/versions/{version}/quote")
+    public ResponseEntity<ApiResponse<FareQuoteResponse>> quoteVersion(
+            @PathVariable Integer id,
+            @PathVariable Integer version,
+            @Valid @RequestBody FareQuoteRequest request) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success(
+                    fareQuoteService.quoteVersion(id, version, request), "Fare quoted"));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage(), 404));
+        }
+    }
+
+    // Price a trip with every vehicle class's active schemes, for the booking screen
+    @PostMapping("/quotes")
+    public ResponseEntity<ApiResponse<List<FareQuoteResponse>>> quoteAll(
+            @Valid @RequestBody FareQuoteRequest request) {
+        return ResponseEntity.ok(ApiResponse.success(
+                fareQuoteService.quoteAllVehicleClasses(request), "Fares quoted"));
+    }
+
+    // Price a trip with this scheme; called by the apps and other services
+    @PostMapping("/{id}/quote")
+    public ResponseEntity<ApiResponse<FareQuoteResponse>> quote(
+            @PathVariable Integer id,
+            @Valid @RequestBody FareQuoteRequest request) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success(
+                    fareQuoteService.quote(id, request), "Fare quoted"));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage(), 404));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage(), 400));
+        }
+    }
+
+    // What-if: completed trips in a date range re-priced with proposed schemes
+    @PostMapping("/repricing")
+    public ResponseEntity<ApiResponse<RepricingResponse>> reprice(
+            @Valid @RequestBody RepricingRequest request) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success(
+                    repricingService.reprice(request), "Trips re-priced"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage(), 400));
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<FareSchemeResponse>> update(
             @PathVariable Integer id,
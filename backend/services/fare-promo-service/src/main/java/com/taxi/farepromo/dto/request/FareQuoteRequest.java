@@ -0,0 +1,32 @@
+package com.taxi.farepromo.dto.request;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FareQuoteRequest {
+
+    @NotNull(message = "Distance is required")
+    @DecimalMin(value = "0.0", message = "Distance must not be negative")
+    @DecimalMax(value = "10000.0", message = "Distance must not exceed 10000 km")
+    private BigDecimal distanceKm;
+
+    @Min(value = 0, message = "Duration must not be negative")
+    private Integer durationMinutes;
+
+    @Min(value = 0, message = "Wait time must not be negative")
+    private Integer waitMinutes;
+
+    // Trip start; defaults to now
+    private LocalDateTime startTime;
+}
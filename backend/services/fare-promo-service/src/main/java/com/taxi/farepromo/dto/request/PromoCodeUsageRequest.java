@@ -1,5 +1,7 @@
 package com.taxi.farepromo.dto.request;
 
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
@@ -21,5 +23,7 @@ public class PromoCodeUsageRequest {
 
     private Integer bookingId;
 
+    @DecimalMin(value = "0.0", message = "Discount must not be negative")
+    @Digits(integer = 8, fraction = 2, message = "Discount must have at most 8 digits and 2 decimals")
     private BigDecimal discountApplied;
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.taxi.farepromo.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RepricingRequest {
+
+    @NotNull(message = "Start date is required")
+    private LocalDate startDate;
+
+    @NotNull(message = "End date is required")
+    private LocalDate endDate;
+
+    // Proposed schemes (typically Draft), at most one per vehicle class
+    @NotEmpty(message = "At least one candidate fare scheme is required")
+    private List<Integer> candidateFareSchemeIds;
+}
@@ -0,0 +1,30 @@
+package com.taxi.farepromo.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One page of completed trip figures from booking-service, column by column.
+ * Missing ids and versions are 0, a missing start time is -1; distance is in
+ * hundredths of a km and fare in cents. nextAfterId is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CompletedTripBatchResponse {
+
+    private int[] bookingIds;
+    private int[] vehicleClassIds;
+    private int[] corporateIds;
+    private int[] fareSchemeIds;
+    private int[] fareSchemeVersions;
+    private long[] distanceCentiKm;
+    private int[] durationMinutes;
+    private int[] waitMinutes;
+    private int[] startSecondOfDay;
+    private long[] fareCents;
+    private Integer nextAfterId;
+}
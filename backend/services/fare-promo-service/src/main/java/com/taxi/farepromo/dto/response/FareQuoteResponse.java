@@ -0,0 +1,34 @@
+package com.taxi.farepromo.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FareQuoteResponse {
+
+    private Integer fareSchemeId;
+    private Integer fareSchemeVersion;
+    private String fareCode;
+    private Integer vehicleClassId;
+    private Long snapshotVersion;
+    private BigDecimal distanceKm;
+    private Integer durationMinutes;
+    private Integer waitMinutes;
+    private LocalDateTime startTime;
+    private BigDecimal baseFare;
+    private BigDecimal distanceFare;
+    private BigDecimal timeFare;
+    private Integer billedWaitMinutes;
+    private BigDecimal waitingFee;
+    private String surge;
+    private BigDecimal surgeFee;
+    private BigDecimal totalFare;
+}
@@ -39,6 +39,7 @@ public class FareSchemeResponse {
     private LocalTime nightEndTime;
     private BigDecimal nightRateHike;
     private String status;
+    private Integer version;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
\ No newline at end of file
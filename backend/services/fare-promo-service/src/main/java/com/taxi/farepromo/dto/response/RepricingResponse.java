@@ -0,0 +1,50 @@
+package com.taxi.farepromo.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RepricingResponse {
+
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private List<Integer> candidateFareSchemeIds;
+    private Long tripsRepriced;
+    // Trips without a fare scheme, or in a class no candidate covers
+    private Long tripsSkipped;
+    private Long elapsedMillis;
+    private Group total;
+    private List<Group> byVehicleClass;
+    private List<Group> byHourOfDay;
+    private List<Group> byCorporate;
+
+    /**
+     * Totals of one group of trips: charged is what was billed, current the
+     * trips re-priced with the scheme versions they ran under, candidate with
+     * the proposed schemes. key is the vehicle class id, hour or corporate id;
+     * null for trips without one.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Group {
+        private Integer key;
+        private Long trips;
+        private BigDecimal charged;
+        private BigDecimal current;
+        private BigDecimal candidate;
+        private BigDecimal delta;
+        private BigDecimal deltaPercent;
+    }
+}
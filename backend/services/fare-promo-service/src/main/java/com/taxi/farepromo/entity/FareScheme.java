@@ -92,6 +92,10 @@ public class FareScheme {
     @Column(name = "status", length = 20)
     private String status;
 
+    // Latest row in fare_scheme_versions; bumped by every update
+    @Column(name = "current_version")
+    private Integer currentVersion;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
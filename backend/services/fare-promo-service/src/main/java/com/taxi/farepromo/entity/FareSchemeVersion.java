@@ -0,0 +1,103 @@
+package com.taxi.farepromo.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * The rates of a fare scheme as of one version. Rows are never updated or
+ * deleted, so (fareSchemeId, version) always prices a trip the same way.
+ */
+@Entity
+@Immutable
+@Table(name = "fare_scheme_versions", uniqueConstraints = @UniqueConstraint(
+        name = "uk_fare_scheme_version", columnNames = { "fare_scheme_id", "version" }))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FareSchemeVersion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "fare_scheme_id", nullable = false)
+    private Integer fareSchemeId;
+
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
+    @Column(name = "fare_code", nullable = false, length = 50)
+    private String fareCode;
+
+    @Column(name = "fare_name", length = 100)
+    private String fareName;
+
+    @Column(name = "vehicle_class_id")
+    private Integer vehicleClassId;
+
+    @Column(name = "is_metered")
+    private Boolean isMetered;
+
+    @Column(name = "is_package")
+    private Boolean isPackage;
+
+    @Column(name = "minimum_distance", precision = 6, scale = 2)
+    private BigDecimal minimumDistance;
+
+    @Column(name = "minimum_rate", precision = 10, scale = 2)
+    private BigDecimal minimumRate;
+
+    @Column(name = "rate_per_km", precision = 8, scale = 2)
+    private BigDecimal ratePerKm;
+
+    @Column(name = "free_wait_time")
+    private Integer freeWaitTime;
+
+    @Column(name = "waiting_charge_per_min", precision = 6, scale = 2)
+    private BigDecimal waitingChargePerMin;
+
+    @Column(name = "peak_hour_start_time")
+    private LocalTime peakHourStartTime;
+
+    @Column(name = "peak_hour_end_time")
+    private LocalTime peakHourEndTime;
+
+    @Column(name = "peak_hour_rate_hike", precision = 8, scale = 2)
+    private BigDecimal peakHourRateHike;
+
+    @Column(name = "off_peak_min_rate_hike", precision = 8, scale = 2)
+    private BigDecimal offPeakMinRateHike;
+
+    @Column(name = "rate_per_km_hike", precision = 8, scale = 2)
+    private BigDecimal ratePerKmHike;
+
+    @Column(name = "minimum_time")
+    private Integer minimumTime;
+
+    @Column(name = "additional_time_slot")
+    private Integer additionalTimeSlot;
+
+    @Column(name = "rate_per_additional_time_slot", precision = 8, scale = 2)
+    private BigDecimal ratePerAdditionalTimeSlot;
+
+    @Column(name = "night_start_time")
+    private LocalTime nightStartTime;
+
+    @Column(name = "night_end_time")
+    private LocalTime nightEndTime;
+
+    @Column(name = "night_rate_hike", precision = 8, scale = 2)
+    private BigDecimal nightRateHike;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -56,6 +56,10 @@ public class PromoCode {
     @Column(name = "current_usage")
     private Integer currentUsage;
 
+    // Sum of discountApplied over usages, kept in step by recordUsage
+    @Column(name = "total_discount_given", precision = 14, scale = 2)
+    private BigDecimal totalDiscountGiven;
+
     @Column(name = "max_usage_per_customer")
     private Integer maxUsagePerCustomer;
 
@@ -104,6 +108,8 @@ public class PromoCode {
             isFirstTimeOnly = false;
         if (currentUsage == null)
             currentUsage = 0;
+        if (totalDiscountGiven == null)
+            totalDiscountGiven = BigDecimal.ZERO;
         if (maxUsage == null)
             maxUsage = 0;
         if (maxUsagePerCustomer == null)
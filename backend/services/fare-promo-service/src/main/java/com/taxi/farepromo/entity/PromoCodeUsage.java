@@ -8,7 +8,8 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "promo_code_usage")
+@Table(name = "promo_code_usage", uniqueConstraints = @UniqueConstraint(name = "uk_promo_code_usage_slot",
+        columnNames = { "promo_code_id", "contact_number", "usage_slot" }))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -27,6 +28,10 @@ public class PromoCodeUsage {
     @Column(name = "contact_number", nullable = false, length = 20)
     private String contactNumber;
 
+    // 1..maxUsagePerCustomer when the promo has a per-customer limit, else null
+    @Column(name = "usage_slot")
+    private Integer usageSlot;
+
     @Column(name = "booking_id")
     private Integer bookingId;
 
@@ -22,6 +22,8 @@ public interface FareSchemeRepository extends JpaRepository<FareScheme, Integer>
 
         List<FareScheme> findByVehicleClassId(Integer vehicleClassId);
 
+        List<FareScheme> findByCurrentVersionIsNull();
+
         @Query("SELECT f FROM FareScheme f WHERE " +
                         "(:search IS NULL OR :search = '' OR " +
                         "LOWER(f.fareCode) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
@@ -41,4 +43,8 @@ public interface FareSchemeRepository extends JpaRepository<FareScheme, Integer>
         @Query("SELECT f FROM FareScheme f WHERE " +
                         "f.vehicleClassId = :vehicleClassId AND f.status = 'Active'")
         List<FareScheme> findActiveFareSchemesByVehicleClass(@Param("vehicleClassId") Integer vehicleClassId);
-}
\ No newline at end of file
+
+        // Scheme count and latest update, to tell whether compiled schemes are stale
+        @Query("SELECT COUNT(f), MAX(f.updatedAt) FROM FareScheme f")
+        List<Object[]> fingerprint();
+}
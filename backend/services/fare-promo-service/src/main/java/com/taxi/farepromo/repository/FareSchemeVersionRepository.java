@@ -0,0 +1,22 @@
+package com.taxi.farepromo.repository;
+
+import com.taxi.farepromo.entity.FareSchemeVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface FareSchemeVersionRepository extends JpaRepository<FareSchemeVersion, Integer> {
+
+        Optional<FareSchemeVersion> findByFareSchemeIdAndVersion(Integer fareSchemeId, Integer version);
+
+        List<FareSchemeVersion> findByFareSchemeIdOrderByVersionDesc(Integer fareSchemeId);
+
+        // The version each existing scheme currently prices with
+        @Query("SELECT v FROM FareSchemeVersion v WHERE v.version = " +
+                        "(SELECT f.currentVersion FROM FareScheme f WHERE f.id = v.fareSchemeId)")
+        List<FareSchemeVersion> findCurrentVersions();
+}
@@ -4,10 +4,12 @@ import com.taxi.farepromo.entity.PromoCode;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -43,4 +45,28 @@ public interface PromoCodeRepository extends JpaRepository<PromoCode, Integer> {
         Page<PromoCode> searchPromoCodesWithFilter(@Param("search") String search,
                         @Param("isActive") Boolean isActive,
                         Pageable pageable);
-}
\ No newline at end of file
+
+        // Promo count, latest update and total usage, to tell whether the promo index is stale
+        @Query("SELECT COUNT(p), MAX(p.updatedAt), COALESCE(SUM(p.currentUsage), 0) FROM PromoCode p")
+        List<Object[]> fingerprint();
+
+        // [id, currentUsage] of every promo, to refresh the promo index after redemptions
+        @Query("SELECT p.id, p.currentUsage FROM PromoCode p")
+        List<Object[]> findUsage();
+
+        // Count a usage and its discount in one atomic statement; updates
+        // nothing once maxUsage is reached
+        @Modifying
+        @Query("UPDATE PromoCode p SET p.currentUsage = p.currentUsage + 1, " +
+                        "p.totalDiscountGiven = COALESCE(p.totalDiscountGiven, 0) + :discount " +
+                        "WHERE p.id = :id " +
+                        "AND (COALESCE(p.maxUsage, 0) <= 0 OR p.currentUsage < p.maxUsage)")
+        int incrementUsage(@Param("id") Integer id, @Param("discount") BigDecimal discount);
+
+        // Seed total_discount_given of promo codes created before it existed
+        @Modifying
+        @Query("UPDATE PromoCode p SET p.totalDiscountGiven = " +
+                        "(SELECT COALESCE(SUM(u.discountApplied), 0) FROM PromoCodeUsage u WHERE u.promoCode = p) " +
+                        "WHERE p.totalDiscountGiven IS NULL")
+        int fillMissingDiscountTotals();
+}
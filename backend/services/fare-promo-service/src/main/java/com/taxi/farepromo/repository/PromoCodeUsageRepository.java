@@ -17,6 +17,12 @@ public interface PromoCodeUsageRepository extends JpaRepository<PromoCodeUsage,
 
         List<PromoCodeUsage> findByContactNumber(String contactNumber);
 
+        // Contact numbers that cannot be in E.164 form
+        @Query("SELECT u FROM PromoCodeUsage u WHERE u.contactNumber NOT LIKE '+%' " +
+                        "OR u.contactNumber LIKE '% %' OR u.contactNumber LIKE '%-%' " +
+                        "OR u.contactNumber LIKE '%(%' OR u.contactNumber LIKE '%.%'")
+        List<PromoCodeUsage> findWithUnnormalisedContactNumber();
+
         Page<PromoCodeUsage> findByPromoCodeId(Integer promoCodeId, Pageable pageable);
 
         @Query("SELECT COUNT(u) FROM PromoCodeUsage u WHERE " +
@@ -27,4 +33,21 @@ public interface PromoCodeUsageRepository extends JpaRepository<PromoCodeUsage,
         @Query("SELECT COALESCE(SUM(u.discountApplied), 0) FROM PromoCodeUsage u WHERE " +
                         "u.promoCode.id = :promoCodeId")
         java.math.BigDecimal sumDiscountByPromoCodeId(@Param("promoCodeId") Integer promoCodeId);
+
+        // A customer's usage count as committed (locking read), for numbering their next slot
+        @Query(value = "SELECT COUNT(*) FROM promo_code_usage " +
+                        "WHERE promo_code_id = :promoCodeId AND contact_number = :contactNumber FOR UPDATE",
+                        nativeQuery = true)
+        long countForUpdate(@Param("promoCodeId") Integer promoCodeId,
+                        @Param("contactNumber") String contactNumber);
+
+        List<PromoCodeUsage> findByPromoCodeIdAndUsageSlotIsNullOrderByIdAsc(Integer promoCodeId);
+
+        @Query("SELECT u.contactNumber, MAX(u.usageSlot) FROM PromoCodeUsage u " +
+                        "WHERE u.promoCode.id = :promoCodeId AND u.usageSlot IS NOT NULL GROUP BY u.contactNumber")
+        List<Object[]> findLastUsageSlots(@Param("promoCodeId") Integer promoCodeId);
+
+        @Query("SELECT DISTINCT u.promoCode.id FROM PromoCodeUsage u " +
+                        "WHERE u.usageSlot IS NULL AND u.promoCode.maxUsagePerCustomer > 0")
+        List<Integer> findPromoCodeIdsWithUnslottedUsage();
 }
\ No newline at end of file
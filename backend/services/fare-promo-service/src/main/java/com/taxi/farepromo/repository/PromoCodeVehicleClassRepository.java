@@ -2,8 +2,11 @@ package com.taxi.farepromo.repository;
 
 import com.taxi.farepromo.entity.PromoCodeVehicleClass;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -14,4 +17,9 @@ public interface PromoCodeVehicleClassRepository extends JpaRepository<PromoCode
     void deleteByPromoCodeId(Integer promoCodeId);
 
     boolean existsByPromoCodeIdAndVehicleClassId(Integer promoCodeId, Integer vehicleClassId);
+
+    // [promoCodeId, vehicleClassId] for a page of promo codes in one query
+    @Query("SELECT vc.promoCode.id, vc.vehicleClassId FROM PromoCodeVehicleClass vc " +
+            "WHERE vc.promoCode.id IN :promoCodeIds")
+    List<Object[]> findVehicleClassIds(@Param("promoCodeIds") Collection<Integer> promoCodeIds);
 }
\ No newline at end of file
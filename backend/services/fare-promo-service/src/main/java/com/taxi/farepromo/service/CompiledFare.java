@@ -0,0 +1,218 @@
+package com.taxi.farepromo.service;
+
+import com.taxi.farepromo.entity.FareSchemeVersion;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalTime;
+
+/**
+ * One version of a fare scheme reduced to primitives for fast, allocation-free
+ * pricing. Versions never change, so neither does a CompiledFare.
+ *
+ * Money is held as longs in ten-thousandths of a rupee, so distance (hundredths
+ * of a km) times rate per km (cents) is exact; times of day are seconds since
+ * midnight, -1 when unset. Pricing rules are the same as the booking-service
+ * trip meter:
+ * - base fare: minimumRate, covering the first minimumDistance km
+ * - distance fare: remaining km at ratePerKm
+ * - time fare: package schemes only, each started additionalTimeSlot minutes
+ *   beyond minimumTime at ratePerAdditionalTimeSlot
+ * - waiting fee: wait beyond freeWaitTime minutes at waitingChargePerMin
+ * - surge: nightRateHike, or else peakHourRateHike, percent of base + distance
+ *   fare (rounded to cents) when the trip starts inside that window
+ */
+public final class CompiledFare {
+
+    public static final int SCALE = 4;
+
+    public static final int NO_SURGE = 0;
+    public static final int NIGHT_SURGE = 1;
+    public static final int PEAK_SURGE = 2;
+
+    private final int schemeId;
+    private final int version;
+    private final String fareCode;
+    private final Integer vehicleClassId;
+
+    private final long minimumRate;
+    private final long minimumCentiKm;
+    private final long ratePerKmCents;
+    private final int freeWaitMinutes;
+    private final long waitingChargePerMin;
+    private final boolean timeCharged;
+    private final int minimumMinutes;
+    private final int slotMinutes;
+    private final long ratePerSlot;
+    private final int nightFrom;
+    private final int nightTo;
+    private final long nightHikeCentiPercent;
+    private final int peakFrom;
+    private final int peakTo;
+    private final long peakHikeCentiPercent;
+
+    private CompiledFare(FareSchemeVersion scheme) {
+        schemeId = scheme.getFareSchemeId();
+        version = scheme.getVersion();
+        fareCode = scheme.getFareCode();
+        vehicleClassId = scheme.getVehicleClassId();
+        minimumRate = units(scheme.getMinimumRate(), SCALE);
+        minimumCentiKm = units(scheme.getMinimumDistance(), 2);
+        ratePerKmCents = units(scheme.getRatePerKm(), 2);
+        freeWaitMinutes = orZero(scheme.getFreeWaitTime());
+        waitingChargePerMin = units(scheme.getWaitingChargePerMin(), SCALE);
+        timeCharged = Boolean.TRUE.equals(scheme.getIsPackage()) && orZero(scheme.getAdditionalTimeSlot()) > 0;
+        minimumMinutes = orZero(scheme.getMinimumTime());
+        slotMinutes = orZero(scheme.getAdditionalTimeSlot());
+        ratePerSlot = units(scheme.getRatePerAdditionalTimeSlot(), SCALE);
+        nightFrom = secondOfDay(scheme.getNightStartTime());
+        nightTo = secondOfDay(scheme.getNightEndTime());
+        nightHikeCentiPercent = units(scheme.getNightRateHike(), 2);
+        peakFrom = secondOfDay(scheme.getPeakHourStartTime());
+        peakTo = secondOfDay(scheme.getPeakHourEndTime());
+        peakHikeCentiPercent = units(scheme.getPeakHourRateHike(), 2);
+    }
+
+    public static CompiledFare compile(FareSchemeVersion scheme) {
+        return new CompiledFare(scheme);
+    }
+
+    public int getSchemeId() {
+        return schemeId;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public String getFareCode() {
+        return fareCode;
+    }
+
+    public Integer getVehicleClassId() {
+        return vehicleClassId;
+    }
+
+    /**
+     * Total fare in ten-thousandths of a rupee; startSecondOfDay is -1 when
+     * the start time is unknown (no surge)
+     */
+    public long total(long centiKm, int durationMinutes, int waitMinutes, int startSecondOfDay) {
+        long base = minimumRate;
+        long distance = distanceFare(centiKm);
+        return base + distance + timeFare(durationMinutes) + waitingFee(waitMinutes)
+                + surgeFee(base + distance, surge(startSecondOfDay));
+    }
+
+    /**
+     * Itemised fare, amounts in ten-thousandths of a rupee
+     */
+    public Quote quote(long centiKm, int durationMinutes, int waitMinutes, int startSecondOfDay) {
+        long base = minimumRate;
+        long distance = distanceFare(centiKm);
+        long time = timeFare(durationMinutes);
+        long waiting = waitingFee(waitMinutes);
+        int surge = surge(startSecondOfDay);
+        long surgeFee = surgeFee(base + distance, surge);
+        return new Quote(base, distance, time, billedWaitMinutes(waitMinutes), waiting, surge, surgeFee,
+                base + distance + time + waiting + surgeFee);
+    }
+
+    /**
+     * Amount in ten-thousandths of a rupee as a two-decimal BigDecimal
+     */
+    public static BigDecimal toMoney(long units) {
+        return BigDecimal.valueOf(toCents(units), 2);
+    }
+
+    /**
+     * Amount in ten-thousandths of a rupee rounded half up to cents, as charged
+     */
+    public static long toCents(long units) {
+        return roundedDiv(units, 100);
+    }
+
+    // ========== Helpers ==========
+
+    private long distanceFare(long centiKm) {
+        // hundredths of a km times cents per km is already in ten-thousandths
+        return Math.multiplyExact(Math.max(0, centiKm - minimumCentiKm), ratePerKmCents);
+    }
+
+    private long timeFare(int durationMinutes) {
+        if (!timeCharged) {
+            return 0;
+        }
+        int extraMinutes = Math.max(0, durationMinutes - minimumMinutes);
+        long slots = (extraMinutes + (long) slotMinutes - 1) / slotMinutes;
+        return Math.multiplyExact(slots, ratePerSlot);
+    }
+
+    private int billedWaitMinutes(int waitMinutes) {
+        return Math.max(0, waitMinutes - freeWaitMinutes);
+    }
+
+    private long waitingFee(int waitMinutes) {
+        return Math.multiplyExact((long) billedWaitMinutes(waitMinutes), waitingChargePerMin);
+    }
+
+    private int surge(int startSecondOfDay) {
+        if (within(startSecondOfDay, nightFrom, nightTo)) {
+            return NIGHT_SURGE;
+        }
+        if (within(startSecondOfDay, peakFrom, peakTo)) {
+            return PEAK_SURGE;
+        }
+        return NO_SURGE;
+    }
+
+    private long surgeFee(long surgeable, int surge) {
+        long hike = surge == NIGHT_SURGE ? nightHikeCentiPercent
+                : surge == PEAK_SURGE ? peakHikeCentiPercent
+                : 0;
+        if (hike == 0) {
+            return 0;
+        }
+        // ten-thousandths × hundredths of a percent → cents, rounded half up like the meter
+        long cents = roundedDiv(Math.multiplyExact(surgeable, hike), 1_000_000);
+        return cents * 100;
+    }
+
+    /**
+     * Whether a time falls in [from, to); windows may wrap past midnight
+     */
+    private static boolean within(int time, int from, int to) {
+        if (time < 0 || from < 0 || to < 0) {
+            return false;
+        }
+        return from < to
+                ? time >= from && time < to
+                : time >= from || time < to;
+    }
+
+    private static long roundedDiv(long value, long divisor) {
+        return value >= 0
+                ? (value + divisor / 2) / divisor
+                : -((-value + divisor / 2) / divisor);
+    }
+
+    private static long units(BigDecimal value, int scale) {
+        return value != null ? value.setScale(scale, RoundingMode.HALF_UP).unscaledValue().longValueExact() : 0;
+    }
+
+    private static int orZero(Integer value) {
+        return value != null ? value : 0;
+    }
+
+    private static int secondOfDay(LocalTime time) {
+        return time != null ? time.toSecondOfDay() : -1;
+    }
+
+    /**
+     * Itemised fare; amounts in ten-thousandths of a rupee, surge one of
+     * NO_SURGE, NIGHT_SURGE, PEAK_SURGE
+     */
+    public record Quote(long baseFare, long distanceFare, long timeFare, int billedWaitMinutes,
+            long waitingFee, int surge, long surgeFee, long totalFare) {
+    }
+}
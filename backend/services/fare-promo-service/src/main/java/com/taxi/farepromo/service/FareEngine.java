@@ -0,0 +1,130 @@
+package com.taxi.farepromo.service;
+
+import com.taxi.farepromo.entity.FareScheme;
+import com.taxi.farepromo.entity.FareSchemeVersion;
+import com.taxi.farepromo.repository.FareSchemeRepository;
+import com.taxi.farepromo.repository.FareSchemeVersionRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled fare scheme versions, so quotes never touch the database.
+ *
+ * Versions are immutable, so each is compiled once and kept for good. What
+ * changes is which version each scheme is currently on, and which schemes
+ * are active: that is a small immutable, versioned Snapshot, rebuilt after a
+ * scheme change made here commits. Changes made through another instance are
+ * noticed every refresh-interval-ms by comparing the scheme count and latest
+ * update time with the snapshot's.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FareEngine {
+
+    private final FareSchemeRepository fareSchemeRepository;
+    private final FareSchemeVersionRepository fareSchemeVersionRepository;
+
+    private final Map<VersionKey, CompiledFare> versions = new ConcurrentHashMap<>();
+    private volatile Snapshot snapshot = new Snapshot(0, Map.of(), Set.of(), Map.of(), 0, null);
+
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * A given version of a scheme, whether or not it is still current
+     */
+    public CompiledFare getVersion(Integer fareSchemeId, Integer version) {
+        VersionKey key = new VersionKey(fareSchemeId, version);
+        CompiledFare fare = versions.get(key);
+        if (fare == null) {
+            FareSchemeVersion row = fareSchemeVersionRepository.findByFareSchemeIdAndVersion(fareSchemeId, version)
+                    .orElseThrow(() -> new EntityNotFoundException(
+                            "Fare scheme " + fareSchemeId + " has no version " + version));
+            fare = versions.computeIfAbsent(key, k -> CompiledFare.compile(row));
+        }
+        return fare;
+    }
+
+    /**
+     * Rebuild the snapshot once the current transaction commits
+     */
+    public void refreshAfterCommit() {
+        AfterCommit.run(this::refresh);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void refresh() {
+        List<FareScheme> schemes = fareSchemeRepository.findAll();
+        Map<Integer, FareSchemeVersion> currentRows = new HashMap<>();
+        fareSchemeVersionRepository.findCurrentVersions().forEach(v -> currentRows.put(v.getFareSchemeId(), v));
+
+        Map<Integer, CompiledFare> current = new HashMap<>();
+        Set<Integer> activeIds = new HashSet<>();
+        Map<Integer, List<CompiledFare>> activeByVehicleClass = new TreeMap<>();
+        LocalDateTime lastUpdated = null;
+        for (FareScheme scheme : schemes) {
+            if (scheme.getUpdatedAt() != null && (lastUpdated == null || scheme.getUpdatedAt().isAfter(lastUpdated))) {
+                lastUpdated = scheme.getUpdatedAt();
+            }
+            FareSchemeVersion row = currentRows.get(scheme.getId());
+            if (row == null) {
+                continue;
+            }
+            CompiledFare fare = versions.computeIfAbsent(new VersionKey(row.getFareSchemeId(), row.getVersion()),
+                    k -> CompiledFare.compile(row));
+            current.put(scheme.getId(), fare);
+            if ("Active".equals(scheme.getStatus())) {
+                activeIds.add(scheme.getId());
+                if (fare.getVehicleClassId() != null) {
+                    activeByVehicleClass.computeIfAbsent(fare.getVehicleClassId(), c -> new ArrayList<>()).add(fare);
+                }
+            }
+        }
+        activeByVehicleClass.replaceAll((c, fares) -> List.copyOf(fares));
+        snapshot = new Snapshot(snapshot.version() + 1, Map.copyOf(current), Set.copyOf(activeIds),
+                Collections.unmodifiableMap(activeByVehicleClass), schemes.size(), lastUpdated);
+        log.info("Fare snapshot v{}: {} schemes, {} active, {} compiled versions held",
+                snapshot.version(), current.size(), activeIds.size(), versions.size());
+    }
+
+    /**
+     * Rebuild when schemes were changed through another instance
+     */
+    @Scheduled(fixedDelayString = "${fare.engine.refresh-interval-ms:30000}",
+            initialDelayString = "${fare.engine.refresh-interval-ms:30000}")
+    public void refreshIfChanged() {
+        try {
+            Object[] fingerprint = fareSchemeRepository.fingerprint().get(0);
+            long count = ((Number) fingerprint[0]).longValue();
+            LocalDateTime lastUpdated = (LocalDateTime) fingerprint[1];
+            Snapshot current = snapshot;
+            if (count != current.schemeCount() || !Objects.equals(lastUpdated, current.lastUpdated())) {
+                refresh();
+            }
+        } catch (Exception e) {
+            log.warn("Failed to check fare schemes for changes: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Current version of every scheme at one point in time; activeByVehicleClass
+     * is ordered by vehicle class id
+     */
+    public record Snapshot(long version, Map<Integer, CompiledFare> current, Set<Integer> activeIds,
+            Map<Integer, List<CompiledFare>> activeByVehicleClass, long schemeCount, LocalDateTime lastUpdated) {
+    }
+
+    private record VersionKey(int fareSchemeId, int version) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.taxi.farepromo.service;
+
+import com.taxi.farepromo.dto.request.FareQuoteRequest;
+import com.taxi.farepromo.dto.response.FareQuoteResponse;
+
+import java.util.List;
+
+public interface FareQuoteService {
+
+    FareQuoteResponse quote(Integer fareSchemeId, FareQuoteRequest request);
+
+    FareQuoteResponse quoteVersion(Integer fareSchemeId, Integer version, FareQuoteRequest request);
+
+    List<FareQuoteResponse> quoteAllVehicleClasses(FareQuoteRequest request);
+}
@@ -0,0 +1,116 @@
+package com.taxi.farepromo.service;
+
+import com.taxi.farepromo.dto.request.FareQuoteRequest;
+import com.taxi.farepromo.dto.response.FareQuoteResponse;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fare quotes from compiled fare schemes. Only the first quote with an old
+ * version reads the database, so this is not transactional.
+ */
+@Service
+@RequiredArgsConstructor
+public class FareQuoteServiceImpl implements FareQuoteService {
+
+    private final FareEngine fareEngine;
+
+    @Override
+    public FareQuoteResponse quote(Integer fareSchemeId, FareQuoteRequest request) {
+        FareEngine.Snapshot snapshot = fareEngine.getSnapshot();
+        CompiledFare fare = snapshot.current().get(fareSchemeId);
+        if (fare == null) {
+            throw new EntityNotFoundException("Fare scheme not found with id: " + fareSchemeId);
+        }
+        if (!snapshot.activeIds().contains(fareSchemeId)) {
+            throw new IllegalArgumentException("Fare scheme is not active: " + fare.getFareCode());
+        }
+        return toResponse(fare, new Trip(request), snapshot.version());
+    }
+
+    /**
+     * Quote with the rates of an earlier version, e.g. the one a booking was
+     * made under; works for inactive and deleted schemes too
+     */
+    @Override
+    public FareQuoteResponse quoteVersion(Integer fareSchemeId, Integer version, FareQuoteRequest request) {
+        return toResponse(fareEngine.getVersion(fareSchemeId, version), new Trip(request), null);
+    }
+
+    /**
+     * One quote per active fare scheme of every vehicle class, ordered by
+     * vehicle class, all from the same snapshot
+     */
+    @Override
+    public List<FareQuoteResponse> quoteAllVehicleClasses(FareQuoteRequest request) {
+        FareEngine.Snapshot snapshot = fareEngine.getSnapshot();
+        Trip trip = new Trip(request);
+        List<FareQuoteResponse> quotes = new ArrayList<>();
+        for (List<CompiledFare> fares : snapshot.activeByVehicleClass().values()) {
+            for (CompiledFare fare : fares) {
+                quotes.add(toResponse(fare, trip, snapshot.version()));
+            }
+        }
+        return quotes;
+    }
+
+    // ========== Helpers ==========
+
+    private FareQuoteResponse toResponse(CompiledFare fare, Trip trip, Long snapshotVersion) {
+        CompiledFare.Quote quote = fare.quote(trip.distanceKm.unscaledValue().longValueExact(),
+                trip.durationMinutes, trip.waitMinutes, trip.startTime.toLocalTime().toSecondOfDay());
+
+        return FareQuoteResponse.builder()
+                .fareSchemeId(fare.getSchemeId())
+                .fareSchemeVersion(fare.getVersion())
+                .fareCode(fare.getFareCode())
+                .vehicleClassId(fare.getVehicleClassId())
+                .snapshotVersion(snapshotVersion)
+                .distanceKm(trip.distanceKm)
+                .durationMinutes(trip.durationMinutes)
+                .waitMinutes(trip.waitMinutes)
+                .startTime(trip.startTime)
+                .baseFare(CompiledFare.toMoney(quote.baseFare()))
+                .distanceFare(CompiledFare.toMoney(quote.distanceFare()))
+                .timeFare(CompiledFare.toMoney(quote.timeFare()))
+                .billedWaitMinutes(quote.billedWaitMinutes())
+                .waitingFee(CompiledFare.toMoney(quote.waitingFee()))
+                .surge(surgeName(quote.surge()))
+                .surgeFee(CompiledFare.toMoney(quote.surgeFee()))
+                .totalFare(CompiledFare.toMoney(quote.totalFare()))
+                .build();
+    }
+
+    private String surgeName(int surge) {
+        return switch (surge) {
+            case CompiledFare.NIGHT_SURGE -> "NIGHT";
+            case CompiledFare.PEAK_SURGE -> "PEAK";
+            default -> null;
+        };
+    }
+
+    /**
+     * Request figures with defaults applied
+     */
+    private static final class Trip {
+
+        final BigDecimal distanceKm;
+        final int durationMinutes;
+        final int waitMinutes;
+        final LocalDateTime startTime;
+
+        Trip(FareQuoteRequest request) {
+            distanceKm = request.getDistanceKm().setScale(2, RoundingMode.HALF_UP);
+            durationMinutes = request.getDurationMinutes() != null ? request.getDurationMinutes() : 0;
+            waitMinutes = request.getWaitMinutes() != null ? request.getWaitMinutes() : 0;
+            startTime = request.getStartTime() != null ? request.getStartTime() : LocalDateTime.now();
+        }
+    }
+}
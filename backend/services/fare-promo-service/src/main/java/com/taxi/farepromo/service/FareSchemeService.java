@@ -29,4 +29,8 @@ public interface FareSchemeService {
     void deleteFareScheme(Integer id);
 
     FareSchemeResponse toggleFareSchemeStatus(Integer id);
+
+    FareSchemeResponse getFareSchemeVersion(Integer id, Integer version);
+
+    List<FareSchemeResponse> getFareSchemeVersions(Integer id);
 }
\ No newline at end of file
@@ -4,10 +4,16 @@ import com.taxi.farepromo.dto.request.FareSchemeCreateRequest;
 import com.taxi.farepromo.dto.request.FareSchemeUpdateRequest;
 import com.taxi.farepromo.dto.response.FareSchemeResponse;
 import com.taxi.farepromo.entity.FareScheme;
+import com.taxi.farepromo.entity.FareSchemeVersion;
 import com.taxi.farepromo.repository.FareSchemeRepository;
+import com.taxi.farepromo.repository.FareSchemeVersionRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -24,6 +30,8 @@ import java.util.stream.Collectors;
 public class FareSchemeServiceImpl implements FareSchemeService {
 
     private final FareSchemeRepository fareSchemeRepository;
+    private final FareSchemeVersionRepository fareSchemeVersionRepository;
+    private final FareEngine fareEngine;
 
     @Override
     public FareSchemeResponse createFareScheme(FareSchemeCreateRequest request) {
@@ -57,9 +65,12 @@ public class FareSchemeServiceImpl implements FareSchemeService {
                 .nightEndTime(parseTime(request.getNightEndTime()))
                 .nightRateHike(request.getNightRateHike())
                 .status(request.getStatus() != null ? request.getStatus() : "Active")
+                .currentVersion(1)
                 .build();
 
         FareScheme saved = fareSchemeRepository.save(fareScheme);
+        fareSchemeVersionRepository.save(toVersion(saved));
+        fareEngine.refreshAfterCommit();
         return mapToResponse(saved);
     }
 
@@ -164,22 +175,64 @@ public class FareSchemeServiceImpl implements FareSchemeService {
         if (request.getStatus() != null)
             fareScheme.setStatus(request.getStatus());
 
-        return mapToResponse(fareSchemeRepository.save(fareScheme));
+        // Rates are never changed in place: every update is a new version
+        fareScheme.setCurrentVersion(fareScheme.getCurrentVersion() != null ? fareScheme.getCurrentVersion() + 1 : 1);
+        FareScheme saved = fareSchemeRepository.save(fareScheme);
+        fareSchemeVersionRepository.save(toVersion(saved));
+        fareEngine.refreshAfterCommit();
+        return mapToResponse(saved);
     }
 
     @Override
     public void deleteFareScheme(Integer id) {
         FareScheme fareScheme = findOrThrow(id);
         fareSchemeRepository.delete(fareScheme);
+        fareEngine.refreshAfterCommit();
     }
 
     @Override
     public FareSchemeResponse toggleFareSchemeStatus(Integer id) {
         FareScheme fareScheme = findOrThrow(id);
         fareScheme.setStatus("Active".equals(fareScheme.getStatus()) ? "Inactive" : "Active");
+        fareEngine.refreshAfterCommit();
         return mapToResponse(fareSchemeRepository.save(fareScheme));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public FareSchemeResponse getFareSchemeVersion(Integer id, Integer version) {
+        return fareSchemeVersionRepository.findByFareSchemeIdAndVersion(id, version)
+                .map(this::mapToResponse)
+                .orElseThrow(() -> new EntityNotFoundException("Fare scheme " + id + " has no version " + version));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<FareSchemeResponse> getFareSchemeVersions(Integer id) {
+        List<FareSchemeVersion> versions = fareSchemeVersionRepository.findByFareSchemeIdOrderByVersionDesc(id);
+        if (versions.isEmpty()) {
+            throw new EntityNotFoundException("Fare scheme not found with id: " + id);
+        }
+        return versions.stream().map(this::mapToResponse).collect(Collectors.toList());
+    }
+
+    /**
+     * Give schemes created before versioning their first version row; runs
+     * before the fare engine loads
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void createMissingVersions() {
+        List<FareScheme> unversioned = fareSchemeRepository.findByCurrentVersionIsNull();
+        for (FareScheme fareScheme : unversioned) {
+            fareScheme.setCurrentVersion(1);
+            fareSchemeVersionRepository.save(toVersion(fareSchemeRepository.save(fareScheme)));
+        }
+        if (!unversioned.isEmpty()) {
+            log.info("Created version 1 of {} fare schemes", unversioned.size());
+        }
+    }
+
     // ========== Helpers ==========
 
     private FareScheme findOrThrow(Integer id) {
@@ -187,6 +240,34 @@ public class FareSchemeServiceImpl implements FareSchemeService {
                 .orElseThrow(() -> new EntityNotFoundException("Fare scheme not found with id: " + id));
     }
 
+    private FareSchemeVersion toVersion(FareScheme fs) {
+        return FareSchemeVersion.builder()
+                .fareSchemeId(fs.getId())
+                .version(fs.getCurrentVersion())
+                .fareCode(fs.getFareCode())
+                .fareName(fs.getFareName())
+                .vehicleClassId(fs.getVehicleClassId())
+                .isMetered(fs.getIsMetered())
+                .isPackage(fs.getIsPackage())
+                .minimumDistance(fs.getMinimumDistance())
+                .minimumRate(fs.getMinimumRate())
+                .ratePerKm(fs.getRatePerKm())
+                .freeWaitTime(fs.getFreeWaitTime())
+                .waitingChargePerMin(fs.getWaitingChargePerMin())
+                .peakHourStartTime(fs.getPeakHourStartTime())
+                .peakHourEndTime(fs.getPeakHourEndTime())
+                .peakHourRateHike(fs.getPeakHourRateHike())
+                .offPeakMinRateHike(fs.getOffPeakMinRateHike())
+                .ratePerKmHike(fs.getRatePerKmHike())
+                .minimumTime(fs.getMinimumTime())
+                .additionalTimeSlot(fs.getAdditionalTimeSlot())
+                .ratePerAdditionalTimeSlot(fs.getRatePerAdditionalTimeSlot())
+                .nightStartTime(fs.getNightStartTime())
+                .nightEndTime(fs.getNightEndTime())
+                .nightRateHike(fs.getNightRateHike())
+                .build();
+    }
+
     private LocalTime parseTime(String time) {
         if (time == null || time.isBlank())
             return null;
@@ -219,8 +300,38 @@ public class FareSchemeServiceImpl implements FareSchemeService {
                 .nightEndTime(fs.getNightEndTime())
                 .nightRateHike(fs.getNightRateHike())
                 .status(fs.getStatus())
+                .version(fs.getCurrentVersion())
                 .createdAt(fs.getCreatedAt())
                 .updatedAt(fs.getUpdatedAt())
                 .build();
     }
+
+    private FareSchemeResponse mapToResponse(FareSchemeVersion v) {
+        return FareSchemeResponse.builder()
+                .id(v.getFareSchemeId())
+                .fareCode(v.getFareCode())
+                .fareName(v.getFareName())
+                .vehicleClassId(v.getVehicleClassId())
+                .isMetered(v.getIsMetered())
+                .isPackage(v.getIsPackage())
+                .minimumDistance(v.getMinimumDistance())
+                .minimumRate(v.getMinimumRate())
+                .ratePerKm(v.getRatePerKm())
+                .freeWaitTime(v.getFreeWaitTime())
+                .waitingChargePerMin(v.getWaitingChargePerMin())
+                .peakHourStartTime(v.getPeakHourStartTime())
+                .peakHourEndTime(v.getPeakHourEndTime())
+                .peakHourRateHike(v.getPeakHourRateHike())
+                .offPeakMinRateHike(v.getOffPeakMinRateHike())
+                .ratePerKmHike(v.getRatePerKmHike())
+                .minimumTime(v.getMinimumTime())
+                .additionalTimeSlot(v.getAdditionalTimeSlot())
+                .ratePerAdditionalTimeSlot(v.getRatePerAdditionalTimeSlot())
+                .nightStartTime(v.getNightStartTime())
+                .nightEndTime(v.getNightEndTime())
+                .nightRateHike(v.getNightRateHike())
+                .version(v.getVersion())
+                .createdAt(v.getCreatedAt())
+                .build();
+    }
 }
\ No newline at end of file
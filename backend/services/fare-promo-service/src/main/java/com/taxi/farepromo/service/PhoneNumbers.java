@@ -0,0 +1,58 @@
+package com.taxi.farepromo.service;
+
+/**
+ * Phone number normalisation to E.164 ("+94771234567"), so numbers typed as
+ * "077 123 4567", "0094-77-1234567" or "+94 77 123 4567" compare equal. Same
+ * rules as booking-service, which keys customer_stats the same way.
+ */
+public final class PhoneNumbers {
+
+    // Length of a national number without trunk prefix (Sri Lanka: 9)
+    private static final int NATIONAL_NUMBER_DIGITS = 9;
+
+    private PhoneNumbers() {
+    }
+
+    /**
+     * E.164 form of a number, or null when it cannot be one. Numbers without an
+     * international prefix are taken as national numbers of defaultCountryCode;
+     * a leading 0 is the national trunk prefix.
+     */
+    public static String toE164(String raw, String defaultCountryCode) {
+        if (raw == null) {
+            return null;
+        }
+        String trimmed = raw.strip();
+        String digits = digitsOf(trimmed);
+        String international;
+        if (trimmed.startsWith("+")) {
+            international = digits;
+        } else if (digits.startsWith("00")) {
+            international = digits.substring(2);
+        } else if (digits.startsWith("0")) {
+            international = defaultCountryCode + digits.substring(1);
+        } else if (digits.startsWith(defaultCountryCode)
+                && digits.length() >= defaultCountryCode.length() + NATIONAL_NUMBER_DIGITS) {
+            // Country code typed without the '+'
+            international = digits;
+        } else {
+            international = defaultCountryCode + digits;
+        }
+        // E.164 allows at most 15 digits; anything under 8 is not a full number
+        if (international.length() < 8 || international.length() > 15 || international.startsWith("0")) {
+            return null;
+        }
+        return "+" + international;
+    }
+
+    public static String digitsOf(String text) {
+        StringBuilder digits = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+}
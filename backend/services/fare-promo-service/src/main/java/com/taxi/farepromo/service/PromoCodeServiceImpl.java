@@ -1,8 +1,10 @@
 package com.taxi.farepromo.service;
 
+import com.taxi.farepromo.client.BookingServiceClient;
 import com.taxi.farepromo.dto.request.PromoCodeCreateRequest;
 import com.taxi.farepromo.dto.request.PromoCodeUpdateRequest;
 import com.taxi.farepromo.dto.request.PromoCodeUsageRequest;
+import com.taxi.farepromo.dto.response.CustomerStatsResponse;
 import com.taxi.farepromo.dto.response.PromoCodeResponse;
 import com.taxi.farepromo.dto.response.PromoCodeUsageResponse;
 import com.taxi.farepromo.entity.PromoCode;
@@ -11,17 +13,26 @@ import com.taxi.farepromo.entity.PromoCodeVehicleClass;
 import com.taxi.farepromo.repository.PromoCodeRepository;
 import com.taxi.farepromo.repository.PromoCodeUsageRepository;
 import com.taxi.farepromo.repository.PromoCodeVehicleClassRepository;
+import feign.FeignException;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,6 +44,11 @@ public class PromoCodeServiceImpl implements PromoCodeService {
     private final PromoCodeRepository promoCodeRepository;
     private final PromoCodeVehicleClassRepository vehicleClassRepository;
     private final PromoCodeUsageRepository usageRepository;
+    private final BookingServiceClient bookingServiceClient;
+    private final PromoIndex promoIndex;
+
+    @Value("${fare.phone.default-country-code:94}")
+    private String defaultCountryCode;
 
     @Override
     public PromoCodeResponse createPromoCode(PromoCodeCreateRequest request) {
@@ -76,6 +92,7 @@ public class PromoCodeServiceImpl implements PromoCodeService {
             vehicleClassRepository.saveAll(associations);
         }
 
+        refreshPromoIndexAfterCommit();
         return mapToResponse(saved);
     }
 
@@ -96,31 +113,28 @@ public class PromoCodeServiceImpl implements PromoCodeService {
     @Override
     @Transactional(readOnly = true)
     public Page<PromoCodeResponse> getAllPromoCodes(Pageable pageable) {
-        return promoCodeRepository.findAll(pageable).map(this::mapToResponse);
+        return mapToResponses(promoCodeRepository.findAll(pageable));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<PromoCodeResponse> searchPromoCodes(String search, Boolean isActive, Pageable pageable) {
         if (isActive != null) {
-            return promoCodeRepository.searchPromoCodesWithFilter(search, isActive, pageable)
-                    .map(this::mapToResponse);
+            return mapToResponses(promoCodeRepository.searchPromoCodesWithFilter(search, isActive, pageable));
         }
-        return promoCodeRepository.searchPromoCodes(search, pageable).map(this::mapToResponse);
+        return mapToResponses(promoCodeRepository.searchPromoCodes(search, pageable));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<PromoCodeResponse> getActivePromoCodes() {
-        return promoCodeRepository.findByIsActiveTrue()
-                .stream().map(this::mapToResponse).collect(Collectors.toList());
+        return mapToResponses(promoCodeRepository.findByIsActiveTrue());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<PromoCodeResponse> getValidPromoCodes() {
-        return promoCodeRepository.findCurrentlyValidPromos(LocalDateTime.now())
-                .stream().map(this::mapToResponse).collect(Collectors.toList());
+        return mapToResponses(promoCodeRepository.findCurrentlyValidPromos(LocalDateTime.now()));
     }
 
     @Override
@@ -153,8 +167,12 @@ public class PromoCodeServiceImpl implements PromoCodeService {
             promoCode.setEndDate(request.getEndDate());
         if (request.getMaxUsage() != null)
             promoCode.setMaxUsage(request.getMaxUsage());
-        if (request.getMaxUsagePerCustomer() != null)
+        if (request.getMaxUsagePerCustomer() != null) {
             promoCode.setMaxUsagePerCustomer(request.getMaxUsagePerCustomer());
+            if (request.getMaxUsagePerCustomer() > 0) {
+                numberUsageSlots(id);
+            }
+        }
         if (request.getIsFirstTimeOnly() != null)
             promoCode.setIsFirstTimeOnly(request.getIsFirstTimeOnly());
         if (request.getMinimumHireCount() != null)
@@ -183,6 +201,7 @@ public class PromoCodeServiceImpl implements PromoCodeService {
             }
         }
 
+        refreshPromoIndexAfterCommit();
         return mapToResponse(promoCodeRepository.save(promoCode));
     }
 
@@ -190,12 +209,14 @@ public class PromoCodeServiceImpl implements PromoCodeService {
     public void deletePromoCode(Integer id) {
         PromoCode promoCode = findOrThrow(id);
         promoCodeRepository.delete(promoCode);
+        refreshPromoIndexAfterCommit();
     }
 
     @Override
     public PromoCodeResponse togglePromoCodeStatus(Integer id) {
         PromoCode promoCode = findOrThrow(id);
         promoCode.setIsActive(!promoCode.getIsActive());
+        refreshPromoIndexAfterCommit();
         return mapToResponse(promoCodeRepository.save(promoCode));
     }
 
@@ -205,32 +226,28 @@ public class PromoCodeServiceImpl implements PromoCodeService {
     public PromoCodeUsageResponse recordUsage(PromoCodeUsageRequest request) {
         PromoCode promoCode = findOrThrow(request.getPromoCodeId());
 
-        // Validate usage limits
+        // Cheap early rejection; the limit itself is enforced by incrementUsage below
         if (promoCode.getMaxUsage() > 0 && promoCode.getCurrentUsage() >= promoCode.getMaxUsage()) {
             throw new IllegalArgumentException("Promo code has reached maximum usage limit");
         }
 
-        if (promoCode.getMaxUsagePerCustomer() > 0) {
-            long customerUsage = usageRepository.countByPromoCodeIdAndContactNumber(
-                    promoCode.getId(), request.getContactNumber());
-            if (customerUsage >= promoCode.getMaxUsagePerCustomer()) {
-                throw new IllegalArgumentException("Customer has reached maximum usage for this promo code");
-            }
-        }
-
-        // Record usage
-        PromoCodeUsage usage = PromoCodeUsage.builder()
-                .promoCode(promoCode)
-                .contactNumber(request.getContactNumber())
-                .bookingId(request.getBookingId())
-                .discountApplied(request.getDiscountApplied())
-                .build();
+        String contactNumber = customerNumber(request.getContactNumber());
 
-        PromoCodeUsage saved = usageRepository.save(usage);
+        // Increment usage counter and discount total first. The update is
+        // conditional on the overall limit, so racing redemptions can never
+        // oversell it, and its row lock on the promo code queues them before
+        // the usage insert takes the foreign key's shared lock on that row;
+        // inserting first would let two redemptions deadlock on it.
+        int counted = promoCodeRepository.incrementUsage(promoCode.getId(),
+                request.getDiscountApplied() != null ? request.getDiscountApplied() : BigDecimal.ZERO);
+        if (counted == 0) {
+            throw new IllegalArgumentException("Promo code has reached maximum usage limit");
+        }
 
-        // Increment usage counter
-        promoCode.setCurrentUsage(promoCode.getCurrentUsage() + 1);
-        promoCodeRepository.save(promoCode);
+        // Record usage, within the per-customer limit; the increment rolls back
+        // with the exception when the customer is over it
+        PromoCodeUsage saved = claimUsage(promoCode, contactNumber, request);
+        promoIndex.recordUsageAfterCommit(promoCode.getCode(), promoCode.getId(), contactNumber);
 
         return mapUsageToResponse(saved);
     }
@@ -242,11 +259,17 @@ public class PromoCodeServiceImpl implements PromoCodeService {
         return usageRepository.findByPromoCodeId(promoCodeId, pageable).map(this::mapUsageToResponse);
     }
 
+    // Served from the promo index; only a per-customer usage cache miss reads
+    // the database, so no transaction is started
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public PromoCodeResponse validatePromoCode(String code, String contactNumber, Integer vehicleClassId) {
-        PromoCode promoCode = promoCodeRepository.findByCode(code)
-                .orElseThrow(() -> new EntityNotFoundException("Invalid promo code: " + code));
+        PromoIndex.Entry entry = promoIndex.get(code);
+        if (entry == null) {
+            throw new EntityNotFoundException("Invalid promo code: " + code);
+        }
+        PromoCodeResponse promoCode = entry.getPromo();
+        String number = contactNumber != null && !contactNumber.isBlank() ? customerNumber(contactNumber) : null;
 
         // Check if active
         if (!promoCode.getIsActive()) {
@@ -263,47 +286,232 @@ public class PromoCodeServiceImpl implements PromoCodeService {
         }
 
         // Check global usage limit
-        if (promoCode.getMaxUsage() > 0 && promoCode.getCurrentUsage() >= promoCode.getMaxUsage()) {
+        if (entry.isUsedUp()) {
             throw new IllegalArgumentException("Promo code has reached maximum usage");
         }
 
         // Check per-customer usage limit
-        if (promoCode.getMaxUsagePerCustomer() > 0 && contactNumber != null) {
-            long customerUsage = usageRepository.countByPromoCodeIdAndContactNumber(
-                    promoCode.getId(), contactNumber);
+        if (promoCode.getMaxUsagePerCustomer() > 0 && number != null) {
+            long customerUsage = promoIndex.customerUsage(promoCode.getId(), number);
             if (customerUsage >= promoCode.getMaxUsagePerCustomer()) {
                 throw new IllegalArgumentException("You have already used this promo code the maximum number of times");
             }
         }
 
+        // Check hire-history restrictions
+        checkHireCount(promoCode, number);
+
         // Check vehicle class restriction
-        if (vehicleClassId != null) {
-            List<PromoCodeVehicleClass> classRestrictions = vehicleClassRepository.findByPromoCodeId(promoCode.getId());
-            if (!classRestrictions.isEmpty()) {
-                boolean isApplicable = classRestrictions.stream()
-                        .anyMatch(vc -> vc.getVehicleClassId().equals(vehicleClassId));
-                if (!isApplicable) {
-                    throw new IllegalArgumentException("Promo code is not applicable for the selected vehicle class");
-                }
+        if (vehicleClassId != null && !entry.appliesTo(vehicleClassId)) {
+            throw new IllegalArgumentException("Promo code is not applicable for the selected vehicle class");
+        }
+
+        return promoCode;
+    }
+
+    /**
+     * Load every promo code into the promo index
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void refreshPromoIndex() {
+        Object[] fingerprint = promoCodeRepository.fingerprint().get(0);
+        promoIndex.rebuild(mapToResponses(promoCodeRepository.findAll()), fingerprint);
+    }
+
+    /**
+     * Reload the promo index when promos were changed through another
+     * instance, or just its usage when they were only redeemed
+     */
+    @Scheduled(fixedDelayString = "${fare.promo-index.refresh-interval-ms:10000}",
+            initialDelayString = "${fare.promo-index.refresh-interval-ms:10000}")
+    @Transactional(readOnly = true)
+    public void refreshPromoIndexIfChanged() {
+        try {
+            Object[] fingerprint = promoCodeRepository.fingerprint().get(0);
+            if (promoIndex.promosChanged(fingerprint)) {
+                promoIndex.rebuild(mapToResponses(promoCodeRepository.findAll()), fingerprint);
+            } else if (!promoIndex.isCurrent(fingerprint)) {
+                promoIndex.refreshUsage(promoCodeRepository.findUsage(), fingerprint);
             }
+        } catch (Exception e) {
+            log.warn("Failed to check promo codes for changes: {}", e.getMessage());
         }
+    }
 
-        return mapToResponse(promoCode);
+    /**
+     * Fill in total_discount_given for promo codes that predate it
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void fillMissingDiscountTotals() {
+        int filled = promoCodeRepository.fillMissingDiscountTotals();
+        if (filled > 0) {
+            log.info("Filled total discount given for {} promo codes", filled);
+        }
+    }
+
+    /**
+     * Bring usages recorded before per-customer limits were enforced by slot
+     * in line: contact numbers not yet in E.164 are normalised and renumbered,
+     * and usages without a slot get one, so they all count against the limit
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void numberMissingUsageSlots() {
+        List<PromoCodeUsage> renamed = new ArrayList<>();
+        for (PromoCodeUsage usage : usageRepository.findWithUnnormalisedContactNumber()) {
+            String number = PhoneNumbers.toE164(usage.getContactNumber(), defaultCountryCode);
+            if (number != null) {
+                usage.setContactNumber(number);
+                usage.setUsageSlot(null);
+                renamed.add(usage);
+            }
+        }
+        usageRepository.saveAllAndFlush(renamed);
+
+        List<Integer> promoCodeIds = usageRepository.findPromoCodeIdsWithUnslottedUsage();
+        promoCodeIds.forEach(this::numberUsageSlots);
+        if (!promoCodeIds.isEmpty()) {
+            log.info("Numbered usage slots for {} promo codes", promoCodeIds.size());
+        }
     }
 
     // ========== Helpers ==========
 
+    /**
+     * Rebuild the promo index once the current transaction commits
+     */
+    private void refreshPromoIndexAfterCommit() {
+        AfterCommit.run(this::refreshPromoIndex);
+    }
+
+    /**
+     * A customer's contact number in E.164, the form usages are keyed by
+     */
+    private String customerNumber(String contactNumber) {
+        String number = PhoneNumbers.toE164(contactNumber, defaultCountryCode);
+        if (number == null) {
+            throw new IllegalArgumentException("Invalid contact number: " + contactNumber);
+        }
+        return number;
+    }
+
+    /**
+     * Save the usage in the customer's next slot, 1..maxUsagePerCustomer. Runs
+     * after incrementUsage, whose lock on the promo code row serialises its
+     * redemptions, so the customer's count read here (a locking read, to see
+     * the latest commits) is exact; the unique (promo, contact, slot) key
+     * backs it up.
+     */
+    private PromoCodeUsage claimUsage(PromoCode promoCode, String contactNumber, PromoCodeUsageRequest request) {
+        int perCustomer = promoCode.getMaxUsagePerCustomer();
+        Integer slot = null;
+        if (perCustomer > 0) {
+            long used = usageRepository.countForUpdate(promoCode.getId(), contactNumber);
+            if (used >= perCustomer) {
+                throw new IllegalArgumentException("Customer has reached maximum usage for this promo code");
+            }
+            slot = (int) used + 1;
+        }
+        return usageRepository.save(PromoCodeUsage.builder()
+                .promoCode(promoCode)
+                .contactNumber(contactNumber)
+                .usageSlot(slot)
+                .bookingId(request.getBookingId())
+                .discountApplied(request.getDiscountApplied())
+                .build());
+    }
+
+    /**
+     * Number a promo code's unslotted usages per customer, after the slots
+     * each customer already holds
+     */
+    private void numberUsageSlots(Integer promoCodeId) {
+        List<PromoCodeUsage> unslotted = usageRepository.findByPromoCodeIdAndUsageSlotIsNullOrderByIdAsc(promoCodeId);
+        if (unslotted.isEmpty()) {
+            return;
+        }
+        Map<String, Integer> lastSlots = new HashMap<>();
+        for (Object[] row : usageRepository.findLastUsageSlots(promoCodeId)) {
+            lastSlots.put((String) row[0], (Integer) row[1]);
+        }
+        for (PromoCodeUsage usage : unslotted) {
+            usage.setUsageSlot(lastSlots.merge(usage.getContactNumber(), 1, Integer::sum));
+        }
+        usageRepository.saveAll(unslotted);
+    }
+
+    /**
+     * First-time-only and minimum/maximum completed hire restrictions, checked
+     * against the customer's totals kept by booking-service (cached briefly)
+     */
+    private void checkHireCount(PromoCodeResponse promoCode, String contactNumber) {
+        boolean firstTimeOnly = Boolean.TRUE.equals(promoCode.getIsFirstTimeOnly());
+        int minimumHires = promoCode.getMinimumHireCount() != null ? promoCode.getMinimumHireCount() : 0;
+        int maximumHires = promoCode.getMaxHireCount() != null ? promoCode.getMaxHireCount() : 0;
+        if (!firstTimeOnly && minimumHires <= 0 && maximumHires <= 0) {
+            return;
+        }
+        if (contactNumber == null || contactNumber.isBlank()) {
+            throw new IllegalArgumentException("A contact number is required for this promo code");
+        }
+
+        int completedHires;
+        try {
+            completedHires = promoIndex.completedHires(contactNumber,
+                    number -> bookingServiceClient.getCustomerStats(List.of(number)).stream()
+                            .findFirst()
+                            .map(CustomerStatsResponse::getCompletedCount)
+                            .orElse(0));
+        } catch (FeignException e) {
+            log.warn("Could not fetch hire count for promo {}: {}", promoCode.getCode(), e.getMessage());
+            throw new IllegalArgumentException("Promo code eligibility cannot be checked right now, please try again");
+        }
+
+        if (firstTimeOnly && completedHires > 0) {
+            throw new IllegalArgumentException("Promo code is only valid for a first hire");
+        }
+        if (minimumHires > 0 && completedHires < minimumHires) {
+            throw new IllegalArgumentException("Promo code requires at least " + minimumHires + " completed hires");
+        }
+        if (maximumHires > 0 && completedHires > maximumHires) {
+            throw new IllegalArgumentException("Promo code is only valid up to " + maximumHires + " completed hires");
+        }
+    }
+
     private PromoCode findOrThrow(Integer id) {
         return promoCodeRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Promo code not found with id: " + id));
     }
 
     private PromoCodeResponse mapToResponse(PromoCode pc) {
-        List<Integer> classIds = vehicleClassRepository.findByPromoCodeId(pc.getId())
-                .stream().map(PromoCodeVehicleClass::getVehicleClassId).collect(Collectors.toList());
+        return mapToResponses(List.of(pc)).get(0);
+    }
+
+    private Page<PromoCodeResponse> mapToResponses(Page<PromoCode> page) {
+        return new PageImpl<>(mapToResponses(page.getContent()), page.getPageable(), page.getTotalElements());
+    }
 
-        BigDecimal totalDiscount = usageRepository.sumDiscountByPromoCodeId(pc.getId());
+    /**
+     * Responses for a list of promo codes, loading all their vehicle classes
+     * in a single query
+     */
+    private List<PromoCodeResponse> mapToResponses(List<PromoCode> promoCodes) {
+        if (promoCodes.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, List<Integer>> classIdsByPromo = new HashMap<>();
+        List<Integer> ids = promoCodes.stream().map(PromoCode::getId).collect(Collectors.toList());
+        for (Object[] row : vehicleClassRepository.findVehicleClassIds(ids)) {
+            classIdsByPromo.computeIfAbsent((Integer) row[0], k -> new ArrayList<>()).add((Integer) row[1]);
+        }
+        return promoCodes.stream()
+                .map(pc -> mapToResponse(pc, classIdsByPromo.getOrDefault(pc.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
 
+    private PromoCodeResponse mapToResponse(PromoCode pc, List<Integer> classIds) {
         return PromoCodeResponse.builder()
                 .id(pc.getId())
                 .code(pc.getCode())
@@ -326,7 +534,7 @@ public class PromoCodeServiceImpl implements PromoCodeService {
                 .isActive(pc.getIsActive())
                 .createdBy(pc.getCreatedBy())
                 .vehicleClassIds(classIds)
-                .totalDiscountGiven(totalDiscount)
+                .totalDiscountGiven(pc.getTotalDiscountGiven() != null ? pc.getTotalDiscountGiven() : BigDecimal.ZERO)
                 .createdAt(pc.getCreatedAt())
                 .updatedAt(pc.getUpdatedAt())
                 .build();
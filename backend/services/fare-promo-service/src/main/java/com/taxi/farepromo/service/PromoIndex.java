@@ -0,0 +1,221 @@
+package com.taxi.farepromo.service;
+
+import com.taxi.farepromo.dto.response.PromoCodeResponse;
+import com.taxi.farepromo.repository.PromoCodeUsageRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToIntFunction;
+
+/**
+ * Every promo code held in memory by code, so validation does not query the
+ * database for the promo itself.
+ *
+ * The index is an immutable Snapshot swapped whole by PromoCodeServiceImpl
+ * after a promo change commits, and whenever the promo count or latest
+ * update differ from the snapshot's (changes made through another instance).
+ * When only the total usage moved (redemptions), the entries' usage is
+ * refreshed in place instead, so a busy campaign does not rebuild the index
+ * every interval. Between refreshes, redemptions made here are added to
+ * their entry. Per-customer usage counts are read through an LRU whose
+ * entries are dropped after a local redemption and expire after
+ * customer-usage-ttl-seconds; completed hire counts from booking-service
+ * are cached the same way for hire-count-ttl-seconds. All of this only
+ * answers validation; the limits themselves are enforced by recordUsage.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PromoIndex {
+
+    private final PromoCodeUsageRepository usageRepository;
+
+    @Value("${fare.promo-index.customer-usage-cache-size:50000}")
+    private int cacheSize;
+
+    @Value("${fare.promo-index.customer-usage-ttl-seconds:60}")
+    private long cacheTtlSeconds;
+
+    @Value("${fare.promo-index.hire-count-ttl-seconds:30}")
+    private long hireCountTtlSeconds;
+
+    private Map<String, CachedCount> customerUsage;
+    private Map<String, CachedCount> completedHires;
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Map.of(), 0, null, 0);
+
+    @PostConstruct
+    void init() {
+        customerUsage = lru(cacheSize);
+        completedHires = lru(cacheSize);
+    }
+
+    /**
+     * The promo with this code, matched case-insensitively like the code column
+     */
+    public Entry get(String code) {
+        return code != null ? snapshot.byCode().get(normalize(code)) : null;
+    }
+
+    /**
+     * Replace the index; fingerprint is [count, latest updatedAt, total usage]
+     * as read before the promos were
+     */
+    public synchronized void rebuild(List<PromoCodeResponse> promos, Object[] fingerprint) {
+        Map<String, Entry> byCode = new HashMap<>();
+        Map<Integer, Entry> byId = new HashMap<>();
+        for (PromoCodeResponse promo : promos) {
+            Entry entry = new Entry(promo);
+            byCode.put(normalize(promo.getCode()), entry);
+            byId.put(promo.getId(), entry);
+        }
+        snapshot = new Snapshot(Map.copyOf(byCode), Map.copyOf(byId), ((Number) fingerprint[0]).longValue(),
+                (LocalDateTime) fingerprint[1], ((Number) fingerprint[2]).longValue());
+        log.info("Promo index rebuilt: {} promo codes", byCode.size());
+    }
+
+    /**
+     * Whether the index was built from promos with this fingerprint
+     */
+    public boolean isCurrent(Object[] fingerprint) {
+        return !promosChanged(fingerprint) && ((Number) fingerprint[2]).longValue() == snapshot.usage();
+    }
+
+    /**
+     * Whether promos were added, removed or edited since the index was built;
+     * redemptions do not touch updatedAt, so they alone never count
+     */
+    public boolean promosChanged(Object[] fingerprint) {
+        Snapshot current = snapshot;
+        return ((Number) fingerprint[0]).longValue() != current.count()
+                || !Objects.equals(fingerprint[1], current.lastUpdated());
+    }
+
+    /**
+     * Take each promo's usage from rows of [id, currentUsage] read after the
+     * fingerprint, replacing the redemptions counted here since. Ignored when
+     * the promos themselves changed in the meantime; the next check rebuilds.
+     */
+    public synchronized void refreshUsage(List<Object[]> usage, Object[] fingerprint) {
+        if (promosChanged(fingerprint)) {
+            return;
+        }
+        Snapshot current = snapshot;
+        for (Object[] row : usage) {
+            Entry entry = current.byId().get(((Number) row[0]).intValue());
+            if (entry != null) {
+                entry.usage = row[1] != null ? ((Number) row[1]).intValue() : 0;
+                entry.redeemed.set(0);
+            }
+        }
+        snapshot = new Snapshot(current.byCode(), current.byId(), current.count(), current.lastUpdated(),
+                ((Number) fingerprint[2]).longValue());
+        log.debug("Promo index usage refreshed: {} promo codes", usage.size());
+    }
+
+    /**
+     * How many times a customer has used a promo code
+     */
+    public long customerUsage(Integer promoCodeId, String contactNumber) {
+        String key = promoCodeId + ":" + contactNumber;
+        long now = System.currentTimeMillis();
+        CachedCount cached = customerUsage.get(key);
+        if (cached != null && cached.expiresAtMillis() > now) {
+            return cached.count();
+        }
+        long count = usageRepository.countByPromoCodeIdAndContactNumber(promoCodeId, contactNumber);
+        customerUsage.put(key, new CachedCount(count, now + cacheTtlSeconds * 1000));
+        return count;
+    }
+
+    /**
+     * A customer's completed hires, fetched through loader when not cached;
+     * a failed fetch is not cached
+     */
+    public int completedHires(String contactNumber, ToIntFunction<String> loader) {
+        long now = System.currentTimeMillis();
+        CachedCount cached = completedHires.get(contactNumber);
+        if (cached != null && cached.expiresAtMillis() > now) {
+            return (int) cached.count();
+        }
+        int count = loader.applyAsInt(contactNumber);
+        completedHires.put(contactNumber, new CachedCount(count, now + hireCountTtlSeconds * 1000));
+        return count;
+    }
+
+    /**
+     * Count a redemption in the index once the current transaction commits
+     */
+    public void recordUsageAfterCommit(String code, Integer promoCodeId, String contactNumber) {
+        Runnable update = () -> {
+            Entry entry = get(code);
+            if (entry != null) {
+                entry.redeemed.incrementAndGet();
+            }
+            customerUsage.remove(promoCodeId + ":" + contactNumber);
+        };
+        AfterCommit.run(update);
+    }
+
+    private static String normalize(String code) {
+        return code.strip().toUpperCase(Locale.ROOT);
+    }
+
+    private static Map<String, CachedCount> lru(int maxSize) {
+        return Collections.synchronizedMap(new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedCount> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    /**
+     * One promo code; vehicleClasses is null when it applies to every class
+     */
+    public static final class Entry {
+
+        private final PromoCodeResponse promo;
+        private final BitSet vehicleClasses;
+        private final AtomicInteger redeemed = new AtomicInteger();
+        private volatile int usage;
+
+        private Entry(PromoCodeResponse promo) {
+            this.promo = promo;
+            this.usage = promo.getCurrentUsage() != null ? promo.getCurrentUsage() : 0;
+            if (promo.getVehicleClassIds() == null || promo.getVehicleClassIds().isEmpty()) {
+                vehicleClasses = null;
+            } else {
+                vehicleClasses = new BitSet();
+                promo.getVehicleClassIds().forEach(vehicleClasses::set);
+            }
+        }
+
+        /**
+         * The promo as of the last rebuild; shared, so never modify it
+         */
+        public PromoCodeResponse getPromo() {
+            return promo;
+        }
+
+        public boolean appliesTo(int vehicleClassId) {
+            return vehicleClasses == null || (vehicleClassId >= 0 && vehicleClasses.get(vehicleClassId));
+        }
+
+        public boolean isUsedUp() {
+            int maxUsage = promo.getMaxUsage() != null ? promo.getMaxUsage() : 0;
+            return maxUsage > 0 && usage + redeemed.get() >= maxUsage;
+        }
+    }
+
+    private record Snapshot(Map<String, Entry> byCode, Map<Integer, Entry> byId, long count, LocalDateTime lastUpdated, long usage) {
+    }
+
+    private record CachedCount(long count, long expiresAtMillis) {
+    }
+}
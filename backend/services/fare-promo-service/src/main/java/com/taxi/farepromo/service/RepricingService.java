@@ -0,0 +1,9 @@
+package com.taxi.farepromo.service;
+
+import com.taxi.farepromo.dto.request.RepricingRequest;
+import com.taxi.farepromo.dto.response.RepricingResponse;
+
+public interface RepricingService {
+
+    RepricingResponse reprice(RepricingRequest request);
+}
@@ -0,0 +1,283 @@
+package com.taxi.farepromo.service;
+
+import com.taxi.farepromo.client.BookingServiceClient;
+import com.taxi.farepromo.dto.request.RepricingRequest;
+import com.taxi.farepromo.dto.response.CompletedTripBatchResponse;
+import com.taxi.farepromo.dto.response.RepricingResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * What-if re-pricing of completed trips with proposed fare schemes.
+ *
+ * Trips are read from booking-service a page at a time, as primitive arrays,
+ * and each page is priced in parallel on a fork/join pool: every trip once
+ * with the scheme version it ran under and once with its class's candidate.
+ * Only one page and the running totals are held, so memory does not grow with
+ * the number of trips.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RepricingServiceImpl implements RepricingService {
+
+    private final BookingServiceClient bookingServiceClient;
+    private final FareEngine fareEngine;
+
+    @Value("${fare.repricing.page-size:5000}")
+    private int pageSize;
+
+    @Value("${fare.repricing.parallelism:0}")
+    private int parallelism;
+
+    @Value("${fare.repricing.split-threshold:1024}")
+    private int splitThreshold;
+
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    void init() {
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Override
+    public RepricingResponse reprice(RepricingRequest request) {
+        if (request.getEndDate().isBefore(request.getStartDate())) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        Map<Integer, CompiledFare> candidates = candidatesByVehicleClass(request.getCandidateFareSchemeIds());
+
+        long started = System.currentTimeMillis();
+        Map<Long, CompiledFare> schemeVersions = new HashMap<>();
+        Totals totals = new Totals();
+        int afterId = 0;
+        Integer next;
+        do {
+            CompletedTripBatchResponse batch = bookingServiceClient.getCompletedTripFigures(
+                    request.getStartDate(), request.getEndDate(), afterId, pageSize);
+            Page page = new Page(batch, candidates, schemeVersions);
+            totals.merge(pool.invoke(new PriceTask(page, 0, page.size)));
+            next = batch.getNextAfterId();
+            if (next != null) {
+                afterId = next;
+            }
+        } while (next != null);
+
+        long elapsed = System.currentTimeMillis() - started;
+        log.info("Re-priced {} trips ({} skipped) from {} to {} in {} ms", totals.all.trips, totals.skipped,
+                request.getStartDate(), request.getEndDate(), elapsed);
+
+        return RepricingResponse.builder()
+                .startDate(request.getStartDate())
+                .endDate(request.getEndDate())
+                .candidateFareSchemeIds(request.getCandidateFareSchemeIds())
+                .tripsRepriced(totals.all.trips)
+                .tripsSkipped(totals.skipped)
+                .elapsedMillis(elapsed)
+                .total(toGroup(null, totals.all))
+                .byVehicleClass(toGroups(totals.byVehicleClass, 0))
+                .byHourOfDay(toGroups(totals.byHour, -1))
+                .byCorporate(toGroups(totals.byCorporate, 0))
+                .build();
+    }
+
+    // ========== Helpers ==========
+
+    private Map<Integer, CompiledFare> candidatesByVehicleClass(List<Integer> fareSchemeIds) {
+        FareEngine.Snapshot snapshot = fareEngine.getSnapshot();
+        Map<Integer, CompiledFare> candidates = new HashMap<>();
+        for (Integer id : fareSchemeIds) {
+            CompiledFare fare = snapshot.current().get(id);
+            if (fare == null) {
+                throw new IllegalArgumentException("Fare scheme not found with id: " + id);
+            }
+            if (fare.getVehicleClassId() == null) {
+                throw new IllegalArgumentException("Fare scheme " + fare.getFareCode() + " has no vehicle class");
+            }
+            if (candidates.putIfAbsent(fare.getVehicleClassId(), fare) != null) {
+                throw new IllegalArgumentException(
+                        "More than one candidate fare scheme for vehicle class " + fare.getVehicleClassId());
+            }
+        }
+        return candidates;
+    }
+
+    private List<RepricingResponse.Group> toGroups(Map<Integer, Sum> sums, int noKey) {
+        return sums.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(e -> toGroup(e.getKey() == noKey ? null : e.getKey(), e.getValue()))
+                .toList();
+    }
+
+    private RepricingResponse.Group toGroup(Integer key, Sum sum) {
+        BigDecimal current = BigDecimal.valueOf(sum.currentCents, 2);
+        BigDecimal candidate = BigDecimal.valueOf(sum.candidateCents, 2);
+        BigDecimal delta = candidate.subtract(current);
+        return RepricingResponse.Group.builder()
+                .key(key)
+                .trips(sum.trips)
+                .charged(BigDecimal.valueOf(sum.chargedCents, 2))
+                .current(current)
+                .candidate(candidate)
+                .delta(delta)
+                .deltaPercent(current.signum() != 0
+                        ? delta.multiply(BigDecimal.valueOf(100)).divide(current, 2, RoundingMode.HALF_UP)
+                        : null)
+                .build();
+    }
+
+    /**
+     * A page of trips with each trip's current and candidate fare resolved
+     */
+    private final class Page {
+
+        final int size;
+        final CompletedTripBatchResponse trips;
+        final CompiledFare[] current;
+        final CompiledFare[] candidate;
+
+        Page(CompletedTripBatchResponse trips, Map<Integer, CompiledFare> candidates,
+                Map<Long, CompiledFare> schemeVersions) {
+            this.trips = trips;
+            size = trips.getBookingIds() != null ? trips.getBookingIds().length : 0;
+            current = new CompiledFare[size];
+            candidate = new CompiledFare[size];
+            for (int i = 0; i < size; i++) {
+                current[i] = schemeVersion(trips.getFareSchemeIds()[i], trips.getFareSchemeVersions()[i],
+                        schemeVersions);
+                candidate[i] = candidates.get(trips.getVehicleClassIds()[i]);
+            }
+        }
+
+        /**
+         * The version a trip ran under; bookings from before versioning use the
+         * scheme's current version
+         */
+        private CompiledFare schemeVersion(int fareSchemeId, int version, Map<Long, CompiledFare> schemeVersions) {
+            if (fareSchemeId == 0) {
+                return null;
+            }
+            long key = ((long) fareSchemeId << 32) | version;
+            if (schemeVersions.containsKey(key)) {
+                return schemeVersions.get(key);
+            }
+            CompiledFare fare;
+            try {
+                fare = version != 0
+                        ? fareEngine.getVersion(fareSchemeId, version)
+                        : fareEngine.getSnapshot().current().get(fareSchemeId);
+            } catch (RuntimeException e) {
+                log.warn("Cannot re-price trips of fare scheme {} v{}: {}", fareSchemeId, version, e.getMessage());
+                fare = null;
+            }
+            schemeVersions.put(key, fare);
+            return fare;
+        }
+    }
+
+    private final class PriceTask extends RecursiveTask<Totals> {
+
+        private final Page page;
+        private final int from;
+        private final int to;
+
+        PriceTask(Page page, int from, int to) {
+            this.page = page;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (to - from > splitThreshold) {
+                int mid = (from + to) >>> 1;
+                PriceTask left = new PriceTask(page, from, mid);
+                left.fork();
+                Totals totals = new PriceTask(page, mid, to).compute();
+                totals.merge(left.join());
+                return totals;
+            }
+            CompletedTripBatchResponse trips = page.trips;
+            long[] distance = trips.getDistanceCentiKm();
+            int[] duration = trips.getDurationMinutes();
+            int[] wait = trips.getWaitMinutes();
+            int[] start = trips.getStartSecondOfDay();
+            Totals totals = new Totals();
+            for (int i = from; i < to; i++) {
+                CompiledFare current = page.current[i];
+                CompiledFare candidate = page.candidate[i];
+                if (current == null || candidate == null) {
+                    totals.skipped++;
+                    continue;
+                }
+                // Each trip is charged to the cent, so round before summing
+                long before = CompiledFare.toCents(current.total(distance[i], duration[i], wait[i], start[i]));
+                long after = CompiledFare.toCents(candidate.total(distance[i], duration[i], wait[i], start[i]));
+                totals.add(trips.getVehicleClassIds()[i], start[i] >= 0 ? start[i] / 3600 : -1,
+                        trips.getCorporateIds()[i], trips.getFareCents()[i], before, after);
+            }
+            return totals;
+        }
+    }
+
+    private static final class Totals {
+
+        final Sum all = new Sum();
+        final Map<Integer, Sum> byVehicleClass = new HashMap<>();
+        final Map<Integer, Sum> byHour = new HashMap<>();
+        final Map<Integer, Sum> byCorporate = new HashMap<>();
+        long skipped;
+
+        void add(int vehicleClassId, int hour, int corporateId, long chargedCents, long current, long candidate) {
+            all.add(1, chargedCents, current, candidate);
+            byVehicleClass.computeIfAbsent(vehicleClassId, k -> new Sum()).add(1, chargedCents, current, candidate);
+            byHour.computeIfAbsent(hour, k -> new Sum()).add(1, chargedCents, current, candidate);
+            byCorporate.computeIfAbsent(corporateId, k -> new Sum()).add(1, chargedCents, current, candidate);
+        }
+
+        void merge(Totals other) {
+            all.merge(other.all);
+            other.byVehicleClass.forEach((k, s) -> byVehicleClass.computeIfAbsent(k, x -> new Sum()).merge(s));
+            other.byHour.forEach((k, s) -> byHour.computeIfAbsent(k, x -> new Sum()).merge(s));
+            other.byCorporate.forEach((k, s) -> byCorporate.computeIfAbsent(k, x -> new Sum()).merge(s));
+            skipped += other.skipped;
+        }
+    }
+
+    /**
+     * Running totals in cents
+     */
+    private static final class Sum {
+
+        long trips;
+        long chargedCents;
+        long currentCents;
+        long candidateCents;
+
+        void add(long trips, long chargedCents, long currentCents, long candidateCents) {
+            this.trips += trips;
+            this.chargedCents += chargedCents;
+            this.currentCents += currentCents;
+            this.candidateCents += candidateCents;
+        }
+
+        void merge(Sum other) {
+            add(other.trips, other.chargedCents, other.currentCents, other.candidateCents);
+        }
+    }
+}
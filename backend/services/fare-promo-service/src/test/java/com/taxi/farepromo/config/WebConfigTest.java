@@ -0,0 +1,50 @@
+package com.taxi.farepromo.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.http.converter.autoconfigure.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.jackson.autoconfigure.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.boot.webmvc.autoconfigure.WebMvcAutoConfiguration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.json.JacksonJsonHttpMessageConverter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WebConfigTest {
+
+    @Test
+    void servesCborWithBootsMapperAfterJson() {
+        new WebApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(JacksonAutoConfiguration.class,
+                        HttpMessageConvertersAutoConfiguration.class, WebMvcAutoConfiguration.class))
+                .withUserConfiguration(WebConfig.class)
+                .run(context -> {
+                    List<HttpMessageConverter<?>> converters =
+                            context.getBean(RequestMappingHandlerAdapter.class).getMessageConverters();
+
+                    int json = indexOf(converters, JacksonJsonHttpMessageConverter.class);
+                    int cbor = indexOf(converters, JacksonCborHttpMessageConverter.class);
+                    assertThat(json).isNotNegative();
+                    assertThat(cbor).isGreaterThan(json);
+                    assertThat(((JacksonCborHttpMessageConverter) converters.get(cbor)).getMapper())
+                            .isSameAs(context.getBean(CBORMapper.class));
+                });
+    }
+
+    // ==================== PRIVATE HELPER METHODS ====================
+
+    private static int indexOf(List<HttpMessageConverter<?>> converters, Class<?> type) {
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i).getClass() == type) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
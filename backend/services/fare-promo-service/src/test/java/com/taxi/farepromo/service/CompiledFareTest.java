@@ -0,0 +1,229 @@
+package com.taxi.farepromo.service;
+
+import com.taxi.farepromo.entity.FareSchemeVersion;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalTime;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * CompiledFare must price exactly like the fare rules written out step by step
+ * in BigDecimal, as the trip meter priced trips before it used the quote endpoint.
+ */
+class CompiledFareTest {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    @Test
+    void matchesMeterOnRandomSchemesAndTrips() {
+        Random random = new Random(20240611L);
+        for (int i = 0; i < 20_000; i++) {
+            FareSchemeVersion scheme = randomScheme(random);
+            CompiledFare fare = CompiledFare.compile(scheme);
+            for (int j = 0; j < 5; j++) {
+                BigDecimal distanceKm = BigDecimal.valueOf(random.nextInt(20_000), 2);
+                int durationMinutes = random.nextInt(300);
+                int waitMinutes = random.nextInt(60);
+                LocalTime start = random.nextInt(10) == 0 ? null : LocalTime.ofSecondOfDay(random.nextInt(86_400));
+
+                assertQuoteMatches(scheme, fare, distanceKm, durationMinutes, waitMinutes, start);
+            }
+        }
+    }
+
+    @Test
+    void roundsSurgeToCentsLikeTheMeter() {
+        // 100.00 + 1.23 km × 33.33 = 140.9959; 7.5% of it is 10.5746925 → 10.57
+        FareSchemeVersion scheme = scheme(new BigDecimal("100.00"), new BigDecimal("33.33"))
+                .peakHourStartTime(LocalTime.of(7, 0))
+                .peakHourEndTime(LocalTime.of(9, 0))
+                .peakHourRateHike(new BigDecimal("7.50"))
+                .build();
+        CompiledFare fare = CompiledFare.compile(scheme);
+
+        CompiledFare.Quote quote = fare.quote(223, 10, 0, LocalTime.of(8, 0).toSecondOfDay());
+
+        assertThat(quote.surge()).isEqualTo(CompiledFare.PEAK_SURGE);
+        assertThat(CompiledFare.toMoney(quote.surgeFee())).isEqualByComparingTo("10.57");
+        assertQuoteMatches(scheme, fare, new BigDecimal("2.23"), 10, 0, LocalTime.of(8, 0));
+    }
+
+    @Test
+    void nightWindowWrapsPastMidnight() {
+        FareSchemeVersion scheme = scheme(new BigDecimal("100.00"), new BigDecimal("50.00"))
+                .nightStartTime(LocalTime.of(22, 0))
+                .nightEndTime(LocalTime.of(5, 0))
+                .nightRateHike(new BigDecimal("25.00"))
+                .build();
+        CompiledFare fare = CompiledFare.compile(scheme);
+
+        assertThat(fare.quote(500, 0, 0, LocalTime.of(23, 30).toSecondOfDay()).surge())
+                .isEqualTo(CompiledFare.NIGHT_SURGE);
+        assertThat(fare.quote(500, 0, 0, LocalTime.of(2, 0).toSecondOfDay()).surge())
+                .isEqualTo(CompiledFare.NIGHT_SURGE);
+        assertThat(fare.quote(500, 0, 0, LocalTime.of(5, 0).toSecondOfDay()).surge())
+                .isEqualTo(CompiledFare.NO_SURGE);
+        assertThat(fare.quote(500, 0, 0, LocalTime.of(21, 59, 59).toSecondOfDay()).surge())
+                .isEqualTo(CompiledFare.NO_SURGE);
+        for (LocalTime start : new LocalTime[] { LocalTime.of(23, 30), LocalTime.of(2, 0), LocalTime.of(5, 0),
+                LocalTime.MIDNIGHT }) {
+            assertQuoteMatches(scheme, fare, new BigDecimal("5.00"), 0, 0, start);
+        }
+    }
+
+    @Test
+    void nightSurgeTakesPrecedenceOverPeak() {
+        FareSchemeVersion scheme = scheme(new BigDecimal("100.00"), new BigDecimal("50.00"))
+                .nightStartTime(LocalTime.of(18, 0))
+                .nightEndTime(LocalTime.of(6, 0))
+                .nightRateHike(new BigDecimal("20.00"))
+                .peakHourStartTime(LocalTime.of(17, 0))
+                .peakHourEndTime(LocalTime.of(19, 0))
+                .peakHourRateHike(new BigDecimal("10.00"))
+                .build();
+        CompiledFare fare = CompiledFare.compile(scheme);
+
+        assertThat(fare.quote(0, 0, 0, LocalTime.of(18, 30).toSecondOfDay()).surge())
+                .isEqualTo(CompiledFare.NIGHT_SURGE);
+        assertThat(fare.quote(0, 0, 0, LocalTime.of(17, 30).toSecondOfDay()).surge())
+                .isEqualTo(CompiledFare.PEAK_SURGE);
+    }
+
+    @Test
+    void roundsToCentsHalfUpLikeToMoney() {
+        Random random = new Random(7);
+        for (int i = 0; i < 10_000; i++) {
+            long units = random.nextInt(100_000_000);
+            assertThat(CompiledFare.toCents(units))
+                    .isEqualTo(BigDecimal.valueOf(units, CompiledFare.SCALE).setScale(2, RoundingMode.HALF_UP)
+                            .unscaledValue().longValueExact());
+        }
+        assertThat(CompiledFare.toCents(1_234_550)).isEqualTo(12_346);
+        assertThat(CompiledFare.toCents(1_234_549)).isEqualTo(12_345);
+    }
+
+    // ========== Helpers ==========
+
+    private static void assertQuoteMatches(FareSchemeVersion scheme, CompiledFare fare, BigDecimal distanceKm,
+            int durationMinutes, int waitMinutes, LocalTime start) {
+        CompiledFare.Quote quote = fare.quote(distanceKm.unscaledValue().longValueExact(), durationMinutes,
+                waitMinutes, start != null ? start.toSecondOfDay() : -1);
+        MeterFare expected = meterPrice(scheme, distanceKm, waitMinutes, durationMinutes, start);
+
+        String trip = "scheme " + scheme.getFareSchemeId() + ", " + distanceKm + " km, " + durationMinutes
+                + " min, wait " + waitMinutes + ", start " + start;
+        assertThat(CompiledFare.toMoney(quote.baseFare())).as(trip).isEqualTo(expected.baseFare());
+        assertThat(CompiledFare.toMoney(quote.distanceFare())).as(trip).isEqualTo(expected.distanceFare());
+        assertThat(CompiledFare.toMoney(quote.timeFare())).as(trip).isEqualTo(expected.timeFare());
+        assertThat(quote.billedWaitMinutes()).as(trip).isEqualTo(expected.billedWaitMinutes());
+        assertThat(CompiledFare.toMoney(quote.waitingFee())).as(trip).isEqualTo(expected.waitingFee());
+        assertThat(CompiledFare.toMoney(quote.surgeFee())).as(trip).isEqualTo(expected.surgeFee());
+        assertThat(CompiledFare.toMoney(quote.totalFare())).as(trip).isEqualTo(expected.totalFare());
+        assertThat(fare.total(distanceKm.unscaledValue().longValueExact(), durationMinutes, waitMinutes,
+                start != null ? start.toSecondOfDay() : -1)).as(trip).isEqualTo(quote.totalFare());
+    }
+
+    /**
+     * The fare rules in BigDecimal, without the discount
+     */
+    private static MeterFare meterPrice(FareSchemeVersion scheme, BigDecimal distanceKm, int waitMinutes,
+            int durationMinutes, LocalTime start) {
+        BigDecimal baseFare = orZero(scheme.getMinimumRate());
+        BigDecimal chargeableKm = distanceKm.subtract(orZero(scheme.getMinimumDistance())).max(BigDecimal.ZERO);
+        BigDecimal distanceFare = chargeableKm.multiply(orZero(scheme.getRatePerKm()));
+
+        BigDecimal timeFare = BigDecimal.ZERO;
+        if (Boolean.TRUE.equals(scheme.getIsPackage()) && scheme.getAdditionalTimeSlot() != null
+                && scheme.getAdditionalTimeSlot() > 0) {
+            int extraMinutes = Math.max(0, durationMinutes
+                    - (scheme.getMinimumTime() != null ? scheme.getMinimumTime() : 0));
+            int slots = (extraMinutes + scheme.getAdditionalTimeSlot() - 1) / scheme.getAdditionalTimeSlot();
+            timeFare = orZero(scheme.getRatePerAdditionalTimeSlot()).multiply(BigDecimal.valueOf(slots));
+        }
+
+        int billedWait = Math.max(0, waitMinutes
+                - (scheme.getFreeWaitTime() != null ? scheme.getFreeWaitTime() : 0));
+        BigDecimal waitingFee = orZero(scheme.getWaitingChargePerMin()).multiply(BigDecimal.valueOf(billedWait));
+
+        BigDecimal hike = BigDecimal.ZERO;
+        if (within(start, scheme.getNightStartTime(), scheme.getNightEndTime())) {
+            hike = orZero(scheme.getNightRateHike());
+        } else if (within(start, scheme.getPeakHourStartTime(), scheme.getPeakHourEndTime())) {
+            hike = orZero(scheme.getPeakHourRateHike());
+        }
+        BigDecimal surgeFee = baseFare.add(distanceFare).multiply(hike).divide(HUNDRED, 2, RoundingMode.HALF_UP);
+
+        BigDecimal total = baseFare.add(distanceFare).add(timeFare).add(waitingFee).add(surgeFee);
+        return new MeterFare(scale(baseFare), scale(distanceFare), scale(timeFare), billedWait,
+                scale(waitingFee), scale(surgeFee), scale(total));
+    }
+
+    private static boolean within(LocalTime time, LocalTime from, LocalTime to) {
+        if (time == null || from == null || to == null) {
+            return false;
+        }
+        return from.isBefore(to)
+                ? !time.isBefore(from) && time.isBefore(to)
+                : !time.isBefore(from) || time.isBefore(to);
+    }
+
+    private static FareSchemeVersion randomScheme(Random random) {
+        FareSchemeVersion.FareSchemeVersionBuilder scheme = scheme(money(random, 50_000), money(random, 20_000))
+                .fareSchemeId(random.nextInt(1000))
+                .minimumDistance(BigDecimal.valueOf(random.nextInt(1000), 2))
+                .freeWaitTime(random.nextBoolean() ? random.nextInt(15) : null)
+                .waitingChargePerMin(random.nextBoolean() ? money(random, 2_000) : null);
+        if (random.nextBoolean()) {
+            scheme.isPackage(true)
+                    .minimumTime(random.nextInt(120))
+                    .additionalTimeSlot(random.nextInt(4) == 0 ? 0 : 1 + random.nextInt(60))
+                    .ratePerAdditionalTimeSlot(money(random, 50_000));
+        }
+        if (random.nextBoolean()) {
+            scheme.nightStartTime(randomTime(random))
+                    .nightEndTime(randomTime(random))
+                    .nightRateHike(BigDecimal.valueOf(random.nextInt(10_000), 2));
+        }
+        if (random.nextBoolean()) {
+            scheme.peakHourStartTime(randomTime(random))
+                    .peakHourEndTime(randomTime(random))
+                    .peakHourRateHike(BigDecimal.valueOf(random.nextInt(10_000), 2));
+        }
+        return scheme.build();
+    }
+
+    private static FareSchemeVersion.FareSchemeVersionBuilder scheme(BigDecimal minimumRate, BigDecimal ratePerKm) {
+        return FareSchemeVersion.builder()
+                .fareSchemeId(1)
+                .version(1)
+                .fareCode("TEST")
+                .isPackage(false)
+                .minimumDistance(new BigDecimal("1.00"))
+                .minimumRate(minimumRate)
+                .ratePerKm(ratePerKm);
+    }
+
+    private static BigDecimal money(Random random, int maxCents) {
+        return BigDecimal.valueOf(random.nextInt(maxCents), 2);
+    }
+
+    private static LocalTime randomTime(Random random) {
+        return LocalTime.of(random.nextInt(24), random.nextInt(4) * 15);
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    private static BigDecimal scale(BigDecimal value) {
+        return value.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private record MeterFare(BigDecimal baseFare, BigDecimal distanceFare, BigDecimal timeFare,
+            int billedWaitMinutes, BigDecimal waitingFee, BigDecimal surgeFee, BigDecimal totalFare) {
+    }
+}
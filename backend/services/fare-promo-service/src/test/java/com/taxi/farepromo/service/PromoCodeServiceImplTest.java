@@ -0,0 +1,124 @@
+package com.taxi.farepromo.service;
+
+import com.taxi.farepromo.client.BookingServiceClient;
+import com.taxi.farepromo.dto.request.PromoCodeUsageRequest;
+import com.taxi.farepromo.entity.PromoCode;
+import com.taxi.farepromo.entity.PromoCodeUsage;
+import com.taxi.farepromo.repository.PromoCodeRepository;
+import com.taxi.farepromo.repository.PromoCodeUsageRepository;
+import com.taxi.farepromo.repository.PromoCodeVehicleClassRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Slot-based redemption in recordUsage
+ */
+class PromoCodeServiceImplTest {
+
+    private static final String NUMBER = "+94771234567";
+
+    private final PromoCodeRepository promoCodeRepository = mock(PromoCodeRepository.class);
+    private final PromoCodeUsageRepository usageRepository = mock(PromoCodeUsageRepository.class);
+    private final PromoIndex promoIndex = mock(PromoIndex.class);
+
+    private PromoCodeServiceImpl service;
+    private PromoCode promoCode;
+
+    @BeforeEach
+    void setUp() {
+        service = new PromoCodeServiceImpl(promoCodeRepository, mock(PromoCodeVehicleClassRepository.class),
+                usageRepository, mock(BookingServiceClient.class), promoIndex);
+        ReflectionTestUtils.setField(service, "defaultCountryCode", "94");
+
+        promoCode = PromoCode.builder()
+                .id(7)
+                .code("FLASH")
+                .maxUsage(100)
+                .currentUsage(10)
+                .maxUsagePerCustomer(2)
+                .build();
+        when(promoCodeRepository.findById(7)).thenReturn(Optional.of(promoCode));
+        when(promoCodeRepository.incrementUsage(eq(7), any())).thenReturn(1);
+        when(usageRepository.save(any(PromoCodeUsage.class))).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @Test
+    void slotsAreKeyedByTheE164Number() {
+        service.recordUsage(request("077 123 4567"));
+
+        verify(usageRepository).countForUpdate(7, NUMBER);
+        verify(usageRepository).save(argThat(u -> NUMBER.equals(u.getContactNumber()) && u.getUsageSlot() == 1));
+        verify(promoIndex).recordUsageAfterCommit("FLASH", 7, NUMBER);
+    }
+
+    @Test
+    void countsTheUsageBeforeClaimingTheSlot() {
+        when(usageRepository.countForUpdate(7, NUMBER)).thenReturn(1L);
+
+        service.recordUsage(request("+94 77 123 4567"));
+
+        InOrder order = inOrder(promoCodeRepository, usageRepository);
+        order.verify(promoCodeRepository).incrementUsage(7, new BigDecimal("50.00"));
+        order.verify(usageRepository).countForUpdate(7, NUMBER);
+        order.verify(usageRepository).save(argThat(u -> u.getUsageSlot() == 2));
+    }
+
+    @Test
+    void rejectsWhenEverySlotIsTaken() {
+        when(usageRepository.countForUpdate(7, NUMBER)).thenReturn(2L);
+
+        assertThatThrownBy(() -> service.recordUsage(request("0094771234567")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("maximum usage for this promo code");
+        verify(usageRepository, never()).save(any(PromoCodeUsage.class));
+        verify(promoIndex, never()).recordUsageAfterCommit(any(), any(), any());
+    }
+
+    @Test
+    void rejectsWhenTheOverallLimitIsReachedConcurrently() {
+        when(promoCodeRepository.incrementUsage(eq(7), any())).thenReturn(0);
+
+        assertThatThrownBy(() -> service.recordUsage(request(NUMBER)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("maximum usage limit");
+        verifyNoInteractions(usageRepository);
+        verify(promoIndex, never()).recordUsageAfterCommit(any(), any(), any());
+    }
+
+    @Test
+    void rejectsNumbersThatAreNotPhoneNumbers() {
+        assertThatThrownBy(() -> service.recordUsage(request("12345")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid contact number");
+        verifyNoInteractions(usageRepository);
+        verify(promoCodeRepository, never()).incrementUsage(anyInt(), any());
+    }
+
+    @Test
+    void unlimitedPromoSavesWithoutSlot() {
+        promoCode.setMaxUsagePerCustomer(0);
+
+        service.recordUsage(request("0771234567"));
+
+        verify(usageRepository).save(argThat(u -> NUMBER.equals(u.getContactNumber()) && u.getUsageSlot() == null));
+        verify(usageRepository, never()).countForUpdate(anyInt(), anyString());
+    }
+
+    private static PromoCodeUsageRequest request(String contactNumber) {
+        return PromoCodeUsageRequest.builder()
+                .promoCodeId(7)
+                .contactNumber(contactNumber)
+                .bookingId(500)
+                .discountApplied(new BigDecimal("50.00"))
+                .build();
+    }
+}
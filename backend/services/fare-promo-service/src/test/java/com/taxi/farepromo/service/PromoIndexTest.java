@@ -0,0 +1,128 @@
+package com.taxi.farepromo.service;
+
+import com.taxi.farepromo.dto.response.PromoCodeResponse;
+import com.taxi.farepromo.repository.PromoCodeUsageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class PromoIndexTest {
+
+    private static final LocalDateTime UPDATED = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    private final PromoCodeUsageRepository usageRepository = mock(PromoCodeUsageRepository.class);
+    private PromoIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PromoIndex(usageRepository);
+        ReflectionTestUtils.setField(index, "cacheSize", 2);
+        ReflectionTestUtils.setField(index, "cacheTtlSeconds", 60L);
+        ReflectionTestUtils.setField(index, "hireCountTtlSeconds", 60L);
+        index.init();
+        index.rebuild(List.of(promo(1, "FLASH", 10, 8, null), promo(2, "Rides", 0, 3, List.of(2, 5))),
+                fingerprint(2, UPDATED, 11));
+    }
+
+    @Test
+    void looksUpCodesCaseInsensitively() {
+        assertThat(index.get(" flash ").getPromo().getId()).isEqualTo(1);
+        assertThat(index.get("RIDES").appliesTo(5)).isTrue();
+        assertThat(index.get("RIDES").appliesTo(3)).isFalse();
+        assertThat(index.get("FLASH").appliesTo(3)).isTrue();
+        assertThat(index.get("NOPE")).isNull();
+    }
+
+    @Test
+    void localRedemptionsCountTowardsTheLimit() {
+        index.recordUsageAfterCommit("FLASH", 1, "+94771234567");
+        assertThat(index.get("FLASH").isUsedUp()).isFalse();
+        index.recordUsageAfterCommit("FLASH", 1, "+94771234567");
+        assertThat(index.get("FLASH").isUsedUp()).isTrue();
+        assertThat(index.get("RIDES").isUsedUp()).isFalse();
+    }
+
+    @Test
+    void usageOnlyChangeRefreshesEntriesWithoutRebuilding() {
+        PromoIndex.Entry flash = index.get("FLASH");
+        index.recordUsageAfterCommit("FLASH", 1, "+94771234567");
+        Object[] redeemed = fingerprint(2, UPDATED, 13);
+
+        assertThat(index.isCurrent(redeemed)).isFalse();
+        assertThat(index.promosChanged(redeemed)).isFalse();
+
+        // the local redemption is part of the 13, so it must not be counted twice
+        index.refreshUsage(List.<Object[]>of(new Object[] { 1, 9 }, new Object[] { 2, 4 }), redeemed);
+
+        assertThat(index.get("FLASH")).isSameAs(flash);
+        assertThat(index.isCurrent(redeemed)).isTrue();
+        assertThat(flash.isUsedUp()).isFalse();
+        index.recordUsageAfterCommit("FLASH", 1, "+94771234567");
+        assertThat(flash.isUsedUp()).isTrue();
+    }
+
+    @Test
+    void promoEditsNeedARebuild() {
+        Object[] edited = fingerprint(2, UPDATED.plusMinutes(1), 11);
+        assertThat(index.promosChanged(edited)).isTrue();
+        assertThat(index.promosChanged(fingerprint(3, UPDATED, 11))).isTrue();
+
+        index.refreshUsage(List.<Object[]>of(new Object[] { 1, 10 }), edited);
+
+        assertThat(index.get("FLASH").isUsedUp()).isFalse();
+        assertThat(index.isCurrent(fingerprint(2, UPDATED, 11))).isTrue();
+    }
+
+    @Test
+    void customerUsageIsCachedUntilARedemption() {
+        when(usageRepository.countByPromoCodeIdAndContactNumber(1, "+94771234567")).thenReturn(1L, 2L);
+
+        assertThat(index.customerUsage(1, "+94771234567")).isEqualTo(1);
+        assertThat(index.customerUsage(1, "+94771234567")).isEqualTo(1);
+        index.recordUsageAfterCommit("FLASH", 1, "+94771234567");
+        assertThat(index.customerUsage(1, "+94771234567")).isEqualTo(2);
+        verify(usageRepository, times(2)).countByPromoCodeIdAndContactNumber(1, "+94771234567");
+    }
+
+    @Test
+    void completedHiresAreCachedButFailuresAreNot() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> index.completedHires("+94771234567", number -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("booking-service down");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(index.completedHires("+94771234567", number -> calls.incrementAndGet() + 4)).isEqualTo(6);
+        assertThat(index.completedHires("+94771234567", number -> calls.incrementAndGet())).isEqualTo(6);
+        assertThat(calls).hasValue(2);
+
+        ReflectionTestUtils.setField(index, "hireCountTtlSeconds", 0L);
+        assertThat(index.completedHires("+94770000000", number -> 1)).isEqualTo(1);
+        assertThat(index.completedHires("+94770000000", number -> 2)).isEqualTo(2);
+    }
+
+    // ========== Helpers ==========
+
+    private static PromoCodeResponse promo(int id, String code, int maxUsage, int currentUsage,
+            List<Integer> vehicleClassIds) {
+        return PromoCodeResponse.builder()
+                .id(id)
+                .code(code)
+                .maxUsage(maxUsage)
+                .currentUsage(currentUsage)
+                .vehicleClassIds(vehicleClassIds)
+                .build();
+    }
+
+    private static Object[] fingerprint(long count, LocalDateTime lastUpdated, long usage) {
+        return new Object[] { count, lastUpdated, usage };
+    }
+}
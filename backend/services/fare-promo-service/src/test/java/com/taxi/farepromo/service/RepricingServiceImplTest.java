@@ -0,0 +1,268 @@
+package com.taxi.farepromo.service;
+
+import com.taxi.farepromo.client.BookingServiceClient;
+import com.taxi.farepromo.dto.request.RepricingRequest;
+import com.taxi.farepromo.dto.response.CompletedTripBatchResponse;
+import com.taxi.farepromo.dto.response.RepricingResponse;
+import com.taxi.farepromo.entity.FareSchemeVersion;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.function.IntUnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * Re-pricing totals must not depend on how the trips are split across pages
+ * and fork/join tasks: they are checked against a plain sequential sum.
+ */
+class RepricingServiceImplTest {
+
+    private static final int SEDAN = 5;
+    private static final int VAN = 9;
+    private static final int TRIPS = 3000;
+    private static final LocalDate START = LocalDate.of(2024, 6, 1);
+    private static final LocalDate END = LocalDate.of(2024, 6, 30);
+
+    private static final CompiledFare CURRENT_V1 = CompiledFare.compile(
+            scheme(1, 1, SEDAN, "100.00", "50.00").build());
+    private static final CompiledFare CURRENT_V2 = CompiledFare.compile(
+            scheme(1, 2, SEDAN, "110.00", "52.50")
+                    .nightStartTime(LocalTime.of(22, 0))
+                    .nightEndTime(LocalTime.of(5, 0))
+                    .nightRateHike(new BigDecimal("12.50"))
+                    .build());
+    private static final CompiledFare CANDIDATE = CompiledFare.compile(
+            scheme(2, 1, SEDAN, "120.00", "55.55")
+                    .freeWaitTime(3)
+                    .waitingChargePerMin(new BigDecimal("7.25"))
+                    .build());
+
+    private final BookingServiceClient bookingServiceClient = mock(BookingServiceClient.class);
+    private final FareEngine fareEngine = mock(FareEngine.class);
+    private final CompletedTripBatchResponse trips = trips(new Random(20240611L));
+    private final List<RepricingServiceImpl> services = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(fareEngine.getSnapshot()).thenReturn(new FareEngine.Snapshot(1, Map.of(1, CURRENT_V2, 2, CANDIDATE),
+                Set.of(1, 2), Map.of(), 2, LocalDateTime.now()));
+        when(fareEngine.getVersion(1, 1)).thenReturn(CURRENT_V1);
+        when(fareEngine.getVersion(1, 2)).thenReturn(CURRENT_V2);
+        when(bookingServiceClient.getCompletedTripFigures(any(), any(), anyInt(), anyInt()))
+                .thenAnswer(invocation -> page(invocation.getArgument(2), invocation.getArgument(3)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        services.forEach(RepricingServiceImpl::shutdown);
+    }
+
+    @Test
+    void totalsMatchASequentialSumWhateverTheSplit() {
+        Expected expected = expected();
+
+        for (int splitThreshold : new int[] { 1, 7, 64, 1024, Integer.MAX_VALUE }) {
+            RepricingResponse response = service(1000, splitThreshold, 4).reprice(request());
+
+            assertThat(response.getTripsRepriced()).isEqualTo(expected.all.trips);
+            assertThat(response.getTripsSkipped()).isEqualTo(expected.skipped);
+            assertGroup(response.getTotal(), expected.all);
+            assertGroups(response.getByVehicleClass(), expected.byVehicleClass, 0);
+            assertGroups(response.getByHourOfDay(), expected.byHour, -1);
+            assertGroups(response.getByCorporate(), expected.byCorporate, 0);
+        }
+    }
+
+    @Test
+    void pagesThroughTripsByBookingId() {
+        RepricingResponse response = service(1000, 64, 2).reprice(request());
+
+        // 3000 trips in pages of 1000: the last full page is followed by an empty one
+        verify(bookingServiceClient).getCompletedTripFigures(START, END, 0, 1000);
+        verify(bookingServiceClient).getCompletedTripFigures(START, END, 1000, 1000);
+        verify(bookingServiceClient).getCompletedTripFigures(START, END, 2000, 1000);
+        verify(bookingServiceClient).getCompletedTripFigures(START, END, 3000, 1000);
+        verifyNoMoreInteractions(bookingServiceClient);
+        assertThat(response.getTripsRepriced() + response.getTripsSkipped()).isEqualTo(TRIPS);
+    }
+
+    @Test
+    void looksUpEachSchemeVersionOncePerRun() {
+        service(500, 64, 4).reprice(request());
+
+        verify(fareEngine, times(1)).getVersion(1, 1);
+        verify(fareEngine, times(1)).getVersion(1, 2);
+    }
+
+    @Test
+    void rejectsBadRequests() {
+        RepricingServiceImpl service = service(1000, 64, 1);
+
+        assertThatThrownBy(() -> service.reprice(new RepricingRequest(END, START, List.of(2))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.reprice(new RepricingRequest(START, END, List.of(2, 1))))
+                .hasMessageContaining("More than one candidate");
+        assertThatThrownBy(() -> service.reprice(new RepricingRequest(START, END, List.of(3))))
+                .hasMessageContaining("not found");
+        verifyNoInteractions(bookingServiceClient);
+    }
+
+    // ==================== PRIVATE HELPER METHODS ====================
+
+    private RepricingServiceImpl service(int pageSize, int splitThreshold, int parallelism) {
+        RepricingServiceImpl service = new RepricingServiceImpl(bookingServiceClient, fareEngine);
+        ReflectionTestUtils.setField(service, "pageSize", pageSize);
+        ReflectionTestUtils.setField(service, "splitThreshold", splitThreshold);
+        ReflectionTestUtils.setField(service, "parallelism", parallelism);
+        service.init();
+        services.add(service);
+        return service;
+    }
+
+    private static RepricingRequest request() {
+        return new RepricingRequest(START, END, List.of(2));
+    }
+
+    /**
+     * Mixed trips: some in a class without a candidate, some without a scheme,
+     * some from before versioning and some without a start time
+     */
+    private static CompletedTripBatchResponse trips(Random random) {
+        CompletedTripBatchResponse trips = CompletedTripBatchResponse.builder()
+                .bookingIds(fill(i -> i + 1))
+                .vehicleClassIds(fill(i -> i % 10 == 0 ? VAN : SEDAN))
+                .corporateIds(fill(i -> random.nextInt(4)))
+                .fareSchemeIds(fill(i -> i % 25 == 0 ? 0 : 1))
+                .fareSchemeVersions(fill(i -> i % 3))
+                .durationMinutes(fill(i -> random.nextInt(180)))
+                .waitMinutes(fill(i -> random.nextInt(20)))
+                .startSecondOfDay(fill(i -> i % 7 == 0 ? -1 : random.nextInt(86_400)))
+                .distanceCentiKm(new long[TRIPS])
+                .fareCents(new long[TRIPS])
+                .build();
+        for (int i = 0; i < TRIPS; i++) {
+            trips.getDistanceCentiKm()[i] = random.nextInt(5000);
+            trips.getFareCents()[i] = 10_000 + random.nextInt(500_000);
+        }
+        return trips;
+    }
+
+    private static int[] fill(IntUnaryOperator value) {
+        int[] column = new int[TRIPS];
+        for (int i = 0; i < TRIPS; i++) {
+            column[i] = value.applyAsInt(i);
+        }
+        return column;
+    }
+
+    /**
+     * The trips after a booking id, as booking-service pages them
+     */
+    private CompletedTripBatchResponse page(int afterId, int limit) {
+        int from = afterId;
+        int to = Math.min(TRIPS, from + limit);
+        int n = to - from;
+        return CompletedTripBatchResponse.builder()
+                .bookingIds(Arrays.copyOfRange(trips.getBookingIds(), from, to))
+                .vehicleClassIds(Arrays.copyOfRange(trips.getVehicleClassIds(), from, to))
+                .corporateIds(Arrays.copyOfRange(trips.getCorporateIds(), from, to))
+                .fareSchemeIds(Arrays.copyOfRange(trips.getFareSchemeIds(), from, to))
+                .fareSchemeVersions(Arrays.copyOfRange(trips.getFareSchemeVersions(), from, to))
+                .distanceCentiKm(Arrays.copyOfRange(trips.getDistanceCentiKm(), from, to))
+                .durationMinutes(Arrays.copyOfRange(trips.getDurationMinutes(), from, to))
+                .waitMinutes(Arrays.copyOfRange(trips.getWaitMinutes(), from, to))
+                .startSecondOfDay(Arrays.copyOfRange(trips.getStartSecondOfDay(), from, to))
+                .fareCents(Arrays.copyOfRange(trips.getFareCents(), from, to))
+                .nextAfterId(n == limit ? to : null)
+                .build();
+    }
+
+    private Expected expected() {
+        Expected expected = new Expected();
+        for (int i = 0; i < TRIPS; i++) {
+            int version = trips.getFareSchemeVersions()[i];
+            CompiledFare current = trips.getFareSchemeIds()[i] == 0 ? null
+                    : version == 1 ? CURRENT_V1 : CURRENT_V2;
+            CompiledFare candidate = trips.getVehicleClassIds()[i] == SEDAN ? CANDIDATE : null;
+            if (current == null || candidate == null) {
+                expected.skipped++;
+                continue;
+            }
+            long distance = trips.getDistanceCentiKm()[i];
+            int duration = trips.getDurationMinutes()[i];
+            int wait = trips.getWaitMinutes()[i];
+            int start = trips.getStartSecondOfDay()[i];
+            long[] trip = { 1, trips.getFareCents()[i],
+                    CompiledFare.toCents(current.total(distance, duration, wait, start)),
+                    CompiledFare.toCents(candidate.total(distance, duration, wait, start)) };
+            expected.all.add(trip);
+            expected.byVehicleClass.computeIfAbsent(trips.getVehicleClassIds()[i], k -> new Sum()).add(trip);
+            expected.byHour.computeIfAbsent(start >= 0 ? start / 3600 : -1, k -> new Sum()).add(trip);
+            expected.byCorporate.computeIfAbsent(trips.getCorporateIds()[i], k -> new Sum()).add(trip);
+        }
+        return expected;
+    }
+
+    private static void assertGroups(List<RepricingResponse.Group> groups, Map<Integer, Sum> expected, int noKey) {
+        assertThat(groups).hasSameSizeAs(expected.keySet());
+        for (RepricingResponse.Group group : groups) {
+            assertGroup(group, expected.get(group.getKey() == null ? noKey : group.getKey()));
+        }
+    }
+
+    private static void assertGroup(RepricingResponse.Group group, Sum expected) {
+        assertThat(group.getTrips()).isEqualTo(expected.trips);
+        assertThat(group.getCharged()).isEqualByComparingTo(BigDecimal.valueOf(expected.chargedCents, 2));
+        assertThat(group.getCurrent()).isEqualByComparingTo(BigDecimal.valueOf(expected.currentCents, 2));
+        assertThat(group.getCandidate()).isEqualByComparingTo(BigDecimal.valueOf(expected.candidateCents, 2));
+        assertThat(group.getDelta()).isEqualByComparingTo(
+                BigDecimal.valueOf(expected.candidateCents - expected.currentCents, 2));
+    }
+
+    private static FareSchemeVersion.FareSchemeVersionBuilder scheme(int id, int version, int vehicleClassId,
+            String minimumRate, String ratePerKm) {
+        return FareSchemeVersion.builder()
+                .fareSchemeId(id)
+                .version(version)
+                .fareCode("TEST" + id)
+                .vehicleClassId(vehicleClassId)
+                .isPackage(false)
+                .minimumDistance(new BigDecimal("1.00"))
+                .minimumRate(new BigDecimal(minimumRate))
+                .ratePerKm(new BigDecimal(ratePerKm));
+    }
+
+    private static final class Expected {
+        final Sum all = new Sum();
+        final Map<Integer, Sum> byVehicleClass = new HashMap<>();
+        final Map<Integer, Sum> byHour = new HashMap<>();
+        final Map<Integer, Sum> byCorporate = new HashMap<>();
+        long skipped;
+    }
+
+    private static final class Sum {
+        long trips;
+        long chargedCents;
+        long currentCents;
+        long candidateCents;
+
+        void add(long[] trip) {
+            trips += trip[0];
+            chargedCents += trip[1];
+            currentCents += trip[2];
+            candidateCents += trip[3];
+        }
+    }
+}
@@ -1,13 +1,59 @@
 package com.taxi.report.config;
 
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import feign.Logger;
+import feign.RequestInterceptor;
+import feign.codec.Decoder;
+import feign.optionals.OptionalDecoder;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.HttpMessageConverterCustomizer;
+import org.springframework.cloud.openfeign.support.ResponseEntityDecoder;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
 
 @Configuration
 public class FeignConfig {
+
     @Bean
     Logger.Level feignLoggerLevel() {
         return Logger.Level.FULL;
     }
-}
\ No newline at end of file
+
+    /**
+     * Ask our own services for CBOR, falling back to JSON where a service
+     * has no CBOR converter. Request bodies stay JSON.
+     */
+    @Bean
+    public RequestInterceptor binaryAcceptInterceptor() {
+        return template -> {
+            if (!template.headers().containsKey(HttpHeaders.ACCEPT)) {
+                template.header(HttpHeaders.ACCEPT, "application/cbor", "application/json;q=0.9");
+            }
+        };
+    }
+
+    /**
+     * Default Feign decoder plus a CBOR converter; the response Content-Type picks the format
+     */
+    @Bean
+    public Decoder feignDecoder(ObjectFactory<HttpMessageConverters> messageConverters,
+            ObjectProvider<HttpMessageConverterCustomizer> customizers,
+            Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        List<HttpMessageConverter<?>> converters = new ArrayList<>(messageConverters.getObject().getConverters());
+        converters.add(new MappingJackson2CborHttpMessageConverter(
+                objectMapperBuilder.factory(new CBORFactory()).build()));
+        HttpMessageConverters withCbor = new HttpMessageConverters(false, converters);
+
+        return new OptionalDecoder(new ResponseEntityDecoder(new SpringDecoder(() -> withCbor, customizers)));
+    }
+}
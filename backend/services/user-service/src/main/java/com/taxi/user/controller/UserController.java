@@ -103,6 +103,16 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    /**
+     * GET /api/users/batch?ids=1,2,3
+     * Get users by IDs (unknown IDs are skipped)
+     */
+    @GetMapping("/batch")
+    public ResponseEntity<List<UserResponse>> getUsersByIds(@RequestParam List<Integer> ids) {
+        log.info("GET /api/users/batch - Fetching {} users", ids.size());
+        return ResponseEntity.ok(userService.getUsersByIds(ids));
+    }
+
     /**
      * GET /api/users/{id}
      * Get user by ID
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,6 +25,13 @@ public interface UserRepository extends JpaRepository<User, Integer> {
         @Query("SELECT u FROM User u")
         List<User> findAllOptimized();
 
+        /**
+         * Find users by IDs with roles (batch lookup for other services)
+         */
+        @EntityGraph(attributePaths = { "userRoles", "userRoles.role" })
+        @Query("SELECT u FROM User u WHERE u.id IN :ids")
+        List<User> findAllByIdOptimized(@Param("ids") Collection<Integer> ids);
+
         /**
          * Find user by username
          */
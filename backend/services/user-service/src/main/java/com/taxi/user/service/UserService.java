@@ -158,6 +158,21 @@ public class UserService {
         return convertToUserResponse(user);
     }
 
+    /**
+     * Get users by IDs
+     * Batch lookup so callers can resolve many names in one request
+     */
+    @Transactional(readOnly = true)
+    public List<UserResponse> getUsersByIds(List<Integer> ids) {
+        log.debug("Fetching {} users by id", ids.size());
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return userRepository.findAllByIdOptimized(ids).stream()
+                .map(this::convertToUserResponse)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Search users based on filter type
      * filterType: "phone" - searches by phone number only
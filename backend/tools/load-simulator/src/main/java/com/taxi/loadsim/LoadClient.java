@@ -0,0 +1,84 @@
+package com.taxi.loadsim;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.taxi.loadsim.metrics.LoadRecorder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Thin HTTP client that times every call and records it against an endpoint label
+ * Labels use the route template (e.g. "PUT /api/bookings/{id}/status") so that
+ * calls for different bookings aggregate into one histogram
+ */
+public class LoadClient {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper mapper;
+    private final String baseUrl;
+    private final LoadRecorder recorder;
+
+    public LoadClient(String baseUrl, LoadRecorder recorder) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.recorder = recorder;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.mapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    public JsonNode get(String label, String path) {
+        return send(label, HttpRequest.newBuilder(uri(path)).GET());
+    }
+
+    public JsonNode post(String label, String path, Object body) {
+        return send(label, HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(toJson(body))));
+    }
+
+    public JsonNode put(String label, String path) {
+        return send(label, HttpRequest.newBuilder(uri(path))
+                .PUT(HttpRequest.BodyPublishers.noBody()));
+    }
+
+    private JsonNode send(String label, HttpRequest.Builder builder) {
+        HttpRequest request = builder.timeout(Duration.ofSeconds(30)).build();
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            boolean success = response.statusCode() < 400;
+            recorder.record(label, System.nanoTime() - start, success);
+            if (!success || response.body().length == 0) {
+                return null;
+            }
+            return mapper.readTree(response.body());
+        } catch (IOException e) {
+            recorder.record(label, System.nanoTime() - start, false);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private byte[] toJson(Object body) {
+        try {
+            return mapper.writeValueAsBytes(body);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not serialise request body", e);
+        }
+    }
+}
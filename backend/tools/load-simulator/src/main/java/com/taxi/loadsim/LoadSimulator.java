@@ -0,0 +1,169 @@
+package com.taxi.loadsim;
+
+import com.taxi.loadsim.metrics.LoadRecorder;
+import com.taxi.loadsim.metrics.LoadReport;
+import com.taxi.loadsim.scenario.*;
+import com.taxi.loadsim.stub.StubDownstreamServer;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entry point of the load simulator.
+ *
+ * Starts the stub downstream server, drives a weighted mix of scripted traffic
+ * against a booking service running with the "loadtest" profile, and prints a
+ * per-endpoint throughput / latency report.
+ *
+ * Options (all optional):
+ * --target=http://localhost:8087   booking service base URL
+ * --stub-port=9099                 port for the stub downstreams
+ * --stub-latency-ms=2-8            artificial latency range for stub responses
+ * --workers=64                     concurrent virtual users
+ * --warmup=15                      warm-up seconds (not recorded)
+ * --duration=60                    measured seconds
+ * --think-ms=200                   mean pause between actions of one virtual user
+ * --mix=board:55,booking:20,driver:15,report:10
+ * --out=load-report.csv            CSV report to write
+ * --baseline=previous.csv          earlier CSV report to compare p99 against
+ */
+public class LoadSimulator {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+
+        String target = options.getOrDefault("target", "http://localhost:8087");
+        int stubPort = Integer.parseInt(options.getOrDefault("stub-port", "9099"));
+        String[] stubLatency = options.getOrDefault("stub-latency-ms", "2-8").split("-");
+        int workers = Integer.parseInt(options.getOrDefault("workers", "64"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "15"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration", "60"));
+        int thinkMillis = Integer.parseInt(options.getOrDefault("think-ms", "200"));
+        Path out = Path.of(options.getOrDefault("out", "load-report.csv"));
+
+        StubDownstreamServer stubs = new StubDownstreamServer(stubPort,
+                TimeUnit.MILLISECONDS.toMicros(Long.parseLong(stubLatency[0])),
+                TimeUnit.MILLISECONDS.toMicros(Long.parseLong(stubLatency[stubLatency.length - 1])));
+        stubs.start();
+        System.out.printf("Stub downstreams listening on port %d%n", stubPort);
+
+        try {
+            BookingPool pool = new BookingPool(10_000);
+            WeightedMix mix = WeightedMix.parse(
+                    options.getOrDefault("mix", "board:55,booking:20,driver:15,report:10"),
+                    Map.of(
+                            "board", new DispatcherBoardScenario(),
+                            "booking", new CallCenterBookingScenario(pool),
+                            "driver", new DriverLifecycleScenario(pool),
+                            "report", new ReportRefreshScenario()));
+
+            if (warmupSeconds > 0) {
+                System.out.printf("Warming up for %ds against %s%n", warmupSeconds, target);
+                runPhase(new LoadClient(target, new LoadRecorder()), mix, workers, warmupSeconds, thinkMillis);
+            }
+
+            System.out.printf("Measuring for %ds with %d workers%n", durationSeconds, workers);
+            LoadRecorder recorder = new LoadRecorder();
+            long start = System.nanoTime();
+            runPhase(new LoadClient(target, recorder), mix, workers, durationSeconds, thinkMillis);
+            double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+            LoadReport report = new LoadReport(recorder.snapshot(), elapsedSeconds);
+            Map<String, Double> baseline = options.containsKey("baseline")
+                    && Files.exists(Path.of(options.get("baseline")))
+                            ? LoadReport.readBaselineP99(Path.of(options.get("baseline")))
+                            : Map.of();
+            report.print(System.out, baseline);
+            report.writeCsv(out);
+            System.out.printf("Report written to %s%n", out.toAbsolutePath());
+        } finally {
+            stubs.stop();
+        }
+    }
+
+    private static void runPhase(LoadClient client, WeightedMix mix, int workers,
+            int seconds, int thinkMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < workers; i++) {
+                executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                        mix.pick(random).run(client, random);
+                        if (thinkMillis > 0) {
+                            try {
+                                // Exponential think time gives a Poisson-like arrival pattern
+                                long pause = (long) (-Math.log(1 - random.nextDouble()) * thinkMillis);
+                                Thread.sleep(Math.min(pause, thinkMillis * 10L));
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        }
+                    }
+                });
+            }
+            executor.shutdown();
+            executor.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+        }
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                int eq = arg.indexOf('=');
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return options;
+    }
+
+    /**
+     * Picks scenarios with probability proportional to their configured weight
+     */
+    static class WeightedMix {
+
+        private final List<Scenario> scenarios = new ArrayList<>();
+        private final List<Integer> cumulativeWeights = new ArrayList<>();
+        private int totalWeight;
+
+        static WeightedMix parse(String spec, Map<String, Scenario> available) {
+            WeightedMix mix = new WeightedMix();
+            for (String entry : spec.split(",")) {
+                String[] parts = entry.trim().split(":");
+                Scenario scenario = available.get(parts[0]);
+                if (scenario == null) {
+                    throw new IllegalArgumentException("Unknown scenario in mix: " + parts[0]);
+                }
+                int weight = Integer.parseInt(parts[1]);
+                if (weight > 0) {
+                    mix.totalWeight += weight;
+                    mix.scenarios.add(scenario);
+                    mix.cumulativeWeights.add(mix.totalWeight);
+                }
+            }
+            if (mix.totalWeight == 0) {
+                throw new IllegalArgumentException("Scenario mix has no positive weights: " + spec);
+            }
+            return mix;
+        }
+
+        Scenario pick(ThreadLocalRandom random) {
+            int roll = random.nextInt(totalWeight);
+            for (int i = 0; i < scenarios.size(); i++) {
+                if (roll < cumulativeWeights.get(i)) {
+                    return scenarios.get(i);
+                }
+            }
+            return scenarios.get(scenarios.size() - 1);
+        }
+    }
+}
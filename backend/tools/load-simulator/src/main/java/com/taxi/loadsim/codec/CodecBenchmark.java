@@ -0,0 +1,260 @@
+package com.taxi.loadsim.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.HdrHistogram.Histogram;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Compares JSON and CBOR for the payloads our services exchange over Feign:
+ * payload size plus encode and decode time (p50/p99 per document).
+ *
+ * Documents mirror the shape of BookingResponse, UserResponse, DriverResponse and
+ * VehicleClassResponse (wrapped in the { success, data } envelope where the real
+ * endpoint does), with dates written as ISO strings as Spring Boot serialises them.
+ * Decoding reads a JsonNode tree, which is what booking-service's UnwrappingDecoder does.
+ *
+ * Run with:
+ *   mvn -q compile exec:java -Dexec.mainClass=com.taxi.loadsim.codec.CodecBenchmark
+ *       -Dexec.args="--iterations=2000 --warmup=500 --bookings=500"
+ */
+public class CodecBenchmark {
+
+    private final ObjectMapper json;
+    private final ObjectMapper cbor;
+
+    public CodecBenchmark() {
+        this.json = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.cbor = new ObjectMapper(new CBORFactory()).findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        int iterations = Integer.parseInt(options.getOrDefault("iterations", "2000"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "500"));
+        int bookings = Integer.parseInt(options.getOrDefault("bookings", "500"));
+
+        CodecBenchmark benchmark = new CodecBenchmark();
+        Random random = new Random(42);
+
+        Map<String, Object> documents = new LinkedHashMap<>();
+        documents.put("BookingResponse x" + bookings + " (report board)", bookingList(bookings, random));
+        documents.put("UserResponse x200 (corporate getAllUsers)", envelope(userList(200)));
+        documents.put("DriverResponse x200 (getAllDrivers)", envelope(driverList(200)));
+        documents.put("VehicleClassResponse x8 (getAllVehicleClasses)", envelope(vehicleClassList(8)));
+
+        System.out.printf(Locale.ROOT, "%-48s %-5s %10s %12s %12s %12s %12s%n",
+                "DOCUMENT", "CODEC", "BYTES", "ENC p50 us", "ENC p99 us", "DEC p50 us", "DEC p99 us");
+        for (Map.Entry<String, Object> document : documents.entrySet()) {
+            benchmark.run(document.getKey(), "json", benchmark.json, document.getValue(), warmup, iterations);
+            benchmark.run(document.getKey(), "cbor", benchmark.cbor, document.getValue(), warmup, iterations);
+        }
+    }
+
+    private void run(String name, String codec, ObjectMapper mapper, Object document,
+            int warmup, int iterations) throws Exception {
+        Histogram encode = new Histogram(3);
+        Histogram decode = new Histogram(3);
+        byte[] bytes = mapper.writeValueAsBytes(document);
+
+        for (int i = 0; i < warmup + iterations; i++) {
+            long start = System.nanoTime();
+            bytes = mapper.writeValueAsBytes(document);
+            long encoded = System.nanoTime();
+            mapper.readTree(bytes);
+            long decoded = System.nanoTime();
+            if (i >= warmup) {
+                encode.recordValue(encoded - start);
+                decode.recordValue(decoded - encoded);
+            }
+        }
+
+        System.out.printf(Locale.ROOT, "%-48s %-5s %10d %12.1f %12.1f %12.1f %12.1f%n",
+                name, codec, bytes.length,
+                encode.getValueAtPercentile(50) / 1000.0, encode.getValueAtPercentile(99) / 1000.0,
+                decode.getValueAtPercentile(50) / 1000.0, decode.getValueAtPercentile(99) / 1000.0);
+    }
+
+    // ==================== SAMPLE DOCUMENTS ====================
+
+    private static Map<String, Object> envelope(Object data) {
+        Map<String, Object> envelope = new LinkedHashMap<>();
+        envelope.put("success", true);
+        envelope.put("message", "OK");
+        envelope.put("data", data);
+        return envelope;
+    }
+
+    private static List<Map<String, Object>> bookingList(int count, Random random) {
+        List<Map<String, Object>> bookings = new ArrayList<>(count);
+        LocalDateTime now = LocalDateTime.of(2024, 6, 1, 8, 0);
+        for (int id = 1; id <= count; id++) {
+            LocalDateTime bookingTime = now.plusMinutes(id * 3L);
+            Map<String, Object> b = new LinkedHashMap<>();
+            b.put("id", id);
+            b.put("bookingId", String.format("GEN%08d", id));
+            b.put("voucherNumber", id % 5 == 0 ? "V" + id : null);
+            b.put("costCenter", null);
+            b.put("customerName", "Customer " + id);
+            b.put("customerEmail", "customer" + id + "@example.com");
+            b.put("contactNumber", String.format("0771%06d", id));
+            b.put("passengerName", "Passenger " + id);
+            b.put("numberOfPassengers", 1 + random.nextInt(4));
+            b.put("corporateId", id % 4 == 0 ? id % 20 + 1 : null);
+            b.put("corporateName", id % 4 == 0 ? "Corporate " + (id % 20 + 1) : null);
+            b.put("corporateCode", id % 4 == 0 ? "CORP" + (id % 20 + 1) : null);
+            b.put("hireType", "ON_THE_METER");
+            b.put("vehicleClassId", id % 8 + 1);
+            b.put("vehicleClassName", "Class " + (id % 8 + 1));
+            b.put("vehicleClassCode", "C" + (id % 8 + 1));
+            b.put("fareSchemeId", 1);
+            b.put("fareSchemeName", "Standard");
+            b.put("fareSchemeCode", "STD");
+            b.put("paymentType", "CASH");
+            b.put("pickupAddress", id + " Galle Road, Colombo 03");
+            b.put("pickupLatitude", decimal(6.9 + random.nextDouble() / 10, 8));
+            b.put("pickupLongitude", decimal(79.8 + random.nextDouble() / 10, 8));
+            b.put("dropAddress", id + " Kandy Road, Kiribathgoda");
+            b.put("dropLatitude", decimal(6.9 + random.nextDouble() / 10, 8));
+            b.put("dropLongitude", decimal(79.8 + random.nextDouble() / 10, 8));
+            b.put("destination", "Kiribathgoda");
+            b.put("estimatedDistance", decimal(random.nextDouble() * 30, 2));
+            b.put("bookingTime", bookingTime);
+            b.put("pickupTime", bookingTime.plusMinutes(15));
+            b.put("scheduledTime", null);
+            b.put("isAdvanceBooking", false);
+            b.put("isTestBooking", false);
+            b.put("isInquiryOnly", false);
+            b.put("driverId", id % 200 + 1);
+            b.put("driverCode", "DRV" + (id % 200 + 1));
+            b.put("driverName", "Driver " + (id % 200 + 1));
+            b.put("driverPhone", String.format("0770%06d", id % 200 + 1));
+            b.put("vehicleId", id % 200 + 1);
+            b.put("vehicleCode", "VH" + (id % 200 + 1));
+            b.put("vehicleRegistrationNumber", String.format("CAB-%04d", id % 200 + 1));
+            b.put("dispatchedTime", bookingTime.plusMinutes(2));
+            b.put("dispatchedBy", id % 50 + 1);
+            b.put("dispatchedByName", "Agent " + (id % 50 + 1));
+            b.put("driverAcceptedTime", bookingTime.plusMinutes(3));
+            b.put("driverArrivedTime", bookingTime.plusMinutes(14));
+            b.put("startTime", bookingTime.plusMinutes(16));
+            b.put("completedTime", bookingTime.plusMinutes(45));
+            b.put("currentLocation", null);
+            b.put("currentLatitude", null);
+            b.put("currentLongitude", null);
+            b.put("eta", null);
+            b.put("startOdometer", decimal(10000 + random.nextDouble() * 50000, 2));
+            b.put("endOdometer", decimal(10000 + random.nextDouble() * 50000, 2));
+            b.put("totalDistance", decimal(random.nextDouble() * 30, 2));
+            b.put("totalWaitTime", random.nextInt(20));
+            b.put("billedWaitTime", random.nextInt(10));
+            b.put("totalWaitingFee", decimal(random.nextDouble() * 200, 2));
+            b.put("baseFare", decimal(100, 2));
+            b.put("distanceFare", decimal(random.nextDouble() * 3000, 2));
+            b.put("timeFare", decimal(random.nextDouble() * 300, 2));
+            b.put("surgeFee", decimal(0, 2));
+            b.put("discountAmount", decimal(0, 2));
+            b.put("promoCodeId", null);
+            b.put("promoCode", null);
+            b.put("totalFare", decimal(random.nextDouble() * 4000, 2));
+            b.put("luggage", null);
+            b.put("specialRemarks", "Call on arrival");
+            b.put("clientRemarks", null);
+            b.put("remarks", null);
+            b.put("percentage", decimal(10, 2));
+            b.put("sendClientSms", true);
+            b.put("status", "COMPLETED");
+            b.put("bookedBy", id % 50 + 1);
+            b.put("bookedByName", "Agent " + (id % 50 + 1));
+            b.put("appPlatform", null);
+            b.put("bookingSource", "CALL_CENTER");
+            b.put("customerRating", null);
+            b.put("customerFeedback", null);
+            b.put("driverRating", null);
+            b.put("driverFeedback", null);
+            b.put("createdAt", bookingTime);
+            b.put("updatedAt", bookingTime.plusMinutes(45));
+            bookings.add(b);
+        }
+        return bookings;
+    }
+
+    private static List<Map<String, Object>> userList(int count) {
+        List<Map<String, Object>> users = new ArrayList<>(count);
+        for (int id = 1; id <= count; id++) {
+            Map<String, Object> user = new LinkedHashMap<>();
+            user.put("id", id);
+            user.put("username", "user" + id);
+            user.put("firstName", "First" + id);
+            user.put("lastName", "Last" + id);
+            user.put("email", "user" + id + "@example.com");
+            user.put("phoneNumber", String.format("0772%06d", id));
+            user.put("isActive", true);
+            user.put("roles", List.of(id % 3 == 0 ? "CORPORATE" : "AGENT"));
+            user.put("createdAt", LocalDateTime.of(2024, 1, 1, 0, 0).plusDays(id));
+            user.put("updatedAt", LocalDateTime.of(2024, 6, 1, 0, 0).plusDays(id));
+            users.add(user);
+        }
+        return users;
+    }
+
+    private static List<Map<String, Object>> driverList(int count) {
+        List<Map<String, Object>> drivers = new ArrayList<>(count);
+        for (int id = 1; id <= count; id++) {
+            Map<String, Object> driver = new LinkedHashMap<>();
+            driver.put("id", id);
+            driver.put("code", "DRV" + id);
+            driver.put("firstName", "Driver");
+            driver.put("lastName", String.valueOf(id));
+            driver.put("contactNumber", String.format("0770%06d", id));
+            driver.put("nic", String.format("%09dV", id));
+            driver.put("licenseNumber", "B" + (1000000 + id));
+            driver.put("vehicleId", id);
+            driver.put("vehicleCode", "VH" + id);
+            driver.put("userId", id);
+            driver.put("isActive", true);
+            driver.put("isBlocked", false);
+            driver.put("createdAt", LocalDateTime.of(2024, 1, 1, 0, 0).plusDays(id));
+            drivers.add(driver);
+        }
+        return drivers;
+    }
+
+    private static List<Map<String, Object>> vehicleClassList(int count) {
+        List<Map<String, Object>> classes = new ArrayList<>(count);
+        for (int id = 1; id <= count; id++) {
+            Map<String, Object> vehicleClass = new LinkedHashMap<>();
+            vehicleClass.put("id", id);
+            vehicleClass.put("className", "Class " + id);
+            vehicleClass.put("classCode", "C" + id);
+            vehicleClass.put("noOfSeats", 4);
+            vehicleClass.put("luggageCapacity", 2);
+            vehicleClass.put("isActive", true);
+            vehicleClass.put("description", "Standard vehicle class " + id);
+            classes.add(vehicleClass);
+        }
+        return classes;
+    }
+
+    private static BigDecimal decimal(double value, int scale) {
+        return BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,27 @@
+package com.taxi.loadsim.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Collects per-endpoint statistics for the whole run
+ * Endpoints are keyed by a stable label such as "GET /api/bookings/pending"
+ */
+public class LoadRecorder {
+
+    private final ConcurrentMap<String, EndpointStats> stats = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, long elapsedNanos, boolean success) {
+        stats.computeIfAbsent(endpoint, EndpointStats::new)
+                .record(elapsedNanos, success);
+    }
+
+    public List<EndpointStats> snapshot() {
+        List<EndpointStats> result = new ArrayList<>(stats.values());
+        result.sort(Comparator.comparing(EndpointStats::getEndpoint));
+        return result;
+    }
+}
@@ -0,0 +1,79 @@
+package com.taxi.loadsim.metrics;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Renders the result of a run as a console table and a CSV file
+ * When a baseline CSV from an earlier run is supplied, p99 deltas are printed alongside
+ */
+public class LoadReport {
+
+    private static final String CSV_HEADER = "endpoint,count,errors,throughput_per_sec,p50_ms,p99_ms,p999_ms,max_ms";
+
+    private final List<EndpointStats> stats;
+    private final double durationSeconds;
+
+    public LoadReport(List<EndpointStats> stats, double durationSeconds) {
+        this.stats = stats;
+        this.durationSeconds = durationSeconds;
+    }
+
+    public void print(PrintStream out, Map<String, Double> baselineP99) {
+        out.printf(Locale.ROOT, "%-50s %8s %6s %9s %9s %9s %9s %10s%n",
+                "ENDPOINT", "COUNT", "ERR", "REQ/S", "P50 ms", "P99 ms", "P999 ms", "P99 DELTA");
+        for (EndpointStats s : stats) {
+            Double baseline = baselineP99.get(s.getEndpoint());
+            String delta = baseline != null && baseline > 0
+                    ? String.format(Locale.ROOT, "%+.1f%%", (s.percentileMillis(99.0) - baseline) / baseline * 100)
+                    : "-";
+            out.printf(Locale.ROOT, "%-50s %8d %6d %9.1f %9.2f %9.2f %9.2f %10s%n",
+                    s.getEndpoint(), s.getCount(), s.getErrors(), throughput(s),
+                    s.percentileMillis(50.0), s.percentileMillis(99.0), s.percentileMillis(99.9), delta);
+        }
+    }
+
+    public void writeCsv(Path file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add(CSV_HEADER);
+        for (EndpointStats s : stats) {
+            lines.add(String.format(Locale.ROOT, "\"%s\",%d,%d,%.2f,%.3f,%.3f,%.3f,%.3f",
+                    s.getEndpoint(), s.getCount(), s.getErrors(), throughput(s),
+                    s.percentileMillis(50.0), s.percentileMillis(99.0),
+                    s.percentileMillis(99.9), s.maxMillis()));
+        }
+        Files.write(file, lines);
+    }
+
+    /**
+     * Reads the p99 column of a CSV previously written by {@link #writeCsv(Path)}
+     */
+    public static Map<String, Double> readBaselineP99(Path file) throws IOException {
+        Map<String, Double> result = new HashMap<>();
+        List<String> lines = Files.readAllLines(file);
+        for (int i = 1; i < lines.size(); i++) {
+            String line = lines.get(i);
+            int closingQuote = line.indexOf('"', 1);
+            if (!line.startsWith("\"") || closingQuote < 0) {
+                continue;
+            }
+            String endpoint = line.substring(1, closingQuote);
+            String[] columns = line.substring(closingQuote + 2).split(",");
+            if (columns.length >= 5) {
+                result.put(endpoint, Double.parseDouble(columns[4]));
+            }
+        }
+        return result;
+    }
+
+    private double throughput(EndpointStats s) {
+        return durationSeconds > 0 ? s.getCount() / durationSeconds : 0;
+    }
+}
@@ -0,0 +1,35 @@
+package com.taxi.loadsim.scenario;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded hand-off of freshly created booking ids from the call-center
+ * scenario to the driver-app scenario
+ */
+public class BookingPool {
+
+    private final ConcurrentLinkedQueue<Integer> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int capacity;
+
+    public BookingPool(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public void offer(Integer bookingId) {
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            return;
+        }
+        pending.offer(bookingId);
+    }
+
+    public Integer poll() {
+        Integer bookingId = pending.poll();
+        if (bookingId != null) {
+            size.decrementAndGet();
+        }
+        return bookingId;
+    }
+}
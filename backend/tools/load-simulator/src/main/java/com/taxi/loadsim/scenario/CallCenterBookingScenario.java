@@ -0,0 +1,75 @@
+package com.taxi.loadsim.scenario;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.taxi.loadsim.LoadClient;
+import com.taxi.loadsim.stub.StubDownstreamServer;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A call-center agent taking a phone booking: look up the caller, then create the booking
+ * Created booking ids are handed to the driver scenario through the shared pool
+ */
+public class CallCenterBookingScenario implements Scenario {
+
+    private static final String[] ADDRESSES = {
+            "Bandaranaike International Airport",
+            "Colombo Fort Railway Station",
+            "Galle Face Hotel",
+            "World Trade Center, Colombo 01",
+            "Kandy City Centre",
+            "Mount Lavinia Hotel",
+            "Liberty Plaza, Kollupitiya",
+            "Nawaloka Hospital"
+    };
+
+    private final BookingPool pool;
+
+    public CallCenterBookingScenario(BookingPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public String name() {
+        return "call-center-booking";
+    }
+
+    @Override
+    public void run(LoadClient client, ThreadLocalRandom random) {
+        String phone = String.format("077%07d", random.nextInt(5_000));
+        client.get("GET /api/bookings?filterBy=phone", "/api/bookings?filterBy=phone&searchTerm=" + phone);
+
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("customerName", "Load Customer " + phone.substring(5));
+        request.put("contactNumber", phone);
+        request.put("numberOfPassengers", 1 + random.nextInt(3));
+        request.put("vehicleClassId", 1 + random.nextInt(StubDownstreamServer.VEHICLE_CLASS_COUNT));
+        request.put("fareSchemeId", 1);
+        request.put("paymentType", "CASH");
+        request.put("hireType", "ON_THE_METER");
+        request.put("pickupAddress", ADDRESSES[random.nextInt(ADDRESSES.length)]);
+        request.put("pickupLatitude", coordinate(6.85, 7.20, random));
+        request.put("pickupLongitude", coordinate(79.84, 80.00, random));
+        request.put("dropAddress", ADDRESSES[random.nextInt(ADDRESSES.length)]);
+        request.put("pickupTime", LocalDateTime.now().plusMinutes(10));
+        request.put("bookedBy", 1 + random.nextInt(StubDownstreamServer.USER_COUNT));
+        request.put("bookingSource", "CALL_CENTER");
+        if (random.nextInt(5) == 0) {
+            request.put("corporateId", 1 + random.nextInt(StubDownstreamServer.CORPORATE_COUNT));
+        }
+
+        JsonNode created = client.post("POST /api/bookings", "/api/bookings", request);
+        if (created != null && created.hasNonNull("id")) {
+            pool.offer(created.get("id").asInt());
+        }
+    }
+
+    private BigDecimal coordinate(double min, double max, ThreadLocalRandom random) {
+        return BigDecimal.valueOf(random.nextDouble(min, max)).setScale(6, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,31 @@
+package com.taxi.loadsim.scenario;
+
+import com.taxi.loadsim.LoadClient;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A dispatcher's screen refreshing its live status boards
+ */
+public class DispatcherBoardScenario implements Scenario {
+
+    private static final String[] BOARDS = {
+            "/api/bookings/pending",
+            "/api/bookings/app-pending",
+            "/api/bookings/dispatched",
+            "/api/bookings/enroute",
+            "/api/bookings/waiting-for-customer",
+            "/api/bookings/passenger-onboard"
+    };
+
+    @Override
+    public String name() {
+        return "dispatcher-board";
+    }
+
+    @Override
+    public void run(LoadClient client, ThreadLocalRandom random) {
+        String board = BOARDS[random.nextInt(BOARDS.length)];
+        client.get("GET " + board, board);
+    }
+}
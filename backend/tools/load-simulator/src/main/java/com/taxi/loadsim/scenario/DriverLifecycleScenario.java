@@ -0,0 +1,70 @@
+package com.taxi.loadsim.scenario;
+
+import com.taxi.loadsim.LoadClient;
+import com.taxi.loadsim.stub.StubDownstreamServer;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Takes one pending booking through dispatch and the driver-app status transitions,
+ * ending in completion or (occasionally) cancellation
+ */
+public class DriverLifecycleScenario implements Scenario {
+
+    private static final String STATUS_LABEL = "PUT /api/bookings/{id}/status";
+
+    private final BookingPool pool;
+
+    public DriverLifecycleScenario(BookingPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public String name() {
+        return "driver-lifecycle";
+    }
+
+    @Override
+    public void run(LoadClient client, ThreadLocalRandom random) {
+        Integer bookingId = pool.poll();
+        if (bookingId == null) {
+            return;
+        }
+        String base = "/api/bookings/" + bookingId;
+        int driverId = 1 + random.nextInt(StubDownstreamServer.DRIVER_COUNT);
+
+        Map<String, Object> dispatch = new LinkedHashMap<>();
+        dispatch.put("driverId", driverId);
+        dispatch.put("vehicleId", driverId);
+        dispatch.put("dispatchedBy", 1 + random.nextInt(StubDownstreamServer.USER_COUNT));
+        if (client.post("POST /api/bookings/{id}/dispatch", base + "/dispatch", dispatch) == null) {
+            return;
+        }
+
+        if (random.nextInt(10) == 0) {
+            Map<String, Object> cancel = new LinkedHashMap<>();
+            cancel.put("cancellationReason", "Customer no longer needs the ride");
+            cancel.put("cancelledType", "CUSTOMER_CANCELLED");
+            cancel.put("cancelledByType", "USER");
+            cancel.put("cancelledByUserId", 1 + random.nextInt(StubDownstreamServer.USER_COUNT));
+            client.post("POST /api/bookings/{id}/cancel", base + "/cancel", cancel);
+            return;
+        }
+
+        client.put(STATUS_LABEL, base + "/status?status=ENROUTE&changedByType=DRIVER&changedById=" + driverId);
+        client.put(STATUS_LABEL, base + "/status?status=WAITING_FOR_CUSTOMER&changedByType=DRIVER&changedById=" + driverId);
+        client.put(STATUS_LABEL, base + "/status?status=PASSENGER_ONBOARD&changedByType=DRIVER&changedById=" + driverId);
+
+        double distance = 2 + random.nextDouble(25);
+        Map<String, Object> complete = new LinkedHashMap<>();
+        complete.put("completedTime", LocalDateTime.now());
+        complete.put("totalDistance", Math.round(distance * 100) / 100.0);
+        complete.put("totalWaitTime", random.nextInt(15));
+        complete.put("billedWaitTime", random.nextInt(5));
+        complete.put("totalFare", Math.round((250 + distance * 120) * 100) / 100.0);
+        client.post("POST /api/bookings/{id}/complete", base + "/complete", complete);
+    }
+}
@@ -0,0 +1,28 @@
+package com.taxi.loadsim.scenario;
+
+import com.taxi.loadsim.LoadClient;
+
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A back-office user refreshing the completed/cancelled hire reports
+ */
+public class ReportRefreshScenario implements Scenario {
+
+    @Override
+    public String name() {
+        return "report-refresh";
+    }
+
+    @Override
+    public void run(LoadClient client, ThreadLocalRandom random) {
+        String range = "?startDate=" + LocalDate.now().minusDays(7) + "&endDate=" + LocalDate.now();
+        switch (random.nextInt(3)) {
+            case 0 -> client.get("GET /api/bookings/completed-hires", "/api/bookings/completed-hires" + range);
+            case 1 -> client.get("GET /api/bookings/completed-hires/summary",
+                    "/api/bookings/completed-hires/summary" + range);
+            default -> client.get("GET /api/bookings/cancelled-hires", "/api/bookings/cancelled-hires" + range);
+        }
+    }
+}
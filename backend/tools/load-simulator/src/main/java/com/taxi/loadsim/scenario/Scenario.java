@@ -0,0 +1,15 @@
+package com.taxi.loadsim.scenario;
+
+import com.taxi.loadsim.LoadClient;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One scripted user interaction, executed repeatedly by the load workers
+ */
+public interface Scenario {
+
+    String name();
+
+    void run(LoadClient client, ThreadLocalRandom random);
+}
@@ -0,0 +1,234 @@
+package com.taxi.loadsim.stub;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process stand-in for every downstream the booking service calls through Feign.
+ * Serves user, driver, vehicle, corporate, fare-promo and mail endpoints on one port,
+ * so SMTP, Twilio and Eureka are never touched during a load run.
+ *
+ * Responses use the same { success, data } envelope as the real services so that
+ * the booking service's UnwrappingDecoder is exercised as in production.
+ */
+public class StubDownstreamServer {
+
+    public static final int DRIVER_COUNT = 200;
+    public static final int VEHICLE_COUNT = 200;
+    public static final int VEHICLE_CLASS_COUNT = 8;
+    public static final int USER_COUNT = 50;
+    public static final int CORPORATE_COUNT = 20;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final int port;
+    private final long minLatencyMicros;
+    private final long maxLatencyMicros;
+    private HttpServer server;
+
+    /**
+     * @param port             port to listen on
+     * @param minLatencyMicros lower bound of the artificial latency added to each response
+     * @param maxLatencyMicros upper bound of the artificial latency added to each response
+     */
+    public StubDownstreamServer(int port, long minLatencyMicros, long maxLatencyMicros) {
+        this.port = port;
+        this.minLatencyMicros = minLatencyMicros;
+        this.maxLatencyMicros = Math.max(minLatencyMicros, maxLatencyMicros);
+    }
+
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 512);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/api/users/batch", exchange -> respond(exchange, batch(exchange, this::user)));
+        server.createContext("/api/users/", exchange -> respond(exchange, user(lastSegmentId(exchange))));
+        server.createContext("/api/drivers/batch", exchange -> respond(exchange, batch(exchange, this::driver)));
+        server.createContext("/api/drivers", exchange -> {
+            Integer id = lastSegmentId(exchange);
+            respond(exchange, id != null ? driver(id) : range(DRIVER_COUNT, this::driver));
+        });
+        server.createContext("/api/vehicle-classes", exchange -> {
+            Integer id = lastSegmentId(exchange);
+            respond(exchange, id != null ? vehicleClass(id) : range(VEHICLE_CLASS_COUNT, this::vehicleClass));
+        });
+        server.createContext("/api/vehicles", exchange -> {
+            Integer id = lastSegmentId(exchange);
+            respond(exchange, id != null ? vehicle(id) : range(VEHICLE_COUNT, this::vehicle));
+        });
+        server.createContext("/api/corporates", exchange -> {
+            Integer id = lastSegmentId(exchange);
+            respond(exchange, id != null ? corporate(id) : range(CORPORATE_COUNT, this::corporate));
+        });
+        server.createContext("/api/fare-schemes/", exchange -> respond(exchange, fareScheme(lastSegmentId(exchange))));
+        server.createContext("/api/promo-codes/", exchange -> respond(exchange, promoCode(lastSegmentId(exchange))));
+        server.createContext("/api/emails/send", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            Map<String, Object> email = new LinkedHashMap<>();
+            email.put("success", true);
+            email.put("message", "Stubbed");
+            email.put("emailLogId", 1);
+            respond(exchange, email);
+        });
+        server.start();
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    // ==================== CANNED ENTITIES ====================
+
+    private Map<String, Object> user(Integer id) {
+        Map<String, Object> user = new LinkedHashMap<>();
+        user.put("id", id);
+        user.put("username", "agent" + id);
+        user.put("firstName", "Agent");
+        user.put("lastName", String.valueOf(id));
+        user.put("email", "agent" + id + "@loadtest.local");
+        return user;
+    }
+
+    private Map<String, Object> driver(Integer id) {
+        Map<String, Object> driver = new LinkedHashMap<>();
+        driver.put("id", id);
+        driver.put("code", "DRV" + id);
+        driver.put("firstName", "Driver");
+        driver.put("lastName", String.valueOf(id));
+        driver.put("contactNumber", String.format("0770%06d", id));
+        driver.put("vehicleId", id);
+        driver.put("vehicleCode", "VH" + id);
+        driver.put("userId", id);
+        driver.put("isActive", true);
+        driver.put("isBlocked", false);
+        return driver;
+    }
+
+    private Map<String, Object> vehicleClass(Integer id) {
+        Map<String, Object> vehicleClass = new LinkedHashMap<>();
+        vehicleClass.put("id", id);
+        vehicleClass.put("className", id == 8 ? "Tuk" : "Class " + id);
+        vehicleClass.put("classCode", id == 8 ? "TUK" : "C" + id);
+        vehicleClass.put("noOfSeats", 4);
+        return vehicleClass;
+    }
+
+    private Map<String, Object> vehicle(Integer id) {
+        Map<String, Object> vehicle = new LinkedHashMap<>();
+        vehicle.put("id", id);
+        vehicle.put("vehicleCode", "VH" + id);
+        vehicle.put("registrationNumber", String.format("CAB-%04d", id));
+        vehicle.put("classId", (id % VEHICLE_CLASS_COUNT) + 1);
+        vehicle.put("className", "Class " + ((id % VEHICLE_CLASS_COUNT) + 1));
+        return vehicle;
+    }
+
+    private Map<String, Object> corporate(Integer id) {
+        Map<String, Object> corporate = new LinkedHashMap<>();
+        corporate.put("id", id);
+        corporate.put("name", "Corporate " + id);
+        corporate.put("code", "CORP" + id);
+        corporate.put("phone", "0112000000");
+        return corporate;
+    }
+
+    private Map<String, Object> fareScheme(Integer id) {
+        Map<String, Object> fareScheme = new LinkedHashMap<>();
+        fareScheme.put("id", id);
+        fareScheme.put("fareCode", "FARE" + id);
+        fareScheme.put("fareName", "Fare " + id);
+        fareScheme.put("minimumRate", 250);
+        fareScheme.put("ratePerKm", 120);
+        fareScheme.put("waitingChargePerMin", 5);
+        return fareScheme;
+    }
+
+    private Map<String, Object> promoCode(Integer id) {
+        Map<String, Object> promoCode = new LinkedHashMap<>();
+        promoCode.put("id", id);
+        promoCode.put("code", "PROMO" + id);
+        promoCode.put("discountType", "PERCENTAGE");
+        promoCode.put("discountValue", 10);
+        promoCode.put("maxDiscountAmount", 500);
+        return promoCode;
+    }
+
+    private List<Map<String, Object>> range(int count, java.util.function.Function<Integer, Map<String, Object>> factory) {
+        List<Map<String, Object>> items = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            items.add(factory.apply(i));
+        }
+        return items;
+    }
+
+    private List<Map<String, Object>> batch(HttpExchange exchange, java.util.function.Function<Integer, Map<String, Object>> factory) {
+        List<Map<String, Object>> items = new ArrayList<>();
+        String query = exchange.getRequestURI().getQuery();
+        if (query == null) {
+            return items;
+        }
+        // Feign sends ?ids=1&ids=2; a comma-separated value is accepted too
+        for (String param : query.split("&")) {
+            if (!param.startsWith("ids=")) {
+                continue;
+            }
+            for (String id : param.substring(4).split(",")) {
+                try {
+                    items.add(factory.apply(Integer.valueOf(id.trim())));
+                } catch (NumberFormatException ignored) {
+                    // skip malformed ids
+                }
+            }
+        }
+        return items;
+    }
+
+    // ==================== HTTP PLUMBING ====================
+
+    private Integer lastSegmentId(HttpExchange exchange) {
+        String path = exchange.getRequestURI().getPath();
+        String last = path.substring(path.lastIndexOf('/') + 1);
+        try {
+            return Integer.valueOf(last);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void respond(HttpExchange exchange, Object data) throws IOException {
+        simulateLatency();
+        Map<String, Object> envelope = new LinkedHashMap<>();
+        envelope.put("success", true);
+        envelope.put("data", data);
+        byte[] body = mapper.writeValueAsBytes(envelope);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private void simulateLatency() {
+        if (maxLatencyMicros <= 0) {
+            return;
+        }
+        long micros = ThreadLocalRandom.current().nextLong(minLatencyMicros, maxLatencyMicros + 1);
+        try {
+            TimeUnit.MICROSECONDS.sleep(micros);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}